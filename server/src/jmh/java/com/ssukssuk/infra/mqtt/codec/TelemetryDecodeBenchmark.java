@@ -0,0 +1,119 @@
+package com.ssukssuk.infra.mqtt.codec;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
+import com.ssukssuk.infra.mqtt.dto.SensorUplinkMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * 센서 업링크 디코딩 경로 비교.
+ * - legacy   : byte[] → String → readTree(JsonNode) → treeToValue (status HashMap)
+ * - singlePass: byte[] → 캐시된 ObjectReader → SensorUplinkMessage (status 고정 필드)
+ * - cbor / cborDeflate: 같은 메시지를 CBOR(+deflate) 로 인코딩한 payload 디코딩
+ *
+ * 메시지당 할당량은 gc 프로파일러의 gc.alloc.rate.norm 으로 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TelemetryDecodeBenchmark {
+
+    private static final String TOPIC = "devices/SN-0001/telemetry/sensors";
+
+    private static final String PAYLOAD = """
+            {"msg_id":"6f1c2a8e-1d3b-4c55-9a0e-2b7c9f6d1e42","sent_at":"2026-01-20T09:30:00+09:00",
+             "serial_num":"SN-0001","plant_id":42,"type":"SENSOR","event_kind":"PERIODIC",
+             "trigger_sensor_type":null,
+             "values":{"temperature":23.4,"humidity":55.1,"water_level":71.0,"nutrient_conc":1.42},
+             "status":{"temperature":"OK","humidity":"OK","water_level":"OK","nutrient_conc":"UP"}}
+            """;
+
+    private ObjectMapper objectMapper;
+    private TelemetryDecoder decoder;
+    private byte[] payload;
+    private byte[] cborPayload;
+    private byte[] cborDeflatePayload;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        decoder = new TelemetryDecoder(objectMapper, 262_144);
+        payload = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+
+        Object tree = objectMapper.readValue(payload, Object.class);
+        cborPayload = objectMapper.copyWith(new CBORFactory()).writeValueAsBytes(tree);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+            deflater.write(cborPayload);
+        }
+        cborDeflatePayload = out.toByteArray();
+
+        System.out.printf("%npayload bytes: json=%d, cbor=%d, cbor-deflate=%d%n",
+                payload.length, cborPayload.length, cborDeflatePayload.length);
+    }
+
+    @Benchmark
+    public LegacySensorUplinkMessage legacy() throws Exception {
+        String text = new String(payload, StandardCharsets.UTF_8);
+        JsonNode tree = objectMapper.readTree(text);
+        return objectMapper.treeToValue(tree, LegacySensorUplinkMessage.class);
+    }
+
+    @Benchmark
+    public SensorUplinkMessage singlePass() throws Exception {
+        MqttEnvelope envelope = MqttEnvelope.builder()
+                .topicRaw(TOPIC)
+                .payload(payload)
+                .build();
+        return decoder.decode(envelope, SensorUplinkMessage.class);
+    }
+
+    @Benchmark
+    public SensorUplinkMessage cbor() throws Exception {
+        MqttEnvelope envelope = MqttEnvelope.builder()
+                .topicRaw(TOPIC + "/cbor")
+                .format(PayloadFormat.CBOR)
+                .payload(cborPayload)
+                .build();
+        return decoder.decode(envelope, SensorUplinkMessage.class);
+    }
+
+    @Benchmark
+    public SensorUplinkMessage cborDeflate() throws Exception {
+        MqttEnvelope envelope = MqttEnvelope.builder()
+                .topicRaw(TOPIC + "/cbor-deflate")
+                .format(PayloadFormat.CBOR_DEFLATE)
+                .payload(cborDeflatePayload)
+                .build();
+        return decoder.decode(envelope, SensorUplinkMessage.class);
+    }
+
+    /** 변경 전 DTO 형태 (status 를 Map 으로 보관) */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class LegacySensorUplinkMessage {
+        @JsonProperty("msg_id") public String msgId;
+        @JsonProperty("sent_at") public String sentAt;
+        @JsonProperty("serial_num") public String serialNum;
+        @JsonProperty("plant_id") public Long plantId;
+        public String type;
+        @JsonProperty("event_kind") public SensorUplinkMessage.EventKind eventKind;
+        @JsonProperty("trigger_sensor_type") public SensorUplinkMessage.TriggerSensorType triggerSensorType;
+        public SensorUplinkMessage.Values values;
+        public Map<String, SensorUplinkMessage.SensorStatus> status;
+    }
+}
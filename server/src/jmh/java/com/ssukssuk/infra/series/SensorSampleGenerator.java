@@ -0,0 +1,46 @@
+package com.ssukssuk.infra.series;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * 벤치마크용 측정값: 1분 주기 (±300ms 흔들림), 소수 자리로 천천히 변하는 값, 가끔 바뀌는 status.
+ */
+public final class SensorSampleGenerator {
+
+    public static final long INTERVAL_MS = 60_000;
+    public static final long START_MILLIS = SensorSample.toMillis(LocalDateTime.of(2026, 1, 1, 0, 0));
+
+    private final SplittableRandom random;
+    private final long[] nextTs;
+    private final float[][] values;
+
+    public SensorSampleGenerator(int plants, long seed) {
+        this.random = new SplittableRandom(seed);
+        this.nextTs = new long[plants];
+        this.values = new float[plants][];
+        for (int i = 0; i < plants; i++) {
+            nextTs[i] = START_MILLIS;
+            values[i] = new float[]{23.0f, 55.0f, 70.0f, 1.4f};
+        }
+    }
+
+    public SensorSample next(int plant) {
+        long ts = nextTs[plant] + random.nextInt(-300, 301);
+        nextTs[plant] += INTERVAL_MS;
+        float[] v = values[plant];
+        v[0] = walk(v[0], 0.1f);
+        v[1] = walk(v[1], 0.5f);
+        v[2] = walk(v[2], 0.1f);
+        v[3] = walk(v[3], 0.01f);
+        byte status = (byte) (random.nextInt(100) == 0 ? 0b01_01_01_10 : 0b01_01_01_01);
+        return new SensorSample(ts, v[0], v[1], v[2], v[3], status);
+    }
+
+    private float walk(float v, float step) {
+        int r = random.nextInt(10);
+        if (r == 0) v -= step;
+        else if (r == 9) v += step;
+        return Math.round(v / step) * step;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ssukssuk.infra.series;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 세그먼트 저장소 append / 구간 스캔 처리량.
+ * - append  : 식물 1,000개에 돌아가며 기록 (블록이 차면 파일에 붙이는 비용 포함)
+ * - scanDay : 한 식물 하루치 (1분 주기 1,440건) 구간 스캔
+ * - scanWeek: 7일치 구간 스캔
+ *
+ * MySQL 기준값은 같은 데이터로 com.ssukssuk.service.history.SensorLogMysqlBenchmark 에서 잰다.
+ * 저장 크기(측정값당 바이트)는 Trial 이 끝날 때 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SensorSeriesBenchmark {
+
+    private static final int PLANTS = 1_000;
+    private static final int SCAN_DAYS = 7;
+    private static final long SCAN_PLANT = 1L;
+
+    private Path dir;
+    private SegmentSensorSeriesStore appendStore;
+    private SegmentSensorSeriesStore scanStore;
+    private SensorSampleGenerator appendGen;
+    private long scanStart;
+    private long appended;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("series-bench");
+        appendStore = new SegmentSensorSeriesStore(new SimpleMeterRegistry(),
+                dir.resolve("append").toString(), 1024, Long.MAX_VALUE, 0);
+        scanStore = new SegmentSensorSeriesStore(new SimpleMeterRegistry(),
+                dir.resolve("scan").toString(), 1024, Long.MAX_VALUE, 0);
+        appendGen = new SensorSampleGenerator(PLANTS, 1);
+
+        // 스캔용: 한 식물 7일치
+        SensorSampleGenerator scanGen = new SensorSampleGenerator(1, 2);
+        scanStart = SensorSampleGenerator.START_MILLIS;
+        int total = (int) (SCAN_DAYS * 86_400_000L / SensorSampleGenerator.INTERVAL_MS);
+        for (int i = 0; i < total; i++) {
+            scanStore.append(SCAN_PLANT, scanGen.next(0));
+        }
+        scanStore.shutdown();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        appendStore.shutdown();
+        long bytes = sizeOf(dir.resolve("append"));
+        if (appended > 0) {
+            System.out.printf("%n[series] appended=%d, bytes=%d, bytes/sample=%.2f%n",
+                    appended, bytes, (double) bytes / appended);
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        int plant = (int) (appended++ % PLANTS);
+        appendStore.append(plant, appendGen.next(plant));
+    }
+
+    @Benchmark
+    public void scanDay(Blackhole bh) {
+        scanStore.scan(SCAN_PLANT, scanStart + 86_400_000L, scanStart + 2 * 86_400_000L,
+                (ts, t, h, w, n, st) -> bh.consume(t));
+    }
+
+    @Benchmark
+    public void scanWeek(Blackhole bh) {
+        scanStore.scan(SCAN_PLANT, scanStart, scanStart + SCAN_DAYS * 86_400_000L,
+                (ts, t, h, w, n, st) -> bh.consume(t));
+    }
+
+    private static long sizeOf(Path p) throws IOException {
+        try (Stream<Path> files = Files.walk(p)) {
+            return files.filter(Files::isRegularFile).mapToLong(f -> f.toFile().length()).sum();
+        }
+    }
+}
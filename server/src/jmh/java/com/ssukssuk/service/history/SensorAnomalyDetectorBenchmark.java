@@ -0,0 +1,92 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.infra.series.SensorSample;
+import com.ssukssuk.infra.series.SensorSampleGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업링크 한 건당 서버 측 이상 감지(온도+습도 observe 2회) 비용.
+ * - baseline : 측정값만 읽음 (감지기 없이)
+ * - observe  : 식물 10,000개에 돌아가며 observe (기준선 갱신 + 판정)
+ * - observe4 : 4스레드가 같은 감지기 사용 (모두 같은 순서로 돌므로 식물별 잠금 경합의 최악값)
+ *
+ * 측정값은 Setup 에서 미리 만들어 두어 생성 비용은 빠진다.
+ * DB INSERT 한 번(수백 µs)과 비교해 무시할 수준인지 보는 용도.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SensorAnomalyDetectorBenchmark {
+
+    private static final int PLANTS = 10_000;
+    private static final int ROUNDS = 100;
+    private static final int SIZE = PLANTS * ROUNDS;
+
+    private static final float TEMP_MIN = 18f;
+    private static final float TEMP_MAX = 28f;
+    private static final float HUM_MIN = 40f;
+    private static final float HUM_MAX = 70f;
+
+    private SensorAnomalyDetector detector;
+    private float[] temperature;
+    private float[] humidity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        detector = new SensorAnomalyDetector(new SimpleMeterRegistry(),
+                true, 0.05, 30, 4.0, 2.0, 60, 0.5, 2.0, "");
+        SensorSampleGenerator gen = new SensorSampleGenerator(PLANTS, 3);
+        temperature = new float[SIZE];
+        humidity = new float[SIZE];
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int p = 0; p < PLANTS; p++) {
+                SensorSample s = gen.next(p);
+                temperature[r * PLANTS + p] = s.temperature();
+                humidity[r * PLANTS + p] = s.humidity();
+            }
+        }
+        // 기준선 워밍업 (실제 운영처럼 이미 기준선이 있는 상태에서 잰다)
+        for (int i = 0; i < SIZE; i++) {
+            detect(i);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i;
+
+        int next() {
+            int v = i;
+            i = (i + 1) % SIZE;
+            return v;
+        }
+    }
+
+    @Benchmark
+    public void baseline(Cursor c, Blackhole bh) {
+        int i = c.next();
+        bh.consume(temperature[i]);
+        bh.consume(humidity[i]);
+    }
+
+    @Benchmark
+    public int observe(Cursor c) {
+        return detect(c.next());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int observe4(Cursor c) {
+        return detect(c.next());
+    }
+
+    private int detect(int i) {
+        long plantId = i % PLANTS;
+        return detector.observe(plantId, SensorAnomalyDetector.TEMPERATURE, temperature[i], TEMP_MIN, TEMP_MAX)
+                | detector.observe(plantId, SensorAnomalyDetector.HUMIDITY, humidity[i], HUM_MIN, HUM_MAX);
+    }
+}
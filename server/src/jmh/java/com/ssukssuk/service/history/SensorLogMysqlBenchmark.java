@@ -0,0 +1,147 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.infra.series.SensorSample;
+import com.ssukssuk.infra.series.SensorSampleGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SensorSeriesBenchmark 의 MySQL(sensor_log) 기준값. 같은 측정값 생성기를 쓴다.
+ * - append  : write-behind 와 같은 INSERT 배치 (batch-size 500, rewriteBatchedStatements)
+ * - scanDay / scanWeek : MysqlSensorSeriesStore 와 같은 구간 SELECT (스트리밍)
+ *
+ * 실제 DB 가 필요하다. 별도 스키마를 쓸 것 (sensor_log 를 만들고 지운다).
+ *   ./gradlew jmh -PjmhIncludes=SensorLogMysqlBenchmark
+ *       -Djmh.mysql.url=jdbc:mysql://localhost:3306/ssukssuk_bench -Djmh.mysql.user=... -Djmh.mysql.password=...
+ * (jmh 플러그인이 포크 JVM 에 넘기도록 jvmArgsAppend 로 지정해도 된다)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SensorLogMysqlBenchmark {
+
+    private static final int PLANTS = 1_000;
+    private static final int BATCH = 500;
+    private static final int SCAN_DAYS = 7;
+    private static final long SCAN_PLANT = 1L;
+    private static final long DAY_MS = 86_400_000L;
+
+    private Connection con;
+    private PreparedStatement insert;
+    private SensorSampleGenerator appendGen;
+    private long appended;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getProperty("jmh.mysql.url");
+        if (url == null) {
+            throw new IllegalStateException("-Djmh.mysql.url 이 필요합니다 (MySQL 기준값 벤치마크)");
+        }
+        if (!url.contains("rewriteBatchedStatements")) {
+            url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+        }
+        con = DriverManager.getConnection(url,
+                System.getProperty("jmh.mysql.user", "root"), System.getProperty("jmh.mysql.password", ""));
+        try (Statement st = con.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS sensor_log");
+            st.execute("""
+                    CREATE TABLE sensor_log (
+                        sensor_log_id BIGINT NOT NULL AUTO_INCREMENT,
+                        plant_id BIGINT NOT NULL,
+                        measured_at DATETIME(6) NOT NULL,
+                        temperature FLOAT, humidity FLOAT, water_level FLOAT, nutrient_conc FLOAT,
+                        temperature_status VARCHAR(10), humidity_status VARCHAR(10),
+                        water_level_status VARCHAR(10), nutrient_conc_status VARCHAR(10),
+                        received_at DATETIME(6),
+                        PRIMARY KEY (sensor_log_id),
+                        KEY idx_sensor_log_plant_measured (plant_id, measured_at)
+                    )
+                    """);
+        }
+        insert = con.prepareStatement(SensorLogWriteBehind.INSERT_SQL);
+        appendGen = new SensorSampleGenerator(PLANTS, 1);
+
+        SensorSampleGenerator scanGen = new SensorSampleGenerator(1, 2);
+        int total = (int) (SCAN_DAYS * DAY_MS / SensorSampleGenerator.INTERVAL_MS);
+        for (int i = 0; i < total; i++) {
+            bind(insert, SCAN_PLANT, scanGen.next(0));
+            insert.addBatch();
+            if ((i + 1) % BATCH == 0) insert.executeBatch();
+        }
+        insert.executeBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS sensor_log");
+        }
+        con.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void append() throws SQLException {
+        for (int i = 0; i < BATCH; i++) {
+            // 스캔 대상 식물과 겹치지 않게 2번부터
+            int plant = (int) (appended++ % PLANTS);
+            bind(insert, plant + 2L, appendGen.next(plant));
+            insert.addBatch();
+        }
+        insert.executeBatch();
+    }
+
+    @Benchmark
+    public void scanDay(Blackhole bh) throws SQLException {
+        long start = SensorSampleGenerator.START_MILLIS + DAY_MS;
+        scan(start, start + DAY_MS, bh);
+    }
+
+    @Benchmark
+    public void scanWeek(Blackhole bh) throws SQLException {
+        long start = SensorSampleGenerator.START_MILLIS;
+        scan(start, start + SCAN_DAYS * DAY_MS, bh);
+    }
+
+    private void scan(long from, long to, Blackhole bh) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(MysqlSensorSeriesStore.SCAN_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setLong(1, SCAN_PLANT);
+            ps.setTimestamp(2, Timestamp.valueOf(SensorSample.toLocal(from)));
+            ps.setTimestamp(3, Timestamp.valueOf(SensorSample.toLocal(to)));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    bh.consume(rs.getTimestamp(1));
+                    bh.consume(rs.getFloat(2));
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, long plantId, SensorSample s) throws SQLException {
+        ps.setLong(1, plantId);
+        ps.setTimestamp(2, Timestamp.valueOf(s.measuredAtLocal()));
+        ps.setFloat(3, s.temperature());
+        ps.setFloat(4, s.humidity());
+        ps.setFloat(5, s.waterLevel());
+        ps.setFloat(6, s.nutrientConc());
+        for (int i = 0; i < 4; i++) {
+            var status = s.statusOf(i);
+            if (status != null) ps.setString(7 + i, status.name());
+            else ps.setNull(7 + i, Types.VARCHAR);
+        }
+        ps.setTimestamp(11, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
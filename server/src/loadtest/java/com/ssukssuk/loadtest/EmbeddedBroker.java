@@ -0,0 +1,38 @@
+package com.ssukssuk.loadtest;
+
+import io.moquette.BrokerConstants;
+import io.moquette.broker.Server;
+import io.moquette.broker.config.IConfig;
+import io.moquette.broker.config.MemoryConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Properties;
+
+/**
+ * 로컬에 Mosquitto 가 없을 때 쓰는 인메모리 MQTT 브로커 (Moquette).
+ * 서버도 이 브로커(mqtt.broker-uri=tcp://localhost:{port})에 붙여야 하며,
+ * 공유 구독은 검증하지 않았으므로 mqtt.inbound.shared-group 없이 띄운다.
+ */
+final class EmbeddedBroker implements AutoCloseable {
+
+    private final Server server = new Server();
+
+    EmbeddedBroker(int port) throws IOException {
+        Properties props = new Properties();
+        props.setProperty(IConfig.HOST_PROPERTY_NAME, "0.0.0.0");
+        props.setProperty(IConfig.PORT_PROPERTY_NAME, String.valueOf(port));
+        props.setProperty(IConfig.WEB_SOCKET_PORT_PROPERTY_NAME, BrokerConstants.DISABLED_PORT_BIND);
+        props.setProperty(IConfig.ALLOW_ANONYMOUS_PROPERTY_NAME, "true");
+        props.setProperty(IConfig.PERSISTENCE_ENABLED_PROPERTY_NAME, "false");
+        props.setProperty(IConfig.DATA_PATH_PROPERTY_NAME,
+                Files.createTempDirectory("loadtest-broker").toString());
+        props.setProperty(IConfig.NETTY_MAX_BYTES_PROPERTY_NAME, String.valueOf(256 * 1024));
+        server.startServer(new MemoryConfig(props));
+    }
+
+    @Override
+    public void close() {
+        server.stopServer();
+    }
+}
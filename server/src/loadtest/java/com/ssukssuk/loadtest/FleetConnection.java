@@ -0,0 +1,113 @@
+package com.ssukssuk.loadtest;
+
+import org.HdrHistogram.Recorder;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 가상 디바이스 여러 대가 나눠 쓰는 MQTT 연결 1개.
+ * 지연은 "보내려던 시각" 부터 PUBACK 까지로 잰다 (생성기가 밀려도 지연이 작게 찍히지 않도록).
+ */
+final class FleetConnection implements AutoCloseable {
+
+    private final MqttAsyncClient client;
+    private final int qos;
+    private final Semaphore inflight;
+    private final int maxInflight;
+
+    private final Recorder latencyMicros;
+    private final LongAdder acked;
+    private final LongAdder failed;
+
+    FleetConnection(SimulatorConfig config, int index, Recorder latencyMicros, LongAdder acked, LongAdder failed)
+            throws MqttException {
+        this.client = new MqttAsyncClient(config.broker(), "loadtest-" + ProcessHandle.current().pid() + "-" + index,
+                new MemoryPersistence());
+        this.qos = config.qos();
+        this.maxInflight = config.maxInflight();
+        this.inflight = new Semaphore(maxInflight);
+        this.latencyMicros = latencyMicros;
+        this.acked = acked;
+        this.failed = failed;
+
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setCleanSession(true);
+        options.setAutomaticReconnect(true);
+        options.setKeepAliveInterval(30);
+        options.setMaxInflight(maxInflight);
+        if (!config.username().isEmpty()) {
+            options.setUserName(config.username());
+            options.setPassword(config.password().toCharArray());
+        }
+        client.connect(options).waitForCompletion(10_000);
+    }
+
+    /**
+     * @param intendedNanos 원래 보내기로 한 시각 (System.nanoTime 기준)
+     * @return 인플라이트가 5초 동안 비지 않거나 클라이언트가 거부하면 false
+     */
+    boolean publish(String topic, byte[] payload, long intendedNanos) throws InterruptedException {
+        if (!inflight.tryAcquire(5, TimeUnit.SECONDS)) {
+            failed.increment();
+            return false;
+        }
+        try {
+            client.publish(topic, payload, qos, false, null, new IMqttActionListener() {
+                @Override
+                public void onSuccess(IMqttToken token) {
+                    inflight.release();
+                    latencyMicros.recordValue(Math.max(0, (System.nanoTime() - intendedNanos) / 1_000));
+                    acked.increment();
+                }
+
+                @Override
+                public void onFailure(IMqttToken token, Throwable e) {
+                    inflight.release();
+                    failed.increment();
+                }
+            });
+            return true;
+        } catch (MqttException e) {
+            inflight.release();
+            failed.increment();
+            return false;
+        }
+    }
+
+    int inflight() {
+        return maxInflight - inflight.availablePermits();
+    }
+
+    boolean isConnected() {
+        return client.isConnected();
+    }
+
+    /** 남은 인플라이트가 끝날 때까지 최대 timeoutMillis 대기 */
+    void drain(long timeoutMillis) throws InterruptedException {
+        if (inflight.tryAcquire(maxInflight, timeoutMillis, TimeUnit.MILLISECONDS)) {
+            inflight.release(maxInflight);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            client.disconnect().waitForCompletion(5_000);
+        } catch (MqttException ignored) {
+            // 종료 중
+        }
+        try {
+            client.close();
+        } catch (MqttException ignored) {
+            // 종료 중
+        }
+    }
+}
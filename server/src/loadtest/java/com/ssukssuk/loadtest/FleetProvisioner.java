@@ -0,0 +1,194 @@
+package com.ssukssuk.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 가상 디바이스의 serial ↔ plant_id 바인딩을 정한다.
+ * 서버의 DeviceBindingValidator 를 통과해야 실제 저장 경로(sensor_log, plant_status …)까지 부하가 걸린다.
+ *
+ * 1) --provision-jdbc-url : 부하 테스트 전용 사용자/디바이스/식물을 DB 에 만들거나 재사용
+ * 2) --bindings           : 이미 준비된 "serial,plant_id" CSV
+ * 3) 둘 다 없으면 serial-prefix + 번호, plant-id-base + 번호 (서버에서 검증 실패로 처리됨)
+ */
+final class FleetProvisioner {
+
+    private static final String USER_EMAIL = "loadtest@ssukssuk.invalid";
+    private static final String USER_NICKNAME = "loadtest";
+
+    record Binding(String serial, long plantId) {}
+
+    private FleetProvisioner() {}
+
+    static List<Binding> resolve(SimulatorConfig config) throws IOException, SQLException {
+        if (!config.provisionJdbcUrl().isEmpty()) {
+            return provision(config);
+        }
+        if (!config.bindings().isEmpty()) {
+            return load(Path.of(config.bindings()), config.devices());
+        }
+        List<Binding> generated = new ArrayList<>(config.devices());
+        for (int i = 0; i < config.devices(); i++) {
+            generated.add(new Binding(serialOf(config, i), config.plantIdBase() + i));
+        }
+        return generated;
+    }
+
+    private static List<Binding> load(Path file, int devices) throws IOException {
+        List<Binding> bindings = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            String[] parts = trimmed.split(",");
+            if (parts.length < 2) throw new IllegalArgumentException("invalid bindings line: " + line);
+            bindings.add(new Binding(parts[0].trim(), Long.parseLong(parts[1].trim())));
+            if (bindings.size() == devices) break;
+        }
+        if (bindings.size() < devices) {
+            throw new IllegalArgumentException("bindings file has " + bindings.size() + " rows, --devices=" + devices);
+        }
+        return bindings;
+    }
+
+    /**
+     * 부하 테스트 사용자 1명 + 디바이스 N대(claim/pairing 완료) + 디바이스별 식물 1개 + plant_status.
+     * 이미 있는 행은 재사용하므로 여러 번 실행해도 된다. (만든 행은 지우지 않는다)
+     */
+    private static List<Binding> provision(SimulatorConfig config) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(
+                config.provisionJdbcUrl(), config.provisionUser(), config.provisionPassword())) {
+            conn.setAutoCommit(false);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+            long userId = ensureUser(conn, now);
+            long speciesId = firstId(conn, "SELECT MIN(species_id) FROM species", "species");
+            long characterCode = firstId(conn, "SELECT MIN(character_code) FROM character_code", "character_code");
+
+            List<Binding> bindings = new ArrayList<>(config.devices());
+            for (int i = 0; i < config.devices(); i++) {
+                String serial = serialOf(config, i);
+                long deviceId = ensureDevice(conn, serial, userId, now);
+                long plantId = ensurePlant(conn, deviceId, userId, speciesId, serial, now);
+                ensurePlantStatus(conn, plantId, characterCode, now);
+                bindings.add(new Binding(serial, plantId));
+                if (i % 500 == 499) conn.commit();
+            }
+            conn.commit();
+            return bindings;
+        }
+    }
+
+    private static long ensureUser(Connection conn, Timestamp now) throws SQLException {
+        Long existing = queryId(conn, "SELECT user_id FROM `user` WHERE email = ?", USER_EMAIL);
+        if (existing != null) return existing;
+
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO `user` (created_at, updated_at, email, password, nickname, mode, is_admin, is_initialized) "
+                        + "VALUES (?, ?, ?, ?, ?, 'AUTO', 0, 1)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            ps.setTimestamp(1, now);
+            ps.setTimestamp(2, now);
+            ps.setString(3, USER_EMAIL);
+            ps.setString(4, "!");   // 로그인 불가
+            ps.setString(5, USER_NICKNAME);
+            ps.executeUpdate();
+            return generatedKey(ps);
+        }
+    }
+
+    private static long ensureDevice(Connection conn, String serial, long userId, Timestamp now) throws SQLException {
+        Long existing = queryId(conn, "SELECT device_id FROM device WHERE device_serial = ?", serial);
+        if (existing != null) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE device SET user_id = ?, pairing = 1, claimed_at = COALESCE(claimed_at, ?) WHERE device_id = ?")) {
+                ps.setLong(1, userId);
+                ps.setTimestamp(2, now);
+                ps.setLong(3, existing);
+                ps.executeUpdate();
+            }
+            return existing;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO device (device_serial, user_id, pairing, claimed_at) VALUES (?, ?, 1, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, serial);
+            ps.setLong(2, userId);
+            ps.setTimestamp(3, now);
+            ps.executeUpdate();
+            return generatedKey(ps);
+        }
+    }
+
+    private static long ensurePlant(Connection conn, long deviceId, long userId, long speciesId,
+                                    String serial, Timestamp now) throws SQLException {
+        Long existing = queryId(conn,
+                "SELECT plant_id FROM user_plant WHERE device_id = ? AND removed_at IS NULL", deviceId);
+        if (existing != null) return existing;
+
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO user_plant (user_id, species_id, device_id, plant_name, is_connected, is_main, created_at) "
+                        + "VALUES (?, ?, ?, ?, 1, 0, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            ps.setLong(1, userId);
+            ps.setLong(2, speciesId);
+            ps.setLong(3, deviceId);
+            ps.setString(4, serial);
+            ps.setTimestamp(5, now);
+            ps.executeUpdate();
+            return generatedKey(ps);
+        }
+    }
+
+    private static void ensurePlantStatus(Connection conn, long plantId, long characterCode, Timestamp now)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT IGNORE INTO plant_status (plant_id, character_code, health_score, has_unread_notification, updated_at) "
+                        + "VALUES (?, ?, 100, 0, ?)")) {
+            ps.setLong(1, plantId);
+            ps.setLong(2, characterCode);
+            ps.setTimestamp(3, now);
+            ps.executeUpdate();
+        }
+    }
+
+    private static Long queryId(Connection conn, String sql, Object param) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setObject(1, param);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    private static long firstId(Connection conn, String sql, String table) throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            if (rs.next()) {
+                long id = rs.getLong(1);
+                if (!rs.wasNull()) return id;
+            }
+        }
+        throw new IllegalStateException(table + " has no rows. load base data first (exec/ssukssuk_dump.sql)");
+    }
+
+    private static long generatedKey(PreparedStatement ps) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            if (!keys.next()) throw new SQLException("no generated key");
+            return keys.getLong(1);
+        }
+    }
+
+    private static String serialOf(SimulatorConfig config, int index) {
+        return String.format("%s%06d", config.serialPrefix(), index + 1);
+    }
+}
@@ -0,0 +1,341 @@
+package com.ssukssuk.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 가상 Jetson 디바이스 플릿으로 MQTT 수신 경로에 부하를 걸고 용량을 측정한다.
+ *
+ * 측정 항목
+ * - 클라이언트: 발행 처리량, PUBACK 지연 백분위, 발행 실패율
+ * - 서버(/actuator/prometheus 차이): 채널별 처리/실패 건수, sent_at → 커밋 지연 백분위,
+ *   디바이스 수신 한도 초과, 레인 폐기/병합, 스풀 기록 건수
+ *
+ * 결과는 콘솔과 --report(JSON)에 남기며, 실패율/p99 기준을 넘으면 종료 코드 1 로 끝난다.
+ */
+public final class FleetSimulator {
+
+    private static final String[] CHANNELS = {"sensors", "action-result", "image-inference", "ack"};
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final SimulatorConfig config;
+    private final ObjectMapper encoder;
+    private final SplittableRandom random = new SplittableRandom();
+
+    private final Recorder latency = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final Histogram measured = new Histogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Map<String, LongAdder> sentByChannel = new LinkedHashMap<>();
+
+    private final List<FleetConnection> connections = new ArrayList<>();
+    private final List<VirtualDevice> devices = new ArrayList<>();
+    private final String[] slots;
+
+    private volatile boolean measuring;
+    private long lagNanos;
+
+    private FleetSimulator(SimulatorConfig config) {
+        this.config = config;
+        this.encoder = (config.format().equals("cbor") ? new ObjectMapper(new CBORFactory()) : new ObjectMapper())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.slots = buildSlots(config.mix());
+        for (String channel : CHANNELS) {
+            sentByChannel.put(channel, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimulatorConfig config = SimulatorConfig.parse(args);
+        PayloadShapes.verify(config.format());
+
+        EmbeddedBroker broker = config.embeddedBroker() ? new EmbeddedBroker(config.embeddedPort()) : null;
+        int exitCode;
+        try {
+            exitCode = new FleetSimulator(config).run();
+        } finally {
+            if (broker != null) broker.close();
+        }
+        System.exit(exitCode);
+    }
+
+    private int run() throws Exception {
+        List<FleetProvisioner.Binding> bindings = FleetProvisioner.resolve(config);
+        for (FleetProvisioner.Binding b : bindings) {
+            devices.add(new VirtualDevice(b.serial(), b.plantId(), config.format(), config.sequence(), random.split()));
+        }
+        if (config.provisionJdbcUrl().isEmpty() && config.bindings().isEmpty()) {
+            log("WARN no --provision-jdbc-url / --bindings: devices are not bound, server will reject them at validation");
+        }
+
+        for (int i = 0; i < config.connections(); i++) {
+            connections.add(new FleetConnection(config, i, latency, acked, failed));
+        }
+        log("connected. broker=%s, connections=%d, devices=%d, rate=%.0f/s, mix=%s, format=%s",
+                config.broker(), config.connections(), devices.size(), config.rate(), config.mix(), config.format());
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "loadtest-report");
+            t.setDaemon(true);
+            return t;
+        });
+        IntervalReport interval = new IntervalReport();
+        reporter.scheduleAtFixedRate(interval::print, config.reportIntervalSec(), config.reportIntervalSec(), TimeUnit.SECONDS);
+
+        ServerMetrics before = null;
+        long measureStartNanos = 0;
+        long sentAtStart = 0;
+        try {
+            long start = System.nanoTime();
+            long warmupEnd = start + TimeUnit.SECONDS.toNanos(config.warmupSec());
+            long end = warmupEnd + TimeUnit.SECONDS.toNanos(config.durationSec());
+            double periodNanos = 1e9 / config.rate();
+
+            long n = 0;
+            while (true) {
+                long intended = start + (long) (n * periodNanos);
+                if (intended >= end) break;
+
+                if (!measuring && intended >= warmupEnd) {
+                    latency.getIntervalHistogram();   // 워밍업 구간 버림
+                    before = scrapeOrNull();
+                    measureStartNanos = System.nanoTime();
+                    sentAtStart = sent.sum();
+                    failed.reset();
+                    acked.reset();
+                    measuring = true;
+                    log("warmup done, measuring %ds", config.durationSec());
+                }
+
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else {
+                    lagNanos = Math.max(lagNanos, -wait);
+                }
+
+                publishOne(intended);
+                n++;
+            }
+        } finally {
+            reporter.shutdownNow();
+        }
+
+        long measuredNanos = System.nanoTime() - measureStartNanos;
+        long measuredSent = sent.sum() - sentAtStart;
+
+        for (FleetConnection c : connections) {
+            c.drain(10_000);
+        }
+        interval.print();
+
+        if (config.settleSec() > 0 && before != null) {
+            log("waiting %ds for the server to settle", config.settleSec());
+            Thread.sleep(TimeUnit.SECONDS.toMillis(config.settleSec()));
+        }
+        ServerMetrics after = before != null ? scrapeOrNull() : null;
+
+        for (FleetConnection c : connections) {
+            c.close();
+        }
+
+        return summarize(measuredSent, measuredNanos, before, after);
+    }
+
+    private void publishOne(long intendedNanos) throws Exception {
+        int index = random.nextInt(devices.size());
+        VirtualDevice device = devices.get(index);
+        VirtualDevice.Outgoing out = device.next(slots[random.nextInt(slots.length)], random,
+                config.anomalyRatio(), config.actionFailRatio());
+
+        byte[] payload = encoder.writeValueAsBytes(out.body());
+        FleetConnection connection = connections.get(index % connections.size());
+
+        if (connection.publish(out.topic(), payload, intendedNanos)) {
+            sent.increment();
+            sentByChannel.get(out.channel()).increment();
+        }
+        // 같은 msg_id 재전송 (멱등 처리 경로 부하)
+        if (config.duplicateRatio() > 0 && random.nextDouble() < config.duplicateRatio()
+                && connection.publish(out.topic(), payload, System.nanoTime())) {
+            sent.increment();
+            sentByChannel.get(out.channel()).increment();
+        }
+    }
+
+    private int summarize(long measuredSent, long measuredNanos, ServerMetrics before, ServerMetrics after)
+            throws Exception {
+        synchronized (measured) {
+            measured.add(latency.getIntervalHistogram());
+        }
+        double seconds = measuredNanos / 1e9;
+        long failedCount = failed.sum();
+        long ackedCount = acked.sum();
+        double clientErrorRatio = measuredSent + failedCount == 0 ? 0 : (double) failedCount / (measuredSent + failedCount);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+
+        Map<String, Object> client = new LinkedHashMap<>();
+        client.put("sent", measuredSent);
+        client.put("acked", ackedCount);
+        client.put("failed", failedCount);
+        client.put("errorRatio", clientErrorRatio);
+        client.put("throughputPerSec", measuredSent / seconds);
+        client.put("generatorMaxLagMs", lagNanos / 1e6);
+        client.put("pubackLatencyMs", percentiles(measured));
+        Map<String, Long> byChannel = new LinkedHashMap<>();
+        sentByChannel.forEach((k, v) -> byChannel.put(k, v.sum()));
+        client.put("sentByChannel", byChannel);
+        report.put("client", client);
+
+        log("==== result (%.0fs) ====", seconds);
+        log("client  sent=%d (%.1f/s), acked=%d, failed=%d (%.3f%%), generatorMaxLag=%.1fms",
+                measuredSent, measuredSent / seconds, ackedCount, failedCount, clientErrorRatio * 100, lagNanos / 1e6);
+        log("client  puback latency ms %s", percentiles(measured));
+
+        boolean failedGate = clientErrorRatio > config.failOnErrorRatio();
+        if (after != null) {
+            ServerMetrics delta = after.minus(before);
+            Map<String, Object> server = new LinkedHashMap<>();
+            double processed = 0;
+            double serverFailed = 0;
+            double worstP99 = 0;
+
+            for (String channel : delta.labelValues("mqtt_ingest_messages_total", "channel")) {
+                double ok = delta.sum("mqtt_ingest_messages_total", Map.of("channel", channel, "outcome", "processed"));
+                double ng = delta.sum("mqtt_ingest_messages_total", Map.of("channel", channel, "outcome", "failed"));
+                if (ok + ng == 0) continue;
+                processed += ok;
+                serverFailed += ng;
+
+                Map<String, Object> ch = new LinkedHashMap<>();
+                ch.put("processed", ok);
+                ch.put("failed", ng);
+                ch.put("throughputPerSec", ok / seconds);
+                Map<String, Double> commit = new LinkedHashMap<>();
+                for (double q : new double[]{0.5, 0.95, 0.99}) {
+                    commit.put("p" + Math.round(q * 100),
+                            delta.quantile("mqtt_ingest_commit_latency_seconds", Map.of("channel", channel), q) * 1000);
+                }
+                ch.put("commitLatencyMs", commit);
+                server.put(channel, ch);
+                if (!commit.get("p99").isNaN()) worstP99 = Math.max(worstP99, commit.get("p99"));
+
+                log("server  %-16s processed=%.0f (%.1f/s), failed=%.0f, commit latency ms %s",
+                        channel, ok, ok / seconds, ng, commit);
+            }
+
+            double serverErrorRatio = processed + serverFailed == 0 ? 0 : serverFailed / (processed + serverFailed);
+            double dropped = delta.sum("mqtt_ingest_dropped_total", Map.of());
+            double coalesced = delta.sum("mqtt_ingest_coalesced_total", Map.of());
+            double spooledTransient = delta.sum("mqtt_spool_appended_total", Map.of("stream", "transient"));
+            double spooledPoison = delta.sum("mqtt_spool_appended_total", Map.of("stream", "poison"));
+            double throttled = delta.sum("mqtt_ingest_throttled_total", Map.of());
+            server.put("errorRatio", serverErrorRatio);
+            server.put("laneDropped", dropped);
+            server.put("laneCoalesced", coalesced);
+            server.put("throttled", throttled);
+            server.put("spooledTransient", spooledTransient);
+            server.put("spooledPoison", spooledPoison);
+            report.put("server", server);
+
+            log("server  errorRatio=%.3f%%, throttled=%.0f, laneDropped=%.0f, laneCoalesced=%.0f, spooled transient=%.0f poison=%.0f",
+                    serverErrorRatio * 100, throttled, dropped, coalesced, spooledTransient, spooledPoison);
+
+            failedGate |= serverErrorRatio > config.failOnErrorRatio();
+            failedGate |= config.failOnP99Ms() > 0 && worstP99 > config.failOnP99Ms();
+        }
+
+        if (!config.reportFile().isEmpty()) {
+            Path path = Path.of(config.reportFile());
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+            log("report written: %s", path.toAbsolutePath());
+        }
+
+        if (failedGate) {
+            log("FAIL: error ratio > %.3f%% or commit p99 > %.0fms", config.failOnErrorRatio() * 100, config.failOnP99Ms());
+            return 1;
+        }
+        return 0;
+    }
+
+    private ServerMetrics scrapeOrNull() {
+        if (config.metricsUrl().isEmpty()) return null;
+        try {
+            return ServerMetrics.scrape(config.metricsUrl());
+        } catch (Exception e) {
+            log("WARN server metrics unavailable (%s): %s", config.metricsUrl(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static Map<String, Double> percentiles(Histogram h) {
+        Map<String, Double> p = new LinkedHashMap<>();
+        p.put("p50", h.getValueAtPercentile(50) / 1000.0);
+        p.put("p95", h.getValueAtPercentile(95) / 1000.0);
+        p.put("p99", h.getValueAtPercentile(99) / 1000.0);
+        p.put("max", h.getMaxValue() / 1000.0);
+        return p;
+    }
+
+    // 가중치만큼 채널 이름을 채운 배열 → 균등 난수로 뽑으면 가중 선택이 된다
+    private static String[] buildSlots(Map<String, Integer> mix) {
+        List<String> slots = new ArrayList<>();
+        mix.forEach((channel, weight) -> {
+            for (int i = 0; i < weight; i++) slots.add(channel);
+        });
+        return slots.toArray(String[]::new);
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.printf("[LOADTEST] " + format + "%n", args);
+    }
+
+    /** report-interval 마다 직전 구간 처리량/지연 출력 */
+    private final class IntervalReport {
+
+        private long lastSent;
+        private long lastNanos = System.nanoTime();
+
+        synchronized void print() {
+            long now = System.nanoTime();
+            long total = sent.sum();
+            Histogram h = latency.getIntervalHistogram();
+            if (measuring) {
+                synchronized (measured) {
+                    measured.add(h);
+                }
+            }
+            int inflight = 0;
+            int connected = 0;
+            for (FleetConnection c : connections) {
+                inflight += c.inflight();
+                if (c.isConnected()) connected++;
+            }
+            log("%s sent=%.1f/s, failed=%d, inflight=%d, connected=%d/%d, puback ms %s",
+                    measuring ? "measure" : "warmup ", (total - lastSent) / ((now - lastNanos) / 1e9),
+                    failed.sum(), inflight, connected, connections.size(), percentiles(h));
+            lastSent = total;
+            lastNanos = now;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ssukssuk.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ssukssuk.dto.history.DeviceImageInferenceRequest;
+import com.ssukssuk.infra.mqtt.dto.AckMessage;
+import com.ssukssuk.infra.mqtt.dto.ActionResultMessage;
+import com.ssukssuk.infra.mqtt.dto.SensorUplinkMessage;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * 시뮬레이터가 만드는 payload 가 서버 DTO 로 그대로 읽히는지 시작 시 확인한다.
+ * DTO 필드가 바뀌었는데 시뮬레이터를 안 고치면 부하 테스트 결과가 엉뚱해지므로 바로 실패시킨다.
+ */
+final class PayloadShapes {
+
+    private PayloadShapes() {}
+
+    /** 서버 JacksonConfig 와 같은 설정 + 모르는 키는 실패 */
+    static ObjectMapper strictMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    static void verify(String format) {
+        ObjectMapper mapper = strictMapper();
+        SplittableRandom random = new SplittableRandom(1);
+        VirtualDevice device = new VirtualDevice("LT-SHAPE", 1L, format, true, random);
+
+        // anomaly-ratio=1 이면 ANOMALY_DETECTED → action-result → RECOVERY_DONE 이 차례로 나온다
+        Set<String> seen = new HashSet<>();
+        for (String slot : new String[]{"sensors", "sensors", "sensors", "image-inference", "ack"}) {
+            VirtualDevice.Outgoing out = device.next(slot, random, 1.0, 0.5);
+            check(mapper, out);
+            seen.add(out.channel() + ":" + out.body().getOrDefault("event_kind", ""));
+        }
+        if (!seen.containsAll(Set.of("sensors:ANOMALY_DETECTED", "action-result:", "sensors:RECOVERY_DONE"))) {
+            throw new IllegalStateException("anomaly flow not generated: " + seen);
+        }
+    }
+
+    private static void check(ObjectMapper mapper, VirtualDevice.Outgoing out) {
+        Map<String, Object> body = out.body();
+        Object msgId;
+        Object plantId;
+        try {
+            switch (out.channel()) {
+                case "sensors" -> {
+                    SensorUplinkMessage m = mapper.convertValue(body, SensorUplinkMessage.class);
+                    require(m.getEventKind() != null && m.getTemperature() != null && m.getWaterLevelStatus() != null,
+                            out, "event_kind/values/status");
+                    msgId = m.getMsgId();
+                    plantId = m.getPlantId();
+                }
+                case "action-result" -> {
+                    ActionResultMessage m = mapper.convertValue(body, ActionResultMessage.class);
+                    require(m.getActionType() != null && m.getResultStatus() != null, out, "action_type/result_status");
+                    msgId = m.getMsgId();
+                    plantId = m.getPlantId();
+                }
+                case "image-inference" -> {
+                    DeviceImageInferenceRequest m = mapper.convertValue(body, DeviceImageInferenceRequest.class);
+                    require(m.getConfidence() != null && m.getPublicUrl1() != null && m.getMeasuredAt1() != null,
+                            out, "confidence/public_url1/measured_at1");
+                    msgId = m.getMsgId();
+                    plantId = m.getPlantId();
+                }
+                case "ack" -> {
+                    AckMessage m = mapper.convertValue(body, AckMessage.class);
+                    require(m.getRef_msg_id() != null && m.getStatus() != null, out, "ref_msg_id/status");
+                    msgId = m.getMsg_id();
+                    plantId = m.getPlant_id();
+                }
+                default -> throw new IllegalStateException("unknown channel " + out.channel());
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("payload shape mismatch. channel=" + out.channel() + ", body=" + body, e);
+        }
+        require(msgId != null && plantId != null, out, "msg_id/plant_id");
+    }
+
+    private static void require(boolean ok, VirtualDevice.Outgoing out, String fields) {
+        if (!ok) {
+            throw new IllegalStateException("payload shape mismatch (" + fields + "). channel=" + out.channel()
+                    + ", body=" + out.body());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.ssukssuk.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 서버 /actuator/prometheus 스냅샷.
+ * 측정 구간 앞뒤 스냅샷의 차이로 서버 기준 처리량/실패/커밋 지연 백분위를 구한다.
+ */
+final class ServerMetrics {
+
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    record Sample(String name, Map<String, String> labels, double value) {}
+
+    private final Map<String, Sample> samples;
+
+    private ServerMetrics(Map<String, Sample> samples) {
+        this.samples = samples;
+    }
+
+    static ServerMetrics scrape(String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(10))
+                .header("Accept", "text/plain;version=0.0.4")
+                .GET()
+                .build();
+        HttpResponse<String> response = HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("metrics scrape failed. status=" + response.statusCode() + ", url=" + url);
+        }
+        return parse(response.body());
+    }
+
+    static ServerMetrics parse(String text) {
+        Map<String, Sample> samples = new HashMap<>();
+        for (String line : text.split("\n")) {
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int sp = line.lastIndexOf(' ');
+            if (sp < 0) continue;
+            String key = line.substring(0, sp).trim();
+            double value;
+            try {
+                value = Double.parseDouble(line.substring(sp + 1));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            int brace = key.indexOf('{');
+            String name = brace < 0 ? key : key.substring(0, brace);
+            Map<String, String> labels = brace < 0 ? Map.of() : parseLabels(key.substring(brace + 1, key.length() - 1));
+            samples.put(key, new Sample(name, labels, value));
+        }
+        return new ServerMetrics(samples);
+    }
+
+    /** 이 스냅샷 - before. before 에 없던 시계열은 0 에서 시작한 것으로 본다. */
+    ServerMetrics minus(ServerMetrics before) {
+        Map<String, Sample> diff = new HashMap<>();
+        samples.forEach((key, s) -> {
+            Sample b = before.samples.get(key);
+            diff.put(key, new Sample(s.name(), s.labels(), s.value() - (b != null ? b.value() : 0)));
+        });
+        return new ServerMetrics(diff);
+    }
+
+    /** name 시계열 중 labels 가 모두 일치하는 값의 합 */
+    double sum(String name, Map<String, String> match) {
+        double total = 0;
+        for (Sample s : samples.values()) {
+            if (s.name().equals(name) && matches(s, match)) total += s.value();
+        }
+        return total;
+    }
+
+    /** name 시계열의 label 값 목록 (예: channel) */
+    List<String> labelValues(String name, String label) {
+        List<String> values = new ArrayList<>();
+        for (Sample s : samples.values()) {
+            String v = s.labels().get(label);
+            if (s.name().equals(name) && v != null && !values.contains(v)) values.add(v);
+        }
+        values.sort(String::compareTo);
+        return values;
+    }
+
+    /**
+     * 누적 히스토그램 버킷(_bucket{le=...}) 차이에서 백분위를 구한다 (버킷 안은 선형 보간).
+     * @return 초 단위. 관측치가 없으면 NaN
+     */
+    double quantile(String histogram, Map<String, String> match, double q) {
+        TreeMap<Double, Double> buckets = new TreeMap<>();
+        for (Sample s : samples.values()) {
+            if (!s.name().equals(histogram + "_bucket") || !matches(s, match)) continue;
+            String le = s.labels().get("le");
+            double bound = le.equals("+Inf") ? Double.POSITIVE_INFINITY : Double.parseDouble(le);
+            buckets.merge(bound, s.value(), Double::sum);
+        }
+        if (buckets.isEmpty()) return Double.NaN;
+
+        double total = buckets.lastEntry().getValue();
+        if (total <= 0) return Double.NaN;
+
+        double target = q * total;
+        double prevBound = 0;
+        double prevCount = 0;
+        for (Map.Entry<Double, Double> e : buckets.entrySet()) {
+            double bound = e.getKey();
+            double count = e.getValue();
+            if (count >= target) {
+                if (Double.isInfinite(bound)) return prevBound;   // 최대 버킷 초과
+                double inBucket = count - prevCount;
+                return inBucket <= 0 ? bound : prevBound + (bound - prevBound) * (target - prevCount) / inBucket;
+            }
+            prevBound = bound;
+            prevCount = count;
+        }
+        return prevBound;
+    }
+
+    private static boolean matches(Sample s, Map<String, String> match) {
+        for (Map.Entry<String, String> m : match.entrySet()) {
+            if (!m.getValue().equals(s.labels().get(m.getKey()))) return false;
+        }
+        return true;
+    }
+
+    private static Map<String, String> parseLabels(String body) {
+        Map<String, String> labels = new HashMap<>();
+        int i = 0;
+        while (i < body.length()) {
+            int eq = body.indexOf('=', i);
+            if (eq < 0) break;
+            String name = body.substring(i, eq).trim();
+            StringBuilder value = new StringBuilder();
+            int j = eq + 2;   // ="
+            while (j < body.length() && body.charAt(j) != '"') {
+                char c = body.charAt(j);
+                if (c == '\\' && j + 1 < body.length()) {
+                    c = body.charAt(++j);
+                    if (c == 'n') c = '\n';
+                }
+                value.append(c);
+                j++;
+            }
+            labels.put(name, value.toString());
+            i = j + 1;
+            if (i < body.length() && body.charAt(i) == ',') i++;
+        }
+        return labels;
+    }
+}
@@ -0,0 +1,187 @@
+package com.ssukssuk.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 시뮬레이터 실행 옵션 (--key=value).
+ * 알 수 없는 옵션은 오타일 가능성이 높으므로 바로 실패시킨다.
+ */
+record SimulatorConfig(
+        String broker,
+        String username,
+        @JsonIgnore String password,
+        boolean embeddedBroker,
+        int embeddedPort,
+        int devices,
+        int connections,
+        int maxInflight,
+        double rate,
+        int durationSec,
+        int warmupSec,
+        int settleSec,
+        int reportIntervalSec,
+        Map<String, Integer> mix,
+        double anomalyRatio,
+        double actionFailRatio,
+        double duplicateRatio,
+        String format,
+        boolean sequence,
+        int qos,
+        String serialPrefix,
+        long plantIdBase,
+        String bindings,
+        String provisionJdbcUrl,
+        String provisionUser,
+        @JsonIgnore String provisionPassword,
+        String metricsUrl,
+        String reportFile,
+        double failOnErrorRatio,
+        double failOnP99Ms
+) {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("broker", "tcp://localhost:1883");
+        DEFAULTS.put("username", "");
+        DEFAULTS.put("password", "");
+        DEFAULTS.put("embedded-broker", "false");
+        DEFAULTS.put("embedded-port", "1883");
+        DEFAULTS.put("devices", "100");
+        DEFAULTS.put("connections", "4");
+        DEFAULTS.put("max-inflight", "1000");
+        DEFAULTS.put("rate", "100");
+        DEFAULTS.put("duration", "60");
+        DEFAULTS.put("warmup", "10");
+        DEFAULTS.put("settle", "10");
+        DEFAULTS.put("report-interval", "10");
+        DEFAULTS.put("mix", "sensors=90,image-inference=5,ack=5");
+        DEFAULTS.put("anomaly-ratio", "0.02");
+        DEFAULTS.put("action-fail-ratio", "0.1");
+        DEFAULTS.put("duplicate-ratio", "0");
+        DEFAULTS.put("format", "json");
+        DEFAULTS.put("sequence", "false");
+        DEFAULTS.put("qos", "1");
+        DEFAULTS.put("serial-prefix", "LT-");
+        DEFAULTS.put("plant-id-base", "1");
+        DEFAULTS.put("bindings", "");
+        DEFAULTS.put("provision-jdbc-url", "");
+        DEFAULTS.put("provision-user", "root");
+        DEFAULTS.put("provision-password", "");
+        DEFAULTS.put("metrics-url", "http://localhost:8080/actuator/prometheus");
+        DEFAULTS.put("report", "build/loadtest/report.json");
+        DEFAULTS.put("fail-on-error-ratio", "0.01");
+        DEFAULTS.put("fail-on-p99-ms", "0");
+    }
+
+    static SimulatorConfig parse(String[] args) {
+        Map<String, String> v = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                printUsage();
+                System.exit(0);
+            }
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("invalid option: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            String key = eq > 0 ? arg.substring(2, eq) : arg.substring(2);
+            String value = eq > 0 ? arg.substring(eq + 1) : "true";
+            if (!DEFAULTS.containsKey(key)) {
+                throw new IllegalArgumentException("unknown option: --" + key + " (see --help)");
+            }
+            v.put(key, value);
+        }
+
+        String format = v.get("format");
+        if (!format.equals("json") && !format.equals("cbor")) {
+            throw new IllegalArgumentException("--format must be json or cbor");
+        }
+
+        boolean embedded = Boolean.parseBoolean(v.get("embedded-broker"));
+        String broker = embedded ? "tcp://localhost:" + v.get("embedded-port") : v.get("broker");
+
+        return new SimulatorConfig(
+                broker,
+                v.get("username"),
+                v.get("password"),
+                embedded,
+                Integer.parseInt(v.get("embedded-port")),
+                positive("devices", Integer.parseInt(v.get("devices"))),
+                positive("connections", Integer.parseInt(v.get("connections"))),
+                positive("max-inflight", Integer.parseInt(v.get("max-inflight"))),
+                Double.parseDouble(v.get("rate")),
+                positive("duration", Integer.parseInt(v.get("duration"))),
+                Integer.parseInt(v.get("warmup")),
+                Integer.parseInt(v.get("settle")),
+                positive("report-interval", Integer.parseInt(v.get("report-interval"))),
+                parseMix(v.get("mix")),
+                ratio("anomaly-ratio", v.get("anomaly-ratio")),
+                ratio("action-fail-ratio", v.get("action-fail-ratio")),
+                ratio("duplicate-ratio", v.get("duplicate-ratio")),
+                format,
+                Boolean.parseBoolean(v.get("sequence")),
+                Integer.parseInt(v.get("qos")),
+                v.get("serial-prefix"),
+                Long.parseLong(v.get("plant-id-base")),
+                v.get("bindings"),
+                v.get("provision-jdbc-url"),
+                v.get("provision-user"),
+                v.get("provision-password"),
+                v.get("metrics-url"),
+                v.get("report"),
+                Double.parseDouble(v.get("fail-on-error-ratio")),
+                Double.parseDouble(v.get("fail-on-p99-ms"))
+        );
+    }
+
+    /** sensors=90,image-inference=5,ack=5 → 채널별 가중치. action-result 는 이상 이벤트에 따라 생긴다. */
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("invalid --mix entry: " + part);
+            String channel = kv[0].trim();
+            if (!channel.equals("sensors") && !channel.equals("image-inference") && !channel.equals("ack")) {
+                throw new IllegalArgumentException("--mix channel must be sensors, image-inference or ack: " + channel);
+            }
+            result.put(channel, Integer.parseInt(kv[1].trim()));
+        }
+        if (result.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix weights must sum to > 0");
+        }
+        return result;
+    }
+
+    private static int positive(String name, int value) {
+        if (value <= 0) throw new IllegalArgumentException("--" + name + " must be > 0");
+        return value;
+    }
+
+    private static double ratio(String name, String value) {
+        double d = Double.parseDouble(value);
+        if (d < 0 || d > 1) throw new IllegalArgumentException("--" + name + " must be in [0, 1]");
+        return d;
+    }
+
+    private static void printUsage() {
+        System.out.println("""
+                가상 디바이스 플릿 MQTT 부하 테스트
+
+                  ./gradlew loadtest --args="--devices=1000 --rate=500 --duration=300"
+
+                옵션 (기본값)
+                """);
+        DEFAULTS.forEach((k, d) -> System.out.printf("  --%-22s %s%n", k, d.isEmpty() ? "(none)" : d));
+        System.out.println("""
+
+                - rate 는 플릿 전체 초당 메시지 수, mix 는 채널 가중치
+                - anomaly-ratio 비율로 ANOMALY_DETECTED → action-result → RECOVERY_DONE 흐름이 생긴다
+                - 서버가 바인딩 검증을 통과시키려면 --provision-jdbc-url 또는 --bindings=serial,plant_id CSV 필요
+                """);
+    }
+}
@@ -0,0 +1,198 @@
+package com.ssukssuk.loadtest;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * 가상 Jetson 디바이스 1대.
+ * 실제 디바이스와 같은 JSON 키로 payload 를 만든다 (SensorUplinkMessage / ActionResultMessage /
+ * DeviceImageInferenceRequest / AckMessage). 형태는 시작 시 PayloadShapes 로 서버 DTO 에 맞는지 확인한다.
+ *
+ * --sequence=true 면 boot_id(실행마다 새로) + 채널별 seq 를 붙인다 (서버 시퀀스 워터마크 중복 판정).
+ *
+ * 이상 이벤트 흐름: PERIODIC … → ANOMALY_DETECTED → action-result → RECOVERY_DONE → PERIODIC …
+ * (서버는 OPEN 이벤트가 있어야 action-result 를 받아들이므로 순서를 지킨다)
+ *
+ * 생성 스레드 하나에서만 호출한다.
+ */
+final class VirtualDevice {
+
+    private static final ZoneOffset KST = ZoneOffset.ofHours(9);
+
+    private enum Phase { NORMAL, ANOMALY_OPEN, ACTED }
+
+    record Outgoing(String channel, String topic, Map<String, Object> body) {}
+
+    private final String serial;
+    private final long plantId;
+    private final String topicSuffix;
+    private final String bootId;
+    private final Map<String, Long> sequences = new HashMap<>();
+
+    private float temperature;
+    private float humidity;
+    private float waterLevel;
+    private float nutrientConc;
+
+    private Phase phase = Phase.NORMAL;
+    private String trigger;   // WATER_LEVEL / NUTRIENT_CONC
+
+    VirtualDevice(String serial, long plantId, String format, boolean sequence, SplittableRandom random) {
+        this.serial = serial;
+        this.plantId = plantId;
+        this.topicSuffix = format.equals("json") ? "" : "/" + format;
+        this.bootId = sequence ? UUID.randomUUID().toString() : null;
+
+        this.temperature = 20f + (float) random.nextDouble(6);
+        this.humidity = 45f + (float) random.nextDouble(20);
+        this.waterLevel = 60f + (float) random.nextDouble(30);
+        this.nutrientConc = 1.2f + (float) random.nextDouble(0.4);
+    }
+
+    String serial() {
+        return serial;
+    }
+
+    /** 채널 슬롯 하나에 해당하는 메시지. sensors 슬롯은 이상 이벤트 단계에 따라 action-result 가 될 수 있다. */
+    Outgoing next(String channel, SplittableRandom random, double anomalyRatio, double actionFailRatio) {
+        return switch (channel) {
+            case "image-inference" -> outgoing("image-inference", imageInference(random));
+            case "ack" -> outgoing("ack", ack(random));
+            default -> nextSensorSlot(random, anomalyRatio, actionFailRatio);
+        };
+    }
+
+    private Outgoing nextSensorSlot(SplittableRandom random, double anomalyRatio, double actionFailRatio) {
+        drift(random);
+        switch (phase) {
+            case ANOMALY_OPEN -> {
+                phase = Phase.ACTED;
+                return outgoing("action-result", actionResult(random, actionFailRatio));
+            }
+            case ACTED -> {
+                phase = Phase.NORMAL;
+                String recovered = trigger;
+                trigger = null;
+                return outgoing("sensors", sensors("RECOVERY_DONE", recovered, null));
+            }
+            default -> {
+                if (random.nextDouble() < anomalyRatio) {
+                    phase = Phase.ANOMALY_OPEN;
+                    trigger = random.nextBoolean() ? "WATER_LEVEL" : "NUTRIENT_CONC";
+                    return outgoing("sensors", sensors("ANOMALY_DETECTED", trigger, trigger));
+                }
+                return outgoing("sensors", sensors("PERIODIC", null, null));
+            }
+        }
+    }
+
+    private Map<String, Object> sensors(String eventKind, String triggerSensorType, String abnormal) {
+        Map<String, Object> body = header("SENSOR");
+        body.put("event_kind", eventKind);
+        body.put("trigger_sensor_type", triggerSensorType);
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("temperature", round(temperature));
+        values.put("humidity", round(humidity));
+        values.put("water_level", round("WATER_LEVEL".equals(abnormal) ? 12f : waterLevel));
+        values.put("nutrient_conc", round("NUTRIENT_CONC".equals(abnormal) ? 0.3f : nutrientConc));
+        body.put("values", values);
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("temperature", "OK");
+        status.put("humidity", "OK");
+        status.put("water_level", "WATER_LEVEL".equals(abnormal) ? "DOWN" : "OK");
+        status.put("nutrient_conc", "NUTRIENT_CONC".equals(abnormal) ? "DOWN" : "OK");
+        body.put("status", status);
+        return body;
+    }
+
+    private Map<String, Object> actionResult(SplittableRandom random, double actionFailRatio) {
+        boolean failed = random.nextDouble() < actionFailRatio;
+        boolean water = "WATER_LEVEL".equals(trigger);
+
+        Map<String, Object> body = header("ACTION_RESULT");
+        body.put("action_type", water ? "WATER_ADD" : "NUTRI_ADD");
+        body.put("result_status", failed ? "FAIL" : "SUCCESS");
+        body.put("before_value", water ? 12f : 0.3f);
+        body.put("after_value", failed ? (water ? 12f : 0.3f) : (water ? round(waterLevel) : round(nutrientConc)));
+        body.put("error_code", failed ? "PUMP_TIMEOUT" : null);
+        body.put("error_message", failed ? "pump did not respond" : null);
+        return body;
+    }
+
+    private Map<String, Object> imageInference(SplittableRandom random) {
+        String now = now();
+        int anomaly = random.nextInt(10) == 0 ? 5 + random.nextInt(5) : random.nextInt(3);
+
+        Map<String, Object> body = header("IMAGE_INFERENCE");
+        body.put("symptom_enum", anomaly >= 5 ? "DISCOLORATION" : "NORMAL");
+        body.put("height", 300.0 + random.nextInt(500));
+        body.put("width", 100.0 + random.nextInt(200));
+        body.put("anomaly", anomaly);
+        body.put("confidence", 60 + random.nextInt(40));
+        body.put("diagnosis_message", anomaly >= 5 ? "잎 변색 의심" : "정상");
+        body.put("image_kind1", "TOP");
+        body.put("public_url1", "https://loadtest.invalid/" + serial + "/top.jpg");
+        body.put("measured_at1", now);
+        body.put("image_kind2", "SIDE");
+        body.put("public_url2", "https://loadtest.invalid/" + serial + "/side.jpg");
+        body.put("measured_at2", now);
+        return body;
+    }
+
+    private Map<String, Object> ack(SplittableRandom random) {
+        Map<String, Object> body = header("ACK");
+        body.put("ref_msg_id", UUID.randomUUID().toString());
+        body.put("ref_type", random.nextBoolean() ? "LED" : "MODE");
+        body.put("status", "OK");
+        body.put("error_code", null);
+        body.put("error_message", null);
+        return body;
+    }
+
+    private Map<String, Object> header(String type) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("msg_id", UUID.randomUUID().toString());
+        body.put("sent_at", now());
+        body.put("serial_num", serial);
+        body.put("plant_id", plantId);
+        body.put("type", type);
+        return body;
+    }
+
+    private Outgoing outgoing(String channel, Map<String, Object> body) {
+        // ack 는 서버에서 멱등 처리하지 않으므로 시퀀스를 붙이지 않는다
+        if (bootId != null && !channel.equals("ack")) {
+            body.put("boot_id", bootId);
+            body.put("seq", sequences.merge(channel, 1L, Long::sum) - 1);
+        }
+        return new Outgoing(channel, "devices/" + serial + "/telemetry/" + channel + topicSuffix, body);
+    }
+
+    // 정상 범위 안에서 천천히 움직이는 센서 값
+    private void drift(SplittableRandom random) {
+        temperature = clamp(temperature + (float) (random.nextDouble() - 0.5) * 0.2f, 18f, 28f);
+        humidity = clamp(humidity + (float) (random.nextDouble() - 0.5), 40f, 70f);
+        waterLevel = clamp(waterLevel + (float) (random.nextDouble() - 0.55) * 0.5f, 50f, 95f);
+        nutrientConc = clamp(nutrientConc + (float) (random.nextDouble() - 0.5) * 0.02f, 1.0f, 1.8f);
+    }
+
+    private static String now() {
+        return OffsetDateTime.now(KST).truncatedTo(ChronoUnit.MILLIS).toString();
+    }
+
+    private static float clamp(float v, float min, float max) {
+        return Math.max(min, Math.min(max, v));
+    }
+
+    private static float round(float v) {
+        return Math.round(v * 100f) / 100f;
+    }
+}
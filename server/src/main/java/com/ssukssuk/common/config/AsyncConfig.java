@@ -1,38 +1,11 @@
 package com.ssukssuk.common.config;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-
-import java.util.concurrent.Executor;
 
 @Configuration
 @EnableAsync
 @EnableScheduling
 public class AsyncConfig {
-
-    @Value("${async.upload-url.core-pool-size}")
-    private int corePoolSize;
-
-    @Value("${async.upload-url.max-pool-size}")
-    private int maxPoolSize;
-
-    @Value("${async.upload-url.queue-capacity}")
-    private int queueCapacity;
-
-    @Bean(name = "uploadUrlExecutor")
-    public Executor uploadUrlExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(corePoolSize);
-        executor.setMaxPoolSize(maxPoolSize);
-        executor.setQueueCapacity(queueCapacity);
-        executor.setThreadNamePrefix("upload-url-");
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(30);
-        executor.initialize();
-        return executor;
-    }
 }
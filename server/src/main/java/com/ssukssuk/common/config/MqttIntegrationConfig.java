@@ -1,19 +1,25 @@
 package com.ssukssuk.common.config;
 
+import com.ssukssuk.infra.mqtt.outbound.MqttOutboundPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.integration.annotation.ServiceActivator;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.mqtt.core.DefaultMqttPahoClientFactory;
 import org.springframework.integration.mqtt.core.MqttPahoClientFactory;
 import org.springframework.integration.mqtt.inbound.MqttPahoMessageDrivenChannelAdapter;
-import org.springframework.integration.mqtt.outbound.MqttPahoMessageHandler;
 import org.springframework.integration.mqtt.support.DefaultPahoMessageConverter;
 import org.springframework.messaging.MessageChannel;
-import org.springframework.messaging.MessageHandler;
+import org.springframework.util.StringUtils;
 
+import java.util.UUID;
+
+@Slf4j
 @Configuration
 public class MqttIntegrationConfig {
 
@@ -32,6 +38,46 @@ public class MqttIntegrationConfig {
     @Value("${mqtt.topic.telemetry}")
     private String telemetryTopic;
 
+    // 비어 있으면 단일 노드 모드 (일반 구독)
+    @Value("${mqtt.inbound.shared-group:}")
+    private String sharedGroup;
+
+    @Value("${sensor-series.engine:mysql}")
+    private String seriesEngine;
+
+    // 비어 있으면 HOSTNAME 환경변수, 그것도 없으면 랜덤 값 사용
+    @Value("${mqtt.node-id:}")
+    private String nodeId;
+
+    @Value("${mqtt.outbound.pool-size:4}")
+    private int outboundPoolSize;
+
+    // 연결당 PUBACK 대기 허용 수 (Paho 기본값 10)
+    @Value("${mqtt.outbound.max-inflight:100}")
+    private int outboundMaxInflight;
+
+    @Value("${mqtt.publish.queue-capacity:10000}")
+    private int publishQueueCapacity;
+
+    @Value("${mqtt.publish.batch-size:100}")
+    private int publishBatchSize;
+
+    /**
+     * 공유 구독은 메시지 단위로 노드에 나눠 주므로 한 디바이스의 메시지가 여러 노드로 순서 없이 흩어진다.
+     * 디바이스 하나를 한 노드가 순서대로 처리한다는 가정에 기댄 기능은 꺼지거나 약해지므로 기동 시 알린다.
+     */
+    @PostConstruct
+    void warnIfSharedMode() {
+        if (!isSharedMode()) return;
+        log.warn("[MQTT][SHARED] shared subscription group={} : messages are split per message, not per device. "
+                        + "Per-device ordering across nodes is lost (lanes and spool order only within a node). "
+                        + "Disabled: open-event table, event debounce, server-side anomaly detection, local idempotency "
+                        + "authority. Degraded: sequence dedup goes to Redis Lua per message{}",
+                sharedGroup,
+                "segment".equalsIgnoreCase(seriesEngine)
+                        ? "; sensor-series.engine=segment keeps a partial series on each node's disk" : "");
+    }
+
     @Bean
     public MqttPahoClientFactory mqttClientFactory() {
         DefaultMqttPahoClientFactory factory = new DefaultMqttPahoClientFactory();
@@ -55,30 +101,69 @@ public class MqttIntegrationConfig {
     @Bean
     public MessageChannel mqttInboundChannel() {return new DirectChannel();}
 
-    @Bean
-    public MessageChannel mqttOutboundChannel() {return new DirectChannel();}
-
     @Bean
     public MqttPahoMessageDrivenChannelAdapter mqttInbound(MqttPahoClientFactory mqttClientFactory) {
 
         MqttPahoMessageDrivenChannelAdapter adapter =
-                new MqttPahoMessageDrivenChannelAdapter(clientId + "-in", mqttClientFactory, telemetryTopic);
+                new MqttPahoMessageDrivenChannelAdapter(nodeClientId("-in"), mqttClientFactory, inboundTopic());
 
-        adapter.setConverter(new DefaultPahoMessageConverter());
+        // payload를 String으로 변환하지 않고 byte[] 그대로 전달 (디코딩은 핸들러에서 1회)
+        DefaultPahoMessageConverter converter = new DefaultPahoMessageConverter();
+        converter.setPayloadAsBytes(true);
+        adapter.setConverter(converter);
         adapter.setQos(1);
         adapter.setOutputChannel(mqttInboundChannel());
         return adapter;
     }
 
+    /**
+     * 발행 전용 클라이언트 풀. client id 는 {clientId}-out[-{nodeId}]-{index}
+     */
     @Bean
-    @ServiceActivator(inputChannel = "mqttOutboundChannel")
-    public MqttPahoMessageHandler mqttOutbound(MqttPahoClientFactory mqttClientFactory) {
-        MqttPahoMessageHandler handler =
-                new MqttPahoMessageHandler(clientId + "-out", mqttClientFactory);
-
-        handler.setAsync(true);
-        handler.setDefaultQos(1);
-        return handler;
+    public MqttOutboundPool mqttOutboundPool(MqttPahoClientFactory mqttClientFactory,
+                                             MeterRegistry meterRegistry) throws MqttException {
+        return new MqttOutboundPool(
+                mqttClientFactory,
+                brokerUri,
+                nodeClientId("-out"),
+                outboundPoolSize,
+                outboundMaxInflight,
+                publishQueueCapacity,
+                publishBatchSize,
+                meterRegistry
+        );
+    }
+
+    /**
+     * shared-group 이 설정되면 $share/<group>/<telemetryTopic> 으로 구독해
+     * 브로커가 그룹 내 노드들에 메시지를 나눠 전달하도록 한다 (디바이스 단위가 아니라 메시지 단위, warnIfSharedMode 참고).
+     * 수신 토픽 헤더(mqtt_receivedTopic)는 원래 토픽(devices/...)이 그대로 온다.
+     * Paho v3 는 $share 필터와 실제 토픽이 매칭되지 않으면 어댑터의 기본 콜백(messageArrived)으로 넘겨주므로 수신 경로는 동일하다.
+     */
+    private String inboundTopic() {
+        if (!isSharedMode()) {
+            return telemetryTopic;
+        }
+        return "$share/" + sharedGroup + "/" + telemetryTopic;
     }
 
+    /** 공유 구독 모드에서는 노드마다 client id 가 달라야 서로 세션을 끊지 않는다. */
+    private String nodeClientId(String suffix) {
+        if (!isSharedMode()) {
+            return clientId + suffix;
+        }
+        return clientId + suffix + "-" + resolveNodeId();
+    }
+
+    private boolean isSharedMode() {
+        return StringUtils.hasText(sharedGroup);
+    }
+
+    private String resolveNodeId() {
+        if (!StringUtils.hasText(nodeId)) {
+            String host = System.getenv("HOSTNAME");
+            nodeId = StringUtils.hasText(host) ? host : UUID.randomUUID().toString().substring(0, 8);
+        }
+        return nodeId;
+    }
 }
@@ -1,6 +1,8 @@
 package com.ssukssuk.common.config;
 
+import com.ssukssuk.service.history.LatestReadingCache;
 import com.ssukssuk.service.sse.SseEmitterService;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -35,14 +37,22 @@ public class RedisConfig {
         return new MessageListenerAdapter(sseEmitterService, "onRedisMessage");
     }
 
+    // 다른 노드가 갱신한 최신 측정값
+    @Bean
+    public MessageListenerAdapter sensorLatestListenerAdapter(LatestReadingCache latestReadingCache) {
+        return new MessageListenerAdapter(latestReadingCache, "onRedisMessage");
+    }
+
     @Bean
     public RedisMessageListenerContainer redisMessageListenerContainer(
             RedisConnectionFactory connectionFactory,
-            MessageListenerAdapter messageListenerAdapter,
+            @Qualifier("messageListenerAdapter") MessageListenerAdapter messageListenerAdapter,
+            @Qualifier("sensorLatestListenerAdapter") MessageListenerAdapter sensorLatestListenerAdapter,
             ChannelTopic plantStatusTopic) {
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
         container.addMessageListener(messageListenerAdapter, plantStatusTopic);
+        container.addMessageListener(sensorLatestListenerAdapter, new ChannelTopic(LatestReadingCache.CHANNEL));
         return container;
     }
 }
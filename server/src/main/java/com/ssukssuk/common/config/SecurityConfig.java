@@ -50,6 +50,12 @@ public class SecurityConfig {
                 )
 
                 .authorizeHttpRequests(auth -> auth
+                        // 운영 관리 API (스풀 재처리/삭제 등) 는 관리자만 (아래 /api/admin/** permitAll 보다 먼저 매칭)
+                        .requestMatchers(
+                                "/api/admin/ingest/**",
+                                "/api/admin/sensor-rollups/**",
+                                "/api/admin/sensor-alerts/**"
+                        ).hasRole("ADMIN")
                         .requestMatchers(
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
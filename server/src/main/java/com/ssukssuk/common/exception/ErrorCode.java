@@ -25,6 +25,12 @@ public enum ErrorCode {
             "새 비밀번호 확인이 일치하지 않습니다"
     ),
 
+    INVALID_TIME_RANGE(
+            HttpStatus.BAD_REQUEST,
+            "INVALID_TIME_RANGE",
+            "조회 기간이 올바르지 않습니다"
+    ),
+
     // 401
     UNAUTHORIZED(
             HttpStatus.UNAUTHORIZED,
@@ -153,6 +159,13 @@ public enum ErrorCode {
             "이미 대표 식물이 존재합니다"
     ),
 
+    // 429
+    EXPORT_BUSY(
+            HttpStatus.TOO_MANY_REQUESTS,
+            "EXPORT_BUSY",
+            "진행 중인 내보내기가 많습니다. 잠시 후 다시 시도해주세요"
+    ),
+
     // 500
     INTERNAL_SERVER_ERROR(
             HttpStatus.INTERNAL_SERVER_ERROR,
@@ -0,0 +1,48 @@
+package com.ssukssuk.controller.admin;
+
+import com.ssukssuk.common.exception.CustomException;
+import com.ssukssuk.common.exception.ErrorCode;
+import com.ssukssuk.common.response.ApiResponse;
+import com.ssukssuk.service.history.DailyBackfill;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
+
+/**
+ * 하루씩 재계산하는 백필 관리 API 공통
+ * - GET  {base}/backfill : 진행 상태
+ * - POST {base}/backfill?from=&to=&plantId= : [from, to) 재계산 시작 (비동기, 한 번에 하나)
+ */
+public abstract class DailyBackfillAdminController {
+
+    private final DailyBackfill backfill;
+
+    protected DailyBackfillAdminController(DailyBackfill backfill) {
+        this.backfill = backfill;
+    }
+
+    @GetMapping("/backfill")
+    public ApiResponse<DailyBackfill.Status> backfillStatus() {
+        return ApiResponse.ok(backfill.status());
+    }
+
+    /** @return 시작했으면 true, 이미 진행 중이면 false */
+    @PostMapping("/backfill")
+    public ApiResponse<Boolean> backfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long plantId
+    ) {
+        if (!from.isBefore(to)) {
+            throw new CustomException(ErrorCode.INVALID_TIME_RANGE);
+        }
+        if (!backfill.tryStart(from, to)) {
+            return ApiResponse.ok(false);
+        }
+        backfill.run(plantId);
+        return ApiResponse.ok(true);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ssukssuk.controller.admin;
+
+import com.ssukssuk.common.response.ApiResponse;
+import com.ssukssuk.dto.admin.SpoolMessageResponse;
+import com.ssukssuk.infra.mqtt.ingest.DeviceRateLimiter;
+import com.ssukssuk.infra.mqtt.spool.IngestSpool;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * MQTT 수신 관리
+ * - 스풀 (transient 재처리 / poison 조회·재처리·삭제)
+ * - 수신 한도에 걸린 디바이스 조회
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/ingest")
+public class IngestAdminController {
+
+    private final IngestSpool ingestSpool;
+    private final DeviceRateLimiter deviceRateLimiter;
+
+    @GetMapping("/spool")
+    public ApiResponse<IngestSpool.SpoolStatus> status() {
+        return ApiResponse.ok(ingestSpool.status());
+    }
+
+    /** 스케줄 주기를 기다리지 않고 transient 스풀 재처리 */
+    @PostMapping("/spool/replay")
+    public ApiResponse<Integer> replayTransient() {
+        return ApiResponse.ok(ingestSpool.replayTransient());
+    }
+
+    @GetMapping("/poison")
+    public ApiResponse<List<SpoolMessageResponse>> listPoison(
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        List<SpoolMessageResponse> messages = ingestSpool.listPoison(Math.min(limit, 1000)).stream()
+                .map(SpoolMessageResponse::from)
+                .toList();
+        return ApiResponse.ok(messages);
+    }
+
+    /** poison 메시지를 다시 처리. 또 실패한 메시지는 poison 스풀 뒤에 다시 쌓인다. */
+    @PostMapping("/poison/replay")
+    public ApiResponse<Integer> replayPoison(
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return ApiResponse.ok(ingestSpool.replayPoison(Math.min(limit, 10_000)));
+    }
+
+    @DeleteMapping("/poison")
+    public ApiResponse<Long> purgePoison() {
+        return ApiResponse.ok(ingestSpool.purgePoison());
+    }
+
+    /** 최근 5분 안에 수신 한도를 넘긴 디바이스 (버린 건수 많은 순) */
+    @GetMapping("/throttled")
+    public ApiResponse<List<DeviceRateLimiter.ThrottledDevice>> throttled(
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ApiResponse.ok(deviceRateLimiter.throttledDevices(Math.min(limit, 1000)));
+    }
+}
@@ -0,0 +1,18 @@
+package com.ssukssuk.controller.admin;
+
+import com.ssukssuk.service.history.SensorAlertDailyBackfill;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 이상치 일별 카운터 관리
+ * - sensor_event 원본으로 [from, to) 날짜 구간 sensor_alert_daily 재계산 (비동기, 한 번에 하나)
+ */
+@RestController
+@RequestMapping("/api/admin/sensor-alerts")
+public class SensorAlertAdminController extends DailyBackfillAdminController {
+
+    public SensorAlertAdminController(SensorAlertDailyBackfill sensorAlertDailyBackfill) {
+        super(sensorAlertDailyBackfill);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ssukssuk.controller.admin;
+
+import com.ssukssuk.service.history.SensorRollupBackfill;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 센서 집계 관리
+ * - sensor_log 원본으로 [from, to) 날짜 구간 집계 재계산 (비동기, 한 번에 하나)
+ */
+@RestController
+@RequestMapping("/api/admin/sensor-rollups")
+public class SensorRollupAdminController extends DailyBackfillAdminController {
+
+    public SensorRollupAdminController(SensorRollupBackfill sensorRollupBackfill) {
+        super(sensorRollupBackfill);
+    }
+}
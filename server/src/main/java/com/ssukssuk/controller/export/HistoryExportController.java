@@ -0,0 +1,74 @@
+package com.ssukssuk.controller.export;
+
+import com.ssukssuk.common.exception.CustomException;
+import com.ssukssuk.common.exception.ErrorCode;
+import com.ssukssuk.service.export.ExportDataset;
+import com.ssukssuk.service.export.ExportFormat;
+import com.ssukssuk.service.export.HistoryExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 히스토리 전체 내보내기 (파일 다운로드, 스트리밍)
+ * - dataset : SENSOR_LOG / SENSOR_EVENT / ACTION_LOG / IMAGE_INFERENCE
+ * - format  : NDJSON (기본) / CSV, gzip=true 면 .gz
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/export")
+public class HistoryExportController {
+
+    private final HistoryExportService historyExportService;
+
+    // 본인 식물 하나
+    @GetMapping("/plants/{plantId}")
+    public ResponseEntity<StreamingResponseBody> exportPlant(
+            @AuthenticationPrincipal Long userId,
+            @PathVariable Long plantId,
+            @RequestParam ExportDataset dataset,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        StreamingResponseBody body = historyExportService.exportPlant(userId, plantId, dataset, format, gzip);
+        return download("plant-" + plantId + "-" + dataset.fileName(), format, gzip, body);
+    }
+
+    // 사용자의 모든 식물 (본인 또는 관리자)
+    @GetMapping("/users/{targetUserId}")
+    public ResponseEntity<StreamingResponseBody> exportUser(
+            @AuthenticationPrincipal Long userId,
+            Authentication authentication,
+            @PathVariable Long targetUserId,
+            @RequestParam ExportDataset dataset,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        if (!targetUserId.equals(userId) && !admin) {
+            throw new CustomException(ErrorCode.FORBIDDEN);
+        }
+        StreamingResponseBody body = historyExportService.exportUser(targetUserId, dataset, format, gzip);
+        return download("user-" + targetUserId + "-" + dataset.fileName(), format, gzip, body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> download(String name, ExportFormat format, boolean gzip,
+                                                           StreamingResponseBody body) {
+        String fileName = name + "." + format.extension() + (gzip ? ".gz" : "");
+        MediaType type = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(format.contentType() + ";charset=UTF-8");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .contentType(type)
+                .body(body);
+    }
+}
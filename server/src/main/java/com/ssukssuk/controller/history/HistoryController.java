@@ -3,15 +3,23 @@ package com.ssukssuk.controller.history;
 import com.ssukssuk.common.response.ApiResponse;
 import com.ssukssuk.dto.history.GetPlantImagesResponse;
 import com.ssukssuk.dto.history.PlantHistoryResponse;
+import com.ssukssuk.dto.history.SensorHistoryResponse;
 import com.ssukssuk.dto.history.SensorLogResponse;
+import com.ssukssuk.dto.history.SensorRollupResponse;
+import com.ssukssuk.domain.history.SensorRollupResolution;
 import com.ssukssuk.service.history.PlantHistoryQueryService;
 import com.ssukssuk.service.history.PlantImageQueryService;
+import com.ssukssuk.service.history.SensorHistoryService;
 import com.ssukssuk.service.history.SensorLogService;
+import com.ssukssuk.service.history.SensorRollupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/api/history")
 @RequiredArgsConstructor
@@ -20,6 +28,8 @@ public class HistoryController {
     private final SensorLogService sensorLogService;
     private final PlantImageQueryService plantImageQueryService;
     private final PlantHistoryQueryService plantHistoryQueryService;
+    private final SensorRollupService sensorRollupService;
+    private final SensorHistoryService sensorHistoryService;
 
     @GetMapping("/{plantId}/sensors/latest")
     public ResponseEntity<SensorLogResponse> getLatestSensor(
@@ -52,4 +62,33 @@ public class HistoryController {
         return ResponseEntity.ok(ApiResponse.ok(data));
     }
 
-}
\ No newline at end of file
+    // 센서 집계 (분/시/일) - from/to 는 KST, 생략하면 해상도별 기본 기간
+    @GetMapping("/plants/{plantId}/sensors/rollups")
+    public ResponseEntity<ApiResponse<SensorRollupResponse>> getSensorRollups(
+            @AuthenticationPrincipal Long userId,
+            @PathVariable Long plantId,
+            @RequestParam(defaultValue = "HOUR") SensorRollupResolution resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        SensorRollupResponse data =
+                sensorRollupService.getRollups(userId, plantId, resolution, from, to);
+
+        return ResponseEntity.ok(ApiResponse.ok(data));
+    }
+
+    // 센서 히스토리 (임의 구간) - 센서별 최대 points 개로 LTTB 다운샘플링, from/to 는 KST, 생략하면 최근 1일
+    @GetMapping("/plants/{plantId}/sensors")
+    public ResponseEntity<ApiResponse<SensorHistoryResponse>> getSensorHistory(
+            @AuthenticationPrincipal Long userId,
+            @PathVariable Long plantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "300") int points
+    ) {
+        SensorHistoryResponse data =
+                sensorHistoryService.getHistory(userId, plantId, from, to, points);
+
+        return ResponseEntity.ok(ApiResponse.ok(data));
+    }
+}
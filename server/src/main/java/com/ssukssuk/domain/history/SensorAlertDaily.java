@@ -0,0 +1,31 @@
+package com.ssukssuk.domain.history;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 식물/날짜/센서별 이상치(이벤트 OPEN) 횟수.
+ * 이벤트를 여는 트랜잭션에서 upsert 로 1 씩 더하고, 14일 알림 그래프는 이 표만 읽는다.
+ * 쓰기/조회는 SensorAlertDailyRepository 의 native 쿼리로 하고, 엔티티는 스키마 정의용이다.
+ */
+@Getter
+@Entity
+// PK 컬럼 순서는 Hibernate 가 정하므로 식물별 날짜 범위 조회용 인덱스를 따로 둔다
+@Table(name = "sensor_alert_daily", indexes = {
+        @Index(name = "idx_sensor_alert_daily_plant", columnList = "plant_id, alert_date, sensor_code")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SensorAlertDaily {
+
+    @EmbeddedId
+    private SensorAlertDailyId id;
+
+    @Column(name = "alert_count", nullable = false)
+    private Integer alertCount;
+}
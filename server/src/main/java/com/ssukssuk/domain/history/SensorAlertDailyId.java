@@ -0,0 +1,30 @@
+package com.ssukssuk.domain.history;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@Embeddable
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class SensorAlertDailyId implements Serializable {
+
+    @Column(name = "plant_id")
+    private Long plantId;
+
+    // 이벤트가 열린 날짜 (KST, started_at 기준)
+    @Column(name = "alert_date")
+    private LocalDate alertDate;
+
+    @Column(name = "sensor_code")
+    private Integer sensorCode;
+}
@@ -8,7 +8,11 @@ import java.time.LocalDateTime;
 
 @Getter
 @Entity
-@Table(name = "sensor_event")
+// 열린 이벤트 조회 (OpenEventTable 을 못 쓸 때), 날짜 범위 재계산 (SensorAlertDailyBackfill)
+@Table(name = "sensor_event", indexes = {
+        @Index(name = "idx_sensor_event_open", columnList = "plant_id, sensor_code, state, started_at"),
+        @Index(name = "idx_sensor_event_started", columnList = "started_at")
+})
 public class SensorEvent {
 
     @Id
@@ -21,12 +25,13 @@ public class SensorEvent {
 
     private Integer sensorCode;
 
+    // sensor_log 는 파티션 테이블이라 FK 없음 (보관 기간이 지나 지워지면 NULL)
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "first_sensor_log_id")
+    @JoinColumn(name = "first_sensor_log_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private SensorLog firstSensorLog;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "last_sensor_log_id")
+    @JoinColumn(name = "last_sensor_log_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private SensorLog lastSensorLog;
 
     /**
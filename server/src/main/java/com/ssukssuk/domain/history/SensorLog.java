@@ -7,7 +7,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sensor_log")
+// measured_at 월 단위 RANGE 파티션 (SensorLogPartitionMaintenance) → FK 를 둘 수 없다
+@Table(name = "sensor_log", indexes = {
+        @Index(name = "idx_sensor_log_plant_measured", columnList = "plant_id, measured_at")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
@@ -19,7 +22,8 @@ public class SensorLog {
     private Long sensorLogId;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "plant_id", nullable = false)
+    @JoinColumn(name = "plant_id", nullable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private UserPlant plant;
 
     @Column(name = "measured_at", nullable = false)
@@ -0,0 +1,55 @@
+package com.ssukssuk.domain.history;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.MappedSuperclass;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 식물별 센서 집계 (분/시/일 테이블 공통 컬럼).
+ * 값마다 min/max/sum/cnt/last 를 두어 증분 upsert 로 합칠 수 있게 한다 (avg = sum / cnt).
+ * 쓰기/조회는 SensorRollupService 가 JDBC 로 하고, 엔티티는 스키마 정의용이다.
+ */
+@Getter
+@MappedSuperclass
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public abstract class SensorRollup {
+
+    @EmbeddedId
+    private SensorRollupId id;
+
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+
+    // 구간 안 마지막 측정 시각 (last 값 기준)
+    @Column(name = "last_at", nullable = false)
+    private LocalDateTime lastAt;
+
+    private Float temperatureMin;
+    private Float temperatureMax;
+    private Double temperatureSum;
+    private Integer temperatureCnt;
+    private Float temperatureLast;
+
+    private Float humidityMin;
+    private Float humidityMax;
+    private Double humiditySum;
+    private Integer humidityCnt;
+    private Float humidityLast;
+
+    private Float waterLevelMin;
+    private Float waterLevelMax;
+    private Double waterLevelSum;
+    private Integer waterLevelCnt;
+    private Float waterLevelLast;
+
+    private Float nutrientConcMin;
+    private Float nutrientConcMax;
+    private Double nutrientConcSum;
+    private Integer nutrientConcCnt;
+    private Float nutrientConcLast;
+}
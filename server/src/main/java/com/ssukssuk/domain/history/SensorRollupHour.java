@@ -0,0 +1,16 @@
+package com.ssukssuk.domain.history;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+// 1시간 단위 센서 집계
+@Entity
+@Table(name = "sensor_rollup_hour", indexes = {
+        @Index(name = "idx_sensor_rollup_hour_bucket", columnList = "bucket_start")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SensorRollupHour extends SensorRollup {
+}
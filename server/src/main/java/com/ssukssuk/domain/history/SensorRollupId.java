@@ -0,0 +1,27 @@
+package com.ssukssuk.domain.history;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Getter
+@Embeddable
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class SensorRollupId implements Serializable {
+
+    @Column(name = "plant_id")
+    private Long plantId;
+
+    // 구간 시작 (KST, 분/시/일 단위로 자른 measured_at)
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+}
@@ -0,0 +1,43 @@
+package com.ssukssuk.domain.history;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 센서 집계 해상도.
+ * bucketFormat 은 MySQL DATE_FORMAT 으로 measured_at 을 구간 시작으로 자르는 형식이다.
+ */
+public enum SensorRollupResolution {
+
+    MINUTE("sensor_rollup_minute", ChronoUnit.MINUTES, "%Y-%m-%d %H:%i:00",
+            Duration.ofHours(2), Duration.ofDays(2)),
+    HOUR("sensor_rollup_hour", ChronoUnit.HOURS, "%Y-%m-%d %H:00:00",
+            Duration.ofDays(2), Duration.ofDays(92)),
+    DAY("sensor_rollup_day", ChronoUnit.DAYS, "%Y-%m-%d 00:00:00",
+            Duration.ofDays(30), Duration.ofDays(366 * 5));
+
+    private final String table;
+    private final ChronoUnit unit;
+    private final String bucketFormat;
+    private final Duration defaultSpan;
+    private final Duration maxSpan;
+
+    SensorRollupResolution(String table, ChronoUnit unit, String bucketFormat,
+                           Duration defaultSpan, Duration maxSpan) {
+        this.table = table;
+        this.unit = unit;
+        this.bucketFormat = bucketFormat;
+        this.defaultSpan = defaultSpan;
+        this.maxSpan = maxSpan;
+    }
+
+    public String table() { return table; }
+    public String bucketFormat() { return bucketFormat; }
+    public Duration defaultSpan() { return defaultSpan; }
+    public Duration maxSpan() { return maxSpan; }
+
+    public LocalDateTime truncate(LocalDateTime t) {
+        return t.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ssukssuk.dto.admin;
+
+import com.ssukssuk.infra.mqtt.spool.IngestSpool;
+import com.ssukssuk.infra.mqtt.spool.SpoolRecord;
+
+import java.time.Instant;
+
+public record SpoolMessageResponse(
+        long segmentId,
+        int offset,
+        Instant receivedAt,
+        String topic,
+        String reason,
+        int payloadBytes,
+        String payloadPreview
+) {
+    public static SpoolMessageResponse from(SpoolRecord record) {
+        return new SpoolMessageResponse(
+                record.segmentId(),
+                record.offset(),
+                Instant.ofEpochMilli(record.receivedAt()),
+                record.topic(),
+                record.reason(),
+                record.payload().length,
+                IngestSpool.preview(record.payload())
+        );
+    }
+}
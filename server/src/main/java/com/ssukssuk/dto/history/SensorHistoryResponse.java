@@ -0,0 +1,33 @@
+package com.ssukssuk.dto.history;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Builder
+public class SensorHistoryResponse {
+
+    private Long plantId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    // 요청한 센서별 최대 점 수
+    private Integer points;
+    // 구간 안 원본 측정값 수
+    private Long sampleCount;
+
+    // 센서별로 LTTB 로 고른 점 (시간 순)
+    private List<Point> temperature;
+    private List<Point> humidity;
+    private List<Point> waterLevel;
+    private List<Point> nutrientConc;
+
+    @Getter
+    @Builder
+    public static class Point {
+        private LocalDateTime measuredAt;
+        private Float value;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ssukssuk.dto.history;
+
+import com.ssukssuk.domain.history.SensorRollupResolution;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Builder
+public class SensorRollupResponse {
+
+    private Long plantId;
+    private SensorRollupResolution resolution;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<Point> points;
+
+    @Getter
+    @Builder
+    public static class Point {
+        private LocalDateTime bucketStart;
+        private Integer sampleCount;
+        private Stat temperature;
+        private Stat humidity;
+        private Stat waterLevel;
+        private Stat nutrientConc;
+    }
+
+    // 해당 구간에 값이 하나도 없으면 null
+    @Getter
+    @Builder
+    public static class Stat {
+        private Float min;
+        private Float max;
+        private Float avg;
+        private Float last;
+    }
+}
@@ -2,4 +2,7 @@ package com.ssukssuk.infra.idempotency;
 
 public interface IdempotencyService {
     boolean markIfFirst(String key);
+
+    /** 처리가 일시적 오류로 실패해 재처리될 메시지의 마크를 해제 */
+    void release(String key);
 }
\ No newline at end of file
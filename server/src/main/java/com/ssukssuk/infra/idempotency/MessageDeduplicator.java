@@ -0,0 +1,62 @@
+package com.ssukssuk.infra.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 업링크 메시지 중복 판정 진입점.
+ *
+ * - boot_id + seq 가 있는 메시지: 스트림별 워터마크 + 1024 비트 창 (Redis 키가 메시지 수만큼 늘지 않는다)
+ * - 창보다 오래된 시퀀스, 시퀀스 없는 메시지, 기능 꺼짐: 기존 serial:msg_id 멱등 키
+ */
+@Slf4j
+@Component
+public class MessageDeduplicator {
+
+    private final IdempotencyService idempotencyService;
+    private final SequenceWatermarkStore sequenceStore;
+    private final boolean sequenceEnabled;
+
+    public MessageDeduplicator(
+            IdempotencyService idempotencyService,
+            SequenceWatermarkStore sequenceStore,
+            @Value("${idempotency.seq.enabled:true}") boolean sequenceEnabled
+    ) {
+        this.idempotencyService = idempotencyService;
+        this.sequenceStore = sequenceStore;
+        this.sequenceEnabled = sequenceEnabled;
+    }
+
+    /** @return 처음 보는 메시지면 true */
+    public boolean markIfFirst(MessageId id) {
+        if (!useSequence(id)) {
+            return idempotencyService.markIfFirst(id.key());
+        }
+        return switch (sequenceStore.mark(id.streamKey(), id.bootId(), id.seq())) {
+            case FIRST -> true;
+            case NEW_BOOT -> {
+                log.info("[IDEMPOTENCY] sequence reset (new boot). {}", id);
+                yield true;
+            }
+            case DUPLICATE -> false;
+            // 재연결 후 몰아서 올라온 오래된 메시지, 직전보다 오래된 부팅 등: 비트로는 알 수 없으므로 msg_id 로 판정
+            case TOO_OLD -> idempotencyService.markIfFirst(id.key());
+        };
+    }
+
+    /** 처리가 일시적 오류로 실패해 재처리될 메시지의 마크를 해제 */
+    public void release(MessageId id) {
+        if (!useSequence(id)) {
+            idempotencyService.release(id.key());
+            return;
+        }
+        if (!sequenceStore.unmark(id.streamKey(), id.bootId(), id.seq())) {
+            idempotencyService.release(id.key());
+        }
+    }
+
+    private boolean useSequence(MessageId id) {
+        return sequenceEnabled && id.hasSequence();
+    }
+}
@@ -0,0 +1,29 @@
+package com.ssukssuk.infra.idempotency;
+
+/**
+ * 업링크 메시지 식별 정보.
+ * boot_id + seq 가 있으면 시퀀스 워터마크로, 없으면 serial:msg_id 키로 중복을 거른다.
+ *
+ * @param stream 시퀀스를 따로 세는 단위 (채널 이름). 디바이스는 부팅마다 스트림별로 0 부터 올린다.
+ */
+public record MessageId(String serial, String stream, String msgId, String bootId, Long seq) {
+
+    public boolean hasSequence() {
+        return bootId != null && !bootId.isBlank() && seq != null && seq >= 0;
+    }
+
+    String key() {
+        return serial + ":" + msgId;
+    }
+
+    String streamKey() {
+        return serial + ":" + stream;
+    }
+
+    @Override
+    public String toString() {
+        return hasSequence()
+                ? serial + ":" + stream + "@" + bootId + "#" + seq
+                : key();
+    }
+}
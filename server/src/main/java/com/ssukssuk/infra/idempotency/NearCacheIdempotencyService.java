@@ -0,0 +1,331 @@
+package com.ssukssuk.infra.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Redis 멱등 체크 앞단의 프로세스 내 캐시.
+ *
+ * 로컬 집합은 시간 버킷(세대) 링 × lock 스트라이프 구조다. TTL(10분)을 덮을 만큼 세대를 두고,
+ * 만료된 세대는 접근 시 비운다. 스트라이프당 최대 개수를 넘으면 로컬에 넣지 않는다.
+ *
+ * 판정 규칙
+ * - 로컬에 있으면 중복 → Redis 없이 false (QoS1 재전송 대부분이 여기서 걸린다)
+ * - 로컬에 없고 "로컬 권위" 상태면 → 로컬에 마크하고 true, Redis 에는 모아서 비동기로 기록
+ * - 그 외에는 기존처럼 Redis SETNX 결과를 따른다
+ *
+ * 로컬 권위 조건 (로컬에 없다는 것이 곧 처음이라는 뜻이 되는 경우)
+ * - 공유 구독(mqtt.inbound.shared-group)을 쓰지 않음 → 같은 디바이스 메시지는 이 노드로만 온다
+ * - 기동 후 TTL 이 지남 → 재시작 전에 처리한 키는 그동안 Redis 로 확인
+ * - 최근 TTL 안에 해당 스트라이프가 용량 초과로 키를 놓친 적 없음
+ */
+@Slf4j
+@Primary
+@Service
+public class NearCacheIdempotencyService implements IdempotencyService {
+
+    private static final int FLUSH_BATCH = 1000;
+
+    private final RedisIdempotencyService redis;
+    private final boolean enabled;
+    private final boolean sharedMode;
+
+    private final long bucketMillis;
+    private final int generations;
+    private final int maxEntriesPerStripe;
+    private final Stripe[] stripes;
+    private final long authoritativeAfterMillis;
+
+    // Redis 비동기 기록 대기 키
+    private final ConcurrentLinkedQueue<String> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final int maxPendingWrites;
+
+    // 200ms 주기 기록은 공용 @Scheduled 스레드와 나눠 쓰지 않도록 전용 스레드에서
+    private final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "idempotency-near-flusher");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final Counter hit;
+    private final Counter missLocal;
+    private final Counter missRedis;
+    private final Counter redisAsync;
+    private final Counter redisAsyncFailed;
+    private final Counter overflow;
+
+    public NearCacheIdempotencyService(
+            RedisIdempotencyService redis,
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.near.enabled:true}") boolean enabled,
+            @Value("${idempotency.near.max-entries:200000}") int maxEntries,
+            @Value("${idempotency.near.stripes:64}") int stripeCount,
+            @Value("${idempotency.near.bucket-seconds:60}") int bucketSeconds,
+            @Value("${idempotency.near.max-pending-writes:50000}") int maxPendingWrites,
+            @Value("${idempotency.near.flush-interval-ms:200}") long flushIntervalMillis,
+            @Value("${mqtt.inbound.shared-group:}") String sharedGroup
+    ) {
+        this.redis = redis;
+        this.enabled = enabled;
+        this.sharedMode = sharedGroup != null && !sharedGroup.isBlank();
+
+        long ttlMillis = RedisIdempotencyService.TTL.toMillis();
+        this.bucketMillis = bucketSeconds * 1000L;
+        // 가장 오래된 세대가 만료될 때도 TTL 만큼은 남아 있도록 한 세대 더
+        this.generations = (int) ((ttlMillis + bucketMillis - 1) / bucketMillis) + 1;
+        this.maxEntriesPerStripe = Math.max(1, maxEntries / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(generations);
+        }
+        this.authoritativeAfterMillis = System.currentTimeMillis() + ttlMillis;
+        this.maxPendingWrites = maxPendingWrites;
+
+        this.hit = lookups(meterRegistry, "hit");
+        this.missLocal = lookups(meterRegistry, "miss_local");
+        this.missRedis = lookups(meterRegistry, "miss_redis");
+        this.redisAsync = Counter.builder("idempotency.redis.async")
+                .description("Redis 에 비동기(파이프라인)로 기록한 멱등 키 수")
+                .register(meterRegistry);
+        this.redisAsyncFailed = Counter.builder("idempotency.redis.async.failed")
+                .description("Redis 비동기 기록 실패로 버린 멱등 키 수")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("idempotency.near.overflow")
+                .description("로컬 용량 초과로 로컬에 넣지 못한 멱등 키 수")
+                .register(meterRegistry);
+        Gauge.builder("idempotency.near.entries", this, NearCacheIdempotencyService::entries)
+                .description("로컬 멱등 캐시 키 수")
+                .register(meterRegistry);
+        Gauge.builder("idempotency.redis.pending", pendingCount, AtomicInteger::get)
+                .description("Redis 비동기 기록 대기 키 수")
+                .register(meterRegistry);
+
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+
+        log.info("[IDEMPOTENCY] near cache enabled={}, sharedMode={}, maxEntries={}, stripes={}, generations={}x{}s",
+                enabled, sharedMode, maxEntries, stripeCount, generations, bucketSeconds);
+    }
+
+    @Override
+    public boolean markIfFirst(String key) {
+        if (!enabled) return redis.markIfFirst(key);
+
+        long now = System.currentTimeMillis();
+        long epoch = now / bucketMillis;
+        Stripe stripe = stripeOf(key);
+
+        synchronized (stripe) {
+            stripe.expire(epoch);
+            if (stripe.contains(key, epoch)) {
+                hit.increment();
+                return false;
+            }
+            if (isLocalAuthoritative(now) && stripe.authoritative(epoch)) {
+                if (stripe.add(key, epoch, maxEntriesPerStripe)) {
+                    missLocal.increment();
+                    enqueueWrite(key);
+                    return true;
+                }
+                overflow.increment();
+            }
+        }
+
+        // 로컬만으로 판단할 수 없음 → Redis 가 기준
+        missRedis.increment();
+        boolean first = redis.markIfFirst(key);
+        synchronized (stripe) {
+            // 결과와 관계없이 기억해 두면 이후 재전송은 로컬에서 걸러진다
+            if (!stripe.add(key, epoch, maxEntriesPerStripe)) {
+                overflow.increment();
+            }
+        }
+        return first;
+    }
+
+    @Override
+    public void release(String key) {
+        if (enabled) {
+            Stripe stripe = stripeOf(key);
+            synchronized (stripe) {
+                stripe.remove(key);
+            }
+        }
+        redis.release(key);
+    }
+
+    /** 종료 시 남은 대기 키까지 기록 */
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /** 비동기 기록 대기 키를 파이프라인으로 Redis 에 반영 (재시작/다른 노드 대비) */
+    public synchronized void flush() {
+        List<String> batch = new ArrayList<>(Math.min(FLUSH_BATCH, pendingCount.get()));
+        String key;
+        while ((key = pendingWrites.poll()) != null) {
+            pendingCount.decrementAndGet();
+            // release() 된 키는 다시 마크하지 않는다
+            if (containsLocally(key)) batch.add(key);
+            if (batch.size() >= FLUSH_BATCH) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        write(batch);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("[IDEMPOTENCY] near cache flush failed. cause={}", e.toString());
+        }
+    }
+
+    private void write(List<String> keys) {
+        if (keys.isEmpty()) return;
+        try {
+            redis.markAll(keys);
+            redisAsync.increment(keys.size());
+        } catch (RuntimeException e) {
+            redisAsyncFailed.increment(keys.size());
+            log.warn("[IDEMPOTENCY] async redis write failed. keys={}, cause={}", keys.size(), e.toString());
+        }
+    }
+
+    private void enqueueWrite(String key) {
+        if (pendingCount.incrementAndGet() <= maxPendingWrites) {
+            pendingWrites.add(key);
+            return;
+        }
+        // 대기열이 넘치면 바로 기록 (Redis 가 느린 상황에서 메모리 무한 증가 방지)
+        pendingCount.decrementAndGet();
+        try {
+            redis.markIfFirst(key);
+        } catch (RuntimeException e) {
+            redisAsyncFailed.increment();
+            log.warn("[IDEMPOTENCY] redis write failed. key={}, cause={}", key, e.toString());
+        }
+    }
+
+    private boolean containsLocally(String key) {
+        long epoch = System.currentTimeMillis() / bucketMillis;
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            return stripe.contains(key, epoch);
+        }
+    }
+
+    private boolean isLocalAuthoritative(long now) {
+        return !sharedMode && now >= authoritativeAfterMillis;
+    }
+
+    private Stripe stripeOf(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[Math.floorMod(h, stripes.length)];
+    }
+
+    private double entries() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.size;
+            }
+        }
+        return total;
+    }
+
+    private static Counter lookups(MeterRegistry registry, String result) {
+        return Counter.builder("idempotency.near.lookups")
+                .description("멱등 체크 결과 (hit=로컬 중복, miss_local=로컬 판정, miss_redis=Redis 판정)")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /** 세대 링 하나 (모든 접근은 stripe 모니터 안에서) */
+    private static final class Stripe {
+
+        private final HashSet<String>[] sets;
+        private final long[] epochs;
+        private int size;
+        private long lastOverflowEpoch = Long.MIN_VALUE / 2;
+
+        @SuppressWarnings("unchecked")
+        Stripe(int generations) {
+            this.sets = new HashSet[generations];
+            this.epochs = new long[generations];
+            for (int i = 0; i < generations; i++) {
+                sets[i] = new HashSet<>();
+                epochs[i] = Long.MIN_VALUE / 2;
+            }
+        }
+
+        /** 만료된 세대를 비운다 */
+        void expire(long epoch) {
+            for (int i = 0; i < sets.length; i++) {
+                if (epoch - epochs[i] >= sets.length && !sets[i].isEmpty()) {
+                    size -= sets[i].size();
+                    sets[i].clear();
+                }
+            }
+        }
+
+        boolean contains(String key, long epoch) {
+            for (int i = 0; i < sets.length; i++) {
+                if (epoch - epochs[i] < sets.length && sets[i].contains(key)) return true;
+            }
+            return false;
+        }
+
+        boolean add(String key, long epoch, int max) {
+            if (size >= max) {
+                lastOverflowEpoch = epoch;
+                return false;
+            }
+            int slot = (int) Math.floorMod(epoch, (long) sets.length);
+            if (epochs[slot] != epoch) {
+                size -= sets[slot].size();
+                sets[slot].clear();
+                epochs[slot] = epoch;
+            }
+            if (sets[slot].add(key)) size++;
+            return true;
+        }
+
+        void remove(String key) {
+            for (HashSet<String> set : sets) {
+                if (set.remove(key)) size--;
+            }
+        }
+
+        /** 최근 TTL 안에 용량 초과로 키를 놓친 적이 없으면 로컬 부재 = 처음 */
+        boolean authoritative(long epoch) {
+            return epoch - lastOverflowEpoch >= sets.length;
+        }
+    }
+}
@@ -1,21 +1,46 @@
 package com.ssukssuk.infra.idempotency;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Collection;
 
 @Service
 @RequiredArgsConstructor
 public class RedisIdempotencyService implements IdempotencyService {
 
+    static final Duration TTL = Duration.ofMinutes(10);
+    private static final byte[] MARK = "1".getBytes(StandardCharsets.UTF_8);
+
     private final StringRedisTemplate redis;
-    private static final Duration TTL = Duration.ofMinutes(10);
 
     @Override
     public boolean markIfFirst(String key) {
         Boolean ok = redis.opsForValue().setIfAbsent(key, "1", TTL);
         return Boolean.TRUE.equals(ok);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void release(String key) {
+        redis.delete(key);
+    }
+
+    /** 여러 키를 파이프라인 한 번으로 마크 (SET NX EX, 결과는 보지 않는다) */
+    public void markAll(Collection<String> keys) {
+        if (keys.isEmpty()) return;
+        Expiration expiration = Expiration.from(TTL);
+        redis.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.stringCommands().set(key.getBytes(StandardCharsets.UTF_8), MARK,
+                        expiration, RedisStringCommands.SetOption.SET_IF_ABSENT);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,380 @@
+package com.ssukssuk.infra.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스트림별 시퀀스 워터마크 저장소.
+ *
+ * 단일 노드(공유 구독 없음): 메모리의 SequenceWindow 가 기준이고, 바뀐 스트림만 모아서 Redis 에 미러링한다.
+ *   처음 보는 스트림(기동 직후/메모리에서 정리된 뒤)은 Redis 미러에서 복원한다.
+ * 공유 구독: 같은 디바이스 메시지가 여러 노드로 나뉘므로 Redis 에서 Lua 로 원자적으로 판정한다.
+ *
+ * Redis 키 (스트림당 3개, 메시지 수와 무관)
+ * - idem:seq:{serial:channel}     해시 boot, hw (현재 부팅), pboot, phw (직전 부팅)
+ * - idem:seq:{serial:channel}:bm  현재 부팅 비트맵 (seq % 1024 위치)
+ * - idem:seq:{serial:channel}:pbm 직전 부팅 비트맵
+ * 부팅 세대 규칙은 SequenceWindow 와 같다 (직전 부팅 메시지는 직전 창, 더 작은 부팅 카운터는 TOO_OLD).
+ */
+@Slf4j
+@Component
+public class SequenceWatermarkStore {
+
+    private static final String KEY_PREFIX = "idem:seq:{";
+    private static final byte[] BOOT = "boot".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HW = "hw".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PREV_BOOT = "pboot".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PREV_HW = "phw".getBytes(StandardCharsets.UTF_8);
+    private static final int FLUSH_BATCH = 500;
+
+    // 결과: 0=DUPLICATE, 1=FIRST, 2=TOO_OLD, 3=NEW_BOOT
+    // KEYS: 해시, 현재 비트맵, 직전 비트맵 / ARGV: boot, seq, 창 크기, ttl
+    private static final RedisScript<Long> MARK = new DefaultRedisScript<>("""
+            local cur = redis.call('HMGET', KEYS[1], 'boot', 'hw', 'pboot', 'phw')
+            local seq, w = tonumber(ARGV[2]), tonumber(ARGV[3])
+            local function mark(bm, field, hw)
+              if seq > hw then
+                if seq - hw >= w then
+                  redis.call('DEL', bm)
+                else
+                  for s = hw + 1, seq - 1 do redis.call('SETBIT', bm, s % w, 0) end
+                end
+                redis.call('SETBIT', bm, seq % w, 1)
+                redis.call('HSET', KEYS[1], field, ARGV[2])
+                return 1
+              elseif hw - seq >= w then
+                return 2
+              elseif redis.call('SETBIT', bm, seq % w, 1) == 1 then
+                return 0
+              end
+              return 1
+            end
+            local function counter(b)
+              return b and #b <= 15 and string.match(b, '^%d+$') ~= nil
+            end
+            local result
+            if cur[1] == ARGV[1] then
+              result = mark(KEYS[2], 'hw', tonumber(cur[2]))
+            elseif cur[3] == ARGV[1] then
+              result = mark(KEYS[3], 'phw', tonumber(cur[4]))
+            elseif counter(cur[1]) and counter(ARGV[1]) and tonumber(ARGV[1]) < tonumber(cur[1]) then
+              result = 2
+            else
+              if cur[1] then
+                if redis.call('EXISTS', KEYS[2]) == 1 then
+                  redis.call('RENAME', KEYS[2], KEYS[3])
+                else
+                  redis.call('DEL', KEYS[3])
+                end
+                redis.call('HSET', KEYS[1], 'pboot', cur[1], 'phw', cur[2])
+              end
+              redis.call('DEL', KEYS[2])
+              redis.call('HSET', KEYS[1], 'boot', ARGV[1], 'hw', ARGV[2])
+              redis.call('SETBIT', KEYS[2], seq % w, 1)
+              result = 3
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[4])
+            redis.call('EXPIRE', KEYS[2], ARGV[4])
+            redis.call('EXPIRE', KEYS[3], ARGV[4])
+            return result
+            """, Long.class);
+
+    // 결과: 1=창 안이라 비트 해제, 0=창 밖
+    private static final RedisScript<Long> UNMARK = new DefaultRedisScript<>("""
+            local cur = redis.call('HMGET', KEYS[1], 'boot', 'hw', 'pboot', 'phw')
+            local bm, hw
+            if cur[1] == ARGV[1] then
+              bm, hw = KEYS[2], tonumber(cur[2])
+            elseif cur[3] == ARGV[1] then
+              bm, hw = KEYS[3], tonumber(cur[4])
+            else
+              return 0
+            end
+            local seq, w = tonumber(ARGV[2]), tonumber(ARGV[3])
+            if seq > hw or hw - seq >= w then return 0 end
+            redis.call('SETBIT', bm, seq % w, 0)
+            return 1
+            """, Long.class);
+
+    private static final SequenceWindow.Result[] CODES = {
+            SequenceWindow.Result.DUPLICATE,
+            SequenceWindow.Result.FIRST,
+            SequenceWindow.Result.TOO_OLD,
+            SequenceWindow.Result.NEW_BOOT
+    };
+
+    private final StringRedisTemplate redis;
+    private final boolean sharedMode;
+    private final Duration stateTtl;
+    private final long idleEvictMillis;
+
+    private final ConcurrentHashMap<String, SequenceWindow> windows = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    // 200ms 주기 미러링은 공용 @Scheduled 스레드와 나눠 쓰지 않도록 전용 스레드에서
+    private final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "idempotency-seq-flusher");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final Map<SequenceWindow.Result, Counter> checks = new EnumMap<>(SequenceWindow.Result.class);
+    private final Counter mirrorFailed;
+
+    public SequenceWatermarkStore(
+            StringRedisTemplate redis,
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.seq.state-ttl-hours:24}") long stateTtlHours,
+            @Value("${idempotency.seq.idle-evict-minutes:30}") long idleEvictMinutes,
+            @Value("${idempotency.seq.flush-interval-ms:200}") long flushIntervalMillis,
+            @Value("${mqtt.inbound.shared-group:}") String sharedGroup
+    ) {
+        this.redis = redis;
+        this.sharedMode = sharedGroup != null && !sharedGroup.isBlank();
+        this.stateTtl = Duration.ofHours(stateTtlHours);
+        this.idleEvictMillis = TimeUnit.MINUTES.toMillis(idleEvictMinutes);
+
+        for (SequenceWindow.Result result : SequenceWindow.Result.values()) {
+            checks.put(result, Counter.builder("idempotency.seq.checks")
+                    .description("시퀀스 워터마크 판정 결과")
+                    .tag("result", result.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.mirrorFailed = Counter.builder("idempotency.seq.mirror.failed")
+                .description("Redis 미러링에 실패한 스트림 수 (다음 주기에 다시 시도)")
+                .register(meterRegistry);
+        Gauge.builder("idempotency.seq.streams", windows, Map::size)
+                .description("메모리에 있는 시퀀스 스트림 수")
+                .register(meterRegistry);
+
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+
+        log.info("[IDEMPOTENCY] sequence watermark sharedMode={}, window={}, stateTtl={}h",
+                sharedMode, SequenceWindow.SIZE, stateTtlHours);
+    }
+
+    SequenceWindow.Result mark(String stream, String bootId, long seq) {
+        SequenceWindow.Result result = sharedMode
+                ? markInRedis(stream, bootId, seq)
+                : markLocally(stream, bootId, seq);
+        checks.get(result).increment();
+        return result;
+    }
+
+    /** @return 창 안이라 해제했으면 true */
+    boolean unmark(String stream, String bootId, long seq) {
+        if (sharedMode) {
+            Long r = redis.execute(UNMARK, List.of(hashKey(stream), bitmapKey(stream), previousBitmapKey(stream)),
+                    bootId, Long.toString(seq), Integer.toString(SequenceWindow.SIZE));
+            return r != null && r == 1L;
+        }
+        SequenceWindow window = windows.get(stream);
+        if (window == null) return false;
+        synchronized (window) {
+            if (!window.unmark(bootId, seq)) return false;
+            window.dirty = true;
+        }
+        dirty.add(stream);
+        return true;
+    }
+
+    /** 종료 시 남은 변경까지 미러링 */
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /** 바뀐 스트림 상태를 파이프라인으로 Redis 에 미러링 (재시작 대비) */
+    public synchronized void flush() {
+        if (dirty.isEmpty()) return;
+
+        List<Snapshot> batch = new ArrayList<>();
+        Iterator<String> it = dirty.iterator();
+        while (it.hasNext()) {
+            String stream = it.next();
+            it.remove();
+            SequenceWindow window = windows.get(stream);
+            if (window == null) continue;
+            synchronized (window) {
+                if (!window.dirty) continue;
+                window.dirty = false;
+                batch.add(new Snapshot(stream, window.bootId(), window.highWatermark(), window.toBytes(),
+                        window.previousBootId(), window.previousHighWatermark(), window.previousToBytes()));
+            }
+            if (batch.size() >= FLUSH_BATCH) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        write(batch);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("[IDEMPOTENCY] sequence mirror flush failed. cause={}", e.toString());
+        }
+    }
+
+    /** 오래 조용한 스트림은 메모리에서 뺀다 (미러링이 끝난 것만, 다시 오면 Redis 에서 복원) */
+    @Scheduled(fixedDelayString = "${idempotency.seq.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMillis;
+        windows.entrySet().removeIf(e -> {
+            SequenceWindow w = e.getValue();
+            synchronized (w) {
+                return !w.dirty && w.lastSeenMillis < cutoff;
+            }
+        });
+    }
+
+    private SequenceWindow.Result markLocally(String stream, String bootId, long seq) {
+        SequenceWindow window = windows.get(stream);
+        if (window == null) {
+            // CHM 연산 안에서 Redis 를 기다리지 않도록 밖에서 읽고 넣는다
+            SequenceWindow loaded = load(stream, new SequenceWindow());
+            SequenceWindow prev = windows.putIfAbsent(stream, loaded);
+            window = prev != null ? prev : loaded;
+        }
+        SequenceWindow.Result result;
+        synchronized (window) {
+            window.lastSeenMillis = System.currentTimeMillis();
+            result = window.mark(bootId, seq);
+            if (result != SequenceWindow.Result.DUPLICATE && result != SequenceWindow.Result.TOO_OLD) {
+                window.dirty = true;
+            }
+        }
+        if (result != SequenceWindow.Result.DUPLICATE && result != SequenceWindow.Result.TOO_OLD) {
+            dirty.add(stream);
+        }
+        return result;
+    }
+
+    private SequenceWindow load(String stream, SequenceWindow window) {
+        byte[] hashKey = bytes(hashKey(stream));
+        byte[] bitmapKey = bytes(bitmapKey(stream));
+        byte[] previousBitmapKey = bytes(previousBitmapKey(stream));
+        List<Object> r = redis.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hashCommands().hMGet(hashKey, BOOT, HW, PREV_BOOT, PREV_HW);
+            connection.stringCommands().get(bitmapKey);
+            connection.stringCommands().get(previousBitmapKey);
+            return null;
+        }, null);
+
+        @SuppressWarnings("unchecked")
+        List<byte[]> fields = (List<byte[]>) r.get(0);
+        if (fields != null && fields.get(0) != null && fields.get(1) != null) {
+            boolean hasPrevious = fields.get(2) != null && fields.get(3) != null;
+            window.restore(string(fields.get(0)), Long.parseLong(string(fields.get(1))), (byte[]) r.get(1),
+                    hasPrevious ? string(fields.get(2)) : null,
+                    hasPrevious ? Long.parseLong(string(fields.get(3))) : -1,
+                    (byte[]) r.get(2));
+        }
+        return window;
+    }
+
+    private SequenceWindow.Result markInRedis(String stream, String bootId, long seq) {
+        Long code = redis.execute(MARK, List.of(hashKey(stream), bitmapKey(stream), previousBitmapKey(stream)),
+                bootId, Long.toString(seq), Integer.toString(SequenceWindow.SIZE),
+                Long.toString(stateTtl.toSeconds()));
+        if (code == null) throw new IllegalStateException("sequence mark script returned null");
+        return CODES[code.intValue()];
+    }
+
+    private void write(List<Snapshot> batch) {
+        if (batch.isEmpty()) return;
+        Expiration expiration = Expiration.from(stateTtl);
+        try {
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                for (Snapshot s : batch) {
+                    byte[] hashKey = bytes(hashKey(s.stream()));
+                    connection.hashCommands().hMSet(hashKey, Map.of(
+                            BOOT, bytes(s.bootId()),
+                            HW, bytes(Long.toString(s.highWatermark()))));
+                    connection.stringCommands().set(bytes(bitmapKey(s.stream())), s.bitmap(),
+                            expiration, RedisStringCommands.SetOption.UPSERT);
+                    byte[] previousBitmapKey = bytes(previousBitmapKey(s.stream()));
+                    if (s.previousBootId() != null) {
+                        connection.hashCommands().hMSet(hashKey, Map.of(
+                                PREV_BOOT, bytes(s.previousBootId()),
+                                PREV_HW, bytes(Long.toString(s.previousHighWatermark()))));
+                        connection.stringCommands().set(previousBitmapKey, s.previousBitmap(),
+                                expiration, RedisStringCommands.SetOption.UPSERT);
+                    } else {
+                        connection.hashCommands().hDel(hashKey, PREV_BOOT, PREV_HW);
+                        connection.keyCommands().del(previousBitmapKey);
+                    }
+                    connection.keyCommands().expire(hashKey, stateTtl.toSeconds());
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            mirrorFailed.increment(batch.size());
+            log.warn("[IDEMPOTENCY] sequence mirror failed. streams={}, cause={}", batch.size(), e.toString());
+            for (Snapshot s : batch) {
+                SequenceWindow window = windows.get(s.stream());
+                if (window == null) continue;
+                synchronized (window) {
+                    window.dirty = true;
+                }
+                dirty.add(s.stream());
+            }
+        }
+    }
+
+    private static String hashKey(String stream) {
+        return KEY_PREFIX + stream + "}";
+    }
+
+    private static String bitmapKey(String stream) {
+        return KEY_PREFIX + stream + "}:bm";
+    }
+
+    private static String previousBitmapKey(String stream) {
+        return KEY_PREFIX + stream + "}:pbm";
+    }
+
+    private static String string(byte[] b) {
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Snapshot(String stream, String bootId, long highWatermark, byte[] bitmap,
+                            String previousBootId, long previousHighWatermark, byte[] previousBitmap) {}
+}
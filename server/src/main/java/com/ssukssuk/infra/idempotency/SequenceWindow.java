@@ -0,0 +1,183 @@
+package com.ssukssuk.infra.idempotency;
+
+import java.util.Arrays;
+
+/**
+ * 스트림(디바이스 × 채널) 하나의 시퀀스 워터마크 + 최근 SIZE 개 비트맵.
+ *
+ * 비트 위치는 seq % SIZE 로 링처럼 쓴다. 워터마크(hw)가 앞으로 가면 그 사이 슬롯을 비운다.
+ * Redis 미러와 같은 비트 순서(SETBIT: 바이트 안 MSB 가 먼저)로 직렬화한다.
+ * 모든 접근은 이 객체 모니터 안에서.
+ *
+ * 부팅은 현재/직전 두 세대를 둔다. 재부팅 직후 QoS1 재전송이나 늦게 온 직전 부팅 메시지는
+ * 직전 세대 창으로 판정하고 현재 창을 건드리지 않는다 (둘이 번갈아 와도 서로 초기화하지 않는다).
+ * 둘 다 아닌 boot_id 는 새 부팅으로 보고 현재 세대를 직전으로 내린다.
+ * 단, boot_id 가 부팅 카운터(숫자)라 현재보다 작으면 오래된 부팅이므로 TOO_OLD (호출자가 msg_id 로 판정).
+ */
+final class SequenceWindow {
+
+    static final int SIZE = 1024;
+    static final int BYTES = SIZE / 8;
+    // Redis Lua 숫자(double)로도 정확히 비교되는 자릿수
+    private static final int MAX_COUNTER_DIGITS = 15;
+
+    enum Result { FIRST, NEW_BOOT, DUPLICATE, TOO_OLD }
+
+    private Generation current = new Generation();
+    private Generation previous = new Generation();
+
+    long lastSeenMillis;
+    boolean dirty;
+
+    Result mark(String boot, long seq) {
+        if (boot.equals(current.bootId)) return current.mark(seq);
+        if (boot.equals(previous.bootId)) return previous.mark(seq);
+        if (current.bootId != null && isOlderCounter(boot, current.bootId)) return Result.TOO_OLD;
+
+        Generation retired = previous;
+        previous = current;
+        current = retired;
+        current.reset(boot, seq);
+        current.set(seq);
+        return Result.NEW_BOOT;
+    }
+
+    /** @return 창 안이라 비트를 지웠으면 true (창 밖이면 호출자가 다른 경로로 해제) */
+    boolean unmark(String boot, long seq) {
+        if (boot.equals(current.bootId)) return current.unmark(seq);
+        if (boot.equals(previous.bootId)) return previous.unmark(seq);
+        return false;
+    }
+
+    String bootId() {
+        return current.bootId;
+    }
+
+    long highWatermark() {
+        return current.highWatermark;
+    }
+
+    byte[] toBytes() {
+        return current.toBytes();
+    }
+
+    String previousBootId() {
+        return previous.bootId;
+    }
+
+    long previousHighWatermark() {
+        return previous.highWatermark;
+    }
+
+    byte[] previousToBytes() {
+        return previous.toBytes();
+    }
+
+    /** Redis 미러에서 복원 (직전 세대가 없으면 prevBoot 가 null) */
+    void restore(String boot, long hw, byte[] bitmap, String prevBoot, long prevHw, byte[] prevBitmap) {
+        current.restore(boot, hw, bitmap);
+        if (prevBoot != null) {
+            previous.restore(prevBoot, prevHw, prevBitmap);
+        } else {
+            previous.reset(null, -1);
+        }
+    }
+
+    /** 두 boot_id 가 모두 부팅 카운터(숫자)이고 boot 가 더 작으면 true */
+    static boolean isOlderCounter(String boot, String than) {
+        if (!isCounter(boot) || !isCounter(than)) return false;
+        return Long.parseLong(boot) < Long.parseLong(than);
+    }
+
+    private static boolean isCounter(String s) {
+        if (s.isEmpty() || s.length() > MAX_COUNTER_DIGITS) return false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    /** 부팅 한 번의 워터마크 + 비트맵 */
+    private static final class Generation {
+
+        private final long[] bits = new long[SIZE / 64];
+        private String bootId;
+        private long highWatermark = -1;
+
+        Result mark(long seq) {
+            if (seq > highWatermark) {
+                advance(seq);
+                set(seq);
+                return Result.FIRST;
+            }
+            if (highWatermark - seq >= SIZE) return Result.TOO_OLD;
+            if (get(seq)) return Result.DUPLICATE;
+            set(seq);
+            return Result.FIRST;
+        }
+
+        boolean unmark(long seq) {
+            if (seq > highWatermark || highWatermark - seq >= SIZE) return false;
+            clear(seq);
+            return true;
+        }
+
+        void restore(String boot, long hw, byte[] bitmap) {
+            this.bootId = boot;
+            this.highWatermark = hw;
+            Arrays.fill(bits, 0L);
+            if (bitmap == null) return;
+            for (int i = 0; i < Math.min(bitmap.length, BYTES) * 8; i++) {
+                if ((bitmap[i >>> 3] & (0x80 >>> (i & 7))) != 0) {
+                    bits[i >>> 6] |= 1L << (i & 63);
+                }
+            }
+        }
+
+        byte[] toBytes() {
+            byte[] out = new byte[BYTES];
+            for (int i = 0; i < SIZE; i++) {
+                if ((bits[i >>> 6] & (1L << (i & 63))) != 0) {
+                    out[i >>> 3] |= (byte) (0x80 >>> (i & 7));
+                }
+            }
+            return out;
+        }
+
+        void reset(String boot, long seq) {
+            this.bootId = boot;
+            this.highWatermark = seq;
+            Arrays.fill(bits, 0L);
+        }
+
+        private void advance(long seq) {
+            if (seq - highWatermark >= SIZE) {
+                Arrays.fill(bits, 0L);
+            } else {
+                // 새로 들어오는 구간은 SIZE 전 시퀀스가 쓰던 슬롯이므로 비운다
+                for (long s = highWatermark + 1; s <= seq; s++) clear(s);
+            }
+            highWatermark = seq;
+        }
+
+        private boolean get(long seq) {
+            int i = slot(seq);
+            return (bits[i >>> 6] & (1L << (i & 63))) != 0;
+        }
+
+        private void set(long seq) {
+            int i = slot(seq);
+            bits[i >>> 6] |= 1L << (i & 63);
+        }
+
+        private void clear(long seq) {
+            int i = slot(seq);
+            bits[i >>> 6] &= ~(1L << (i & 63));
+        }
+
+        private static int slot(long seq) {
+            return (int) (seq % SIZE);
+        }
+    }
+}
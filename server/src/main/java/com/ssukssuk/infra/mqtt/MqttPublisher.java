@@ -1,38 +1,43 @@
 package com.ssukssuk.infra.mqtt;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssukssuk.infra.mqtt.outbound.MqttOutboundPool;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.integration.mqtt.outbound.MqttPahoMessageHandler;
-import org.springframework.integration.mqtt.support.MqttHeaders;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 비동기 MQTT 발행기.
+ * - publish() 는 직렬화 후 디바이스 시리얼 기준 연결의 송신 큐에 넣고 바로 CompletableFuture 를 돌려준다
+ * - future 는 브로커 PUBACK 시 완료, 직렬화/큐 초과/전송 실패 시 예외로 완료
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class MqttPublisher {
 
-    private final MqttPahoMessageHandler mqttOutbound;
+    private static final String PREFIX = "devices/";
+
+    private final MqttOutboundPool mqttOutboundPool;
     private final ObjectMapper objectMapper;
 
-    public void publish(String topic, Object payload) {
+    public CompletableFuture<Void> publish(String topic, Object payload) {
+        byte[] bytes;
         try {
-            String json = objectMapper.writeValueAsString(payload);
-
-            mqttOutbound.handleMessage(
-                    MessageBuilder.withPayload(json)
-                            .setHeader(MqttHeaders.TOPIC, topic)
-                            .setHeader(MqttHeaders.QOS, 1)   // ACK는 QoS1 권장
-                            .build()
-            );
-
-            log.info("[MQTT][PUB] topic={}, payload={}", topic, json);
-
+            bytes = objectMapper.writeValueAsBytes(payload);
         } catch (Exception e) {
-            log.error("[MQTT][PUB] FAILED topic={}, payload={}", topic, payload, e);
-            throw new RuntimeException("MQTT publish failed: " + topic, e);
+            log.error("[MQTT][PUB] serialize FAILED topic={}", topic, e);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("[MQTT][PUB] topic={}, payload={}", topic, new String(bytes, StandardCharsets.UTF_8));
         }
+
+        return mqttOutboundPool.submit(routingHash(topic), topic, bytes);
     }
 
     public static String controlTopic(String serialNum, String channel) {
@@ -42,4 +47,22 @@ public class MqttPublisher {
     public static String ackTopic(String serialNum) {
         return "devices/" + serialNum + "/control/ack";
     }
+
+    /**
+     * devices/{serial}/... 의 serial 구간 해시 (substring 없이 String.hashCode 와 같은 방식).
+     * 형식이 다르면 토픽 전체 해시를 쓴다.
+     */
+    private static int routingHash(String topic) {
+        if (!topic.startsWith(PREFIX)) return topic.hashCode();
+
+        int from = PREFIX.length();
+        int to = topic.indexOf('/', from);
+        if (to < 0) to = topic.length();
+
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + topic.charAt(i);
+        }
+        return h;
+    }
 }
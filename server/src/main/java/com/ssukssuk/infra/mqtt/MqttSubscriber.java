@@ -1,8 +1,14 @@
 package com.ssukssuk.infra.mqtt;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
 import com.ssukssuk.infra.mqtt.handler.MqttDispatchHandler;
+import com.ssukssuk.infra.mqtt.ingest.DeviceRateLimiter;
+import com.ssukssuk.infra.mqtt.ingest.IngestMetrics;
+import com.ssukssuk.infra.mqtt.ingest.IngestPriority;
+import com.ssukssuk.infra.mqtt.ingest.MqttIngestLanes;
+import com.ssukssuk.infra.mqtt.spool.IngestSpool;
+import com.ssukssuk.infra.mqtt.topic.SerialRegistry;
+import com.ssukssuk.infra.mqtt.topic.TopicView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.integration.annotation.ServiceActivator;
@@ -14,23 +20,64 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class MqttSubscriber {
 
-    private final ObjectMapper objectMapper;
+    // Paho 콜백 스레드에서 토픽 파싱 결과를 재사용
+    private static final ThreadLocal<TopicView> TOPIC_VIEW = ThreadLocal.withInitial(TopicView::new);
+
     private final MqttDispatchHandler dispatchHandler;
+    private final MqttIngestLanes ingestLanes;
+    private final SerialRegistry serialRegistry;
+    private final IngestSpool ingestSpool;
+    private final IngestMetrics ingestMetrics;
+    private final DeviceRateLimiter deviceRateLimiter;
 
     @ServiceActivator(inputChannel = "mqttInboundChannel")
     public void onMessage(Message<?> message) {
         String topic = String.valueOf(message.getHeaders().get("mqtt_receivedTopic"));
-        String payload = String.valueOf(message.getPayload());
+        byte[] payload = (byte[]) message.getPayload();
 
-        log.info("[MQTT][SUB] topic={}, payload={}", topic, payload);
+        TopicView view = TOPIC_VIEW.get();
+        if (!view.parse(topic)) {
+            log.warn("[MQTT][SUB] invalid topic={}", topic);
+            return;
+        }
+        if (view.format() == null) {
+            log.warn("[MQTT][SUB] unsupported payload format. topic={}", topic);
+            return;
+        }
 
-        try {
-            MqttEnvelope envelope = MqttEnvelope.from(topic, payload, objectMapper);
+        String serial = serialRegistry.intern(view);
+
+        // PERIODIC 센서 값은 LOW 로 넣어 같은 레인의 다른 디바이스 이벤트/ack 보다 뒤에 차례를 준다 (과부하 시 병합/폐기)
+        IngestPriority priority = IngestPriority.classify(view.channel(), view.format(), payload);
+
+        // 디바이스·채널·우선순위별 수신 한도 초과분은 레인에 넣기 전에 버린다 (한 디바이스가 레인/DB 독점 방지)
+        // 이벤트/ack 등 HIGH 는 PERIODIC 과 별도의 더 큰 버킷을 쓰므로 PERIODIC 폭주에 밀리지 않는다
+        if (!deviceRateLimiter.tryAcquire(serial, view.channel(), priority)) {
+            return;
+        }
 
+        MqttEnvelope envelope = MqttEnvelope.from(view, serial, payload);
+
+        if (log.isDebugEnabled()) {
+            log.debug("[MQTT][SUB] topic={}, payload={}", topic, envelope.payloadAsString());
+        }
+
+        // Paho 콜백 스레드에서는 레인 배정만 하고, 실제 처리는 디바이스별 레인 스레드에서 수행
+        ingestLanes.submit(serial, priority, () -> process(envelope));
+    }
+
+    private void process(MqttEnvelope envelope) {
+        // 스풀에 밀린 메시지가 있으면 순서 유지를 위해 뒤에 붙이고 끝
+        if (ingestSpool.spoolIfBacklogged(envelope)) return;
+
+        try {
             dispatchHandler.dispatch(envelope);
+            ingestMetrics.processed(envelope.getChannel());
 
         } catch (Exception e) {
-            log.error("[MQTT] inbound 처리 실패. topic={}, payload={}", topic, payload, e);
+            // DB/Redis 장애 → transient 스풀, 그 외 → poison 스풀
+            ingestMetrics.failed(envelope.getChannel());
+            ingestSpool.onFailure(envelope, e);
         }
     }
-}
\ No newline at end of file
+}
@@ -37,17 +37,26 @@ public final class Topic {
 
     /** topic: devices/{serial}/telemetry/{channel} */
     public static String extractSerial(String topic) {
-        if (topic == null) return null;
-        String[] p = topic.split("/");
-        return (p.length >= 2) ? p[1] : null;
+        return segment(topic, 1);
     }
 
     /** topic: devices/{serial}/telemetry/{channel} -> channel */
     public static String extractTelemetryChannel(String topic) {
-        if (topic == null) return null;
-        String[] p = topic.split("/");
         // devices / {serial} / telemetry / {channel}
-        return (p.length >= 4) ? p[3] : null;
+        return segment(topic, 3);
+    }
+
+    // split("/") 없이 index 번째 세그먼트만 잘라낸다
+    private static String segment(String topic, int index) {
+        if (topic == null) return null;
+        int start = 0;
+        for (int i = 0; i < index; i++) {
+            int slash = topic.indexOf('/', start);
+            if (slash < 0) return null;
+            start = slash + 1;
+        }
+        int end = topic.indexOf('/', start);
+        return topic.substring(start, end < 0 ? topic.length() : end);
     }
 
     public static boolean isTelemetry(String topic) {
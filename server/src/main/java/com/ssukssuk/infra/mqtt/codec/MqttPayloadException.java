@@ -0,0 +1,11 @@
+package com.ssukssuk.infra.mqtt.codec;
+
+/**
+ * payload 디코딩 실패. 재시도해도 성공할 수 없으므로 poison 으로 처리된다.
+ */
+public class MqttPayloadException extends RuntimeException {
+
+    public MqttPayloadException(String topic, Throwable cause) {
+        super("MQTT payload decode failed. topic=" + topic, cause);
+    }
+}
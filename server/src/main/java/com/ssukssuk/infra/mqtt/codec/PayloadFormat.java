@@ -0,0 +1,49 @@
+package com.ssukssuk.infra.mqtt.codec;
+
+/**
+ * telemetry payload 인코딩. 채널 뒤의 토픽 세그먼트로 지정한다.
+ * - devices/{serial}/telemetry/{channel}              → JSON (기존 디바이스)
+ * - devices/{serial}/telemetry/{channel}/cbor         → CBOR
+ * - devices/{serial}/telemetry/{channel}/cbor-deflate → CBOR + zlib(deflate) 압축
+ */
+public enum PayloadFormat {
+    JSON("json", false),
+    CBOR("cbor", false),
+    CBOR_DEFLATE("cbor-deflate", true);
+
+    private static final PayloadFormat[] VALUES = values();
+
+    private final String segment;
+    private final boolean deflated;
+
+    PayloadFormat(String segment, boolean deflated) {
+        this.segment = segment;
+        this.deflated = deflated;
+    }
+
+    public String segment() {
+        return segment;
+    }
+
+    public boolean isDeflated() {
+        return deflated;
+    }
+
+    public boolean isBinary() {
+        return this != JSON;
+    }
+
+    /**
+     * topic[from, to) 구간을 포맷으로 해석 (substring 생성 없음). 구간이 비어 있으면 JSON, 매칭 실패 시 null
+     */
+    public static PayloadFormat resolve(String topic, int from, int to) {
+        int len = to - from;
+        if (len <= 0) return JSON;
+        for (PayloadFormat f : VALUES) {
+            if (f.segment.length() == len && topic.regionMatches(from, f.segment, 0, len)) {
+                return f;
+            }
+        }
+        return null;
+    }
+}
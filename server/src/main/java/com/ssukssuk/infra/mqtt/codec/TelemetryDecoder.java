@@ -0,0 +1,109 @@
+package com.ssukssuk.infra.mqtt.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * MQTT payload(byte[]) → 채널별 DTO 단일 패스 디코딩.
+ * String / JsonNode 중간 단계 없이 DTO 타입별로 캐시된 ObjectReader로 바로 읽는다.
+ * 토픽 포맷 세그먼트에 따라 JSON / CBOR(+deflate) 를 같은 DTO 로 디코딩한다.
+ * deflate 는 풀린 크기를 max-inflated-bytes 로 제한한다 (압축 폭탄). 넘으면 IOException → 핸들러가 poison 처리.
+ */
+@Component
+public class TelemetryDecoder {
+
+    private final ObjectMapper objectMapper;
+    // 같은 모듈/설정(JavaTimeModule 등)을 쓰는 CBOR 용 매퍼
+    private final ObjectMapper cborMapper;
+
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> cborReaders = new ConcurrentHashMap<>();
+    private final long maxInflatedBytes;
+
+    public TelemetryDecoder(
+            ObjectMapper objectMapper,
+            @Value("${mqtt.codec.max-inflated-bytes:262144}") long maxInflatedBytes
+    ) {
+        this.objectMapper = objectMapper;
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+        this.maxInflatedBytes = maxInflatedBytes;
+    }
+
+    public <T> T decode(MqttEnvelope envelope, Class<T> type) throws IOException {
+        PayloadFormat format = envelope.getFormat() != null ? envelope.getFormat() : PayloadFormat.JSON;
+        byte[] payload = envelope.getPayload();
+
+        if (format == PayloadFormat.JSON) {
+            return readerFor(readers, objectMapper, type).readValue(payload);
+        }
+
+        ObjectReader reader = readerFor(cborReaders, cborMapper, type);
+        if (!format.isDeflated()) {
+            return reader.readValue(payload);
+        }
+        try (InputStream in = new BoundedInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(payload)), maxInflatedBytes)) {
+            return reader.readValue(in);
+        }
+    }
+
+    private static ObjectReader readerFor(Map<Class<?>, ObjectReader> cache, ObjectMapper mapper, Class<?> type) {
+        ObjectReader reader = cache.get(type);
+        if (reader == null) {
+            reader = cache.computeIfAbsent(type, mapper::readerFor);
+        }
+        return reader;
+    }
+
+    /** limit 바이트를 넘겨 읽으려 하면 IOException */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long read;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) count(n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) count(skipped);
+            return skipped;
+        }
+
+        private void count(long n) throws IOException {
+            read += n;
+            if (read > limit) {
+                throw new IOException("inflated payload exceeds " + limit + " bytes");
+            }
+        }
+    }
+}
@@ -18,6 +18,12 @@ public class ActionResultMessage {
     @JsonProperty("plant_id")
     private Long plantId;
 
+    // 선택: 부팅마다 바뀌는 ID + 채널별로 1씩 올리는 시퀀스 (있으면 시퀀스 워터마크로 중복 판정)
+    @JsonProperty("boot_id")
+    private String bootId;
+
+    private Long seq;
+
     private String type;
 
     @JsonProperty("action_type")
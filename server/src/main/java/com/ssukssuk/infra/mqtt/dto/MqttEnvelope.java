@@ -1,9 +1,12 @@
 package com.ssukssuk.infra.mqtt.dto;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssukssuk.infra.mqtt.codec.PayloadFormat;
+import com.ssukssuk.infra.mqtt.topic.MqttChannel;
+import com.ssukssuk.infra.mqtt.topic.TopicView;
 import lombok.*;
 
+import java.nio.charset.StandardCharsets;
+
 @Getter
 @Builder
 @NoArgsConstructor
@@ -13,41 +16,34 @@ public class MqttEnvelope {
     private String topicRaw;
     private String serialNum;
     private Direction direction;
-    private String channel;
-    private JsonNode payloadJson;
+    private MqttChannel channel;
 
-    public enum Direction { TELEMETRY, CONTROL }
+    @Builder.Default
+    private PayloadFormat format = PayloadFormat.JSON;
 
-    public static MqttEnvelope from(String topic, String payload, ObjectMapper om) throws Exception {
-        ParsedTopic parsed = ParsedTopic.parse(topic);
-        JsonNode json = om.readTree(payload);
+    // 원본 payload (디코딩은 각 핸들러가 TelemetryDecoder로 1회만 수행)
+    private byte[] payload;
+
+    public enum Direction { TELEMETRY, CONTROL }
 
+    /** 파싱된 토픽 + intern 된 시리얼로 envelope 생성 */
+    public static MqttEnvelope from(TopicView view, String serialNum, byte[] payload) {
         return MqttEnvelope.builder()
-                .topicRaw(topic)
-                .serialNum(parsed.serialNum())
-                .direction(parsed.direction())
-                .channel(parsed.channel())
-                .payloadJson(json)
+                .topicRaw(view.topic())
+                .serialNum(serialNum)
+                .direction(view.direction())
+                .channel(view.channel())
+                .format(view.format())
+                .payload(payload)
                 .build();
     }
 
-    public record ParsedTopic(String serialNum, Direction direction, String channel) {
-        public static ParsedTopic parse(String topic) {
-            String[] p = topic.split("/");
-            if (p.length < 4 || !"devices".equals(p[0])) {
-                throw new IllegalArgumentException("INVALID_TOPIC: " + topic);
-            }
-            String serial = p[1];
-            String mid = p[2];
-            String channel = p[3];
-
-            Direction dir = switch (mid) {
-                case "telemetry" -> Direction.TELEMETRY;
-                case "control" -> Direction.CONTROL;
-                default -> throw new IllegalArgumentException("INVALID_TOPIC_MIDDLE: " + topic);
-            };
-
-            return new ParsedTopic(serial, dir, channel);
+    /** 로그 출력용 (바이너리 포맷은 크기만 출력) */
+    public String payloadAsString() {
+        if (payload == null) return null;
+        if (format != null && format.isBinary()) {
+            return "<" + format.segment() + " " + payload.length + " bytes>";
         }
+        return new String(payload, StandardCharsets.UTF_8);
     }
-}
\ No newline at end of file
+}
@@ -5,8 +5,6 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
-import java.util.Map;
-
 @Getter
 @NoArgsConstructor
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -24,6 +22,12 @@ public class SensorUplinkMessage {
     @JsonProperty("plant_id")
     private Long plantId;
 
+    // 선택: 부팅마다 바뀌는 ID + 채널별로 1씩 올리는 시퀀스 (있으면 시퀀스 워터마크로 중복 판정)
+    @JsonProperty("boot_id")
+    private String bootId;
+
+    private Long seq;
+
     private String type;
 
     @JsonProperty("event_kind")
@@ -34,17 +38,17 @@ public class SensorUplinkMessage {
 
     private Values values;
 
-    private Map<String, SensorStatus> status;
+    private Status status;
 
     public Float getTemperature() { return values != null ? values.temperature : null; }
     public Float getHumidity() { return values != null ? values.humidity : null; }
     public Float getWaterLevel() { return values != null ? values.waterLevel : null; }
     public Float getNutrientConc() { return values != null ? values.nutrientConc : null; }
 
-    public SensorStatus getTemperatureStatus() { return status != null ? status.get("temperature") : null; }
-    public SensorStatus getHumidityStatus() { return status != null ? status.get("humidity") : null; }
-    public SensorStatus getWaterLevelStatus() { return status != null ? status.get("water_level") : null; }
-    public SensorStatus getNutrientConcStatus() { return status != null ? status.get("nutrient_conc") : null; }
+    public SensorStatus getTemperatureStatus() { return status != null ? status.temperature : null; }
+    public SensorStatus getHumidityStatus() { return status != null ? status.humidity : null; }
+    public SensorStatus getWaterLevelStatus() { return status != null ? status.waterLevel : null; }
+    public SensorStatus getNutrientConcStatus() { return status != null ? status.nutrientConc : null; }
 
     @Getter
     @NoArgsConstructor
@@ -59,10 +63,28 @@ public class SensorUplinkMessage {
         private Float nutrientConc;
     }
 
+    // status 맵 대신 고정 필드 (메시지마다 HashMap 생성 방지)
+    @Getter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Status {
+        private SensorStatus temperature;
+        private SensorStatus humidity;
+
+        @JsonProperty("water_level")
+        private SensorStatus waterLevel;
+
+        @JsonProperty("nutrient_conc")
+        private SensorStatus nutrientConc;
+    }
+
     public enum EventKind { PERIODIC, ANOMALY_DETECTED, RECOVERY_DONE }
     public enum TriggerSensorType {
         WATER_LEVEL(1),
-        NUTRIENT_CONC(2);
+        NUTRIENT_CONC(2),
+        // 서버 측 이상 감지 (SensorAnomalyDetector)
+        TEMPERATURE(3),
+        HUMIDITY(4);
 
         private final int code;
 
@@ -1,8 +1,11 @@
 package com.ssukssuk.infra.mqtt.handler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ssukssuk.infra.mqtt.dto.AckMessage;
+import com.ssukssuk.infra.mqtt.codec.MqttPayloadException;
+import com.ssukssuk.infra.mqtt.codec.TelemetryDecoder;
 import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
+import com.ssukssuk.infra.mqtt.ingest.IngestMetrics;
+import com.ssukssuk.infra.mqtt.topic.MqttChannel;
 import com.ssukssuk.infra.mqtt.ack.PendingAckStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,30 +16,37 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class AckInboundHandler implements MqttMessageHandler {
 
-    private final ObjectMapper objectMapper;
+    private final TelemetryDecoder telemetryDecoder;
     private final PendingAckStore pendingAckStore;
+    private final IngestMetrics ingestMetrics;
+
+    @Override
+    public MqttChannel channel() {
+        return MqttChannel.ACK;
+    }
 
     @Override
     public void handle(MqttEnvelope envelope) {
         // ACK은 devices/{serial}/telemetry/ack 토픽으로 들어옴
         if (envelope.getDirection() != MqttEnvelope.Direction.TELEMETRY) return;
 
+        AckMessage ack;
         try {
-            AckMessage ack = objectMapper.treeToValue(envelope.getPayloadJson(), AckMessage.class);
-
-            boolean matched = pendingAckStore.complete(
-                    envelope.getSerialNum(),
-                    ack.getRef_msg_id(),
-                    ack
-            );
+            ack = telemetryDecoder.decode(envelope, AckMessage.class);
+        } catch (Exception e) {
+            throw new MqttPayloadException(envelope.getTopicRaw(), e);
+        }
 
-            if (!matched) {
-                log.warn("[MQTT][ACK] no pending found. serial={}, ref_msg_id={}",
-                        envelope.getSerialNum(), ack.getRef_msg_id());
-            }
+        boolean matched = pendingAckStore.complete(
+                envelope.getSerialNum(),
+                ack.getRef_msg_id(),
+                ack
+        );
 
-        } catch (Exception e) {
-            log.warn("[MQTT][ACK] parse failed. topic={}", envelope.getTopicRaw(), e);
+        if (!matched) {
+            log.warn("[MQTT][ACK] no pending found. serial={}, ref_msg_id={}",
+                    envelope.getSerialNum(), ack.getRef_msg_id());
         }
+        ingestMetrics.committed(MqttChannel.ACK, ack.getSent_at());
     }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.ssukssuk.infra.mqtt.handler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ssukssuk.infra.mqtt.dto.ActionResultMessage;
+import com.ssukssuk.infra.mqtt.codec.MqttPayloadException;
+import com.ssukssuk.infra.mqtt.codec.TelemetryDecoder;
 import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
-import com.ssukssuk.infra.idempotency.IdempotencyService;
+import com.ssukssuk.infra.mqtt.ingest.IngestMetrics;
+import com.ssukssuk.infra.mqtt.topic.MqttChannel;
+import com.ssukssuk.infra.idempotency.MessageDeduplicator;
+import com.ssukssuk.infra.idempotency.MessageId;
 import com.ssukssuk.service.history.ActionResultService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,9 +19,15 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class ActionResultHandler implements MqttMessageHandler {
 
-    private final ObjectMapper objectMapper;
-    private final IdempotencyService idempotencyService;
+    private final TelemetryDecoder telemetryDecoder;
+    private final MessageDeduplicator messageDeduplicator;
     private final ActionResultService actionResultService;
+    private final IngestMetrics ingestMetrics;
+
+    @Override
+    public MqttChannel channel() {
+        return MqttChannel.ACTION_RESULT;
+    }
 
     @Override
     public void handle(MqttEnvelope envelope) {
@@ -26,11 +36,9 @@ public class ActionResultHandler implements MqttMessageHandler {
 
         ActionResultMessage msg;
         try {
-            msg = objectMapper.treeToValue(envelope.getPayloadJson(), ActionResultMessage.class);
+            msg = telemetryDecoder.decode(envelope, ActionResultMessage.class);
         } catch (Exception e) {
-            log.warn("[MQTT][ACTION_RESULT] JSON parse failed. topic={}, payload={}",
-                    envelope.getTopicRaw(), envelope.getPayloadJson(), e);
-            return;
+            throw new MqttPayloadException(envelope.getTopicRaw(), e);
         }
 
         String serial = envelope.getSerialNum();
@@ -42,13 +50,29 @@ public class ActionResultHandler implements MqttMessageHandler {
             return;
         }
 
-        // 멱등키: serial:msg_id
-        String key = serial + ":" + msg.getMsgId();
-        if (!idempotencyService.markIfFirst(key)) {
-            log.info("[MQTT][ACTION_RESULT] duplicate ignored: {}", key);
+        // 멱등: boot_id+seq 가 있으면 시퀀스 워터마크, 없으면 serial:msg_id
+        MessageId messageId = new MessageId(serial, MqttChannel.ACTION_RESULT.segment(),
+                msg.getMsgId(), msg.getBootId(), msg.getSeq());
+        if (!messageDeduplicator.markIfFirst(messageId)) {
+            log.info("[MQTT][ACTION_RESULT] duplicate ignored: {}", messageId);
             return;
         }
 
-        actionResultService.handle(envelope, msg);
+        try {
+            actionResultService.handle(envelope, msg);
+            ingestMetrics.committed(MqttChannel.ACTION_RESULT, msg.getSentAt());
+        } catch (RuntimeException e) {
+            // 스풀에서 재처리될 때 중복으로 걸러지지 않도록 멱등 마크 해제 후 던진다
+            releaseIdempotency(messageId);
+            throw e;
+        }
+    }
+
+    private void releaseIdempotency(MessageId messageId) {
+        try {
+            messageDeduplicator.release(messageId);
+        } catch (RuntimeException e) {
+            log.warn("[MQTT][ACTION_RESULT] idempotency release failed: {}", messageId, e);
+        }
     }
 }
\ No newline at end of file
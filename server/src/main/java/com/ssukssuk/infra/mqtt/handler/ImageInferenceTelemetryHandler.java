@@ -1,7 +1,10 @@
 package com.ssukssuk.infra.mqtt.handler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssukssuk.infra.mqtt.codec.MqttPayloadException;
+import com.ssukssuk.infra.mqtt.codec.TelemetryDecoder;
 import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
+import com.ssukssuk.infra.mqtt.ingest.IngestMetrics;
+import com.ssukssuk.infra.mqtt.topic.MqttChannel;
 import com.ssukssuk.dto.history.DeviceImageInferenceRequest;
 import com.ssukssuk.service.history.ImageInferenceService;
 import lombok.RequiredArgsConstructor;
@@ -9,31 +12,30 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 @Slf4j
-@Component("image-inference") // channel 과 반드시 동일
+@Component("image-inference")
 @RequiredArgsConstructor
 public class ImageInferenceTelemetryHandler implements MqttMessageHandler {
 
-    private final ObjectMapper objectMapper;
+    private final TelemetryDecoder telemetryDecoder;
     private final ImageInferenceService imageInferenceService;
+    private final IngestMetrics ingestMetrics;
+
+    @Override
+    public MqttChannel channel() {
+        return MqttChannel.IMAGE_INFERENCE;
+    }
 
     @Override
     public void handle(MqttEnvelope envelope) {
+        DeviceImageInferenceRequest req;
         try {
-            DeviceImageInferenceRequest req =
-                    objectMapper.treeToValue(
-                            envelope.getPayloadJson(),
-                            DeviceImageInferenceRequest.class
-                    );  
-
-            imageInferenceService.handle(req);
-
+            req = telemetryDecoder.decode(envelope, DeviceImageInferenceRequest.class);
         } catch (Exception e) {
-            log.error(
-                    "[MQTT][IMAGE_INFERENCE] payload parse/handle 실패. serial={}, payload={}",
-                    envelope.getSerialNum(),
-                    envelope.getPayloadJson(),
-                    e
-            );
+            throw new MqttPayloadException(envelope.getTopicRaw(), e);
         }
+
+        // 처리 실패는 MqttSubscriber 에서 스풀로 넘긴다
+        imageInferenceService.handle(req);
+        ingestMetrics.committed(MqttChannel.IMAGE_INFERENCE, req.getSentAt());
     }
 }
@@ -1,24 +1,33 @@
 package com.ssukssuk.infra.mqtt.handler;
 
 import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
-import lombok.RequiredArgsConstructor;
+import com.ssukssuk.infra.mqtt.topic.MqttChannel;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class MqttDispatchHandler {
 
-    private final Map<String, MqttMessageHandler> handlers;
+    private final Map<MqttChannel, MqttMessageHandler> handlers = new EnumMap<>(MqttChannel.class);
+
+    public MqttDispatchHandler(List<MqttMessageHandler> handlerBeans) {
+        for (MqttMessageHandler handler : handlerBeans) {
+            MqttMessageHandler prev = handlers.put(handler.channel(), handler);
+            if (prev != null) {
+                throw new IllegalStateException("Duplicate MQTT handler for channel=" + handler.channel());
+            }
+        }
+    }
 
     public void dispatch(MqttEnvelope envelope) {
         if (envelope == null) return;
 
-        String topic = envelope.getTopicRaw();
-        String channel = envelope.getChannel();
+        MqttChannel channel = envelope.getChannel();
 
         if (channel != null) {
             MqttMessageHandler handler = handlers.get(channel);
@@ -26,9 +35,8 @@ public class MqttDispatchHandler {
                 handler.handle(envelope);
                 return;
             }
-            log.warn("[MQTT][DISPATCH] no handler for channel={}, available={}", channel, handlers.keySet());
         }
-
+        log.warn("[MQTT][DISPATCH] no handler for topic={}, available={}", envelope.getTopicRaw(), handlers.keySet());
     }
 
-}
\ No newline at end of file
+}
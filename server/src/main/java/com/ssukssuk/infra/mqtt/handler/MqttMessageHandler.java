@@ -1,7 +1,10 @@
 package com.ssukssuk.infra.mqtt.handler;
 
 import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
+import com.ssukssuk.infra.mqtt.topic.MqttChannel;
 
 public interface MqttMessageHandler {
+    MqttChannel channel();
+
     void handle(MqttEnvelope envelope);
-}
\ No newline at end of file
+}
@@ -1,10 +1,14 @@
 package com.ssukssuk.infra.mqtt.handler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssukssuk.common.exception.CustomException;
+import com.ssukssuk.infra.mqtt.codec.MqttPayloadException;
+import com.ssukssuk.infra.mqtt.codec.TelemetryDecoder;
 import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
+import com.ssukssuk.infra.mqtt.ingest.IngestMetrics;
+import com.ssukssuk.infra.mqtt.topic.MqttChannel;
 import com.ssukssuk.infra.mqtt.dto.SensorUplinkMessage;
-import com.ssukssuk.infra.idempotency.IdempotencyService;
-import com.ssukssuk.service.device.DeviceBindingValidator;
+import com.ssukssuk.infra.idempotency.MessageDeduplicator;
+import com.ssukssuk.infra.idempotency.MessageId;
 import com.ssukssuk.service.history.SensorTelemetryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,10 +23,15 @@ import java.time.ZoneId;
 @RequiredArgsConstructor
 public class SensorTelemetryHandler implements MqttMessageHandler {
 
-    private final ObjectMapper objectMapper;
-    private final IdempotencyService idempotencyService;
-    private final DeviceBindingValidator deviceBindingValidator;
+    private final TelemetryDecoder telemetryDecoder;
+    private final MessageDeduplicator messageDeduplicator;
     private final SensorTelemetryService sensorTelemetryService;
+    private final IngestMetrics ingestMetrics;
+
+    @Override
+    public MqttChannel channel() {
+        return MqttChannel.SENSORS;
+    }
 
     @Override
     public void handle(MqttEnvelope envelope) {
@@ -34,16 +43,10 @@ public class SensorTelemetryHandler implements MqttMessageHandler {
         // 1. Payload 파싱
         SensorUplinkMessage msg;
         try {
-            msg = objectMapper.treeToValue(
-                    envelope.getPayloadJson(),
-                    SensorUplinkMessage.class
-            );
+            msg = telemetryDecoder.decode(envelope, SensorUplinkMessage.class);
         } catch (Exception e) {
-            log.warn("[MQTT][SENSOR] JSON parse failed. topic={}, payload={}",
-                    envelope.getTopicRaw(),
-                    envelope.getPayloadJson(),
-                    e);
-            return;
+            // poison 스풀로 보내 관리자 API 로 확인/재처리
+            throw new MqttPayloadException(envelope.getTopicRaw(), e);
         }
 
         String serial = envelope.getSerialNum();
@@ -58,18 +61,16 @@ public class SensorTelemetryHandler implements MqttMessageHandler {
         }
 
         // 3. 멱등 처리
-        String idempotencyKey = serial + ":" + msg.getMsgId();
-        if (!idempotencyService.markIfFirst(idempotencyKey)) {
-            log.info("[MQTT][SENSOR] duplicate ignored: {}", idempotencyKey);
+        MessageId messageId = new MessageId(serial, MqttChannel.SENSORS.segment(),
+                msg.getMsgId(), msg.getBootId(), msg.getSeq());
+        if (!messageDeduplicator.markIfFirst(messageId)) {
+            log.info("[MQTT][SENSOR] duplicate ignored: {}", messageId);
             return;
         }
 
         // 4. 실제 처리 (ACK 없음)
         try {
-            // 4-1. 디바이스-식물 검증
-            deviceBindingValidator.validate(serial, msg.getPlantId());
-
-            // 4-2. 측정 시각 파싱
+            // 4-1. 측정 시각 파싱
             LocalDateTime measuredAt =
                     msg.getSentAt() != null
                             ? OffsetDateTime.parse(msg.getSentAt())
@@ -77,17 +78,29 @@ public class SensorTelemetryHandler implements MqttMessageHandler {
                             .toLocalDateTime()
                             : LocalDateTime.now();
 
-            // 4-3. 센서 로그 저장 + 이벤트 처리(OPEN/RESOLVE) 모두 위임
-            sensorTelemetryService.handleUplink(msg, measuredAt);
+            // 4-2. 디바이스-식물 검증 + 센서 로그 저장 + 이벤트 처리(OPEN/RESOLVE) 모두 위임
+            sensorTelemetryService.handleUplink(serial, msg, measuredAt);
+            ingestMetrics.committed(MqttChannel.SENSORS, msg.getSentAt());
 
             log.info("[MQTT][SENSOR] processed. serial={}, plantId={}, eventKind={}",
                     serial, msg.getPlantId(), msg.getEventKind());
 
-        } catch (IllegalStateException e) {
+        } catch (IllegalStateException | CustomException e) {
+            // 바인딩 검증 실패는 재처리 대상이 아니므로 로그만 남긴다
             log.warn("[MQTT][SENSOR] validation failed: {}", e.getMessage());
-        } catch (Exception e) {
-            log.error("[MQTT][SENSOR] processing error. serial={}, msgId={}",
-                    serial, msg.getMsgId(), e);
+        } catch (RuntimeException e) {
+            // 스풀에서 재처리될 때 중복으로 걸러지지 않도록 멱등 마크 해제 후 던진다
+            log.warn("[MQTT][SENSOR] processing error. serial={}, msgId={}", serial, msg.getMsgId());
+            releaseIdempotency(messageId);
+            throw e;
+        }
+    }
+
+    private void releaseIdempotency(MessageId messageId) {
+        try {
+            messageDeduplicator.release(messageId);
+        } catch (RuntimeException e) {
+            log.warn("[MQTT][SENSOR] idempotency release failed: {}", messageId, e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,240 @@
+package com.ssukssuk.infra.mqtt.ingest;
+
+import com.ssukssuk.infra.mqtt.topic.MqttChannel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 디바이스(시리얼) × 채널 × 우선순위별 토큰 버킷.
+ * 고장 난 디바이스가 짧은 주기로 텔레메트리/이벤트/ack 를 쏟아내도 레인/DB 를 독점하지 못하도록
+ * 레인에 넣기 전에 예산을 넘긴 메시지를 버린다.
+ *
+ * 채널마다 초당 보충량(per-second)과 최대 버스트(burst)를 따로 둔다.
+ * HIGH(이벤트/ack/action-result 등)는 LOW(PERIODIC)와 버킷을 따로 쓰고, 예산은 채널 예산의 high-factor 배다.
+ * PERIODIC 이 한도에 걸려도 이벤트는 통과하고, 이벤트까지 한도를 넘기면 고장으로 보고 버린다.
+ * 버린 건수는 mqtt.ingest.throttled{channel, priority}, 현재 제한 중인 디바이스 수는 mqtt.ingest.throttled.devices 로 본다.
+ */
+@Slf4j
+@Component
+public class DeviceRateLimiter {
+
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    // 이 시간 동안 제한이 없었으면 "제한 중" 목록에서 뺀다
+    private static final long THROTTLED_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private static final MqttChannel[] CHANNELS = MqttChannel.values();
+    private static final IngestPriority[] PRIORITIES = IngestPriority.values();
+    // 버킷 번호 = 채널 × 우선순위
+    private static final int SLOTS = CHANNELS.length * PRIORITIES.length;
+
+    private final boolean enabled;
+    private final double[] perSecond = new double[SLOTS];
+    private final double[] burst = new double[SLOTS];
+    private final long idleEvictNanos;
+
+    private final ConcurrentHashMap<String, DeviceBudget> budgets = new ConcurrentHashMap<>();
+    private final Counter[] throttledCounters = new Counter[SLOTS];
+
+    public DeviceRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${mqtt.ratelimit.enabled:true}") boolean enabled,
+            @Value("${mqtt.ratelimit.sensors.per-second:1}") double sensorsPerSecond,
+            @Value("${mqtt.ratelimit.sensors.burst:20}") double sensorsBurst,
+            @Value("${mqtt.ratelimit.action-result.per-second:0.5}") double actionResultPerSecond,
+            @Value("${mqtt.ratelimit.action-result.burst:10}") double actionResultBurst,
+            @Value("${mqtt.ratelimit.image-inference.per-second:0.2}") double imageInferencePerSecond,
+            @Value("${mqtt.ratelimit.image-inference.burst:5}") double imageInferenceBurst,
+            @Value("${mqtt.ratelimit.ack.per-second:2}") double ackPerSecond,
+            @Value("${mqtt.ratelimit.ack.burst:20}") double ackBurst,
+            @Value("${mqtt.ratelimit.high-factor:5}") double highFactor,
+            @Value("${mqtt.ratelimit.idle-evict-minutes:10}") long idleEvictMinutes
+    ) {
+        this.enabled = enabled;
+        this.idleEvictNanos = TimeUnit.MINUTES.toNanos(idleEvictMinutes);
+
+        configure(MqttChannel.SENSORS, sensorsPerSecond, sensorsBurst, highFactor);
+        configure(MqttChannel.ACTION_RESULT, actionResultPerSecond, actionResultBurst, highFactor);
+        configure(MqttChannel.IMAGE_INFERENCE, imageInferencePerSecond, imageInferenceBurst, highFactor);
+        configure(MqttChannel.ACK, ackPerSecond, ackBurst, highFactor);
+
+        for (MqttChannel channel : CHANNELS) {
+            for (IngestPriority priority : PRIORITIES) {
+                throttledCounters[slot(channel, priority)] = Counter.builder("mqtt.ingest.throttled")
+                        .description("디바이스별 수신 한도를 넘겨 버린 메시지 수")
+                        .tag("channel", channel.segment())
+                        .tag("priority", priority.name().toLowerCase())
+                        .register(meterRegistry);
+            }
+        }
+        Gauge.builder("mqtt.ingest.throttled.devices", this, DeviceRateLimiter::throttledDeviceCount)
+                .description("최근 5분 안에 수신 한도에 걸린 디바이스 수")
+                .register(meterRegistry);
+
+        log.info("[MQTT][RATE] enabled={}, sensors={}/s(burst {}), action-result={}/s(burst {}), "
+                        + "image-inference={}/s(burst {}), ack={}/s(burst {}), highFactor={}",
+                enabled, sensorsPerSecond, sensorsBurst, actionResultPerSecond, actionResultBurst,
+                imageInferencePerSecond, imageInferenceBurst, ackPerSecond, ackBurst, highFactor);
+    }
+
+    /**
+     * @return 처리해도 되면 true, 이 디바이스·채널·우선순위 예산을 넘겼으면 false (호출자는 메시지를 버린다)
+     */
+    public boolean tryAcquire(String serial, MqttChannel channel, IngestPriority priority) {
+        if (!enabled || serial == null || channel == null) return true;
+
+        long now = System.nanoTime();
+        DeviceBudget budget = budgets.computeIfAbsent(serial, s -> new DeviceBudget(s, now));
+        int slot = slot(channel, priority != null ? priority : IngestPriority.HIGH);
+        if (budget.tryAcquire(slot, now)) {
+            return true;
+        }
+
+        throttledCounters[slot].increment();
+        budget.warnIfDue(slot, now);
+        return false;
+    }
+
+    /** 최근 제한된 디바이스 (제한 건수 많은 순) */
+    public List<ThrottledDevice> throttledDevices(int limit) {
+        long now = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+        List<ThrottledDevice> result = new ArrayList<>();
+        for (DeviceBudget budget : budgets.values()) {
+            ThrottledDevice d = budget.snapshot(now, nowMillis);
+            if (d != null) result.add(d);
+        }
+        result.sort(Comparator.comparingLong(ThrottledDevice::throttledTotal).reversed());
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /** 오래 조용한 디바이스 버킷 정리 (버킷이 가득 찬 상태와 같으므로 지워도 동작은 같다) */
+    @Scheduled(fixedDelayString = "${mqtt.ratelimit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        budgets.values().removeIf(b -> b.idleLongerThan(now, idleEvictNanos));
+    }
+
+    private void configure(MqttChannel channel, double rate, double max, double highFactor) {
+        int low = slot(channel, IngestPriority.LOW);
+        perSecond[low] = rate;
+        burst[low] = Math.max(1, max);
+        int high = slot(channel, IngestPriority.HIGH);
+        perSecond[high] = rate * highFactor;
+        burst[high] = Math.max(1, max * highFactor);
+    }
+
+    private static int slot(MqttChannel channel, IngestPriority priority) {
+        return channel.ordinal() * PRIORITIES.length + priority.ordinal();
+    }
+
+    private double throttledDeviceCount() {
+        long now = System.nanoTime();
+        return budgets.values().stream().filter(b -> b.throttledSince(now)).count();
+    }
+
+    public record ThrottledDevice(
+            String serial,
+            List<ChannelThrottle> channels,
+            long throttledTotal
+    ) {}
+
+    public record ChannelThrottle(
+            String channel,
+            String priority,
+            long throttled,
+            double tokens,
+            long lastThrottledAtMillis
+    ) {}
+
+    private final class DeviceBudget {
+
+        private final String serial;
+        private final double[] tokens = new double[SLOTS];
+        private final long[] refilledAt = new long[SLOTS];
+        private final long[] throttled = new long[SLOTS];
+        private final long[] lastThrottledAt = new long[SLOTS];
+        private long lastSeenAt;
+        private long lastWarnAt;
+        private long throttledSinceWarn;
+
+        DeviceBudget(String serial, long now) {
+            this.serial = serial;
+            this.lastSeenAt = now;
+            for (int i = 0; i < SLOTS; i++) {
+                tokens[i] = burst[i];
+                refilledAt[i] = now;
+            }
+            this.lastWarnAt = now - WARN_INTERVAL_NANOS;
+        }
+
+        synchronized boolean tryAcquire(int slot, long now) {
+            lastSeenAt = now;
+            double refill = (now - refilledAt[slot]) / 1e9 * perSecond[slot];
+            tokens[slot] = Math.min(burst[slot], tokens[slot] + refill);
+            refilledAt[slot] = now;
+
+            if (tokens[slot] >= 1) {
+                tokens[slot] -= 1;
+                return true;
+            }
+            throttled[slot]++;
+            lastThrottledAt[slot] = now;
+            throttledSinceWarn++;
+            return false;
+        }
+
+        void warnIfDue(int slot, long now) {
+            long count;
+            synchronized (this) {
+                if (now - lastWarnAt < WARN_INTERVAL_NANOS) return;
+                lastWarnAt = now;
+                count = throttledSinceWarn;
+                throttledSinceWarn = 0;
+            }
+            log.warn("[MQTT][RATE] device throttled. serial={}, channel={}, priority={}, dropped(last 1m)={}",
+                    serial, CHANNELS[slot / PRIORITIES.length].segment(), PRIORITIES[slot % PRIORITIES.length], count);
+        }
+
+        synchronized boolean throttledSince(long now) {
+            for (int i = 0; i < SLOTS; i++) {
+                if (throttled[i] > 0 && now - lastThrottledAt[i] < THROTTLED_WINDOW_NANOS) return true;
+            }
+            return false;
+        }
+
+        synchronized boolean idleLongerThan(long now, long idleNanos) {
+            return now - lastSeenAt > idleNanos;
+        }
+
+        synchronized ThrottledDevice snapshot(long now, long nowMillis) {
+            if (!throttledSince(now)) return null;
+
+            List<ChannelThrottle> channels = new ArrayList<>();
+            long total = 0;
+            for (int i = 0; i < SLOTS; i++) {
+                if (throttled[i] == 0) continue;
+                double current = Math.min(burst[i], tokens[i] + (now - refilledAt[i]) / 1e9 * perSecond[i]);
+                channels.add(new ChannelThrottle(
+                        CHANNELS[i / PRIORITIES.length].segment(),
+                        PRIORITIES[i % PRIORITIES.length].name(),
+                        throttled[i],
+                        Math.floor(current * 100) / 100,
+                        nowMillis - TimeUnit.NANOSECONDS.toMillis(now - lastThrottledAt[i])
+                ));
+                total += throttled[i];
+            }
+            return new ThrottledDevice(serial, channels, total);
+        }
+    }
+}
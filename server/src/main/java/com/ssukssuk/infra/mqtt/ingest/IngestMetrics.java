@@ -0,0 +1,74 @@
+package com.ssukssuk.infra.mqtt.ingest;
+
+import com.ssukssuk.infra.mqtt.topic.MqttChannel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * MQTT 수신 처리 결과 지표.
+ * - mqtt.ingest.messages{channel, outcome}  : 처리 완료/실패 건수
+ * - mqtt.ingest.commit.latency{channel}     : 디바이스 sent_at → 서버 처리(커밋) 완료까지 걸린 시간
+ *
+ * commit.latency 는 히스토그램 버킷으로 내보내므로 부하 테스트 도구가 구간별 백분위를 계산할 수 있다.
+ * (디바이스와 서버 시계가 어긋나면 그만큼 오차가 생긴다)
+ */
+@Component
+public class IngestMetrics {
+
+    private final Map<MqttChannel, Counter> processed = new EnumMap<>(MqttChannel.class);
+    private final Map<MqttChannel, Counter> failed = new EnumMap<>(MqttChannel.class);
+    private final Map<MqttChannel, Timer> commitLatency = new EnumMap<>(MqttChannel.class);
+
+    public IngestMetrics(MeterRegistry meterRegistry) {
+        for (MqttChannel channel : MqttChannel.values()) {
+            processed.put(channel, outcome(meterRegistry, channel, "processed"));
+            failed.put(channel, outcome(meterRegistry, channel, "failed"));
+            commitLatency.put(channel, Timer.builder("mqtt.ingest.commit.latency")
+                    .description("디바이스 sent_at 부터 서버 처리 완료까지 걸린 시간")
+                    .tag("channel", channel.segment())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(5))
+                    .register(meterRegistry));
+        }
+    }
+
+    public void processed(MqttChannel channel) {
+        if (channel != null) processed.get(channel).increment();
+    }
+
+    public void failed(MqttChannel channel) {
+        if (channel != null) failed.get(channel).increment();
+    }
+
+    /** sent_at(ISO-8601 offset) 기준 처리 완료 지연 기록. 파싱 불가/미래 시각이면 건너뛴다. */
+    public void committed(MqttChannel channel, String sentAt) {
+        if (channel == null || sentAt == null) return;
+        long sentAtMillis;
+        try {
+            sentAtMillis = OffsetDateTime.parse(sentAt).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return;
+        }
+        long elapsed = System.currentTimeMillis() - sentAtMillis;
+        if (elapsed >= 0) {
+            commitLatency.get(channel).record(Duration.ofMillis(elapsed));
+        }
+    }
+
+    private static Counter outcome(MeterRegistry registry, MqttChannel channel, String outcome) {
+        return Counter.builder("mqtt.ingest.messages")
+                .description("MQTT 수신 메시지 처리 결과")
+                .tag("channel", channel.segment())
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ssukssuk.infra.mqtt.ingest;
+
+import com.ssukssuk.infra.mqtt.codec.PayloadFormat;
+import com.ssukssuk.infra.mqtt.topic.MqttChannel;
+
+/**
+ * 레인 버퍼 우선순위 (디바이스 사이의 차례에만 쓰이고, 한 디바이스 안의 순서는 바꾸지 않는다).
+ * - HIGH: 이상/회복 이벤트, ack, action-result, image-inference → 유실 없이, 그 디바이스 차례를 먼저
+ * - LOW : PERIODIC 센서 값 → 과부하 시 디바이스별 최신 값만 남기고 병합/폐기
+ */
+public enum IngestPriority {
+    HIGH,
+    LOW;
+
+    private static final byte[] PERIODIC = {'P', 'E', 'R', 'I', 'O', 'D', 'I', 'C'};
+
+    /**
+     * 디코딩 없이 payload 바이트에서 "PERIODIC" 존재 여부만 확인한다.
+     * CBOR 도 문자열 바이트는 그대로 들어가므로 같은 스캔으로 판별되고, 압축된 payload 는 판별할 수 없어 HIGH 로 둔다.
+     * 판단이 애매하면 HIGH 로 취급해 이벤트가 버려지는 일이 없도록 한다.
+     */
+    public static IngestPriority classify(MqttChannel channel, PayloadFormat format, byte[] payload) {
+        if (channel != MqttChannel.SENSORS || payload == null || format == null || format.isDeflated()) {
+            return HIGH;
+        }
+        return contains(payload, PERIODIC) ? LOW : HIGH;
+    }
+
+    private static boolean contains(byte[] src, byte[] target) {
+        int last = src.length - target.length;
+        outer:
+        for (int i = 0; i <= last; i++) {
+            if (src[i] != target[0]) continue;
+            for (int j = 1; j < target.length; j++) {
+                if (src[i + j] != target[j]) continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,477 @@
+package com.ssukssuk.infra.mqtt.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * MQTT 수신 메시지를 디바이스 시리얼 해시로 N개의 레인에 분배한다.
+ * - 같은 디바이스 메시지는 항상 같은 레인 → 순서 보장
+ * - 서로 다른 디바이스는 레인별 스레드에서 병렬 처리
+ * - 디바이스별 FIFO 하나에 HIGH / LOW 를 도착 순서대로 넣는다 (한 디바이스 안에서는 우선순위로 순서를 바꾸지 않음)
+ * - 우선순위는 디바이스 사이에만 적용: HIGH 가 대기 중인 디바이스에 먼저 차례를 준다
+ * - 같은 우선순위의 디바이스끼리는 라운드로빈이라, 한 디바이스가 몰려도 다른 디바이스가 밀리지 않는다
+ * - HIGH 가 가득 차면 Paho 콜백 스레드를 블로킹해 브로커 쪽으로 백프레셔를 건다
+ * - LOW(PERIODIC) 는 과부하 시 디바이스별 최신 값으로 병합하고, 가득 차면 가장 많이 쌓인 디바이스 것부터 버린다
+ */
+@Slf4j
+@Component
+public class MqttIngestLanes {
+
+    private static final long SHUTDOWN_AWAIT_MILLIS = 30_000;
+
+    private final Lane[] lanes;
+
+    public MqttIngestLanes(
+            MeterRegistry meterRegistry,
+            @Value("${mqtt.ingest.lanes:0}") int laneCount,
+            @Value("${mqtt.ingest.lane-capacity:10000}") int laneCapacity,
+            @Value("${mqtt.ingest.periodic-capacity:2000}") int periodicCapacity,
+            @Value("${mqtt.ingest.periodic-coalesce-threshold:500}") int coalesceThreshold
+    ) {
+        int n = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+
+        this.lanes = new Lane[n];
+        for (int i = 0; i < n; i++) {
+            lanes[i] = new Lane(i, laneCapacity, periodicCapacity, coalesceThreshold, meterRegistry);
+            lanes[i].start();
+        }
+
+        log.info("[MQTT][LANE] started. lanes={}, capacity={}, periodicCapacity={}, coalesceThreshold={}",
+                n, laneCapacity, periodicCapacity, coalesceThreshold);
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    public int laneOf(String partitionKey) {
+        if (partitionKey == null) return 0;
+        int h = partitionKey.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, lanes.length);
+    }
+
+    /**
+     * partitionKey(디바이스 시리얼) 기준 레인에 HIGH 우선순위로 작업 등록.
+     */
+    public void submit(String partitionKey, Runnable task) {
+        submit(partitionKey, IngestPriority.HIGH, task);
+    }
+
+    /**
+     * partitionKey(디바이스 시리얼) 기준 레인에 작업 등록.
+     * HIGH 는 자리가 날 때까지 호출 스레드가 대기하고, LOW 는 즉시 반환한다 (병합/폐기 가능).
+     */
+    public void submit(String partitionKey, IngestPriority priority, Runnable task) {
+        Lane lane = lanes[laneOf(partitionKey)];
+        if (priority == IngestPriority.LOW) {
+            lane.offerLow(partitionKey, task);
+            return;
+        }
+        try {
+            lane.offerHigh(partitionKey, task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[MQTT][LANE] submit interrupted. lane={}, key={}", lane.index, partitionKey);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.stopAccepting();
+        }
+
+        long deadline = System.currentTimeMillis() + SHUTDOWN_AWAIT_MILLIS;
+        for (Lane lane : lanes) {
+            long remain = Math.max(0, deadline - System.currentTimeMillis());
+            try {
+                lane.thread.join(remain);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (lane.thread.isAlive()) {
+                log.warn("[MQTT][LANE] shutdown timeout. lane={}, remaining={}", lane.index, lane.size());
+                lane.thread.interrupt();
+            }
+        }
+    }
+
+    private static final class Task {
+        private final String key;
+        private final boolean high;
+        private Runnable runnable;
+        private long enqueuedAtNanos;
+
+        Task(String key, boolean high, Runnable runnable, long enqueuedAtNanos) {
+            this.key = key;
+            this.high = high;
+            this.runnable = runnable;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+        }
+    }
+
+    /** 한 디바이스의 대기 작업 (HIGH/LOW 섞어 도착 순서대로) */
+    private static final class DeviceQueue {
+        private final String key;
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>(4);
+        private int high;
+        private int low;
+        // 차례 줄 자리 표시: 줄에 넣을 때마다 올리고, 세대가 다른 Turn 은 버린다
+        private int gen;
+        private int ring = DeviceQueues.NONE;
+
+        DeviceQueue(String key) {
+            this.key = key;
+        }
+    }
+
+    private record Turn(DeviceQueue queue, int gen) {
+    }
+
+    /**
+     * 디바이스별 FIFO 와 차례 줄 두 개 (레인 lock 안에서만 사용).
+     * HIGH 가 하나라도 있는 디바이스는 high 줄, 나머지는 low 줄에 서고, high 줄을 먼저 돈다.
+     * 차례가 오면 그 디바이스 FIFO 의 맨 앞(우선순위와 상관없이)을 꺼내 디바이스 안의 순서를 지킨다.
+     * LOW 개수별 버킷을 같이 유지해, 가득 찼을 때 폐기할 디바이스를 디바이스 수와 무관하게 O(1) 로 찾는다.
+     */
+    private static final class DeviceQueues {
+
+        static final int NONE = 0;
+        static final int HIGH = 1;
+        static final int LOW = 2;
+
+        private final Map<String, DeviceQueue> byKey = new HashMap<>();
+        private final ArrayDeque<Turn> highTurns = new ArrayDeque<>();
+        private final ArrayDeque<Turn> lowTurns = new ArrayDeque<>();
+        // lowBuckets[n] = 대기 LOW 가 n 개인 디바이스 (n >= 1, 먼저 n 개가 된 순서)
+        private final ArrayList<LinkedHashSet<DeviceQueue>> lowBuckets = new ArrayList<>();
+        private int maxLow;
+        private int highSize;
+        private int lowSize;
+
+        int highSize() {
+            return highSize;
+        }
+
+        int lowSize() {
+            return lowSize;
+        }
+
+        void addLast(Task task) {
+            DeviceQueue queue = byKey.computeIfAbsent(task.key, DeviceQueue::new);
+            queue.tasks.addLast(task);
+            if (task.high) {
+                queue.high++;
+                highSize++;
+            } else {
+                changeLow(queue, 1);
+            }
+            schedule(queue);
+        }
+
+        /** 이 작업이 디바이스 FIFO 의 마지막인지 (LOW 병합은 뒤에 다른 작업이 없을 때만) */
+        boolean isLast(Task task) {
+            DeviceQueue queue = byKey.get(task.key);
+            return queue != null && queue.tasks.peekLast() == task;
+        }
+
+        Task pollFirst() {
+            DeviceQueue queue = nextTurn(highTurns);
+            if (queue == null) queue = nextTurn(lowTurns);
+            if (queue == null) return null;
+
+            Task task = queue.tasks.pollFirst();
+            removed(queue, task);
+            queue.ring = NONE;
+            if (queue.tasks.isEmpty()) {
+                byKey.remove(queue.key);
+            } else {
+                schedule(queue);
+            }
+            return task;
+        }
+
+        /** LOW 가 가장 많이 쌓인 디바이스의 가장 오래된 LOW 작업 (폐기 대상, HIGH 는 건드리지 않음) */
+        Task pollOldestLowFromLongest() {
+            if (maxLow == 0) return null;
+            DeviceQueue longest = lowBuckets.get(maxLow).iterator().next();
+
+            Task dropped = null;
+            for (Iterator<Task> it = longest.tasks.iterator(); it.hasNext(); ) {
+                Task task = it.next();
+                if (!task.high) {
+                    it.remove();
+                    dropped = task;
+                    break;
+                }
+            }
+            removed(longest, dropped);
+            if (longest.tasks.isEmpty()) {
+                byKey.remove(longest.key);
+                longest.gen++;              // 남은 Turn 무효화
+                longest.ring = NONE;
+            }
+            return dropped;
+        }
+
+        private void removed(DeviceQueue queue, Task task) {
+            if (task.high) {
+                queue.high--;
+                highSize--;
+            } else {
+                changeLow(queue, -1);
+            }
+        }
+
+        // LOW 개수는 1 씩만 바뀌므로 maxLow 도 한 칸씩만 내려가면 된다
+        private void changeLow(DeviceQueue queue, int delta) {
+            int from = queue.low;
+            int to = from + delta;
+            if (from > 0) lowBuckets.get(from).remove(queue);
+            if (to > 0) {
+                while (lowBuckets.size() <= to) lowBuckets.add(new LinkedHashSet<>());
+                lowBuckets.get(to).add(queue);
+            }
+            queue.low = to;
+            lowSize += delta;
+            if (to > maxLow) maxLow = to;
+            while (maxLow > 0 && lowBuckets.get(maxLow).isEmpty()) maxLow--;
+        }
+
+        // 지금 상태에 맞는 줄에 세운다 (이미 맞는 줄이면 그대로)
+        private void schedule(DeviceQueue queue) {
+            int want = queue.high > 0 ? HIGH : LOW;
+            if (queue.ring == want) return;
+            queue.ring = want;
+            queue.gen++;
+            (want == HIGH ? highTurns : lowTurns).addLast(new Turn(queue, queue.gen));
+        }
+
+        private static DeviceQueue nextTurn(ArrayDeque<Turn> turns) {
+            Turn turn;
+            while ((turn = turns.pollFirst()) != null) {
+                if (turn.gen() == turn.queue().gen) return turn.queue();
+            }
+            return null;
+        }
+    }
+
+    private static final class Lane implements Runnable {
+
+        private final int index;
+        private final int highCapacity;
+        private final int lowCapacity;
+        private final int coalesceThreshold;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition highNotFull = lock.newCondition();
+
+        private final DeviceQueues queues = new DeviceQueues();
+        // 시리얼별로 LOW 큐에 남아 있는 가장 최근 작업 (병합 대상)
+        private final Map<String, Task> pendingLow = new HashMap<>();
+
+        private final Thread thread;
+        private final Timer lagTimer;
+        private final Timer processTimer;
+        private final Counter droppedCounter;
+        private final Counter coalescedCounter;
+
+        private volatile boolean running = true;
+
+        Lane(int index, int highCapacity, int lowCapacity, int coalesceThreshold, MeterRegistry meterRegistry) {
+            this.index = index;
+            this.highCapacity = highCapacity;
+            this.lowCapacity = lowCapacity;
+            this.coalesceThreshold = Math.min(coalesceThreshold, lowCapacity);
+            this.thread = new Thread(this, "mqtt-lane-" + index);
+
+            String lane = String.valueOf(index);
+
+            Gauge.builder("mqtt.ingest.lane.queue.depth", this, l -> l.depth(true))
+                    .description("레인 대기 메시지 수")
+                    .tag("lane", lane)
+                    .tag("priority", "high")
+                    .register(meterRegistry);
+
+            Gauge.builder("mqtt.ingest.lane.queue.depth", this, l -> l.depth(false))
+                    .description("레인 대기 메시지 수")
+                    .tag("lane", lane)
+                    .tag("priority", "low")
+                    .register(meterRegistry);
+
+            this.lagTimer = Timer.builder("mqtt.ingest.lane.lag")
+                    .description("레인 큐 대기 시간 (enqueue → 처리 시작)")
+                    .tag("lane", lane)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+
+            this.processTimer = Timer.builder("mqtt.ingest.lane.process")
+                    .description("레인에서 메시지 1건 처리 시간")
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+
+            this.droppedCounter = Counter.builder("mqtt.ingest.dropped")
+                    .description("LOW 버퍼가 가득 차 버려진 PERIODIC 메시지 수")
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+
+            this.coalescedCounter = Counter.builder("mqtt.ingest.coalesced")
+                    .description("같은 디바이스의 최신 값으로 병합된 PERIODIC 메시지 수")
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stopAccepting() {
+            running = false;
+            lock.lock();
+            try {
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return queues.highSize() + queues.lowSize();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private double depth(boolean high) {
+            lock.lock();
+            try {
+                return high ? queues.highSize() : queues.lowSize();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** HIGH 는 유실 없이 넣는다. 가득 차 있으면 호출 스레드를 대기시켜 백프레셔를 건다. */
+        void offerHigh(String key, Runnable runnable) throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                while (queues.highSize() >= highCapacity) {
+                    highNotFull.await();
+                }
+                queues.addLast(new Task(key, true, runnable, System.nanoTime()));
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * LOW 는 호출 스레드를 막지 않는다.
+         * - 버퍼가 coalesceThreshold 이상이면 같은 시리얼의 대기 작업을 최신 값으로 교체
+         *   (그 작업 뒤에 다른 작업이 없을 때만: 뒤에 온 이벤트보다 새 값이 먼저 처리되면 안 된다)
+         * - 버퍼가 가득 차면 가장 많이 쌓인 디바이스의 가장 오래된 LOW 작업을 버리고 새 작업을 넣는다
+         */
+        void offerLow(String key, Runnable runnable) {
+            long now = System.nanoTime();
+            lock.lock();
+            try {
+                Task pending = pendingLow.get(key);
+                if (pending != null && queues.lowSize() >= coalesceThreshold && queues.isLast(pending)) {
+                    pending.runnable = runnable;
+                    pending.enqueuedAtNanos = now;
+                    coalescedCounter.increment();
+                    return;
+                }
+
+                if (queues.lowSize() >= lowCapacity) {
+                    Task oldest = queues.pollOldestLowFromLongest();
+                    if (oldest != null) {
+                        pendingLow.remove(oldest.key, oldest);
+                        droppedCounter.increment();
+                    }
+                }
+                if (lowCapacity <= 0) {
+                    droppedCounter.increment();
+                    return;
+                }
+
+                Task task = new Task(key, false, runnable, now);
+                queues.addLast(task);
+                pendingLow.put(key, task);
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** HIGH 가 대기 중인 디바이스부터 차례를 주고, 차례가 온 디바이스는 자기 FIFO 맨 앞을 처리한다. */
+        private Task take() throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                while (true) {
+                    Task task = queues.pollFirst();
+                    if (task != null) {
+                        if (task.high) {
+                            highNotFull.signal();
+                        } else {
+                            pendingLow.remove(task.key, task);
+                        }
+                        return task;
+                    }
+                    if (!running) {
+                        return null;
+                    }
+                    notEmpty.await(500, TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Task task;
+                try {
+                    task = take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (task == null) return;
+
+                long start = System.nanoTime();
+                lagTimer.record(start - task.enqueuedAtNanos, TimeUnit.NANOSECONDS);
+
+                try {
+                    task.runnable.run();
+                } catch (Throwable t) {
+                    log.error("[MQTT][LANE] task failed. lane={}", index, t);
+                } finally {
+                    processTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ssukssuk.infra.mqtt.outbound;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * /actuator/health 의 mqttOutbound 항목.
+ * 풀의 연결이 하나도 붙어 있지 않으면 DOWN, 일부만 붙어 있으면 UP 이지만 연결별 상태를 details 에 남긴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MqttOutboundHealthIndicator implements HealthIndicator {
+
+    private final MqttOutboundPool mqttOutboundPool;
+
+    @Override
+    public Health health() {
+        List<MqttOutboundPool.ConnectionStatus> connections = mqttOutboundPool.status();
+        long connected = connections.stream().filter(MqttOutboundPool.ConnectionStatus::connected).count();
+
+        Health.Builder builder = connected > 0 ? Health.up() : Health.down();
+        return builder
+                .withDetail("connected", connected)
+                .withDetail("size", connections.size())
+                .withDetail("connections", connections)
+                .build();
+    }
+}
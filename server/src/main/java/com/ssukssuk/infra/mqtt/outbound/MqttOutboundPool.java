@@ -0,0 +1,150 @@
+package com.ssukssuk.infra.mqtt.outbound;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.springframework.integration.mqtt.core.MqttPahoClientFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 발행 전용 MQTT 클라이언트 풀.
+ * 디바이스 시리얼을 consistent hash 링으로 연결에 배정하므로
+ * 같은 디바이스로 가는 메시지는 항상 같은 연결(=같은 순서)로 나가고,
+ * 풀 크기를 바꿔도 일부 디바이스만 다른 연결로 옮겨간다.
+ */
+@Slf4j
+public class MqttOutboundPool {
+
+    // 연결당 링 위의 가상 노드 수 (분산 균등화)
+    private static final int VIRTUAL_NODES = 64;
+    private static final long SHUTDOWN_AWAIT_MILLIS = 10_000;
+
+    private final int maxInflight;
+    private final OutboundConnection[] connections;
+    private final int[] ringHashes;
+    private final OutboundConnection[] ringOwners;
+
+    public MqttOutboundPool(
+            MqttPahoClientFactory clientFactory,
+            String brokerUri,
+            String clientIdPrefix,
+            int poolSize,
+            int maxInflight,
+            int queueCapacity,
+            int batchSize,
+            MeterRegistry meterRegistry
+    ) throws MqttException {
+        int n = Math.max(1, poolSize);
+        this.maxInflight = maxInflight;
+        MqttConnectOptions options = copyOf(clientFactory.getConnectionOptions(), maxInflight);
+
+        this.connections = new OutboundConnection[n];
+        for (int i = 0; i < n; i++) {
+            connections[i] = new OutboundConnection(
+                    i,
+                    clientFactory.getAsyncClientInstance(brokerUri, clientIdPrefix + "-" + i),
+                    options,
+                    queueCapacity,
+                    batchSize,
+                    meterRegistry
+            );
+        }
+
+        // 링 구성: (해시, 연결) 을 해시 순으로 정렬
+        long[] points = new long[n * VIRTUAL_NODES];
+        int p = 0;
+        for (int i = 0; i < n; i++) {
+            for (int v = 0; v < VIRTUAL_NODES; v++) {
+                int h = mix(("conn-" + i + "#" + v).hashCode());
+                points[p++] = ((long) h << 32) | i;
+            }
+        }
+        Arrays.sort(points);
+
+        this.ringHashes = new int[points.length];
+        this.ringOwners = new OutboundConnection[points.length];
+        for (int i = 0; i < points.length; i++) {
+            ringHashes[i] = (int) (points[i] >> 32);
+            ringOwners[i] = connections[(int) points[i]];
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        for (OutboundConnection c : connections) {
+            c.start();
+        }
+        log.info("[MQTT][PUB] outbound pool started. size={}, maxInflight={}",
+                connections.length, maxInflight);
+    }
+
+    /**
+     * routingHash(보통 디바이스 시리얼 해시) 로 연결을 골라 송신 큐에 넣는다.
+     */
+    public CompletableFuture<Void> submit(int routingHash, String topic, byte[] payload) {
+        return select(routingHash).enqueue(topic, payload);
+    }
+
+    public List<ConnectionStatus> status() {
+        List<ConnectionStatus> result = new ArrayList<>(connections.length);
+        for (OutboundConnection c : connections) {
+            result.add(new ConnectionStatus(c.index(), c.clientId(), c.isConnected(), c.inflight(), c.queueDepth()));
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (OutboundConnection c : connections) {
+            c.stopAccepting();
+        }
+        long deadline = System.currentTimeMillis() + SHUTDOWN_AWAIT_MILLIS;
+        for (OutboundConnection c : connections) {
+            c.close(deadline);
+        }
+    }
+
+    OutboundConnection select(int routingHash) {
+        int h = mix(routingHash);
+        int idx = Arrays.binarySearch(ringHashes, h);
+        if (idx < 0) idx = -idx - 1;
+        if (idx == ringHashes.length) idx = 0;
+        return ringOwners[idx];
+    }
+
+    /** murmur3 finalizer */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /** 공용 연결 옵션을 복사하고 maxInflight 만 풀 설정으로 바꾼다 (구독 연결 설정은 그대로 유지). */
+    private static MqttConnectOptions copyOf(MqttConnectOptions base, int maxInflight) {
+        MqttConnectOptions o = new MqttConnectOptions();
+        o.setServerURIs(base.getServerURIs());
+        o.setAutomaticReconnect(base.isAutomaticReconnect());
+        o.setCleanSession(base.isCleanSession());
+        o.setKeepAliveInterval(base.getKeepAliveInterval());
+        o.setConnectionTimeout(base.getConnectionTimeout());
+        o.setMaxReconnectDelay(base.getMaxReconnectDelay());
+        if (base.getUserName() != null) o.setUserName(base.getUserName());
+        if (base.getPassword() != null) o.setPassword(base.getPassword());
+        if (base.getSocketFactory() != null) o.setSocketFactory(base.getSocketFactory());
+        if (base.getSSLProperties() != null) o.setSSLProperties(base.getSSLProperties());
+        o.setMaxInflight(maxInflight);
+        return o;
+    }
+
+    public record ConnectionStatus(int index, String clientId, boolean connected, int inflight, int queueDepth) {}
+}
@@ -0,0 +1,304 @@
+package com.ssukssuk.infra.mqtt.outbound;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.paho.client.mqttv3.DisconnectedBufferOptions;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 발행 전용 Paho 클라이언트 1개와 그 송신 큐.
+ * - 전용 송신 스레드가 큐를 배치로 꺼내 in-flight 윈도우(maxInflight) 안에서 연속 발행한다
+ * - 윈도우가 가득 차면 이 연결의 송신 스레드만 대기하므로 다른 연결에는 영향이 없다
+ */
+@Slf4j
+final class OutboundConnection {
+
+    private static final int QOS = 1;   // ACK는 QoS1 권장
+
+    private final int index;
+    private final IMqttAsyncClient client;
+    private final MqttConnectOptions connectOptions;
+
+    private final BlockingQueue<PendingPublish> queue;
+    private final Semaphore inflight;
+    private final int maxInflight;
+    private final int batchSize;
+    private final Thread sender;
+
+    private final Timer latencyTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+    private final Counter disconnectCounter;
+
+    private volatile boolean running = true;
+    private volatile boolean connecting;
+    private volatile boolean everConnected;
+
+    OutboundConnection(
+            int index,
+            IMqttAsyncClient client,
+            MqttConnectOptions connectOptions,
+            int queueCapacity,
+            int batchSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.index = index;
+        this.client = client;
+        this.connectOptions = connectOptions;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxInflight = connectOptions.getMaxInflight();
+        this.inflight = new Semaphore(maxInflight);
+        this.batchSize = Math.max(1, batchSize);
+        this.sender = new Thread(this::runSender, "mqtt-publisher-" + index);
+
+        String conn = String.valueOf(index);
+
+        this.latencyTimer = Timer.builder("mqtt.publish.latency")
+                .description("publish 요청 → 브로커 PUBACK 까지 걸린 시간")
+                .tag("conn", conn)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        this.sentCounter = Counter.builder("mqtt.publish.sent")
+                .description("브로커 PUBACK 받은 publish 수")
+                .tag("conn", conn)
+                .register(meterRegistry);
+
+        this.failedCounter = Counter.builder("mqtt.publish.failed")
+                .description("브로커 전달 실패한 publish 수")
+                .tag("conn", conn)
+                .register(meterRegistry);
+
+        this.rejectedCounter = Counter.builder("mqtt.publish.rejected")
+                .description("송신 큐가 가득 차 거절된 publish 수")
+                .tag("conn", conn)
+                .register(meterRegistry);
+
+        this.disconnectCounter = Counter.builder("mqtt.outbound.disconnects")
+                .description("발행 연결이 끊긴 횟수")
+                .tag("conn", conn)
+                .register(meterRegistry);
+
+        Gauge.builder("mqtt.publish.inflight", inflight, s -> maxInflight - s.availablePermits())
+                .description("PUBACK 대기 중인 메시지 수")
+                .tag("conn", conn)
+                .register(meterRegistry);
+
+        Gauge.builder("mqtt.publish.queue.depth", queue, BlockingQueue::size)
+                .description("송신 대기 메시지 수")
+                .tag("conn", conn)
+                .register(meterRegistry);
+
+        Gauge.builder("mqtt.outbound.connected", client, c -> c.isConnected() ? 1 : 0)
+                .description("발행 연결 상태 (1=연결)")
+                .tag("conn", conn)
+                .register(meterRegistry);
+    }
+
+    void start() {
+        // 연결이 끊긴 동안 발행한 메시지는 Paho 가 보관했다가 재연결 후 전송
+        DisconnectedBufferOptions bufferOptions = new DisconnectedBufferOptions();
+        bufferOptions.setBufferEnabled(true);
+        bufferOptions.setBufferSize(queue.remainingCapacity());
+        bufferOptions.setDeleteOldestMessages(false);
+        client.setBufferOpts(bufferOptions);
+
+        client.setCallback(new MqttCallbackExtended() {
+            @Override
+            public void connectComplete(boolean reconnect, String serverURI) {
+                if (reconnect) {
+                    log.info("[MQTT][PUB] reconnected. clientId={}", client.getClientId());
+                }
+            }
+
+            @Override
+            public void connectionLost(Throwable cause) {
+                disconnectCounter.increment();
+                log.warn("[MQTT][PUB] connection lost. clientId={}", client.getClientId(), cause);
+            }
+
+            @Override
+            public void messageArrived(String topic, MqttMessage message) {
+                // 발행 전용 연결 (구독 없음)
+            }
+
+            @Override
+            public void deliveryComplete(IMqttDeliveryToken token) {
+                // 완료 처리는 publish 별 IMqttActionListener 에서 수행
+            }
+        });
+
+        ensureConnected();
+        sender.start();
+    }
+
+    int index() {
+        return index;
+    }
+
+    String clientId() {
+        return client.getClientId();
+    }
+
+    boolean isConnected() {
+        return client.isConnected();
+    }
+
+    int inflight() {
+        return maxInflight - inflight.availablePermits();
+    }
+
+    int queueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * 송신 큐에 넣고 즉시 반환한다. 큐가 가득 차 있으면 실패한 future 를 돌려준다.
+     */
+    CompletableFuture<Void> enqueue(String topic, byte[] payload) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        if (!running || !queue.offer(new PendingPublish(topic, payload, future, System.nanoTime()))) {
+            rejectedCounter.increment();
+            log.warn("[MQTT][PUB] rejected (queue full). conn={}, topic={}", index, topic);
+            future.completeExceptionally(new RejectedExecutionException("MQTT publish queue full: " + topic));
+        }
+        return future;
+    }
+
+    private void runSender() {
+        List<PendingPublish> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingPublish first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                ensureConnected();
+                for (PendingPublish p : batch) {
+                    inflight.acquire();
+                    send(p);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(p -> p.future.completeExceptionally(e));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(PendingPublish p) {
+        MqttMessage message = new MqttMessage(p.payload);
+        message.setQos(QOS);
+
+        try {
+            client.publish(p.topic, message, p, new IMqttActionListener() {
+                @Override
+                public void onSuccess(IMqttToken token) {
+                    inflight.release();
+                    sentCounter.increment();
+                    latencyTimer.record(System.nanoTime() - p.enqueuedAtNanos, TimeUnit.NANOSECONDS);
+                    p.future.complete(null);
+                }
+
+                @Override
+                public void onFailure(IMqttToken token, Throwable e) {
+                    inflight.release();
+                    fail(p, e);
+                }
+            });
+        } catch (MqttException e) {
+            inflight.release();
+            fail(p, e);
+        }
+    }
+
+    private void fail(PendingPublish p, Throwable e) {
+        failedCounter.increment();
+        log.error("[MQTT][PUB] FAILED conn={}, topic={}", index, p.topic, e);
+        p.future.completeExceptionally(e);
+    }
+
+    /**
+     * 최초 연결만 직접 시도한다. 한 번 연결된 뒤에는 automaticReconnect 가 재연결을 담당.
+     */
+    private void ensureConnected() {
+        if (everConnected || connecting || client.isConnected()) return;
+
+        connecting = true;
+        try {
+            client.connect(connectOptions, null, new IMqttActionListener() {
+                @Override
+                public void onSuccess(IMqttToken token) {
+                    everConnected = true;
+                    connecting = false;
+                    log.info("[MQTT][PUB] connected. clientId={}, maxInflight={}", client.getClientId(), maxInflight);
+                }
+
+                @Override
+                public void onFailure(IMqttToken token, Throwable e) {
+                    connecting = false;
+                    log.warn("[MQTT][PUB] connect failed. clientId={}", client.getClientId(), e);
+                }
+            });
+        } catch (MqttException e) {
+            connecting = false;
+            log.warn("[MQTT][PUB] connect failed. clientId={}", client.getClientId(), e);
+        }
+    }
+
+    void stopAccepting() {
+        running = false;
+    }
+
+    /** 큐와 in-flight 가 비기를 기다린 뒤 연결을 닫는다. */
+    void close(long deadlineMillis) {
+        try {
+            sender.join(Math.max(1, deadlineMillis - System.currentTimeMillis()));
+            long remain = Math.max(0, deadlineMillis - System.currentTimeMillis());
+            if (inflight.tryAcquire(maxInflight, remain, TimeUnit.MILLISECONDS)) {
+                inflight.release(maxInflight);
+            } else {
+                log.warn("[MQTT][PUB] shutdown with in-flight messages. conn={}, inflight={}", index, inflight());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            if (client.isConnected()) {
+                client.disconnect().waitForCompletion(Math.max(1, deadlineMillis - System.currentTimeMillis()));
+            }
+            client.close();
+        } catch (MqttException e) {
+            log.warn("[MQTT][PUB] close failed. clientId={}", client.getClientId(), e);
+        }
+    }
+
+    private record PendingPublish(String topic, byte[] payload, CompletableFuture<Void> future, long enqueuedAtNanos) {}
+}
@@ -0,0 +1,297 @@
+package com.ssukssuk.infra.mqtt.spool;
+
+import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
+import com.ssukssuk.infra.mqtt.handler.MqttDispatchHandler;
+import com.ssukssuk.infra.mqtt.ingest.IngestMetrics;
+import com.ssukssuk.infra.mqtt.topic.SerialRegistry;
+import com.ssukssuk.infra.mqtt.topic.TopicView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MQTT 수신 처리 실패 메시지를 로컬 디스크 스풀에 보관한다.
+ * - transient : DB/Redis 장애 등 일시적 실패 → 의존성이 회복되면 들어온 순서대로 자동 재처리
+ * - poison    : 파싱 실패/버그 등 재시도해도 실패할 메시지 → 관리자 API 로 조회/재처리
+ *
+ * transient 스풀에 밀린 메시지가 있는 디바이스는 새 메시지도 바로 처리하지 않고 스풀 뒤에 붙여
+ * 디바이스별 처리 순서가 뒤바뀌지 않도록 한다. 밀린 게 없는 디바이스는 그대로 처리한다.
+ *
+ * 재처리는 전용 스레드에서 스풀이 빌 때까지(또는 다시 일시적 실패가 날 때까지) 이어서 돌린다.
+ */
+@Slf4j
+@Component
+public class IngestSpool {
+
+    private static final int PAYLOAD_PREVIEW_BYTES = 512;
+
+    private final MqttDispatchHandler dispatchHandler;
+    private final SerialRegistry serialRegistry;
+    private final IngestMetrics ingestMetrics;
+    private final TopicView replayView = new TopicView();
+
+    private final SpoolSegmentLog transientLog;
+    private final SpoolSegmentLog poisonLog;
+
+    // 시리얼 → transient 스풀에 아직 재처리 안 된 메시지 수 (lock 으로 보호)
+    private final Object backlogLock = new Object();
+    private final Map<String, Integer> backlog = new HashMap<>();
+
+    private final ScheduledExecutorService replayer =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "mqtt-spool-replay");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final Counter transientAppended;
+    private final Counter poisonAppended;
+    private final Counter replayed;
+    private final Counter dropped;
+
+    public IngestSpool(
+            MqttDispatchHandler dispatchHandler,
+            SerialRegistry serialRegistry,
+            IngestMetrics ingestMetrics,
+            MeterRegistry meterRegistry,
+            @Value("${mqtt.spool.dir:./data/spool}") String dir,
+            @Value("${mqtt.spool.segment-bytes:67108864}") int segmentBytes,
+            @Value("${mqtt.spool.max-bytes:2147483648}") long maxBytes,
+            @Value("${mqtt.spool.replay-interval-ms:5000}") long replayIntervalMillis
+    ) throws IOException {
+        this.dispatchHandler = dispatchHandler;
+        this.serialRegistry = serialRegistry;
+        this.ingestMetrics = ingestMetrics;
+
+        Path root = Path.of(dir);
+        this.transientLog = new SpoolSegmentLog(root, "transient", segmentBytes, maxBytes);
+        this.poisonLog = new SpoolSegmentLog(root, "poison", segmentBytes, maxBytes);
+        transientLog.forEachPendingTopic(topic -> {
+            String serial = serialOf(topic);
+            if (serial != null) backlog.merge(serial, 1, Integer::sum);
+        });
+
+        this.transientAppended = counter(meterRegistry, "mqtt.spool.appended", "transient", "스풀에 기록된 메시지 수");
+        this.poisonAppended = counter(meterRegistry, "mqtt.spool.appended", "poison", "스풀에 기록된 메시지 수");
+        this.replayed = Counter.builder("mqtt.spool.replayed")
+                .description("transient 스풀에서 재처리 완료된 메시지 수")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("mqtt.spool.dropped")
+                .description("스풀 용량 초과로 버려진 메시지 수")
+                .register(meterRegistry);
+
+        Gauge.builder("mqtt.spool.pending", transientLog, SpoolSegmentLog::pendingRecords)
+                .description("스풀 대기 메시지 수")
+                .tag("stream", "transient")
+                .register(meterRegistry);
+        Gauge.builder("mqtt.spool.pending", poisonLog, SpoolSegmentLog::pendingRecords)
+                .description("스풀 대기 메시지 수")
+                .tag("stream", "poison")
+                .register(meterRegistry);
+
+        replayer.scheduleWithFixedDelay(this::replayQuietly, replayIntervalMillis, replayIntervalMillis, TimeUnit.MILLISECONDS);
+
+        log.info("[MQTT][SPOOL] opened. dir={}, transientPending={}, backloggedSerials={}, poisonPending={}",
+                root.toAbsolutePath(), transientLog.pendingRecords(), backlog.size(), poisonLog.pendingRecords());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        replayer.shutdownNow();
+    }
+
+    /**
+     * 이 디바이스 메시지가 transient 스풀에 밀려 있으면 새 메시지를 그 뒤에 붙인다.
+     * @return 스풀에 넣었으면 true (호출자는 처리하지 않는다)
+     */
+    public boolean spoolIfBacklogged(MqttEnvelope envelope) {
+        synchronized (backlogLock) {
+            if (!backlog.containsKey(envelope.getSerialNum())) return false;
+            appendTransient(envelope);
+            return true;
+        }
+    }
+
+    /** 처리 실패를 사유에 따라 transient / poison 스풀에 기록한다. */
+    public void onFailure(MqttEnvelope envelope, Throwable error) {
+        if (TransientFailures.isTransient(error)) {
+            log.warn("[MQTT][SPOOL] transient failure, spooled. topic={}, cause={}",
+                    envelope.getTopicRaw(), error.toString());
+            synchronized (backlogLock) {
+                appendTransient(envelope);
+            }
+            return;
+        }
+
+        log.error("[MQTT][SPOOL] poison message. topic={}, payload={}",
+                envelope.getTopicRaw(), envelope.payloadAsString(), error);
+        if (poisonLog.append(System.currentTimeMillis(), envelope.getTopicRaw(), error.toString(), envelope.getPayload())) {
+            poisonAppended.increment();
+        } else {
+            dropped.increment();
+            log.error("[MQTT][SPOOL] poison spool full, dropped. topic={}", envelope.getTopicRaw());
+        }
+    }
+
+    /**
+     * transient 스풀을 빌 때까지 순서대로 재처리한다.
+     * 다시 일시적 실패가 나면 그 자리에서 멈추고 다음 주기에 이어서 시도한다.
+     * @return 이번에 소비한 메시지 수
+     */
+    public synchronized int replayTransient() {
+        int done = 0;
+        while (true) {
+            SpoolRecord record = transientLog.peek();
+            if (record == null) break;
+
+            MqttEnvelope envelope = toEnvelope(record);
+            if (envelope != null) {
+                try {
+                    dispatchHandler.dispatch(envelope);
+                    ingestMetrics.processed(envelope.getChannel());
+                } catch (Exception e) {
+                    if (TransientFailures.isTransient(e)) {
+                        log.warn("[MQTT][SPOOL] replay paused, dependency still failing. pending={}, cause={}",
+                                transientLog.pendingRecords(), e.toString());
+                        return done;
+                    }
+                    ingestMetrics.failed(envelope.getChannel());
+                    onFailure(envelope, e);
+                }
+            }
+            synchronized (backlogLock) {
+                transientLog.commit(record);
+                if (envelope != null) {
+                    backlog.computeIfPresent(envelope.getSerialNum(), (k, n) -> n > 1 ? n - 1 : null);
+                }
+            }
+            replayed.increment();
+            done++;
+        }
+
+        synchronized (backlogLock) {
+            // 깨진 레코드를 건너뛰었으면 카운트가 남을 수 있어, 스풀이 비면 정리
+            if (transientLog.isEmpty() && !backlog.isEmpty()) {
+                backlog.clear();
+            }
+        }
+        if (done > 0) {
+            log.info("[MQTT][SPOOL] replayed {} messages. pending={}", done, transientLog.pendingRecords());
+        }
+        return done;
+    }
+
+    /** poison 메시지 조회 (소비하지 않음) */
+    public List<SpoolRecord> listPoison(int limit) {
+        return poisonLog.list(limit);
+    }
+
+    /**
+     * poison 메시지를 최대 limit 개 꺼내 다시 처리한다. 또 실패하면 사유에 맞는 스풀에 다시 기록된다.
+     * @return 성공한 메시지 수
+     */
+    public synchronized int replayPoison(int limit) {
+        int ok = 0;
+        for (SpoolRecord record : poisonLog.take(limit)) {
+            MqttEnvelope envelope = toEnvelope(record);
+            if (envelope == null) continue;
+            try {
+                dispatchHandler.dispatch(envelope);
+                ingestMetrics.processed(envelope.getChannel());
+                ok++;
+            } catch (Exception e) {
+                ingestMetrics.failed(envelope.getChannel());
+                onFailure(envelope, e);
+            }
+        }
+        log.info("[MQTT][SPOOL] poison replay done. succeeded={}, remaining={}", ok, poisonLog.pendingRecords());
+        return ok;
+    }
+
+    public long purgePoison() {
+        long purged = poisonLog.purge();
+        log.warn("[MQTT][SPOOL] poison purged. count={}", purged);
+        return purged;
+    }
+
+    public SpoolStatus status() {
+        int backloggedSerials;
+        synchronized (backlogLock) {
+            backloggedSerials = backlog.size();
+        }
+        return new SpoolStatus(
+                backloggedSerials,
+                transientLog.pendingRecords(),
+                transientLog.usedBytes(),
+                poisonLog.pendingRecords(),
+                poisonLog.usedBytes()
+        );
+    }
+
+    /** 관리자 조회용 payload 앞부분 */
+    public static String preview(byte[] payload) {
+        int len = Math.min(payload.length, PAYLOAD_PREVIEW_BYTES);
+        return new String(payload, 0, len, StandardCharsets.UTF_8);
+    }
+
+    // backlogLock 안에서만 호출
+    private void appendTransient(MqttEnvelope envelope) {
+        if (transientLog.append(System.currentTimeMillis(), envelope.getTopicRaw(), null, envelope.getPayload())) {
+            backlog.merge(envelope.getSerialNum(), 1, Integer::sum);
+            transientAppended.increment();
+        } else {
+            dropped.increment();
+            log.error("[MQTT][SPOOL] transient spool full, dropped. topic={}", envelope.getTopicRaw());
+        }
+    }
+
+    private void replayQuietly() {
+        try {
+            replayTransient();
+        } catch (Exception e) {
+            log.error("[MQTT][SPOOL] replay failed.", e);
+        }
+    }
+
+    private String serialOf(String topic) {
+        return replayView.parse(topic) ? serialRegistry.intern(replayView) : null;
+    }
+
+    // 재처리/관리자 스레드에서만 호출 (synchronized 메서드 안)
+    private MqttEnvelope toEnvelope(SpoolRecord record) {
+        if (!replayView.parse(record.topic()) || replayView.format() == null) {
+            log.warn("[MQTT][SPOOL] invalid spooled topic skipped. topic={}", record.topic());
+            return null;
+        }
+        return MqttEnvelope.from(replayView, serialRegistry.intern(replayView), record.payload());
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String stream, String description) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("stream", stream)
+                .register(registry);
+    }
+
+    public record SpoolStatus(
+            int backloggedSerials,
+            long transientPending,
+            long transientBytes,
+            long poisonPending,
+            long poisonBytes
+    ) {}
+}
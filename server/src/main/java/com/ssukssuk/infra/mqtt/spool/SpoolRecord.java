@@ -0,0 +1,16 @@
+package com.ssukssuk.infra.mqtt.spool;
+
+/**
+ * 스풀에 기록된 MQTT 메시지 1건.
+ * @param reason poison 스트림에서만 사용 (실패 사유)
+ */
+public record SpoolRecord(
+        long segmentId,
+        int offset,
+        int bodyLength,
+        long receivedAt,
+        String topic,
+        String reason,
+        byte[] payload
+) {
+}
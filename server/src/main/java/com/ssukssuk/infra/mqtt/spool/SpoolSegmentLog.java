@@ -0,0 +1,368 @@
+package com.ssukssuk.infra.mqtt.spool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * append-only 메모리 맵 세그먼트 로그 (스트림 1개).
+ *
+ * 파일 구성
+ * - {name}-{segmentId}.seg : 고정 크기 세그먼트. 레코드 = [int bodyLen][int crc32][body]
+ *   body = [long receivedAt][short topicLen][topic][short reasonLen][reason][payload...]
+ *   bodyLen 을 마지막에 기록하므로 0 이면 아직 쓰지 않은 영역(세그먼트 끝)이다.
+ * - {name}.cursor : 읽기 위치 [long segmentId][long offset]
+ *
+ * 다 읽은 세그먼트는 삭제한다. 프로세스가 죽어도 페이지 캐시에 남은 내용은 재시작 시 복구된다.
+ */
+@Slf4j
+final class SpoolSegmentLog {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path dir;
+    private final String name;
+    private final int segmentBytes;
+    private final int maxSegments;
+
+    // segmentId → 매핑된 버퍼 (읽기/쓰기 공용, 절대 위치 접근만 사용)
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+
+    private long writeSegmentId;
+    private int writePos;
+
+    private long readSegmentId;
+    private int readPos;
+    private final MappedByteBuffer cursor;
+
+    private long pendingRecords;
+    private final CRC32 crc = new CRC32();
+
+    SpoolSegmentLog(Path dir, String name, int segmentBytes, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.name = name;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = (int) Math.max(2, maxBytes / segmentBytes);
+
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Long id = segmentIdOf(p.getFileName().toString());
+                if (id != null) segments.put(id, map(p));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(1L, map(segmentPath(1L)));
+        }
+
+        try (FileChannel ch = FileChannel.open(dir.resolve(name + ".cursor"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.cursor = ch.map(FileChannel.MapMode.READ_WRITE, 0, 16);
+        }
+
+        this.writeSegmentId = segments.lastKey();
+        this.writePos = scanEnd(segments.get(writeSegmentId));
+
+        long savedSegment = cursor.getLong(0);
+        if (segments.containsKey(savedSegment)) {
+            this.readSegmentId = savedSegment;
+            this.readPos = (int) cursor.getLong(8);
+        } else {
+            this.readSegmentId = segments.firstKey();
+            this.readPos = 0;
+        }
+
+        this.pendingRecords = countPending();
+    }
+
+    /**
+     * @return 용량 초과 또는 레코드가 세그먼트보다 크면 false
+     */
+    synchronized boolean append(long receivedAt, String topic, String reason, byte[] payload) {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        byte[] reasonBytes = reason != null ? truncate(reason).getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int bodyLen = 8 + 2 + topicBytes.length + 2 + reasonBytes.length + payload.length;
+        int need = HEADER_BYTES + bodyLen;
+
+        if (need > segmentBytes) return false;
+
+        if (writePos + need > segmentBytes) {
+            if (segments.size() >= maxSegments) return false;
+            try {
+                long next = writeSegmentId + 1;
+                segments.put(next, map(segmentPath(next)));
+                writeSegmentId = next;
+                writePos = 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        MappedByteBuffer buf = segments.get(writeSegmentId);
+        int bodyStart = writePos + HEADER_BYTES;
+        int p = bodyStart;
+        buf.putLong(p, receivedAt);
+        p += 8;
+        buf.putShort(p, (short) topicBytes.length);
+        p += 2;
+        buf.put(p, topicBytes);
+        p += topicBytes.length;
+        buf.putShort(p, (short) reasonBytes.length);
+        p += 2;
+        buf.put(p, reasonBytes);
+        p += reasonBytes.length;
+        buf.put(p, payload);
+
+        buf.putInt(writePos + 4, crcOf(buf, bodyStart, bodyLen));
+        buf.putInt(writePos, bodyLen);   // 길이를 마지막에 써서 레코드 완료를 표시
+
+        writePos += need;
+        pendingRecords++;
+        return true;
+    }
+
+    /**
+     * 읽기 위치의 레코드 (없으면 null). 위치는 commit() 으로만 움직인다.
+     * 깨진 레코드를 만나면 그 세그먼트 나머지를 건너뛴다 (쓰기 세그먼트면 쓰기 위치까지).
+     */
+    synchronized SpoolRecord peek() {
+        while (true) {
+            MappedByteBuffer buf = segments.get(readSegmentId);
+            boolean writing = readSegmentId == writeSegmentId;
+            if (writing && readPos >= writePos) return null;
+
+            int len = readPos + HEADER_BYTES <= segmentBytes ? buf.getInt(readPos) : 0;
+            if (len > 0 && readPos + HEADER_BYTES + len <= segmentBytes
+                    && crcOf(buf, readPos + HEADER_BYTES, len) == buf.getInt(readPos + 4)) {
+                return decode(buf, readSegmentId, readPos, len);
+            }
+
+            // 세그먼트 끝 (다 쓴 세그먼트만 길이 0 으로 끝난다)
+            if (!writing && len == 0) {
+                dropReadSegment();
+                continue;
+            }
+
+            log.error("[MQTT][SPOOL] corrupted record, skip rest of segment. stream={}, segment={}, offset={}",
+                    name, readSegmentId, readPos);
+            if (writing) {
+                readPos = writePos;
+                saveCursor();
+            } else {
+                dropReadSegment();
+            }
+            pendingRecords = countPending();
+        }
+    }
+
+    /** peek() 으로 읽은 레코드를 소비 처리한다. */
+    synchronized void commit(SpoolRecord record) {
+        if (record.segmentId() != readSegmentId || record.offset() != readPos) return;
+        readPos += HEADER_BYTES + record.bodyLength();
+        pendingRecords = Math.max(0, pendingRecords - 1);
+        saveCursor();
+    }
+
+    /** 읽기 위치부터 최대 limit 개를 읽기만 한다 (관리자 조회용). */
+    synchronized List<SpoolRecord> list(int limit) {
+        List<SpoolRecord> result = new ArrayList<>();
+        long segId = readSegmentId;
+        int pos = readPos;
+
+        while (result.size() < limit) {
+            MappedByteBuffer buf = segments.get(segId);
+            int len = pos + HEADER_BYTES <= segmentBytes ? buf.getInt(pos) : 0;
+            if (len > 0 && pos + HEADER_BYTES + len <= segmentBytes
+                    && crcOf(buf, pos + HEADER_BYTES, len) == buf.getInt(pos + 4)) {
+                result.add(decode(buf, segId, pos, len));
+                pos += HEADER_BYTES + len;
+                continue;
+            }
+            Long next = segments.higherKey(segId);
+            if (next == null) break;
+            segId = next;
+            pos = 0;
+        }
+        return result;
+    }
+
+    /** 읽기 위치부터 남은 레코드의 토픽만 순서대로 넘긴다 (재시작 시 디바이스별 밀린 메시지 복구용). */
+    synchronized void forEachPendingTopic(Consumer<String> action) {
+        long segId = readSegmentId;
+        int pos = readPos;
+
+        while (true) {
+            MappedByteBuffer buf = segments.get(segId);
+            int end = segId == writeSegmentId ? writePos : scanEnd(buf);
+            while (pos < end) {
+                int len = buf.getInt(pos);
+                int p = pos + HEADER_BYTES + 8;
+                byte[] topic = new byte[buf.getShort(p) & 0xFFFF];
+                buf.get(p + 2, topic);
+                action.accept(new String(topic, StandardCharsets.UTF_8));
+                pos += HEADER_BYTES + len;
+            }
+            Long next = segments.higherKey(segId);
+            if (next == null) return;
+            segId = next;
+            pos = 0;
+        }
+    }
+
+    /** 최대 limit 개를 꺼내며 소비 처리한다. */
+    synchronized List<SpoolRecord> take(int limit) {
+        List<SpoolRecord> result = new ArrayList<>();
+        SpoolRecord r;
+        while (result.size() < limit && (r = peek()) != null) {
+            result.add(r);
+            commit(r);
+        }
+        return result;
+    }
+
+    /** 남은 레코드를 모두 버린다. */
+    synchronized long purge() {
+        long dropped = pendingRecords;
+        while (readSegmentId != writeSegmentId) {
+            dropReadSegment();
+        }
+        readPos = writePos;
+        pendingRecords = 0;
+        saveCursor();
+        return dropped;
+    }
+
+    synchronized boolean isEmpty() {
+        return pendingRecords == 0;
+    }
+
+    synchronized long pendingRecords() {
+        return pendingRecords;
+    }
+
+    synchronized long usedBytes() {
+        return (long) segments.size() * segmentBytes;
+    }
+
+    String name() {
+        return name;
+    }
+
+    private void dropReadSegment() {
+        segments.remove(readSegmentId);
+        try {
+            Files.deleteIfExists(segmentPath(readSegmentId));
+        } catch (IOException e) {
+            log.warn("[MQTT][SPOOL] segment delete failed. stream={}, segment={}", name, readSegmentId, e);
+        }
+        readSegmentId = segments.ceilingKey(readSegmentId);
+        readPos = 0;
+        saveCursor();
+    }
+
+    private void saveCursor() {
+        cursor.putLong(0, readSegmentId);
+        cursor.putLong(8, readPos);
+    }
+
+    private long countPending() {
+        long count = 0;
+        long segId = readSegmentId;
+        int pos = readPos;
+        while (true) {
+            MappedByteBuffer buf = segments.get(segId);
+            int end = segId == writeSegmentId ? writePos : scanEnd(buf);
+            while (pos < end) {
+                pos += HEADER_BYTES + buf.getInt(pos);
+                count++;
+            }
+            Long next = segments.higherKey(segId);
+            if (next == null) return count;
+            segId = next;
+            pos = 0;
+        }
+    }
+
+    /** 유효한 마지막 레코드 다음 위치 (재시작 시 쓰기 위치 복구) */
+    private int scanEnd(MappedByteBuffer buf) {
+        int pos = 0;
+        while (pos + HEADER_BYTES <= segmentBytes) {
+            int len = buf.getInt(pos);
+            if (len <= 0 || pos + HEADER_BYTES + len > segmentBytes) break;
+            if (crcOf(buf, pos + HEADER_BYTES, len) != buf.getInt(pos + 4)) break;
+            pos += HEADER_BYTES + len;
+        }
+        return pos;
+    }
+
+    private SpoolRecord decode(ByteBuffer buf, long segmentId, int offset, int len) {
+        int p = offset + HEADER_BYTES;
+        long receivedAt = buf.getLong(p);
+        p += 8;
+        byte[] topic = new byte[buf.getShort(p) & 0xFFFF];
+        p += 2;
+        buf.get(p, topic);
+        p += topic.length;
+        byte[] reason = new byte[buf.getShort(p) & 0xFFFF];
+        p += 2;
+        buf.get(p, reason);
+        p += reason.length;
+        byte[] payload = new byte[offset + HEADER_BYTES + len - p];
+        buf.get(p, payload);
+
+        return new SpoolRecord(
+                segmentId,
+                offset,
+                len,
+                receivedAt,
+                new String(topic, StandardCharsets.UTF_8),
+                reason.length > 0 ? new String(reason, StandardCharsets.UTF_8) : null,
+                payload
+        );
+    }
+
+    private int crcOf(ByteBuffer buf, int from, int len) {
+        crc.reset();
+        crc.update(buf.slice(from, len));
+        return (int) crc.getValue();
+    }
+
+    private MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return ch.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return dir.resolve(String.format("%s-%016d%s", name, id, SEGMENT_SUFFIX));
+    }
+
+    private Long segmentIdOf(String fileName) {
+        if (!fileName.startsWith(name + "-") || !fileName.endsWith(SEGMENT_SUFFIX)) return null;
+        try {
+            return Long.parseLong(fileName.substring(name.length() + 1, fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String truncate(String reason) {
+        return reason.length() > 500 ? reason.substring(0, 500) : reason;
+    }
+}
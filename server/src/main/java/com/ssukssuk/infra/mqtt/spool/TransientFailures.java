@@ -0,0 +1,34 @@
+package com.ssukssuk.infra.mqtt.spool;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.net.ConnectException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+
+/**
+ * 처리 실패가 일시적인지(DB/Redis 장애 등 → 재시도하면 성공할 수 있음) 판별한다.
+ * 그 외의 실패(파싱 실패, 검증 실패, 버그)는 poison 으로 본다.
+ */
+public final class TransientFailures {
+
+    private TransientFailures() {}
+
+    public static boolean isTransient(Throwable t) {
+        for (Throwable c = t; c != null; c = c.getCause() == c ? null : c.getCause()) {
+            if (c instanceof TransientDataAccessException
+                    || c instanceof RecoverableDataAccessException
+                    || c instanceof DataAccessResourceFailureException   // RedisConnectionFailureException 포함
+                    || c instanceof CannotCreateTransactionException
+                    || c instanceof SQLTransientException
+                    || c instanceof SQLRecoverableException
+                    || c instanceof ConnectException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ssukssuk.infra.mqtt.topic;
+
+/**
+ * devices/{serial}/telemetry/{channel} 의 channel 세그먼트
+ */
+public enum MqttChannel {
+    SENSORS("sensors"),
+    ACTION_RESULT("action-result"),
+    IMAGE_INFERENCE("image-inference"),
+    ACK("ack");
+
+    private static final MqttChannel[] VALUES = values();
+
+    private final String segment;
+
+    MqttChannel(String segment) {
+        this.segment = segment;
+    }
+
+    public String segment() {
+        return segment;
+    }
+
+    /**
+     * topic[from, to) 구간을 채널로 해석 (substring 생성 없음). 매칭 실패 시 null
+     */
+    public static MqttChannel resolve(String topic, int from, int to) {
+        int len = to - from;
+        for (MqttChannel c : VALUES) {
+            if (c.segment.length() == len && topic.regionMatches(from, c.segment, 0, len)) {
+                return c;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ssukssuk.infra.mqtt.topic;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 디바이스 시리얼 intern 테이블 (크기 고정).
+ * 토픽 문자열의 [from, to) 구간을 해시해 기존 정규(canonical) 인스턴스를 돌려주고,
+ * 처음 보는 시리얼일 때만 substring 을 만든다.
+ * 슬롯이 가득 차면 탐색 시작 슬롯을 덮어쓰므로 메모리는 capacity 를 넘지 않는다.
+ */
+@Component
+public class SerialRegistry {
+
+    private static final int MAX_PROBE = 8;
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+
+    public SerialRegistry(@Value("${mqtt.ingest.serial-intern-capacity:4096}") int capacity) {
+        int size = Integer.highestOneBit(Math.max(MAX_PROBE, capacity - 1)) << 1;
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public String intern(TopicView view) {
+        return intern(view.topic(), view.serialStart(), view.serialEnd());
+    }
+
+    public String intern(String src, int from, int to) {
+        int len = to - from;
+
+        // String.hashCode 와 같은 방식으로 구간 해시 계산
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + src.charAt(i);
+        }
+        h ^= (h >>> 16);
+
+        int start = h & mask;
+        int empty = -1;
+        for (int p = 0; p < MAX_PROBE; p++) {
+            int idx = (start + p) & mask;
+            String cur = table.get(idx);
+            if (cur == null) {
+                if (empty < 0) empty = idx;
+                continue;
+            }
+            if (cur.length() == len && src.regionMatches(from, cur, 0, len)) {
+                return cur;
+            }
+        }
+
+        String serial = src.substring(from, to);
+        table.lazySet(empty >= 0 ? empty : start, serial);
+        return serial;
+    }
+}
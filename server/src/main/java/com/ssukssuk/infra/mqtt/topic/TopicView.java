@@ -0,0 +1,95 @@
+package com.ssukssuk.infra.mqtt.topic;
+
+import com.ssukssuk.infra.mqtt.codec.PayloadFormat;
+import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
+
+/**
+ * devices/{serial}/{telemetry|control}/{channel}[/{format}] 토픽의 재사용 가능한 파싱 결과.
+ * split 대신 인덱스만 기록하므로 파싱 시 문자열/배열을 새로 만들지 않는다.
+ * 스레드 간 공유하지 말고 스레드별로 하나씩 재사용한다.
+ */
+public final class TopicView {
+
+    private static final String PREFIX = "devices/";
+    private static final String TELEMETRY = "telemetry";
+    private static final String CONTROL = "control";
+
+    private String topic;
+    private int serialStart;
+    private int serialEnd;
+    private MqttEnvelope.Direction direction;
+    private MqttChannel channel;
+    private int channelStart;
+    private int channelEnd;
+    private PayloadFormat format;
+
+    /**
+     * @return 토픽 형식이 올바르면 true (channel / format 이 알 수 없는 값이어도 true, 해당 accessor 는 null)
+     */
+    public boolean parse(String topic) {
+        reset(topic);
+        if (topic == null || !topic.startsWith(PREFIX)) return false;
+
+        int s = PREFIX.length();
+        int e = topic.indexOf('/', s);
+        if (e <= s) return false;
+
+        int midStart = e + 1;
+        int midEnd = topic.indexOf('/', midStart);
+        if (midEnd < 0) return false;
+
+        MqttEnvelope.Direction dir;
+        if (segmentEquals(topic, midStart, midEnd, TELEMETRY)) {
+            dir = MqttEnvelope.Direction.TELEMETRY;
+        } else if (segmentEquals(topic, midStart, midEnd, CONTROL)) {
+            dir = MqttEnvelope.Direction.CONTROL;
+        } else {
+            return false;
+        }
+
+        int chStart = midEnd + 1;
+        int chEnd = topic.indexOf('/', chStart);
+        if (chEnd < 0) chEnd = topic.length();
+        if (chEnd <= chStart) return false;
+
+        this.serialStart = s;
+        this.serialEnd = e;
+        this.direction = dir;
+        this.channelStart = chStart;
+        this.channelEnd = chEnd;
+        this.channel = MqttChannel.resolve(topic, chStart, chEnd);
+
+        // 채널 뒤 세그먼트가 없으면 JSON
+        int fmtStart = Math.min(chEnd + 1, topic.length());
+        int fmtEnd = topic.indexOf('/', fmtStart);
+        if (fmtEnd < 0) fmtEnd = topic.length();
+        this.format = PayloadFormat.resolve(topic, fmtStart, fmtEnd);
+        return true;
+    }
+
+    public String topic() { return topic; }
+    public int serialStart() { return serialStart; }
+    public int serialEnd() { return serialEnd; }
+    public MqttEnvelope.Direction direction() { return direction; }
+    public MqttChannel channel() { return channel; }
+    public PayloadFormat format() { return format; }
+
+    /** 로그용 (알 수 없는 채널일 때만 호출) */
+    public String channelText() {
+        return topic != null && channelEnd > channelStart ? topic.substring(channelStart, channelEnd) : null;
+    }
+
+    private void reset(String topic) {
+        this.topic = topic;
+        this.serialStart = this.serialEnd = 0;
+        this.channelStart = this.channelEnd = 0;
+        this.direction = null;
+        this.channel = null;
+        this.format = null;
+    }
+
+    private static boolean segmentEquals(String topic, int from, int to, String expected) {
+        int len = to - from;
+        return len == expected.length() && topic.regionMatches(from, expected, 0, len);
+    }
+}
@@ -0,0 +1,36 @@
+package com.ssukssuk.infra.series;
+
+import java.nio.ByteBuffer;
+
+/** 비트 단위 읽기 (BitWriter 와 같은 순서, 절대 위치 접근만 사용) */
+final class BitReader {
+
+    private final ByteBuffer buf;
+    private final int base;
+    private int bits;
+
+    BitReader(ByteBuffer buf, int offset) {
+        this.buf = buf;
+        this.base = offset;
+    }
+
+    boolean readBit() {
+        int b = buf.get(base + (bits >>> 3));
+        boolean bit = (b & (0x80 >>> (bits & 7))) != 0;
+        bits++;
+        return bit;
+    }
+
+    long read(int n) {
+        long value = 0;
+        while (n > 0) {
+            int avail = 8 - (bits & 7);
+            int take = Math.min(avail, n);
+            int b = buf.get(base + (bits >>> 3)) & 0xff;
+            value = (value << take) | ((b >>> (avail - take)) & ((1 << take) - 1));
+            bits += take;
+            n -= take;
+        }
+        return value;
+    }
+}
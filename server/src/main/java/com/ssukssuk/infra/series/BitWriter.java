@@ -0,0 +1,53 @@
+package com.ssukssuk.infra.series;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/** 비트 단위 쓰기 (상위 비트부터) */
+final class BitWriter {
+
+    private byte[] buf;
+    private int bits;
+
+    BitWriter(int initialBytes) {
+        this.buf = new byte[Math.max(16, initialBytes)];
+    }
+
+    void writeBit(boolean bit) {
+        ensure(1);
+        if (bit) buf[bits >>> 3] |= (byte) (0x80 >>> (bits & 7));
+        bits++;
+    }
+
+    /** value 의 하위 n 비트 (n <= 64) */
+    void write(long value, int n) {
+        ensure(n);
+        while (n > 0) {
+            int free = 8 - (bits & 7);
+            int take = Math.min(free, n);
+            int chunk = (int) (value >>> (n - take)) & ((1 << take) - 1);
+            buf[bits >>> 3] |= (byte) (chunk << (free - take));
+            bits += take;
+            n -= take;
+        }
+    }
+
+    int byteLength() {
+        return (bits + 7) >>> 3;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buf, byteLength());
+    }
+
+    void writeTo(ByteBuffer dst) {
+        dst.put(buf, 0, byteLength());
+    }
+
+    private void ensure(int n) {
+        int need = (bits + n + 7) >>> 3;
+        if (need > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(need, buf.length * 2));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.ssukssuk.infra.series;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 측정값 블록 압축 (Facebook Gorilla 방식).
+ *
+ * 첫 건은 원본 그대로 [long ts][float x4][byte status], 이후는
+ * - 시각   : delta-of-delta. 0 → '0', 작으면 '10'/'110'/'1110' + 7/9/12 비트, 그 외 '1111' + 64 비트
+ * - 값     : 직전 값과 XOR. 같으면 '0', 직전 유효 비트 구간에 들어가면 '10' + 구간,
+ *            아니면 '11' + leading(5) + 길이-1(5) + 유효 비트
+ * - status : 같으면 '0', 바뀌면 '1' + 8 비트
+ *
+ * 주기 데이터는 간격이 거의 같고 값이 천천히 변하므로 건당 수 바이트로 줄어든다.
+ */
+final class GorillaBlock {
+
+    static final int METRICS = 4;
+
+    private GorillaBlock() {
+    }
+
+    /** 블록 하나를 채우는 쪽 (동기화는 호출자가) */
+    static final class Encoder {
+
+        private final BitWriter out;
+        private int count;
+        private long minTs = Long.MAX_VALUE;
+        private long maxTs = Long.MIN_VALUE;
+
+        private long prevTs;
+        private long prevDelta;
+        private byte prevStatus;
+        private final int[] prevBits = new int[METRICS];
+        private final int[] prevLeading = new int[METRICS];
+        private final int[] prevTrailing = new int[METRICS];
+
+        Encoder(int initialBytes) {
+            this.out = new BitWriter(initialBytes);
+        }
+
+        void append(SensorSample s) {
+            long ts = s.measuredAt();
+            if (count == 0) {
+                out.write(ts, 64);
+                for (int i = 0; i < METRICS; i++) {
+                    int bits = Float.floatToIntBits(valueOf(s, i));
+                    out.write(bits, 32);
+                    prevBits[i] = bits;
+                    prevLeading[i] = -1;
+                }
+                out.write(s.status(), 8);
+            } else {
+                long delta = ts - prevTs;
+                writeDod(delta - prevDelta);
+                prevDelta = delta;
+                for (int i = 0; i < METRICS; i++) {
+                    writeValue(i, Float.floatToIntBits(valueOf(s, i)));
+                }
+                if (s.status() == prevStatus) {
+                    out.writeBit(false);
+                } else {
+                    out.writeBit(true);
+                    out.write(s.status(), 8);
+                }
+            }
+            prevTs = ts;
+            prevStatus = s.status();
+            minTs = Math.min(minTs, ts);
+            maxTs = Math.max(maxTs, ts);
+            count++;
+        }
+
+        int count() {
+            return count;
+        }
+
+        long minTs() {
+            return minTs;
+        }
+
+        long maxTs() {
+            return maxTs;
+        }
+
+        int byteLength() {
+            return out.byteLength();
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+
+        void writeTo(ByteBuffer dst) {
+            out.writeTo(dst);
+        }
+
+        private void writeDod(long dod) {
+            if (dod == 0) {
+                out.writeBit(false);
+            } else if (dod >= -63 && dod <= 64) {
+                out.write(0b10, 2);
+                out.write(dod + 63, 7);
+            } else if (dod >= -255 && dod <= 256) {
+                out.write(0b110, 3);
+                out.write(dod + 255, 9);
+            } else if (dod >= -2047 && dod <= 2048) {
+                out.write(0b1110, 4);
+                out.write(dod + 2047, 12);
+            } else {
+                out.write(0b1111, 4);
+                out.write(dod, 64);
+            }
+        }
+
+        private void writeValue(int i, int bits) {
+            int xor = bits ^ prevBits[i];
+            prevBits[i] = bits;
+            if (xor == 0) {
+                out.writeBit(false);
+                return;
+            }
+            int leading = Integer.numberOfLeadingZeros(xor);
+            int trailing = Integer.numberOfTrailingZeros(xor);
+            if (prevLeading[i] >= 0 && leading >= prevLeading[i] && trailing >= prevTrailing[i]) {
+                out.write(0b10, 2);
+                out.write(xor >>> prevTrailing[i], 32 - prevLeading[i] - prevTrailing[i]);
+                return;
+            }
+            int meaningful = 32 - leading - trailing;
+            out.write(0b11, 2);
+            out.write(leading, 5);
+            out.write(meaningful - 1, 5);
+            out.write(xor >>> trailing, meaningful);
+            prevLeading[i] = leading;
+            prevTrailing[i] = trailing;
+        }
+    }
+
+    /**
+     * buf[offset..] 의 count 건을 풀어 [from, to) 에 드는 것만 넘긴다.
+     * @return 넘긴 건수
+     */
+    static int decode(ByteBuffer buf, int offset, int count, long from, long to,
+                      SensorSeriesStore.Visitor visitor) {
+        BitReader in = new BitReader(buf, offset);
+        int[] bits = new int[METRICS];
+        int[] leading = new int[METRICS];
+        int[] trailing = new int[METRICS];
+        long ts = 0;
+        long delta = 0;
+        int status = 0;
+        int visited = 0;
+
+        for (int n = 0; n < count; n++) {
+            if (n == 0) {
+                ts = in.read(64);
+                for (int i = 0; i < METRICS; i++) {
+                    bits[i] = (int) in.read(32);
+                }
+                status = (int) in.read(8);
+            } else {
+                delta += readDod(in);
+                ts += delta;
+                for (int i = 0; i < METRICS; i++) {
+                    if (!in.readBit()) continue;
+                    int xor;
+                    if (!in.readBit()) {
+                        xor = (int) in.read(32 - leading[i] - trailing[i]) << trailing[i];
+                    } else {
+                        leading[i] = (int) in.read(5);
+                        int meaningful = (int) in.read(5) + 1;
+                        trailing[i] = 32 - leading[i] - meaningful;
+                        xor = (int) in.read(meaningful) << trailing[i];
+                    }
+                    bits[i] ^= xor;
+                }
+                if (in.readBit()) status = (int) in.read(8);
+            }
+            if (ts >= from && ts < to) {
+                visitor.visit(ts,
+                        Float.intBitsToFloat(bits[0]), Float.intBitsToFloat(bits[1]),
+                        Float.intBitsToFloat(bits[2]), Float.intBitsToFloat(bits[3]),
+                        (byte) status);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    private static long readDod(BitReader in) {
+        if (!in.readBit()) return 0;
+        if (!in.readBit()) return in.read(7) - 63;
+        if (!in.readBit()) return in.read(9) - 255;
+        if (!in.readBit()) return in.read(12) - 2047;
+        return in.read(64);
+    }
+
+    private static float valueOf(SensorSample s, int i) {
+        return switch (i) {
+            case SensorSample.TEMPERATURE -> s.temperature();
+            case SensorSample.HUMIDITY -> s.humidity();
+            case SensorSample.WATER_LEVEL -> s.waterLevel();
+            default -> s.nutrientConc();
+        };
+    }
+}
@@ -0,0 +1,268 @@
+package com.ssukssuk.infra.series;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 식물별 압축 세그먼트 파일 시계열 저장소 (sensor-series.engine=segment).
+ *
+ * - 식물마다 메모리의 열린 블록(GorillaBlock.Encoder)에 모으다가 block-samples 건이 차거나,
+ *   seal-after-ms 가 지나거나, 날짜(KST)가 바뀌면 그날 파일 끝에 붙인다 (SeriesSegmentFile)
+ * - 읽기는 구간에 걸친 날짜 파일을 매핑해 훑고, 마지막에 아직 열린 블록을 붙인다
+ * - 보관 기간이 지난 날짜 파일은 통째로 지운다
+ *
+ * 프로세스가 죽으면 열린 블록(최대 seal-after-ms 분량)은 잃는다 (정상 종료 시에는 기록).
+ * 노드마다 자기 디스크에 쓰므로 같은 식물의 업링크가 한 노드로 모이는 구성에서 쓴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sensor-series.engine", havingValue = "segment")
+public class SegmentSensorSeriesStore implements SensorSeriesStore {
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Path root;
+    private final int blockSamples;
+    private final long sealAfterMillis;
+    private final int retentionDays;
+
+    private final Map<Long, Series> series = new ConcurrentHashMap<>();
+
+    private final Counter appended;
+    private final Counter sealedBlocks;
+    private final Counter writtenBytes;
+    private final Counter dropped;
+
+    public SegmentSensorSeriesStore(
+            MeterRegistry meterRegistry,
+            @Value("${sensor-series.segment.dir:./data/series}") String dir,
+            @Value("${sensor-series.segment.block-samples:1024}") int blockSamples,
+            @Value("${sensor-series.segment.seal-after-ms:600000}") long sealAfterMillis,
+            @Value("${sensor-series.segment.retention-days:400}") int retentionDays
+    ) throws IOException {
+        this.root = Path.of(dir);
+        this.blockSamples = blockSamples;
+        this.sealAfterMillis = sealAfterMillis;
+        this.retentionDays = retentionDays;
+        Files.createDirectories(root);
+
+        this.appended = Counter.builder("sensor_series.segment.samples")
+                .description("세그먼트 저장소에 기록한 측정값 수")
+                .register(meterRegistry);
+        this.sealedBlocks = Counter.builder("sensor_series.segment.blocks")
+                .description("파일에 기록한 블록 수")
+                .register(meterRegistry);
+        this.writtenBytes = Counter.builder("sensor_series.segment.bytes")
+                .description("파일에 기록한 바이트 수")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("sensor_series.segment.dropped")
+                .description("파일 기록 실패로 버린 측정값 수")
+                .register(meterRegistry);
+        Gauge.builder("sensor_series.segment.open_series", series, Map::size)
+                .description("메모리에 열린 블록을 가진 식물 수")
+                .register(meterRegistry);
+
+        log.info("[SENSOR_SERIES] segment store dir={}, blockSamples={}, sealAfterMs={}, retentionDays={}",
+                root.toAbsolutePath(), blockSamples, sealAfterMillis, retentionDays);
+    }
+
+    @Override
+    public void append(long plantId, SensorSample sample) {
+        Series s = series.computeIfAbsent(plantId, Series::new);
+        LocalDate day = dayOf(sample.measuredAt());
+        synchronized (s) {
+            // 블록은 하루를 넘지 않는다 (늦게 온 전날 측정값도 전날 파일로 간다)
+            if (s.head != null && (!day.equals(s.headDay) || s.head.count() >= blockSamples)) {
+                seal(s);
+            }
+            if (s.head == null) {
+                s.head = new GorillaBlock.Encoder(256);
+                s.headDay = day;
+                s.headOpenedAt = System.currentTimeMillis();
+            }
+            s.head.append(sample);
+            if (s.last == null || sample.measuredAt() >= s.last.measuredAt()) {
+                s.last = sample;
+            }
+        }
+        appended.increment();
+    }
+
+    @Override
+    public void scan(long plantId, long from, long to, Visitor visitor) {
+        if (from >= to) return;
+        LocalDate first = dayOf(from);
+        LocalDate last = dayOf(to - 1);
+        try {
+            for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                SeriesSegmentFile.scan(fileOf(plantId, day), from, to, visitor);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // 아직 파일에 안 쓴 블록: 복사본을 풀어서 잠금을 오래 잡지 않는다
+        Series s = series.get(plantId);
+        if (s == null) return;
+        byte[] open;
+        int count;
+        synchronized (s) {
+            if (s.head == null || s.head.maxTs() < from || s.head.minTs() >= to) return;
+            open = s.head.toByteArray();
+            count = s.head.count();
+        }
+        GorillaBlock.decode(ByteBuffer.wrap(open), 0, count, from, to, visitor);
+    }
+
+    @Override
+    public Optional<SensorSample> latest(long plantId) {
+        Series s = series.get(plantId);
+        if (s != null) {
+            synchronized (s) {
+                if (s.last != null) return Optional.of(s.last);
+            }
+        }
+        SensorSample loaded = loadLatest(plantId);
+        if (loaded == null) return Optional.empty();
+
+        Series created = series.computeIfAbsent(plantId, Series::new);
+        synchronized (created) {
+            if (created.last == null || loaded.measuredAt() > created.last.measuredAt()) {
+                created.last = loaded;
+            }
+            return Optional.of(created.last);
+        }
+    }
+
+    @Override
+    public boolean includesSensorLog() {
+        return false;
+    }
+
+    /** 오래 열린 블록을 파일로 (주기가 긴 디바이스도 seal-after-ms 안에 기록되도록) */
+    @Scheduled(fixedDelayString = "${sensor-series.segment.seal-check-ms:30000}")
+    public void sealIdle() {
+        long now = System.currentTimeMillis();
+        for (Series s : series.values()) {
+            synchronized (s) {
+                if (s.head != null && now - s.headOpenedAt >= sealAfterMillis) {
+                    seal(s);
+                }
+            }
+        }
+    }
+
+    @Scheduled(cron = "${sensor-series.segment.retention-cron:0 40 3 * * *}")
+    public void purgeExpired() {
+        if (retentionDays <= 0) return;
+        String cutoff = LocalDate.now(SensorSample.ZONE).minusDays(retentionDays).format(DAY);
+        int deleted = 0;
+        try (Stream<Path> plants = Files.list(root)) {
+            for (Path plantDir : (Iterable<Path>) plants::iterator) {
+                if (!Files.isDirectory(plantDir)) continue;
+                try (Stream<Path> files = Files.list(plantDir)) {
+                    for (Path f : (Iterable<Path>) files::iterator) {
+                        String name = f.getFileName().toString();
+                        if (name.endsWith(SeriesSegmentFile.SUFFIX) && name.compareTo(cutoff) < 0) {
+                            Files.deleteIfExists(f);
+                            deleted++;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("[SENSOR_SERIES] purge failed. cause={}", e.toString());
+        }
+        if (deleted > 0) {
+            log.info("[SENSOR_SERIES] purged day files={}, before={}", deleted, cutoff);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Series s : series.values()) {
+            synchronized (s) {
+                if (s.head != null) seal(s);
+            }
+        }
+    }
+
+    /** s 잠금 안에서 호출. 실패하면 블록을 버린다 (디스크 오류가 계속되면 메모리가 쌓이지 않도록) */
+    private void seal(Series s) {
+        GorillaBlock.Encoder block = s.head;
+        s.head = null;
+        try {
+            writtenBytes.increment(SeriesSegmentFile.append(fileOf(s.plantId, s.headDay), block));
+            sealedBlocks.increment();
+        } catch (IOException e) {
+            dropped.increment(block.count());
+            log.error("[SENSOR_SERIES] block write failed, samples dropped. plantId={}, day={}, samples={}",
+                    s.plantId, s.headDay, block.count(), e);
+        }
+    }
+
+    /** 가장 최근 날짜 파일에서 가장 늦은 측정값 */
+    private SensorSample loadLatest(long plantId) {
+        Path dir = root.resolve(Long.toString(plantId));
+        if (!Files.isDirectory(dir)) return null;
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> days = files
+                    .filter(p -> p.getFileName().toString().endsWith(SeriesSegmentFile.SUFFIX))
+                    .sorted((a, b) -> b.getFileName().compareTo(a.getFileName()))
+                    .toList();
+            for (Path f : days) {
+                SensorSample[] latest = new SensorSample[1];
+                SeriesSegmentFile.scan(f, Long.MIN_VALUE, Long.MAX_VALUE, (ts, t, h, w, n, st) -> {
+                    if (latest[0] == null || ts >= latest[0].measuredAt()) {
+                        latest[0] = new SensorSample(ts, t, h, w, n, st);
+                    }
+                });
+                if (latest[0] != null) return latest[0];
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path fileOf(long plantId, LocalDate day) {
+        return root.resolve(Long.toString(plantId)).resolve(day.format(DAY) + SeriesSegmentFile.SUFFIX);
+    }
+
+    private static LocalDate dayOf(long millis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(millis), SensorSample.ZONE);
+    }
+
+    private static final class Series {
+        final long plantId;
+        GorillaBlock.Encoder head;
+        LocalDate headDay;
+        long headOpenedAt;
+        SensorSample last;
+
+        Series(long plantId) {
+            this.plantId = plantId;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ssukssuk.infra.series;
+
+import com.ssukssuk.domain.history.SensorLog;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 센서 측정값 1건 (시계열 저장소 단위).
+ *
+ * - measuredAt : epoch millis (measured_at 은 KST LocalDateTime)
+ * - 값이 없으면 NaN
+ * - status : 센서당 2비트 (0 없음, 1 OK, 2 UP, 3 DOWN). temperature 가 최상위 2비트
+ */
+public record SensorSample(
+        long measuredAt,
+        float temperature,
+        float humidity,
+        float waterLevel,
+        float nutrientConc,
+        byte status
+) {
+
+    public static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    public static final int TEMPERATURE = 0;
+    public static final int HUMIDITY = 1;
+    public static final int WATER_LEVEL = 2;
+    public static final int NUTRIENT_CONC = 3;
+
+    public static SensorSample of(LocalDateTime measuredAt,
+                                  Float temperature, Float humidity, Float waterLevel, Float nutrientConc,
+                                  SensorLog.SensorStatus temperatureStatus, SensorLog.SensorStatus humidityStatus,
+                                  SensorLog.SensorStatus waterLevelStatus, SensorLog.SensorStatus nutrientConcStatus) {
+        int packed = code(temperatureStatus) << 6
+                | code(humidityStatus) << 4
+                | code(waterLevelStatus) << 2
+                | code(nutrientConcStatus);
+        return new SensorSample(toMillis(measuredAt),
+                orNaN(temperature), orNaN(humidity), orNaN(waterLevel), orNaN(nutrientConc), (byte) packed);
+    }
+
+    public LocalDateTime measuredAtLocal() {
+        return toLocal(measuredAt);
+    }
+
+    public Float temperatureOrNull() {
+        return boxed(temperature);
+    }
+
+    public Float humidityOrNull() {
+        return boxed(humidity);
+    }
+
+    public Float waterLevelOrNull() {
+        return boxed(waterLevel);
+    }
+
+    public Float nutrientConcOrNull() {
+        return boxed(nutrientConc);
+    }
+
+    /** @param sensor TEMPERATURE, HUMIDITY, WATER_LEVEL, NUTRIENT_CONC */
+    public SensorLog.SensorStatus statusOf(int sensor) {
+        return status(status, sensor);
+    }
+
+    public static SensorLog.SensorStatus status(byte packed, int sensor) {
+        return switch ((packed >>> (6 - sensor * 2)) & 0b11) {
+            case 1 -> SensorLog.SensorStatus.OK;
+            case 2 -> SensorLog.SensorStatus.UP;
+            case 3 -> SensorLog.SensorStatus.DOWN;
+            default -> null;
+        };
+    }
+
+    public static int code(SensorLog.SensorStatus status) {
+        if (status == null) return 0;
+        return switch (status) {
+            case OK -> 1;
+            case UP -> 2;
+            case DOWN -> 3;
+        };
+    }
+
+    public static long toMillis(LocalDateTime t) {
+        return t.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    public static LocalDateTime toLocal(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE);
+    }
+
+    public static float orNaN(Float v) {
+        return v != null ? v : Float.NaN;
+    }
+
+    public static Float boxed(float v) {
+        return Float.isNaN(v) ? null : v;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ssukssuk.infra.series;
+
+import java.util.Optional;
+
+/**
+ * 식물별 센서 시계열 저장소.
+ *
+ * - mysql   : sensor_log 테이블 (기본값, MysqlSensorSeriesStore)
+ * - segment : 식물별 압축 세그먼트 파일 (SegmentSensorSeriesStore).
+ *             이때 sensor_log 에는 이벤트가 참조하는 측정값만 남는다.
+ *
+ * sensor-series.engine 으로 고른다.
+ */
+public interface SensorSeriesStore {
+
+    /** 측정값 기록. 트랜잭션 커밋 후에 호출한다 */
+    void append(long plantId, SensorSample sample);
+
+    /**
+     * [from, to) 구간 측정값 (epoch millis). 기록된 순서로 넘기며, 디바이스가 순서대로 보내면 시간 순이다.
+     */
+    void scan(long plantId, long from, long to, Visitor visitor);
+
+    /** 가장 늦은 측정값 */
+    Optional<SensorSample> latest(long plantId);
+
+    /**
+     * scan/latest 가 sensor_log 를 읽는가.
+     * true 면 이벤트 측정값(sensor_log 에 바로 INSERT)을 따로 append 하지 않는다.
+     */
+    boolean includesSensorLog();
+
+    /** 박싱 없이 한 건씩 받는다 (값이 없으면 NaN, status 는 SensorSample 참고) */
+    @FunctionalInterface
+    interface Visitor {
+        void visit(long measuredAt, float temperature, float humidity, float waterLevel, float nutrientConc,
+                   byte status);
+    }
+}
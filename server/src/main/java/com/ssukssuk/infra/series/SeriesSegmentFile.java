@@ -0,0 +1,145 @@
+package com.ssukssuk.infra.series;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * 식물 하루치 세그먼트 파일 ({plantId}/{yyyyMMdd}.seg).
+ *
+ * 블록 = [int payloadLen][int count][long minTs][long maxTs][int crc32][payload]
+ * 블록은 한 번의 write 로 파일 끝에 붙이고, 읽을 때는 파일 전체를 읽기 전용으로 매핑해
+ * 헤더의 minTs/maxTs 로 구간 밖 블록은 풀지 않고 건너뛴다.
+ * 끝이 잘렸거나 crc 가 맞지 않는 블록(쓰는 중 종료)은 그 뒤와 함께 무시한다.
+ * 그래서 붙이기 전에 마지막 온전한 블록 뒤의 찢어진 꼬리를 잘라, 새 블록이 그 뒤에 묻히지 않게 한다.
+ */
+@Slf4j
+final class SeriesSegmentFile {
+
+    static final int HEADER_BYTES = 28;
+    static final String SUFFIX = ".seg";
+
+    private SeriesSegmentFile() {
+    }
+
+    /** @return 기록한 바이트 수 */
+    static int append(Path file, GorillaBlock.Encoder block) throws IOException {
+        byte[] payload = block.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buf.putInt(payload.length)
+                .putInt(block.count())
+                .putLong(block.minTs())
+                .putLong(block.maxTs())
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+
+        Files.createDirectories(file.getParent());
+        try (FileChannel ch = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long pos = validEnd(ch);
+            if (pos < ch.size()) {
+                log.warn("[SENSOR_SERIES] torn tail truncated. file={}, size={}, validEnd={}", file, ch.size(), pos);
+                ch.truncate(pos);
+            }
+            while (buf.hasRemaining()) {
+                pos += ch.write(buf, pos);
+            }
+        }
+        return HEADER_BYTES + payload.length;
+    }
+
+    /**
+     * 마지막 온전한 블록의 끝 위치.
+     * 헤더 길이를 따라가고, 쓰다 끊긴 블록은 마지막에만 생기므로 crc 는 마지막 블록만 확인한다.
+     */
+    static long validEnd(FileChannel ch) throws IOException {
+        long size = ch.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long pos = 0;
+        long lastStart = -1;
+        int lastLen = 0;
+        int lastCrc = 0;
+        while (pos + HEADER_BYTES <= size) {
+            readFully(ch, header.clear(), pos);
+            int payloadLen = header.getInt(0);
+            int count = header.getInt(4);
+            long next = pos + HEADER_BYTES + payloadLen;
+            if (payloadLen <= 0 || count <= 0 || next > size) break;
+            lastStart = pos;
+            lastLen = payloadLen;
+            lastCrc = header.getInt(24);
+            pos = next;
+        }
+        if (lastStart >= 0) {
+            ByteBuffer payload = ByteBuffer.allocate(lastLen);
+            readFully(ch, payload, lastStart + HEADER_BYTES);
+            if (!crcMatches(payload, 0, lastLen, lastCrc)) return lastStart;
+        }
+        return pos;
+    }
+
+    /** @return 넘긴 건수 (파일이 없으면 0) */
+    static int scan(Path file, long from, long to, SensorSeriesStore.Visitor visitor) throws IOException {
+        MappedByteBuffer buf = map(file);
+        if (buf == null) return 0;
+
+        int visited = 0;
+        int pos = 0;
+        int limit = buf.capacity();
+        while (pos + HEADER_BYTES <= limit) {
+            int payloadLen = buf.getInt(pos);
+            int count = buf.getInt(pos + 4);
+            long minTs = buf.getLong(pos + 8);
+            long maxTs = buf.getLong(pos + 16);
+            int payloadStart = pos + HEADER_BYTES;
+            if (payloadLen <= 0 || count <= 0 || payloadStart + payloadLen > limit) {
+                log.warn("[SENSOR_SERIES] truncated block ignored. file={}, pos={}", file, pos);
+                break;
+            }
+            if (maxTs >= from && minTs < to) {
+                if (!crcMatches(buf, payloadStart, payloadLen, buf.getInt(pos + 24))) {
+                    log.warn("[SENSOR_SERIES] corrupted block ignored. file={}, pos={}", file, pos);
+                    break;
+                }
+                visited += GorillaBlock.decode(buf, payloadStart, count, from, to, visitor);
+            }
+            pos = payloadStart + payloadLen;
+        }
+        return visited;
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size == 0) return null;
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer dst, long pos) throws IOException {
+        while (dst.hasRemaining()) {
+            int n = ch.read(dst, pos + dst.position());
+            if (n < 0) throw new IOException("unexpected end of segment file");
+        }
+    }
+
+    private static boolean crcMatches(ByteBuffer buf, int offset, int len, int expected) {
+        CRC32 crc = new CRC32();
+        crc.update(buf.slice(offset, len));
+        return (int) crc.getValue() == expected;
+    }
+}
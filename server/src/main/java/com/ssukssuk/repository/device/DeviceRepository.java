@@ -5,6 +5,7 @@ import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,4 +20,21 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
 
     // 사용자의 모든 등록된 디바이스 조회 (pairing 여부 관계없이)
     List<Device> findAllByUser_Id(Long userId);
+
+    // 업링크 바인딩 검증 + 처리에 필요한 값을 한 번에 조회 (디바이스, 식물 소유자, PlantStatus, 종)
+    // 디바이스가 없으면 빈 리스트, 식물이 없으면 plant 쪽 컬럼이 null
+    @Query("""
+        select du.id, d.pairing, up.plantId, pu.id, up.removedAt, up.isConnected, ps, s
+        from Device d
+        left join d.user du
+        left join UserPlant up on up.plantId = :plantId
+        left join up.user pu
+        left join up.species s
+        left join PlantStatus ps on ps.plantId = up.plantId
+        where d.serial = :serial
+    """)
+    List<Object[]> findTelemetryBinding(
+            @Param("serial") String serial,
+            @Param("plantId") Long plantId
+    );
 }
\ No newline at end of file
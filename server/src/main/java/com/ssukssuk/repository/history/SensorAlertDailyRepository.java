@@ -0,0 +1,48 @@
+package com.ssukssuk.repository.history;
+
+import com.ssukssuk.domain.history.SensorAlertDaily;
+import com.ssukssuk.domain.history.SensorAlertDailyId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface SensorAlertDailyRepository extends JpaRepository<SensorAlertDaily, SensorAlertDailyId> {
+
+    // 이벤트 OPEN 시 해당 날짜 카운터 +1 (이벤트 INSERT 와 같은 트랜잭션)
+    // native 라 query space 를 안 주면 세션 전체를 flush 해서 PlantStatus UPDATE 가 한 번 더 나간다
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sensor_alert_daily"))
+    @Query(value = """
+        insert into sensor_alert_daily (plant_id, alert_date, sensor_code, alert_count)
+        values (:plantId, :alertDate, :sensorCode, 1)
+        on duplicate key update alert_count = alert_count + 1
+        """, nativeQuery = true)
+    int increment(
+            @Param("plantId") Long plantId,
+            @Param("alertDate") LocalDate alertDate,
+            @Param("sensorCode") Integer sensorCode
+    );
+
+    // 알림 그래프용: 기간(양끝 포함) 내 날짜×센서 카운터 (PK 범위 조회, 최대 일수×센서 수 행)
+    @Query(value = """
+        select alert_date as alertDate, sensor_code as sensorCode, alert_count as alertCount
+        from sensor_alert_daily
+        where plant_id = :plantId
+          and alert_date between :start and :end
+          and sensor_code in (:sensorCodes)
+        """, nativeQuery = true)
+    List<SensorAlertDailyRow> findDaily(
+            @Param("plantId") Long plantId,
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end,
+            @Param("sensorCodes") Collection<Integer> sensorCodes
+    );
+}
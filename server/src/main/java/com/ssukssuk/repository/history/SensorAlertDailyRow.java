@@ -0,0 +1,9 @@
+package com.ssukssuk.repository.history;
+
+import java.time.LocalDate;
+
+public interface SensorAlertDailyRow {
+    LocalDate getAlertDate();
+    Integer getSensorCode();
+    Integer getAlertCount();
+}
@@ -2,49 +2,51 @@ package com.ssukssuk.repository.history;
 
 import com.ssukssuk.domain.history.SensorEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 public interface SensorEventRepository extends JpaRepository<SensorEvent, Long> {
 
     /**
-     * plantId + sensorCode 기준 OPEN(state=true) 이벤트 중 가장 최근 1개
+     * 열린 이벤트 id 만 (OpenEventTable 을 못 쓸 때, idx_sensor_event_open 사용)
      */
-    @Query("""
-    select e
-    from SensorEvent e
-    where e.plant.plantId = :plantId
-      and e.sensorCode = :sensorCode
-      and e.state = :state
-    order by e.startedAt desc
-""")
-    Optional<SensorEvent> findLatestByPlantIdAndSensorCodeAndState(
+    @Query(value = """
+        select event_id
+        from sensor_event
+        where plant_id = :plantId
+          and sensor_code = :sensorCode
+          and state = true
+        order by started_at desc
+        limit 1
+    """, nativeQuery = true)
+    Optional<Long> findOpenEventId(
             @Param("plantId") Long plantId,
-            @Param("sensorCode") Integer sensorCode,
-            @Param("state") Boolean state
+            @Param("sensorCode") Integer sensorCode
     );
 
-    default Optional<SensorEvent> findOpenByPlantIdAndSensorCode(Long plantId, Integer sensorCode) {
-        return findLatestByPlantIdAndSensorCodeAndState(
-                plantId, sensorCode, true
-        );
-    }
+    // 이상치가 이어질 때 마지막 측정값만 갱신 (엔티티를 읽지 않고)
+    @Modifying
+    @Query(value = "update sensor_event set last_sensor_log_id = :sensorLogId where event_id = :eventId",
+            nativeQuery = true)
+    int updateLast(@Param("eventId") Long eventId, @Param("sensorLogId") Long sensorLogId);
 
-    // 히스토리 그래프용: 기간 내 이벤트 전체 조회
-    @Query("""
-        select e
-        from SensorEvent e
-        where e.plant.plantId = :plantId
-          and e.startedAt >= :start
-          and e.startedAt <  :endExclusive
-    """)
-    List<SensorEvent> findByPlantIdAndStartedAtBetween(
-            @Param("plantId") Long plantId,
-            @Param("start") LocalDateTime start,
-            @Param("endExclusive") LocalDateTime endExclusive
+    /**
+     * 열린 이벤트 종료
+     * @return 0 이면 이미 닫혀 있음
+     */
+    @Modifying
+    @Query(value = """
+        update sensor_event
+        set state = false, last_sensor_log_id = :sensorLogId, resolved_at = :resolvedAt
+        where event_id = :eventId and state = true
+    """, nativeQuery = true)
+    int resolve(
+            @Param("eventId") Long eventId,
+            @Param("sensorLogId") Long sensorLogId,
+            @Param("resolvedAt") LocalDateTime resolvedAt
     );
 }
@@ -156,4 +156,15 @@ public interface UserPlantRepository extends JpaRepository<UserPlant, Long> {
     """)
     Optional<Float> findNutrientMaxByPlantId(@Param("plantId") Long plantId);
 
-}
\ No newline at end of file
+    // 지연 확정된 센서 이벤트 처리용: DeviceRepository.findTelemetryBinding 의 식물 쪽 컬럼만
+    @Query("""
+        select pu.id, up.removedAt, up.isConnected, ps, s
+        from UserPlant up
+        join up.user pu
+        left join up.species s
+        left join PlantStatus ps on ps.plantId = up.plantId
+        where up.plantId = :plantId
+    """)
+    List<Object[]> findPlantBinding(@Param("plantId") Long plantId);
+
+}
@@ -0,0 +1,15 @@
+package com.ssukssuk.service.device;
+
+import com.ssukssuk.domain.plant.PlantStatus;
+import com.ssukssuk.domain.plant.Species;
+
+/**
+ * 바인딩 검증 SELECT 한 번으로 얻은 업링크 처리용 식별자.
+ *
+ * @param plantId      검증된 식물 id
+ * @param activeUserId 식물이 연결(활성) 상태일 때의 소유자 id, 아니면 null
+ * @param plantStatus  같은 쿼리로 읽어 영속성 컨텍스트에 올라간 PlantStatus (없으면 null)
+ * @param species      식물 종 (적정 범위 판정용, 같은 쿼리)
+ */
+public record DeviceBinding(Long plantId, Long activeUserId, PlantStatus plantStatus, Species species) {
+}
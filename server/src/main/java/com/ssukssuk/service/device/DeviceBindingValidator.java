@@ -2,12 +2,16 @@ package com.ssukssuk.service.device;
 
 import com.ssukssuk.common.exception.CustomException;
 import com.ssukssuk.common.exception.ErrorCode;
-import com.ssukssuk.domain.device.Device;
+import com.ssukssuk.domain.plant.PlantStatus;
+import com.ssukssuk.domain.plant.Species;
 import com.ssukssuk.repository.device.DeviceRepository;
 import com.ssukssuk.repository.plant.UserPlantRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 public class DeviceBindingValidator {
@@ -23,22 +27,59 @@ public class DeviceBindingValidator {
      * @param plantId 메시지에 포함된 plantId
      */
     public void validate(String serial, Long plantId) {
+        resolve(serial, plantId);
+    }
 
-        Device device = deviceRepository.findBySerial(serial)
-                .orElseThrow(() ->
-                        new CustomException(ErrorCode.DEVICE_NOT_FOUND)
-                );
+    /**
+     * validate 와 같은 검증을 SELECT 한 번으로 하고, 이후 처리에 필요한 식별자를 돌려준다.
+     * 트랜잭션 안에서 부르면 PlantStatus 가 영속 상태로 남아 다시 조회하지 않아도 된다.
+     */
+    public DeviceBinding resolve(String serial, Long plantId) {
+        List<Object[]> rows = deviceRepository.findTelemetryBinding(serial, plantId);
+        if (rows.isEmpty()) {
+            throw new CustomException(ErrorCode.DEVICE_NOT_FOUND);
+        }
+        // [device.user_id, device.pairing, plant_id, plant.user_id, removed_at, is_connected, PlantStatus, Species]
+        Object[] row = rows.get(0);
 
-        if (device.getUser() == null) {
+        if (row[0] == null) {
             throw new CustomException(ErrorCode.DEVICE_NOT_CLAIMED);
         }
 
-        if (!Boolean.TRUE.equals(device.getPairing())) {
+        if (!Boolean.TRUE.equals(row[1])) {
             throw new CustomException(ErrorCode.DEVICE_ALREADY_PAIRED);
         }
 
-        if (!userPlantRepository.existsById(plantId)) {
+        if (row[2] == null) {
             throw new CustomException(ErrorCode.PLANT_NOT_FOUND);
         }
+
+        boolean active = row[4] == null && Boolean.TRUE.equals(row[5]);
+        return new DeviceBinding(
+                (Long) row[2],
+                active ? (Long) row[3] : null,
+                (PlantStatus) row[6],
+                (Species) row[7]
+        );
+    }
+
+    /**
+     * 디바이스 없이 식물만으로 같은 값을 구한다 (메시지 밖에서 확정하는 지연 이벤트용).
+     */
+    public DeviceBinding resolvePlant(Long plantId) {
+        List<Object[]> rows = userPlantRepository.findPlantBinding(plantId);
+        if (rows.isEmpty()) {
+            throw new CustomException(ErrorCode.PLANT_NOT_FOUND);
+        }
+        // [plant.user_id, removed_at, is_connected, PlantStatus, Species]
+        Object[] row = rows.get(0);
+
+        boolean active = row[1] == null && Boolean.TRUE.equals(row[2]);
+        return new DeviceBinding(
+                plantId,
+                active ? (Long) row[0] : null,
+                (PlantStatus) row[3],
+                (Species) row[4]
+        );
     }
 }
@@ -54,8 +54,10 @@ public class DeviceControlService {
         // 1. ACK 대기 등록
         CompletableFuture<AckMessage> future = pendingAckStore.register(serial, msgId, ACK_TIMEOUT);
 
-        // 2. MQTT 발송
-        mqttPublisher.publish(topic, payload);
+        // 2. MQTT 발송 (브로커 전달 실패 시 ACK 대기 없이 바로 실패 처리)
+        mqttPublisher.publish(topic, payload).whenComplete((v, e) -> {
+            if (e != null) future.completeExceptionally(e);
+        });
 
         // 3. ACK 대기
         try {
@@ -0,0 +1,56 @@
+package com.ssukssuk.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/** RFC 4180 CSV. 첫 줄은 열 이름, NULL 은 빈 칸 */
+final class CsvExportWriter implements ExportWriter {
+
+    private final Writer out;
+
+    CsvExportWriter(OutputStream out, List<String> columns) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            this.out.write(String.join(",", columns));
+            this.out.write("\r\n");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write(',');
+            Object v = values[i];
+            if (v == null || (v instanceof Float f && f.isNaN())) continue;
+            String s = ExportWriter.text(v);
+            if (needsQuote(s)) {
+                out.write('"');
+                out.write(s.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(s);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private static boolean needsQuote(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ssukssuk.service.export;
+
+import java.util.List;
+
+/**
+ * 내보내기 대상 테이블. 식물 하나씩, 키셋(마지막 키 다음부터 LIMIT)으로 페이지를 읽는다.
+ *
+ * - SENSOR_LOG 는 (plant_id, measured_at) 인덱스 순서 그대로 (measured_at, sensor_log_id) 키셋
+ * - 나머지는 PK 키셋
+ */
+public enum ExportDataset {
+
+    SENSOR_LOG(List.of("sensor_log_id", "plant_id", "measured_at",
+            "temperature", "humidity", "water_level", "nutrient_conc",
+            "temperature_status", "humidity_status", "water_level_status", "nutrient_conc_status",
+            "received_at"),
+            """
+            SELECT sensor_log_id, plant_id, measured_at, temperature, humidity, water_level, nutrient_conc,
+                   temperature_status, humidity_status, water_level_status, nutrient_conc_status, received_at
+            FROM sensor_log
+            WHERE plant_id = ? AND measured_at >= ? AND (measured_at > ? OR sensor_log_id > ?)
+            ORDER BY measured_at, sensor_log_id
+            LIMIT ?
+            """, "sensor_log_id", true),
+
+    SENSOR_EVENT(List.of("event_id", "plant_id", "sensor_code", "first_sensor_log_id", "last_sensor_log_id",
+            "state", "started_at", "resolved_at"),
+            """
+            SELECT event_id, plant_id, sensor_code, first_sensor_log_id, last_sensor_log_id,
+                   state, started_at, resolved_at
+            FROM sensor_event
+            WHERE plant_id = ? AND event_id > ?
+            ORDER BY event_id
+            LIMIT ?
+            """, "event_id", false),
+
+    ACTION_LOG(List.of("action_id", "plant_id", "event_id", "action_type", "result_status",
+            "before_value", "after_value", "error_code", "error_message", "created_at"),
+            """
+            SELECT a.action_id, e.plant_id, a.event_id, a.action_type, a.result_status,
+                   a.before_value, a.after_value, a.error_code, a.error_message, a.created_at
+            FROM action_log a
+            JOIN sensor_event e ON e.event_id = a.event_id
+            WHERE e.plant_id = ? AND a.action_id > ?
+            ORDER BY a.action_id
+            LIMIT ?
+            """, "action_id", false),
+
+    IMAGE_INFERENCE(List.of("inference_id", "plant_id", "image_id", "height", "width", "anomaly",
+            "symptom_enum", "confidence", "inference_at"),
+            """
+            SELECT inference_id, plant_id, image_id, height, width, anomaly,
+                   symptom_enum, confidence, inference_at
+            FROM image_inference
+            WHERE plant_id = ? AND inference_id > ?
+            ORDER BY inference_id
+            LIMIT ?
+            """, "inference_id", false);
+
+    private final List<String> columns;
+    private final String pageSql;
+    private final String idColumn;
+    private final boolean timeKeyed;
+
+    ExportDataset(List<String> columns, String pageSql, String idColumn, boolean timeKeyed) {
+        this.columns = columns;
+        this.pageSql = pageSql;
+        this.idColumn = idColumn;
+        this.timeKeyed = timeKeyed;
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+
+    String pageSql() {
+        return pageSql;
+    }
+
+    String idColumn() {
+        return idColumn;
+    }
+
+    /** 키셋이 (measured_at, id) 인지 */
+    boolean timeKeyed() {
+        return timeKeyed;
+    }
+
+    public String fileName() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,32 @@
+package com.ssukssuk.service.export;
+
+import java.io.OutputStream;
+
+public enum ExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    ExportWriter open(OutputStream out, ExportDataset dataset) {
+        return switch (this) {
+            case NDJSON -> new NdjsonExportWriter(out, dataset.columns());
+            case CSV -> new CsvExportWriter(out, dataset.columns());
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.ssukssuk.service.export;
+
+import java.io.IOException;
+
+/** 한 행씩 바로 출력 스트림에 쓴다 (열 순서는 ExportDataset.columns) */
+interface ExportWriter {
+
+    void row(Object[] values) throws IOException;
+
+    /** 버퍼를 비운다 (스트림은 닫지 않는다) */
+    void flush() throws IOException;
+
+    /** 시각은 ISO-8601 문자열, 나머지는 toString */
+    static String text(Object value) {
+        if (value instanceof java.sql.Timestamp ts) return ts.toLocalDateTime().toString();
+        return value.toString();
+    }
+}
@@ -0,0 +1,259 @@
+package com.ssukssuk.service.export;
+
+import com.ssukssuk.common.exception.CustomException;
+import com.ssukssuk.common.exception.ErrorCode;
+import com.ssukssuk.infra.series.SensorSample;
+import com.ssukssuk.infra.series.SensorSeriesStore;
+import com.ssukssuk.repository.plant.UserPlantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 식물/사용자 단위 전체 히스토리 내보내기 (NDJSON / CSV, 선택적으로 gzip).
+ *
+ * 엔티티를 모으지 않고 JDBC 결과를 한 행씩 바로 응답 스트림에 쓴다.
+ * - 식물마다 키셋 페이지(page-size 행)로 나눠 읽는다 → 쿼리 하나가 커넥션/스냅샷을 오래 잡지 않고,
+ *   뒤 페이지로 갈수록 느려지는 OFFSET 도 없다
+ * - 페이지 안에서는 forward-only 스트리밍 결과셋 (MySQL: fetchSize=Integer.MIN_VALUE)
+ * - 페이지마다 flush → 메모리는 한 행 + 출력 버퍼로 일정
+ * 시계열이 세그먼트 저장소에 있으면 sensor_log 는 SensorSeriesStore 를 하루씩 훑는다 (sensor_log_id 는 null).
+ *
+ * 동시에 max-concurrent 개까지만 받는다. 자리는 요청 스레드에서 잡고, 본문이 끝나거나
+ * 본문이 끝내 실행되지 않은 채 요청이 끝나면(비동기 시작 전 실패, 타임아웃, 실행기 거절 등) 한 번만 반납한다.
+ */
+@Slf4j
+@Service
+public class HistoryExportService {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final Timestamp MIN_TIME = Timestamp.valueOf(LocalDateTime.of(1970, 1, 2, 0, 0));
+    private static final String SLOT_KEY = HistoryExportService.class.getName() + ".slot";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserPlantRepository userPlantRepository;
+    private final SensorSeriesStore sensorSeriesStore;
+    private final int pageSize;
+    private final Semaphore slots;
+
+    private final Counter exportedRows;
+    private final Counter failed;
+
+    public HistoryExportService(
+            JdbcTemplate jdbcTemplate,
+            UserPlantRepository userPlantRepository,
+            SensorSeriesStore sensorSeriesStore,
+            MeterRegistry meterRegistry,
+            @Value("${history-export.page-size:10000}") int pageSize,
+            @Value("${history-export.max-concurrent:4}") int maxConcurrent
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userPlantRepository = userPlantRepository;
+        this.sensorSeriesStore = sensorSeriesStore;
+        this.pageSize = pageSize;
+        this.slots = new Semaphore(maxConcurrent);
+
+        this.exportedRows = Counter.builder("history_export.rows")
+                .description("내보낸 행 수")
+                .register(meterRegistry);
+        this.failed = Counter.builder("history_export.failed")
+                .description("중간에 실패한 내보내기 수 (클라이언트 연결 끊김 포함)")
+                .register(meterRegistry);
+        Gauge.builder("history_export.active", slots, s -> maxConcurrent - s.availablePermits())
+                .description("진행 중인 내보내기 수")
+                .register(meterRegistry);
+    }
+
+    /** 본인 식물 하나 */
+    public StreamingResponseBody exportPlant(Long userId, Long plantId,
+                                             ExportDataset dataset, ExportFormat format, boolean gzip) {
+        if (!userPlantRepository.existsByPlantIdAndUserId(plantId, userId)) {
+            throw new CustomException(ErrorCode.PLANT_ACCESS_DENIED);
+        }
+        return stream(List.of(plantId), dataset, format, gzip);
+    }
+
+    /** 사용자의 모든 식물 (본인 또는 관리자) */
+    public StreamingResponseBody exportUser(Long targetUserId,
+                                            ExportDataset dataset, ExportFormat format, boolean gzip) {
+        List<Long> plantIds = jdbcTemplate.queryForList(
+                "SELECT plant_id FROM user_plant WHERE user_id = ? AND removed_at IS NULL ORDER BY plant_id",
+                Long.class, targetUserId);
+        return stream(plantIds, dataset, format, gzip);
+    }
+
+    private StreamingResponseBody stream(List<Long> plantIds, ExportDataset dataset,
+                                         ExportFormat format, boolean gzip) {
+        // 요청 스레드에서 자리를 잡아 두고 (넘치면 바로 429), 본문 finally 와 요청 완료 중 먼저 오는 쪽에서 반납
+        if (!slots.tryAcquire()) {
+            throw new CustomException(ErrorCode.EXPORT_BUSY);
+        }
+        AtomicBoolean held = new AtomicBoolean(true);
+        Runnable release = () -> {
+            if (held.compareAndSet(true, false)) slots.release();
+        };
+        try {
+            releaseWhenRequestEnds(release);
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+        return out -> {
+            long rows = 0;
+            try {
+                OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+                ExportWriter writer = format.open(target, dataset);
+                for (Long plantId : plantIds) {
+                    rows += dataset == ExportDataset.SENSOR_LOG && !sensorSeriesStore.includesSensorLog()
+                            ? writeSeries(plantId, writer)
+                            : writeTable(plantId, dataset, writer);
+                }
+                writer.flush();
+                if (target instanceof GZIPOutputStream z) z.finish();
+                log.info("[EXPORT] done. dataset={}, format={}, gzip={}, plants={}, rows={}",
+                        dataset, format, gzip, plantIds.size(), rows);
+            } catch (IOException | RuntimeException e) {
+                failed.increment();
+                log.warn("[EXPORT] aborted. dataset={}, plants={}, rows={}, cause={}",
+                        dataset, plantIds.size(), rows, e.toString());
+                throw e;
+            } finally {
+                release.run();
+            }
+        };
+    }
+
+    /**
+     * 본문이 실행되지 않아도 자리가 새지 않게 요청 완료에 반납을 건다.
+     * - 비동기 처리가 시작됐으면: 비동기 요청이 끝날 때 (타임아웃/오류/연결 끊김 포함 항상 호출)
+     * - 시작 전에 실패했으면: 첫 디스패치가 끝날 때 (request scope 소멸 콜백)
+     * 요청 컨텍스트가 없으면(요청 밖 호출) 본문 finally 만 쓴다.
+     */
+    private static void releaseWhenRequestEnds(Runnable release) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) return;
+
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(attributes.getRequest());
+        asyncManager.registerCallableInterceptor(SLOT_KEY, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                release.run();
+            }
+        });
+        attributes.registerDestructionCallback(SLOT_KEY, () -> {
+            if (!asyncManager.isConcurrentHandlingStarted()) release.run();
+        }, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private long writeTable(Long plantId, ExportDataset dataset, ExportWriter writer) throws IOException {
+        Cursor cursor = new Cursor(MIN_TIME, 0L);
+        long total = 0;
+        while (true) {
+            Page page = readPage(plantId, dataset, cursor, writer);
+            total += page.rows();
+            writer.flush();
+            if (page.rows() < pageSize) return total;
+            cursor = page.last();
+        }
+    }
+
+    private Page readPage(Long plantId, ExportDataset dataset, Cursor after, ExportWriter writer) {
+        int columns = dataset.columns().size();
+        long[] rows = {0};
+        Cursor[] last = {after};
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(dataset.pageSql(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            int i = 1;
+            ps.setLong(i++, plantId);
+            if (dataset.timeKeyed()) {
+                ps.setTimestamp(i++, after.at());
+                ps.setTimestamp(i++, after.at());
+            }
+            ps.setLong(i++, after.id());
+            ps.setInt(i, pageSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Object[] values = new Object[columns];
+            for (int c = 0; c < columns; c++) {
+                values[c] = rs.getObject(c + 1);
+            }
+            try {
+                writer.row(values);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+            if (rows[0] == pageSize) {
+                last[0] = new Cursor(dataset.timeKeyed() ? rs.getTimestamp("measured_at") : null,
+                        rs.getLong(dataset.idColumn()));
+            }
+        });
+        exportedRows.increment(rows[0]);
+        return new Page(rows[0], last[0]);
+    }
+
+    /** 세그먼트 저장소: 식물 등록일부터 오늘까지 하루씩 */
+    private long writeSeries(Long plantId, ExportWriter writer) throws IOException {
+        LocalDateTime createdAt = jdbcTemplate.queryForObject(
+                "SELECT created_at FROM user_plant WHERE plant_id = ?", LocalDateTime.class, plantId);
+        LocalDate today = LocalDate.now(KST);
+        long total = 0;
+        for (LocalDate day = createdAt.toLocalDate(); !day.isAfter(today); day = day.plusDays(1)) {
+            long[] rows = {0};
+            sensorSeriesStore.scan(plantId,
+                    SensorSample.toMillis(day.atStartOfDay()), SensorSample.toMillis(day.plusDays(1).atStartOfDay()),
+                    (ts, t, h, w, n, st) -> {
+                        try {
+                            writer.row(new Object[]{null, plantId, SensorSample.toLocal(ts), t, h, w, n,
+                                    SensorSample.status(st, SensorSample.TEMPERATURE),
+                                    SensorSample.status(st, SensorSample.HUMIDITY),
+                                    SensorSample.status(st, SensorSample.WATER_LEVEL),
+                                    SensorSample.status(st, SensorSample.NUTRIENT_CONC),
+                                    null});
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        rows[0]++;
+                    });
+            writer.flush();
+            exportedRows.increment(rows[0]);
+            total += rows[0];
+        }
+        return total;
+    }
+
+    private record Cursor(Timestamp at, long id) {
+    }
+
+    private record Page(long rows, Cursor last) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.ssukssuk.service.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+/** 한 줄에 JSON 객체 하나. 키는 열 이름, NULL 은 null */
+final class NdjsonExportWriter implements ExportWriter {
+
+    private static final JsonFactory FACTORY = JsonFactory.builder().build();
+
+    private final JsonGenerator gen;
+    private final SerializedString[] names;
+
+    NdjsonExportWriter(OutputStream out, List<String> columns) {
+        try {
+            this.gen = FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // 값 사이 기본 구분자(공백) 대신 행마다 줄바꿈을 직접 쓴다
+        this.gen.setRootValueSeparator(null);
+        this.names = columns.stream().map(SerializedString::new).toArray(SerializedString[]::new);
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        gen.writeStartObject();
+        for (int i = 0; i < names.length; i++) {
+            gen.writeFieldName(names[i]);
+            write(values[i]);
+        }
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        gen.flush();
+    }
+
+    private void write(Object v) throws IOException {
+        if (v == null) gen.writeNull();
+        else if (v instanceof Long l) gen.writeNumber(l);
+        else if (v instanceof Integer i) gen.writeNumber(i);
+        else if (v instanceof Float f) {
+            if (f.isNaN()) gen.writeNull();
+            else gen.writeNumber(f);
+        } else if (v instanceof Double d) gen.writeNumber(d);
+        else if (v instanceof BigDecimal d) gen.writeNumber(d);
+        else if (v instanceof Boolean b) gen.writeBoolean(b);
+        else gen.writeString(ExportWriter.text(v));
+    }
+}
@@ -2,6 +2,7 @@ package com.ssukssuk.service.history;
 
 import com.ssukssuk.infra.mqtt.dto.ActionResultMessage;
 import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
+import com.ssukssuk.infra.mqtt.dto.SensorUplinkMessage;
 import com.ssukssuk.repository.history.SensorEventRepository;
 import com.ssukssuk.service.device.DeviceBindingValidator;
 import com.ssukssuk.service.notification.NotificationService;
@@ -23,11 +24,10 @@ import java.time.ZoneId;
 @RequiredArgsConstructor
 public class ActionResultService {
 
-    private static final int SENSOR_CODE_WATER_LEVEL = 1;
-    private static final int SENSOR_CODE_NUTRIENT_CONC = 2;
-
     private final DeviceBindingValidator deviceBindingValidator;
     private final SensorEventRepository sensorEventRepository;
+    private final OpenEventTable openEventTable;
+    private final SensorTelemetryService sensorTelemetryService;
     private final ActionLogService actionLogService;
     private final NotificationService notificationService;
     private final PlantStatusService plantStatusService;
@@ -51,17 +51,18 @@ public class ActionResultService {
                             : LocalDateTime.now();
 
             // 3. action_type → sensor_code
-            int sensorCode = mapToSensorCode(msg.getActionType());
+            SensorUplinkMessage.TriggerSensorType trigger = mapToTrigger(msg.getActionType());
+            int sensorCode = trigger.getCode();
 
-            // 4. OPEN 이벤트 조회
-            var sensorEvent = sensorEventRepository
-                    .findLatestByPlantIdAndSensorCodeAndState(
-                            msg.getPlantId(), sensorCode, true
-                    )
+            // 4. OPEN 이벤트 조회 (메모리 표, action_log 에는 참조만 필요)
+            //    디바운스로 보류 중인 OPEN 이면 디바이스가 이미 조치한 것이므로 지금 확정
+            Long eventId = openEventTable.find(msg.getPlantId(), sensorCode)
+                    .or(() -> sensorTelemetryService.openPendingNow(msg.getPlantId(), trigger))
                     .orElseThrow(() -> new IllegalStateException(
                             "OPEN sensor_event not found. plantId=" +
                                     msg.getPlantId() + ", sensorCode=" + sensorCode
                     ));
+            var sensorEvent = sensorEventRepository.getReferenceById(eventId);
 
             // 5. action_log INSERT
             actionLogService.record(msg, sensorEvent, occurredAt);
@@ -98,12 +99,12 @@ public class ActionResultService {
         }
     }
 
-    private int mapToSensorCode(String actionType) {
+    private SensorUplinkMessage.TriggerSensorType mapToTrigger(String actionType) {
         if (actionType == null) throw new IllegalArgumentException("action_type is null");
 
         return switch (actionType.toUpperCase()) {
-            case "WATER_ADD" -> SENSOR_CODE_WATER_LEVEL;
-            case "NUTRI_ADD" -> SENSOR_CODE_NUTRIENT_CONC;
+            case "WATER_ADD" -> SensorUplinkMessage.TriggerSensorType.WATER_LEVEL;
+            case "NUTRI_ADD" -> SensorUplinkMessage.TriggerSensorType.NUTRIENT_CONC;
             default -> throw new IllegalArgumentException("Unknown action_type: " + actionType);
         };
     }
@@ -0,0 +1,69 @@
+package com.ssukssuk.service.history;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 원본 테이블로 집계를 하루씩 다시 계산하는 작업 공통 (진행 상태, 한 번에 하나, 날짜 루프).
+ * 하위 클래스는 하루치 재계산과 끝 날짜 상한만 정한다.
+ *
+ * 관리자 API 는 tryStart 로 자리를 잡은 뒤 run 을 프록시로 호출해 비동기로 돌린다.
+ */
+@Slf4j
+public abstract class DailyBackfill {
+
+    private final String logTag;
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.idle());
+
+    protected DailyBackfill(String logTag) {
+        this.logTag = logTag;
+    }
+
+    public record Status(boolean running, LocalDate from, LocalDate to, LocalDate current,
+                         long rows, String error) {
+        static Status idle() {
+            return new Status(false, null, null, null, 0, null);
+        }
+    }
+
+    public Status status() {
+        return status.get();
+    }
+
+    /** @return 시작했으면 true, 이미 돌고 있으면 false */
+    public boolean tryStart(LocalDate from, LocalDate to) {
+        LocalDate limit = endLimit();
+        LocalDate end = to.isAfter(limit) ? limit : to;
+        Status prev = status.get();
+        if (prev.running()) return false;
+        return status.compareAndSet(prev, new Status(true, from, end, from, 0, null));
+    }
+
+    /** tryStart 가 true 일 때만 호출 */
+    @Async
+    public void run(Long plantId) {
+        Status s = status.get();
+        long rows = 0;
+        try {
+            for (LocalDate day = s.from(); day.isBefore(s.to()); day = day.plusDays(1)) {
+                status.set(new Status(true, s.from(), s.to(), day, rows, null));
+                rows += rebuild(day, plantId);
+            }
+            status.set(new Status(false, s.from(), s.to(), s.to(), rows, null));
+            log.info("[{}] backfill done. from={}, to={}, plantId={}, rows={}",
+                    logTag, s.from(), s.to(), plantId, rows);
+        } catch (RuntimeException e) {
+            status.set(new Status(false, s.from(), s.to(), status.get().current(), rows, e.toString()));
+            log.error("[{}] backfill failed. from={}, to={}, plantId={}", logTag, s.from(), s.to(), plantId, e);
+        }
+    }
+
+    /** [from, to) 의 to 상한 (이 날짜 0시 이후는 다시 계산하지 않는다) */
+    protected abstract LocalDate endLimit();
+
+    /** 하루치 재계산. plantId 가 null 이면 전체 식물. @return 쓴 행 수 */
+    protected abstract long rebuild(LocalDate day, Long plantId);
+}
@@ -5,7 +5,8 @@ import com.ssukssuk.domain.history.PlantImage;
 import com.ssukssuk.domain.plant.UserPlant;
 import com.ssukssuk.dto.history.DeviceImageInferenceRequest;
 import com.ssukssuk.dto.history.PlantHistoryResponse;
-import com.ssukssuk.infra.idempotency.IdempotencyService;
+import com.ssukssuk.infra.idempotency.MessageDeduplicator;
+import com.ssukssuk.infra.idempotency.MessageId;
 import com.ssukssuk.repository.history.DailyHeightRow;
 import com.ssukssuk.repository.history.ImageInferenceRepository;
 import com.ssukssuk.repository.history.PlantImageRepository;
@@ -35,7 +36,7 @@ public class ImageInferenceService {
     private final PlantImageRepository plantImageRepository;
     private final ImageInferenceRepository imageInferenceRepository;
     private final UserPlantRepository userPlantRepository;
-    private final IdempotencyService idempotencyService;
+    private final MessageDeduplicator messageDeduplicator;
     private final NotificationService notificationService;
     private final PlantStatusService plantStatusService;
     private final PushService pushService;
@@ -59,8 +60,9 @@ public class ImageInferenceService {
         }
 
         // 2. 멱등 처리
-        String idempotencyKey = request.getSerialNum() + ":" + request.getMsgId();
-        if (!idempotencyService.markIfFirst(idempotencyKey)) {
+        MessageId messageId = new MessageId(request.getSerialNum(), "image-inference",
+                request.getMsgId(), request.getBootId(), request.getSeq());
+        if (!messageDeduplicator.markIfFirst(messageId)) {
             return;
         }
 
@@ -0,0 +1,191 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.infra.series.SensorSample;
+import com.ssukssuk.infra.series.SensorSeriesStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 식물별 최신 측정값 캐시 (수위/양액 카드, 최신 센서 API).
+ *
+ * - 수신 경로가 커밋 후 update → 로컬 갱신 + Redis 에 더 새로운 값일 때만 기록하고 같은 스크립트에서 발행
+ * - 다른 노드는 발행을 받아 로컬을 갱신하므로, 커밋 후 발행이 도착하는 시점부터 모든 노드가 새 값을 본다
+ * - 조회: 로컬 → Redis → 시계열 저장소(DB). 저장소에서 읽은 값은 Redis/로컬에 채운다
+ *
+ * 발행을 놓친 노드가 오래된 값을 계속 보지 않도록 로컬 항목은 local-ttl-ms 뒤 Redis 에서 다시 읽는다.
+ * Redis 장애 시에는 로컬 + DB 로만 동작한다.
+ */
+@Slf4j
+@Component
+public class LatestReadingCache {
+
+    public static final String CHANNEL = "sensor-latest-update";
+    private static final String KEY_PREFIX = "sensor:latest:";
+
+    // 더 새로운 측정값일 때만 SET, 바뀌었으면 발행. 1=갱신, 0=기존 값이 같거나 더 새로움
+    private static final RedisScript<Long> PUT_IF_NEWER = new DefaultRedisScript<>("""
+            local cur = redis.call('GET', KEYS[1])
+            if cur then
+              local ts = tonumber(string.match(cur, '^(%-?%d+)'))
+              if ts and ts >= tonumber(ARGV[1]) then return 0 end
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            if ARGV[4] == '1' then redis.call('PUBLISH', ARGV[5], ARGV[6]) end
+            return 1
+            """, Long.class);
+
+    private final SensorSeriesStore sensorSeriesStore;
+    private final StringRedisTemplate redis;
+    private final boolean enabled;
+    private final long localTtlMillis;
+    private final long redisTtlMillis;
+
+    private final Map<Long, Entry> local = new ConcurrentHashMap<>();
+
+    private final Counter hitLocal;
+    private final Counter hitRedis;
+    private final Counter loadedFromStore;
+    private final Counter redisFailed;
+
+    public LatestReadingCache(
+            SensorSeriesStore sensorSeriesStore,
+            StringRedisTemplate redis,
+            MeterRegistry meterRegistry,
+            @Value("${sensor-latest.cache.enabled:true}") boolean enabled,
+            @Value("${sensor-latest.cache.local-ttl-ms:300000}") long localTtlMillis,
+            @Value("${sensor-latest.cache.redis-ttl-hours:168}") long redisTtlHours
+    ) {
+        this.sensorSeriesStore = sensorSeriesStore;
+        this.redis = redis;
+        this.enabled = enabled;
+        this.localTtlMillis = localTtlMillis;
+        this.redisTtlMillis = redisTtlHours * 3_600_000L;
+
+        this.hitLocal = lookup(meterRegistry, "local");
+        this.hitRedis = lookup(meterRegistry, "redis");
+        this.loadedFromStore = lookup(meterRegistry, "store");
+        this.redisFailed = Counter.builder("sensor_latest.cache.redis.failed")
+                .description("최신 측정값 캐시의 Redis 읽기/쓰기 실패 수")
+                .register(meterRegistry);
+        Gauge.builder("sensor_latest.cache.local", local, Map::size)
+                .description("로컬에 캐시된 식물 수")
+                .register(meterRegistry);
+    }
+
+    /** 최신 측정값 (캐시 → 저장소) */
+    public Optional<SensorSample> get(long plantId) {
+        if (!enabled) return sensorSeriesStore.latest(plantId);
+
+        long now = System.currentTimeMillis();
+        Entry e = local.get(plantId);
+        if (e != null && now - e.cachedAt() < localTtlMillis) {
+            hitLocal.increment();
+            return Optional.of(e.sample());
+        }
+
+        SensorSample fromRedis = readRedis(plantId);
+        if (fromRedis != null) {
+            hitRedis.increment();
+            return Optional.of(putLocal(plantId, fromRedis, now));
+        }
+
+        Optional<SensorSample> loaded = sensorSeriesStore.latest(plantId);
+        loadedFromStore.increment();
+        loaded.ifPresent(s -> {
+            writeRedis(plantId, s, false);
+            putLocal(plantId, s, now);
+        });
+        return loaded;
+    }
+
+    /** 수신 경로: 트랜잭션 커밋 후 호출 */
+    public void update(long plantId, SensorSample sample) {
+        if (!enabled) return;
+        putLocal(plantId, sample, System.currentTimeMillis());
+        writeRedis(plantId, sample, true);
+    }
+
+    /** 다른 노드가 갱신한 값 (RedisConfig 의 리스너) : "plantId,ts,t,h,w,n,status" */
+    public void onRedisMessage(String message) {
+        if (!enabled) return;
+        int comma = message.indexOf(',');
+        try {
+            long plantId = Long.parseLong(message, 0, comma, 10);
+            putLocal(plantId, decode(message.substring(comma + 1)), System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.warn("[SENSOR_LATEST] bad message ignored: {}", message);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sensor-latest.cache.evict-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        local.values().removeIf(e -> now - e.cachedAt() >= localTtlMillis);
+    }
+
+    /** 더 새로운 값만 반영하고 반영된 값을 돌려준다 */
+    private SensorSample putLocal(long plantId, SensorSample sample, long now) {
+        return local.merge(plantId, new Entry(sample, now), (cur, next) ->
+                next.sample().measuredAt() >= cur.sample().measuredAt() ? next : new Entry(cur.sample(), now)
+        ).sample();
+    }
+
+    private SensorSample readRedis(long plantId) {
+        try {
+            String value = redis.opsForValue().get(KEY_PREFIX + plantId);
+            return value != null ? decode(value) : null;
+        } catch (DataAccessException e) {
+            redisFailed.increment();
+            log.warn("[SENSOR_LATEST] redis read failed. plantId={}, cause={}", plantId, e.toString());
+            return null;
+        }
+    }
+
+    private void writeRedis(long plantId, SensorSample sample, boolean publish) {
+        String value = encode(sample);
+        try {
+            redis.execute(PUT_IF_NEWER, List.of(KEY_PREFIX + plantId),
+                    Long.toString(sample.measuredAt()), value, Long.toString(redisTtlMillis),
+                    publish ? "1" : "0", CHANNEL, plantId + "," + value);
+        } catch (DataAccessException e) {
+            redisFailed.increment();
+            log.warn("[SENSOR_LATEST] redis write failed. plantId={}, cause={}", plantId, e.toString());
+        }
+    }
+
+    static String encode(SensorSample s) {
+        return s.measuredAt() + "," + s.temperature() + "," + s.humidity() + ","
+                + s.waterLevel() + "," + s.nutrientConc() + "," + s.status();
+    }
+
+    static SensorSample decode(String value) {
+        String[] f = value.split(",");
+        return new SensorSample(Long.parseLong(f[0]),
+                Float.parseFloat(f[1]), Float.parseFloat(f[2]), Float.parseFloat(f[3]), Float.parseFloat(f[4]),
+                Byte.parseByte(f[5]));
+    }
+
+    private static Counter lookup(MeterRegistry registry, String source) {
+        return Counter.builder("sensor_latest.cache.lookups")
+                .description("최신 측정값 조회가 응답된 위치")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    private record Entry(SensorSample sample, long cachedAt) {
+    }
+}
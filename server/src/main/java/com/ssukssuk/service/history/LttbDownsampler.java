@@ -0,0 +1,223 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.infra.series.SensorSeriesStore;
+
+import java.util.Arrays;
+
+/**
+ * Largest-Triangle-Three-Buckets 다운샘플링 (센서 4종 동시, 스트리밍 2회).
+ *
+ * 원본을 메모리에 올리지 않도록 버킷을 개수가 아닌 시간으로 나누고 두 번 훑는다.
+ * - 1회차 (accumulate): 버킷별 평균(합/개수)과 첫/마지막 점
+ * - 2회차 (select)    : 버킷마다 "직전 선택점 - 후보 - 다음 버킷 평균" 삼각형이 가장 큰 점
+ * 메모리는 points × 센서 수에 비례하고 구간 길이와 무관하다.
+ * 값이 points 개 이하인 센서는 그대로 돌려준다. 빈 버킷은 건너뛴다.
+ *
+ * 입력이 시간 순이라고 가정한다 (순서가 조금 어긋나도 결과가 근사치가 될 뿐 깨지지는 않는다).
+ *
+ * 두 회차 사이에 행이 더 들어올 수 있다 (to 를 비우면 지금까지라 수신 중인 행이 2회차에만 보인다).
+ * 2회차는 1회차에서 본 [첫 점, 마지막 점] 밖의 행은 무시하고, 가운데 점은 points - 1 개까지만 넣어
+ * 결과가 points 를 넘지 않고 마지막 점이 항상 들어가게 한다.
+ */
+final class LttbDownsampler {
+
+    static final int METRICS = 4;
+
+    private final long from;
+    private final int points;
+    private final int buckets;
+    private final double bucketWidth;
+
+    // 1회차
+    private final long[] count = new long[METRICS];
+    private final long[] firstT = new long[METRICS];
+    private final float[] firstV = new float[METRICS];
+    private final long[] lastT = new long[METRICS];
+    private final float[] lastV = new float[METRICS];
+    private final double[][] sumT;
+    private final double[][] sumV;
+    private final int[][] bucketCount;
+
+    // 1회차 후 계산: 버킷 b 다음의 비어 있지 않은 버킷 평균
+    private double[][] nextT;
+    private double[][] nextV;
+
+    // 2회차
+    private final int[] current = new int[METRICS];
+    private final double[] aT = new double[METRICS];
+    private final double[] aV = new double[METRICS];
+    private final double[] bestArea = new double[METRICS];
+    private final long[] bestT = new long[METRICS];
+    private final float[] bestV = new float[METRICS];
+
+    private final long[][] outT;
+    private final float[][] outV;
+    private final int[] outSize = new int[METRICS];
+
+    LttbDownsampler(long from, long to, int points) {
+        this.from = from;
+        this.points = points;
+        this.buckets = Math.max(1, points - 2);
+        this.bucketWidth = Math.max(1.0, (double) (to - from) / buckets);
+        this.sumT = new double[METRICS][buckets];
+        this.sumV = new double[METRICS][buckets];
+        this.bucketCount = new int[METRICS][buckets];
+        this.outT = new long[METRICS][points];
+        this.outV = new float[METRICS][points];
+    }
+
+    SensorSeriesStore.Visitor firstPass() {
+        return (ts, t, h, w, n, st) -> {
+            accumulate(0, ts, t);
+            accumulate(1, ts, h);
+            accumulate(2, ts, w);
+            accumulate(3, ts, n);
+        };
+    }
+
+    SensorSeriesStore.Visitor secondPass() {
+        prepareSecondPass();
+        return (ts, t, h, w, n, st) -> {
+            select(0, ts, t);
+            select(1, ts, h);
+            select(2, ts, w);
+            select(3, ts, n);
+        };
+    }
+
+    /** 2회차 후 호출. 센서별 선택된 점 수 */
+    int finish(int m) {
+        if (count[m] > 0) {
+            if (!raw(m) && current[m] >= 0) emit(m, bestT[m], bestV[m], points - 1);
+            emit(m, lastT[m], lastV[m], points);
+        }
+        sortIfNeeded(m);
+        return outSize[m];
+    }
+
+    long time(int m, int i) {
+        return outT[m][i];
+    }
+
+    float value(int m, int i) {
+        return outV[m][i];
+    }
+
+    long sampleCount() {
+        long max = 0;
+        for (long c : count) max = Math.max(max, c);
+        return max;
+    }
+
+    private void accumulate(int m, long ts, float v) {
+        if (Float.isNaN(v)) return;
+        if (count[m] == 0 || ts < firstT[m]) {
+            firstT[m] = ts;
+            firstV[m] = v;
+        }
+        if (count[m] == 0 || ts >= lastT[m]) {
+            lastT[m] = ts;
+            lastV[m] = v;
+        }
+        count[m]++;
+        int b = bucketOf(ts);
+        sumT[m][b] += ts - from;
+        sumV[m][b] += v;
+        bucketCount[m][b]++;
+    }
+
+    private void prepareSecondPass() {
+        nextT = new double[METRICS][buckets];
+        nextV = new double[METRICS][buckets];
+        for (int m = 0; m < METRICS; m++) {
+            double t = lastT[m] - from;
+            double v = lastV[m];
+            for (int b = buckets - 1; b >= 0; b--) {
+                nextT[m][b] = t;
+                nextV[m][b] = v;
+                int c = bucketCount[m][b];
+                if (c > 0) {
+                    t = sumT[m][b] / c;
+                    v = sumV[m][b] / c;
+                }
+            }
+            current[m] = -1;
+            if (!raw(m) && count[m] > 0) {
+                emit(m, firstT[m], firstV[m], points - 1);
+                aT[m] = firstT[m] - from;
+                aV[m] = firstV[m];
+            }
+        }
+    }
+
+    private void select(int m, long ts, float v) {
+        if (Float.isNaN(v)) return;
+        // 1회차 뒤에 들어온 구간 밖 행 (1회차에 값이 없던 센서면 전부)
+        if (count[m] == 0 || ts < firstT[m] || ts > lastT[m]) return;
+        // 마지막 점은 finish 에서 넣는다
+        if (ts == lastT[m]) return;
+        if (raw(m)) {
+            emit(m, ts, v, points - 1);
+            return;
+        }
+        // 첫 점은 prepareSecondPass 에서 넣었다
+        if (ts == firstT[m]) return;
+
+        int b = bucketOf(ts);
+        if (b != current[m]) {
+            if (current[m] >= 0) {
+                emit(m, bestT[m], bestV[m], points - 1);
+                aT[m] = bestT[m] - from;
+                aV[m] = bestV[m];
+            }
+            current[m] = b;
+            bestArea[m] = -1;
+        }
+        double bt = ts - from;
+        double area = Math.abs((aT[m] - nextT[m][b]) * (v - aV[m]) - (aT[m] - bt) * (nextV[m][b] - aV[m]));
+        if (area > bestArea[m]) {
+            bestArea[m] = area;
+            bestT[m] = ts;
+            bestV[m] = v;
+        }
+    }
+
+    private boolean raw(int m) {
+        return count[m] <= points;
+    }
+
+    /** limit: 이 점까지 채울 수 있는 개수 (가운데 점은 points - 1, 마지막 점만 points) */
+    private void emit(int m, long ts, float v, int limit) {
+        int size = outSize[m];
+        if (size >= limit) return;
+        if (size > 0 && outT[m][size - 1] == ts) return;
+        outT[m][size] = ts;
+        outV[m][size] = v;
+        outSize[m] = size + 1;
+    }
+
+    private void sortIfNeeded(int m) {
+        int size = outSize[m];
+        for (int i = 1; i < size; i++) {
+            if (outT[m][i] < outT[m][i - 1]) {
+                Integer[] idx = new Integer[size];
+                for (int k = 0; k < size; k++) idx[k] = k;
+                Arrays.sort(idx, (a, b) -> Long.compare(outT[m][a], outT[m][b]));
+                long[] t = new long[points];
+                float[] v = new float[points];
+                for (int k = 0; k < size; k++) {
+                    t[k] = outT[m][idx[k]];
+                    v[k] = outV[m][idx[k]];
+                }
+                outT[m] = t;
+                outV[m] = v;
+                return;
+            }
+        }
+    }
+
+    private int bucketOf(long ts) {
+        int b = (int) ((ts - from) / bucketWidth);
+        return Math.min(buckets - 1, Math.max(0, b));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.domain.history.SensorLog;
+import com.ssukssuk.infra.series.SensorSample;
+import com.ssukssuk.infra.series.SensorSeriesStore;
+import com.ssukssuk.repository.history.SensorLogRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Optional;
+
+/**
+ * sensor_log 테이블 시계열 저장소 (기본값).
+ * 주기 데이터는 write-behind 배치로 넣고, 읽기는 (plant_id, measured_at) 인덱스 구간 스캔.
+ */
+@Component
+@ConditionalOnProperty(name = "sensor-series.engine", havingValue = "mysql", matchIfMissing = true)
+public class MysqlSensorSeriesStore implements SensorSeriesStore {
+
+    static final String SCAN_SQL = """
+            SELECT measured_at, temperature, humidity, water_level, nutrient_conc,
+                   temperature_status, humidity_status, water_level_status, nutrient_conc_status
+            FROM sensor_log
+            WHERE plant_id = ? AND measured_at >= ? AND measured_at < ?
+            ORDER BY measured_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SensorLogRepository sensorLogRepository;
+    private final SensorLogWriteBehind sensorLogWriteBehind;
+
+    public MysqlSensorSeriesStore(JdbcTemplate jdbcTemplate,
+                                  SensorLogRepository sensorLogRepository,
+                                  SensorLogWriteBehind sensorLogWriteBehind) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sensorLogRepository = sensorLogRepository;
+        this.sensorLogWriteBehind = sensorLogWriteBehind;
+    }
+
+    @Override
+    public void append(long plantId, SensorSample sample) {
+        if (!sensorLogWriteBehind.offer(plantId, sample)) {
+            // 큐가 가득 찼거나 꺼져 있음 → 바로 저장 (커밋 후 콜백이라 실패해도 던지지 않고 그 행만 재시도)
+            sensorLogWriteBehind.insertNowOrRetry(plantId, sample);
+        }
+    }
+
+    @Override
+    public void scan(long plantId, long from, long to, Visitor visitor) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SCAN_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // MySQL 드라이버: 결과를 한 번에 메모리에 올리지 않고 행 단위로 스트리밍
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setLong(1, plantId);
+            ps.setTimestamp(2, Timestamp.valueOf(SensorSample.toLocal(from)));
+            ps.setTimestamp(3, Timestamp.valueOf(SensorSample.toLocal(to)));
+            return ps;
+        }, (RowCallbackHandler) rs -> visitor.visit(
+                SensorSample.toMillis(rs.getTimestamp(1).toLocalDateTime()),
+                floatOrNaN(rs, 2), floatOrNaN(rs, 3), floatOrNaN(rs, 4), floatOrNaN(rs, 5),
+                (byte) (statusCode(rs, 6) << 6 | statusCode(rs, 7) << 4
+                        | statusCode(rs, 8) << 2 | statusCode(rs, 9))));
+    }
+
+    @Override
+    public Optional<SensorSample> latest(long plantId) {
+        return sensorLogRepository.findTopByPlant_PlantIdOrderByMeasuredAtDesc(plantId)
+                .map(s -> SensorSample.of(s.getMeasuredAt(),
+                        s.getTemperature(), s.getHumidity(), s.getWaterLevel(), s.getNutrientConc(),
+                        s.getTemperatureStatus(), s.getHumidityStatus(),
+                        s.getWaterLevelStatus(), s.getNutrientConcStatus()));
+    }
+
+    @Override
+    public boolean includesSensorLog() {
+        return true;
+    }
+
+    private static float floatOrNaN(ResultSet rs, int i) throws SQLException {
+        float v = rs.getFloat(i);
+        return rs.wasNull() ? Float.NaN : v;
+    }
+
+    private static int statusCode(ResultSet rs, int i) throws SQLException {
+        String s = rs.getString(i);
+        return s != null ? SensorSample.code(SensorLog.SensorStatus.valueOf(s)) : 0;
+    }
+}
@@ -0,0 +1,160 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.repository.history.SensorEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * (plantId, sensorCode) → 열린 sensor_event 의 메모리 표.
+ *
+ * 단일 수신 노드(공유 구독 없음)에서는 한 식물의 업링크가 이 노드로만 오고 순서대로 처리되므로
+ * 기동 시 DB 에서 채운 뒤 커밋된 변경만 반영하면 이 표가 곧 정답이다 → 조회에 DB 를 쓰지 않는다.
+ *
+ * 다음 경우에는 DB 조회로 대신한다 ((plant_id, sensor_code, state) 인덱스)
+ * - 공유 구독(mqtt.inbound.shared-group): 같은 식물 메시지가 여러 노드로 나뉘어 다른 노드의 변경을 모른다
+ * - 기동 시 로드 실패: reload-interval-ms 마다 다시 시도
+ */
+@Slf4j
+@Component
+public class OpenEventTable {
+
+    private static final String LOAD_SQL = """
+            SELECT event_id, plant_id, sensor_code
+            FROM sensor_event
+            WHERE state = TRUE
+            ORDER BY started_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SensorEventRepository sensorEventRepository;
+    private final boolean enabled;
+
+    private final Map<Key, Long> open = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    // 로드하는 동안 커밋된 변경: 스냅샷을 넣은 뒤 다시 적용한다 (둘 다 멱등)
+    private volatile Queue<Runnable> changesDuringLoad;
+
+    private final Counter fromMemory;
+    private final Counter fromDb;
+
+    public OpenEventTable(
+            JdbcTemplate jdbcTemplate,
+            SensorEventRepository sensorEventRepository,
+            MeterRegistry meterRegistry,
+            @Value("${sensor-event.open-table.enabled:true}") boolean enabled,
+            @Value("${mqtt.inbound.shared-group:}") String sharedGroup
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sensorEventRepository = sensorEventRepository;
+        boolean sharedMode = sharedGroup != null && !sharedGroup.isBlank();
+        this.enabled = enabled && !sharedMode;
+
+        this.fromMemory = lookup(meterRegistry, "memory");
+        this.fromDb = lookup(meterRegistry, "db");
+        Gauge.builder("sensor_event.open", open, Map::size)
+                .description("메모리 표의 열린 이벤트 수")
+                .register(meterRegistry);
+
+        log.info("[SENSOR_EVENT] open-event table enabled={}, sharedMode={}", this.enabled, sharedMode);
+    }
+
+    /** MQTT 수신이 시작되기 전(Lifecycle start 이전)에 채운다 */
+    @PostConstruct
+    public synchronized void load() {
+        if (!enabled || loaded) return;
+        Queue<Runnable> changes = new ConcurrentLinkedQueue<>();
+        changesDuringLoad = changes;
+        try {
+            open.clear();
+            // started_at 순으로 넣으므로 같은 키에 열린 이벤트가 여럿이면 가장 최근 것이 남는다 (기존 조회와 같음)
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                open.put(new Key(rs.getLong("plant_id"), rs.getInt("sensor_code")), rs.getLong("event_id"));
+            });
+            changesDuringLoad = null;
+            Runnable change;
+            while ((change = changes.poll()) != null) {
+                change.run();
+            }
+            loaded = true;
+            log.info("[SENSOR_EVENT] open-event table loaded. open={}", open.size());
+        } catch (DataAccessException e) {
+            changesDuringLoad = null;
+            open.clear();
+            log.warn("[SENSOR_EVENT] open-event table load failed, using DB lookups until retry. cause={}",
+                    e.toString());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sensor-event.open-table.reload-interval-ms:60000}")
+    public void retryLoad() {
+        if (enabled && !loaded) load();
+    }
+
+    /** 열린 이벤트 id */
+    public Optional<Long> find(Long plantId, int sensorCode) {
+        if (enabled && loaded) {
+            fromMemory.increment();
+            return Optional.ofNullable(open.get(new Key(plantId, sensorCode)));
+        }
+        fromDb.increment();
+        return sensorEventRepository.findOpenEventId(plantId, sensorCode);
+    }
+
+    /** 이벤트 생성이 커밋되면 표에 넣는다 */
+    public void openedAfterCommit(Long plantId, int sensorCode, Long eventId) {
+        afterCommit(() -> open.put(new Key(plantId, sensorCode), eventId));
+    }
+
+    /** 이벤트 종료가 커밋되면 표에서 뺀다 (그사이 다른 이벤트로 바뀌었으면 그대로 둔다) */
+    public void resolvedAfterCommit(Long plantId, int sensorCode, Long eventId) {
+        afterCommit(() -> open.remove(new Key(plantId, sensorCode), eventId));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!enabled) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        apply(change);
+                    }
+                }
+        );
+    }
+
+    private void apply(Runnable change) {
+        change.run();
+        Queue<Runnable> pending = changesDuringLoad;
+        if (pending != null) pending.add(change);
+    }
+
+    private static Counter lookup(MeterRegistry registry, String source) {
+        return Counter.builder("sensor_event.open.lookups")
+                .description("열린 이벤트 조회 위치")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    private record Key(long plantId, int sensorCode) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.ssukssuk.service.history;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * sensor_event 원본으로 sensor_alert_daily 카운터를 다시 계산한다 (기존 이벤트 이관, 누락 보정).
+ *
+ * 하루씩 GROUP BY 해서 날짜×센서 행을 덮어쓴다. 범위는 started_at 인덱스로 그날 행만 읽는다.
+ * - 지난 날: 잠금 없는 일관 읽기로 센 뒤 따로 upsert → 수신 경로의 이벤트 UPDATE 를 막지 않는다
+ *   (읽은 뒤 그날로 늦게 열린 이벤트가 있으면 그 증분은 덮일 수 있다. 다시 돌리면 맞춰진다)
+ * - 오늘: 이벤트가 계속 열리므로 INSERT … SELECT 잠금 읽기로 (먼저 커밋된 쪽 기준으로) 합을 맞춘다.
+ *   잠기는 건 오늘 범위의 인덱스 구간뿐이다
+ */
+@Slf4j
+@Service
+public class SensorAlertDailyBackfill extends DailyBackfill {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private static final String COUNT_SQL = """
+            SELECT plant_id, DATE(started_at) AS alert_date, sensor_code, COUNT(*) AS alert_count
+            FROM sensor_event
+            WHERE started_at >= ? AND started_at < ?%s
+            GROUP BY plant_id, DATE(started_at), sensor_code
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO sensor_alert_daily (plant_id, alert_date, sensor_code, alert_count)
+            VALUES (?, ?, ?, ?) AS n
+            ON DUPLICATE KEY UPDATE alert_count = n.alert_count
+            """;
+
+    private static final String REBUILD_LOCKING_SQL = """
+            INSERT INTO sensor_alert_daily (plant_id, alert_date, sensor_code, alert_count)
+            SELECT * FROM (
+            %s) AS n
+            ON DUPLICATE KEY UPDATE alert_count = n.alert_count
+            """.formatted(COUNT_SQL);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int startupDays;
+
+    public SensorAlertDailyBackfill(
+            JdbcTemplate jdbcTemplate,
+            @Value("${sensor-alert.backfill-on-startup-days:14}") int startupDays
+    ) {
+        super("SENSOR_ALERT");
+        this.jdbcTemplate = jdbcTemplate;
+        this.startupDays = startupDays;
+    }
+
+    /**
+     * 카운터 표가 비어 있으면 (처음 배포) 최근 startupDays 일을 채운다.
+     * 여러 인스턴스가 동시에 돌아도 덮어쓰기라 결과는 같다. (같은 빈 안 호출이라 run 은 동기로 돈다)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (startupDays <= 0) return;
+        try {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM sensor_alert_daily)", Integer.class);
+            if (existing != null && existing == 1) return;
+        } catch (RuntimeException e) {
+            log.warn("[SENSOR_ALERT] startup backfill skipped: {}", e.toString());
+            return;
+        }
+        LocalDate today = LocalDate.now(KST);
+        if (tryStart(today.minusDays(startupDays - 1L), today.plusDays(1))) {
+            run(null);
+        }
+    }
+
+    /** 오늘까지 포함 */
+    @Override
+    protected LocalDate endLimit() {
+        return LocalDate.now(KST).plusDays(1);
+    }
+
+    @Override
+    protected long rebuild(LocalDate day, Long plantId) {
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(day.atStartOfDay()));
+        args.add(Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        String plantFilter = "";
+        if (plantId != null) {
+            plantFilter = " AND plant_id = ?";
+            args.add(plantId);
+        }
+
+        if (!day.isBefore(LocalDate.now(KST))) {
+            return jdbcTemplate.update(REBUILD_LOCKING_SQL.formatted(plantFilter), args.toArray());
+        }
+
+        List<Object[]> counts = jdbcTemplate.query(COUNT_SQL.formatted(plantFilter),
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getDate(2), rs.getInt(3), rs.getLong(4)},
+                args.toArray());
+        if (counts.isEmpty()) return 0;
+        jdbcTemplate.batchUpdate(UPSERT_SQL, counts);
+        return counts.size();
+    }
+}
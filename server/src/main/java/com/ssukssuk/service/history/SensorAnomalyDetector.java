@@ -0,0 +1,165 @@
+package com.ssukssuk.service.history;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 서버 측 스트리밍 이상 감지 (온도/습도: 디바이스가 event_kind 로 알려주지 않는 센서).
+ *
+ * 식물×센서마다 지수가중 평균/분산(EWMA)만 두고 (식물당 double[] 하나, O(1)),
+ * 측정값이 다음 중 하나면 이상으로 본다.
+ * - 종(Species) 적정 범위 밖
+ * - 워밍업 이후 자기 기준선 대비 |z| >= z-open (z = (x - 평균) / max(표준편차, min-std))
+ * 이상 상태는 범위 안이고 |z| < z-close 가 되어야 풀린다 (열고 닫는 기준을 달리해 경계값 깜빡임 완화).
+ * 기준선은 이상이 아닌 값으로만 갱신한다. 이상 구간의 값까지 섞으면 평균/분산이 따라 올라가
+ * 값이 그대로인데도 z 가 줄어 이벤트가 저절로 닫힌다.
+ * 대신 범위 안인데 z 로만 이상인 값이 rebaseline-samples 번 연속되면 수준이 옮겨 간 것으로 보고
+ * (예: 더 따뜻한 방으로 옮김) 이벤트를 닫고 기준선을 그 값에서 다시 쌓는다 (워밍업부터).
+ * 범위 밖 값은 연속 횟수를 0 으로 돌린다.
+ *
+ * 상태는 메모리에만 있다. 재시작 직후에는 열린 이벤트가 있는지 모르므로 첫 판정이 정상이면 RESOLVE 를
+ * 한 번 돌려준다 (열린 이벤트가 없으면 호출자 쪽에서 아무 일도 없다).
+ * 공유 구독(mqtt.inbound.shared-group)에서는 한 식물의 값이 여러 노드로 나뉘어 노드마다 일부로만
+ * 기준선을 만들고 따로 OPEN/RESOLVE 를 내므로 OpenEventTable / SensorEventDebouncer 처럼 꺼 둔다.
+ */
+@Slf4j
+@Component
+public class SensorAnomalyDetector {
+
+    public static final int NONE = 0;
+    public static final int OPEN = 1;
+    public static final int RESOLVE = 2;
+
+    public static final int TEMPERATURE = 0;
+    public static final int HUMIDITY = 1;
+    private static final int SENSORS = 2;
+
+    // 센서별 슬롯: [mean, var, count, flag, streak(이상 중 범위 안 연속 횟수)]
+    private static final int MEAN = 0;
+    private static final int VAR = 1;
+    private static final int COUNT = 2;
+    private static final int FLAG = 3;
+    private static final int STREAK = 4;
+    private static final int STRIDE = 5;
+
+    private static final double FLAG_UNKNOWN = -1;
+    private static final double FLAG_NORMAL = 0;
+    private static final double FLAG_ANOMALY = 1;
+
+    private final ConcurrentHashMap<Long, double[]> states = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final double alpha;
+    private final int warmupSamples;
+    private final double zOpen;
+    private final double zClose;
+    private final int rebaselineSamples;
+    private final double[] minStd;
+
+    public SensorAnomalyDetector(
+            MeterRegistry meterRegistry,
+            @Value("${sensor-anomaly.enabled:true}") boolean enabled,
+            @Value("${sensor-anomaly.alpha:0.05}") double alpha,
+            @Value("${sensor-anomaly.warmup-samples:30}") int warmupSamples,
+            @Value("${sensor-anomaly.z-open:4.0}") double zOpen,
+            @Value("${sensor-anomaly.z-close:2.0}") double zClose,
+            @Value("${sensor-anomaly.rebaseline-samples:60}") int rebaselineSamples,
+            @Value("${sensor-anomaly.min-std.temperature:0.5}") double minStdTemperature,
+            @Value("${sensor-anomaly.min-std.humidity:2.0}") double minStdHumidity,
+            @Value("${mqtt.inbound.shared-group:}") String sharedGroup
+    ) {
+        boolean sharedMode = sharedGroup != null && !sharedGroup.isBlank();
+        this.enabled = enabled && !sharedMode;
+        this.alpha = alpha;
+        this.warmupSamples = warmupSamples;
+        this.zOpen = zOpen;
+        this.zClose = zClose;
+        this.rebaselineSamples = rebaselineSamples;
+        this.minStd = new double[]{minStdTemperature, minStdHumidity};
+
+        Gauge.builder("sensor_anomaly.tracked_plants", states, ConcurrentHashMap::size)
+                .description("기준선을 들고 있는 식물 수")
+                .register(meterRegistry);
+
+        log.info("[SENSOR_ANOMALY] enabled={}, sharedMode={}, alpha={}, warmup={}, zOpen={}, zClose={}, rebaseline={}",
+                this.enabled, sharedMode, alpha, warmupSamples, zOpen, zClose, rebaselineSamples);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 측정값 하나를 반영하고 상태 전이를 돌려준다.
+     *
+     * @param min 종 적정 최소 (없으면 NaN)
+     * @param max 종 적정 최대 (없으면 NaN)
+     * @return NONE / OPEN(정상→이상) / RESOLVE(이상→정상)
+     */
+    public int observe(long plantId, int sensor, float value, float min, float max) {
+        if (!enabled || Float.isNaN(value)) return NONE;
+
+        double[] s = states.computeIfAbsent(plantId, SensorAnomalyDetector::newState);
+        int o = sensor * STRIDE;
+        synchronized (s) {
+            double n = s[o + COUNT];
+
+            boolean outOfRange = value < min || value > max;   // NaN 비교는 false
+            double absZ = 0;
+            if (n >= warmupSamples) {
+                double std = Math.max(Math.sqrt(s[o + VAR]), minStd[sensor]);
+                absZ = Math.abs(value - s[o + MEAN]) / std;
+            }
+
+            double flag = s[o + FLAG];
+            if (flag == FLAG_ANOMALY) {
+                // 이상 구간에서는 기준선을 얼린다
+                if (outOfRange) {
+                    s[o + STREAK] = 0;
+                    return NONE;
+                }
+                if (absZ >= zClose) {
+                    // 범위 안에서 z 로만 이상인 값이 계속되면 수준 이동: 닫고 이 값부터 기준선을 다시 쌓는다
+                    if (++s[o + STREAK] < rebaselineSamples) return NONE;
+                    s[o + MEAN] = 0;
+                    s[o + VAR] = 0;
+                    s[o + COUNT] = 0;
+                }
+                s[o + STREAK] = 0;
+                s[o + FLAG] = FLAG_NORMAL;
+                adapt(s, o, value);
+                return RESOLVE;
+            }
+            boolean anomaly = outOfRange || absZ >= zOpen;
+            s[o + FLAG] = anomaly ? FLAG_ANOMALY : FLAG_NORMAL;
+            if (anomaly) return OPEN;
+            adapt(s, o, value);
+            return flag == FLAG_UNKNOWN ? RESOLVE : NONE;
+        }
+    }
+
+    /** 정상 값으로 기준선 갱신 (첫 값은 평균으로 바로 사용) */
+    private void adapt(double[] s, int o, float value) {
+        double n = s[o + COUNT];
+        if (n == 0) {
+            s[o + MEAN] = value;
+        } else {
+            double mean = s[o + MEAN];
+            double diff = value - mean;
+            double incr = alpha * diff;
+            s[o + MEAN] = mean + incr;
+            s[o + VAR] = (1 - alpha) * (s[o + VAR] + diff * incr);
+        }
+        s[o + COUNT] = n + 1;
+    }
+
+    private static double[] newState(Long plantId) {
+        double[] s = new double[SENSORS * STRIDE];
+        for (int i = 0; i < SENSORS; i++) s[i * STRIDE + FLAG] = FLAG_UNKNOWN;
+        return s;
+    }
+}
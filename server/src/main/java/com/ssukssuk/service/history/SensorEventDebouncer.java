@@ -0,0 +1,302 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.infra.mqtt.dto.SensorUplinkMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 이벤트 OPEN/RESOLVE 전이를 식물×센서별로 잠시 붙잡아 두었다가, 안정된 것만 확정한다 (알림 폭주 방지).
+ *
+ * - 새 전이는 바로 DB 에 쓰지 않고 open-dwell-ms / resolve-dwell-ms 동안 보류
+ * - 보류 중 반대 신호가 오면 둘 다 버린다 (경계값에서 깜빡이면 이벤트/알림/푸시가 하나도 안 생김)
+ * - 수위/양분은 이후 메시지의 status 가 보류 방향과 반대로 돌아와도 취소 (cancel-on-status)
+ * - 기간이 지나도록 뒤집히지 않은 전이는 SensorTelemetryService 의 주기 작업이 확정한다
+ *   (시각과 sensor_log 는 처음 신호 기준)
+ * - 이미 그 상태면(열린 이벤트에 또 ANOMALY 등) 보류 없이 기존 처리로 넘긴다
+ *
+ * 보류 표는 트랜잭션 결과를 따른다. 새 보류는 커밋된 뒤에 넣고, 취소/꺼내기는 그 슬롯을 잡아 두었다가
+ * (그동안 주기 확정에서 제외) 커밋되면 빼고 롤백되면 되돌린다. 그래서 재전송된 메시지도 처음과 같은 판단을 받는다.
+ *
+ * 상태는 메모리에만 있다. 종료 시 기간이 지난 보류만 확정하고 아직 기간 안인 것은 버린다 (dropped).
+ * 공유 구독(mqtt.inbound.shared-group)에서는 한 식물의 메시지가 여러 노드로 나뉘어 노드마다 깜빡임의
+ * 일부만 보게 되므로 OpenEventTable 과 같이 꺼 둔다.
+ */
+@Slf4j
+@Component
+public class SensorEventDebouncer {
+
+    public enum Decision {
+        /** 지금 처리 */
+        APPLY,
+        /** 보류 (나중에 확정) */
+        HOLD,
+        /** 반대 신호로 보류 취소: 아무것도 하지 않음 */
+        CANCEL
+    }
+
+    public record Pending(long plantId, SensorUplinkMessage.TriggerSensorType trigger, boolean open,
+                          Long sensorLogId, LocalDateTime measuredAt, long dueAtMillis) {
+    }
+
+    private static final SensorUplinkMessage.TriggerSensorType[] TRIGGERS =
+            SensorUplinkMessage.TriggerSensorType.values();
+
+    private final ConcurrentHashMap<Long, Slots> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final SensorEventService sensorEventService;
+    private final boolean enabled;
+    private final long openDwellMillis;
+    private final long resolveDwellMillis;
+    private final boolean cancelOnStatus;
+
+    private final Counter held;
+    private final Counter cancelled;
+    private final Counter committed;
+    private final Counter dropped;
+
+    public SensorEventDebouncer(
+            SensorEventService sensorEventService,
+            MeterRegistry meterRegistry,
+            @Value("${sensor-debounce.enabled:true}") boolean enabled,
+            @Value("${sensor-debounce.open-dwell-ms:60000}") long openDwellMillis,
+            @Value("${sensor-debounce.resolve-dwell-ms:180000}") long resolveDwellMillis,
+            @Value("${sensor-debounce.cancel-on-status:true}") boolean cancelOnStatus,
+            @Value("${mqtt.inbound.shared-group:}") String sharedGroup
+    ) {
+        this.sensorEventService = sensorEventService;
+        boolean sharedMode = sharedGroup != null && !sharedGroup.isBlank();
+        this.enabled = enabled && !sharedMode;
+        this.openDwellMillis = openDwellMillis;
+        this.resolveDwellMillis = resolveDwellMillis;
+        this.cancelOnStatus = cancelOnStatus;
+
+        this.held = counter(meterRegistry, "held", "보류한 전이 수");
+        this.cancelled = counter(meterRegistry, "cancelled", "반대 신호로 취소한 전이 수");
+        this.committed = counter(meterRegistry, "committed", "안정되어 확정한 전이 수");
+        this.dropped = counter(meterRegistry, "dropped", "종료 시 기간 안이라 버린 전이 수");
+        Gauge.builder("sensor_debounce.pending", pendingCount, AtomicInteger::get)
+                .description("확정을 기다리는 전이 수")
+                .register(meterRegistry);
+
+        log.info("[SENSOR_DEBOUNCE] enabled={}, sharedMode={}, openDwellMs={}, resolveDwellMs={}, cancelOnStatus={}",
+                this.enabled, sharedMode, openDwellMillis, resolveDwellMillis, cancelOnStatus);
+    }
+
+    /**
+     * OPEN(open=true) / RESOLVE 신호 하나를 받아 지금 처리할지 결정한다.
+     */
+    public Decision signal(TelemetryContext ctx, SensorUplinkMessage.TriggerSensorType trigger, boolean open) {
+        if (!enabled || trigger == null) return Decision.APPLY;
+
+        long plantId = ctx.getPlantId();
+        int i = trigger.ordinal();
+        Slots slots = pending.computeIfAbsent(plantId, k -> new Slots());
+        synchronized (slots) {
+            Pending p = slots.held[i];
+            // settling 이면 이미 빠지는 중 (같은 업링크의 observe 취소 등) → 없는 것으로 본다
+            if (p != null && !slots.settling[i]) {
+                if (p.open() == open) return Decision.HOLD;    // 같은 방향: 처음 신호 유지
+                removeOnCommit(slots, i, cancelled);
+                log.info("[SENSOR_DEBOUNCE] flap cancelled. plantId={}, trigger={}", plantId, trigger);
+                return Decision.CANCEL;
+            }
+        }
+
+        // 이미 원하는 상태 (열린 이벤트 갱신 / 닫힌 이벤트 RESOLVE) → 기존 처리 그대로
+        if (sensorEventService.isOpen(plantId, trigger) == open) return Decision.APPLY;
+
+        long dwell = open ? openDwellMillis : resolveDwellMillis;
+        if (dwell <= 0) return Decision.APPLY;
+
+        Pending p = new Pending(plantId, trigger, open, ctx.getSensorLogId(), ctx.getMeasuredAt(),
+                System.currentTimeMillis() + dwell);
+        // sensor_log 가 롤백되면 보류도 없던 일로 (재전송 때 다시 판단)
+        onCommit(() -> {
+            synchronized (slots) {
+                if (slots.held[i] != null) return;
+                slots.held[i] = p;
+            }
+            pendingCount.incrementAndGet();
+            held.increment();
+        });
+        return Decision.HOLD;
+    }
+
+    /** 보류 중인 전이가 있는지 (서버 측 RESOLVE 가 의미 있는지 판단용) */
+    public boolean hasPending(long plantId, SensorUplinkMessage.TriggerSensorType trigger) {
+        Slots slots = pending.get(plantId);
+        if (slots == null) return false;
+        synchronized (slots) {
+            return slots.held[trigger.ordinal()] != null;
+        }
+    }
+
+    /**
+     * 메시지의 센서 status 가 보류 방향과 반대면 취소한다 (수위/양분: 디바이스가 판정하는 센서).
+     * 예) OPEN 보류 중 water_level=OK 가 오면 이상이 이미 풀린 것.
+     */
+    public void observe(TelemetryContext ctx) {
+        if (!enabled || !cancelOnStatus) return;
+        Slots slots = pending.get(ctx.getPlantId());
+        if (slots == null) return;
+
+        SensorUplinkMessage msg = ctx.getMsg();
+        synchronized (slots) {
+            for (int i = 0; i < slots.held.length; i++) {
+                Pending p = slots.held[i];
+                if (p == null || slots.settling[i]) continue;
+                SensorUplinkMessage.SensorStatus status = switch (p.trigger()) {
+                    case WATER_LEVEL -> msg.getWaterLevelStatus();
+                    case NUTRIENT_CONC -> msg.getNutrientConcStatus();
+                    case TEMPERATURE, HUMIDITY -> null;     // 서버 측 감지는 signal 로만 뒤집힌다
+                };
+                if (status == null) continue;
+                boolean anomalous = status != SensorUplinkMessage.SensorStatus.OK;
+                if (anomalous != p.open()) {
+                    removeOnCommit(slots, i, cancelled);
+                    log.info("[SENSOR_DEBOUNCE] cancelled by status. plantId={}, trigger={}, status={}",
+                            p.plantId(), p.trigger(), status);
+                }
+            }
+        }
+    }
+
+    /**
+     * 보류 중인 OPEN 을 기간과 상관없이 꺼낸다 (디바이스 조치 결과가 먼저 온 경우).
+     * 호출자 트랜잭션이 커밋되면 보류에서 빠지고, 롤백되면 그대로 남는다.
+     */
+    public Optional<Pending> takeOpen(long plantId, SensorUplinkMessage.TriggerSensorType trigger) {
+        Slots slots = pending.get(plantId);
+        if (slots == null) return Optional.empty();
+        synchronized (slots) {
+            int i = trigger.ordinal();
+            Pending p = slots.held[i];
+            if (p == null || !p.open() || slots.settling[i]) return Optional.empty();
+            removeOnCommit(slots, i, committed);
+            return Optional.of(p);
+        }
+    }
+
+    /** 기간이 지난 보류를 꺼낸다 (꺼낸 것은 호출자가 확정) */
+    public List<Pending> drainDue(long nowMillis) {
+        List<Pending> due = new ArrayList<>();
+        if (pendingCount.get() == 0) return due;
+        for (Slots slots : pending.values()) {
+            synchronized (slots) {
+                for (int i = 0; i < slots.held.length; i++) {
+                    Pending p = slots.held[i];
+                    if (p != null && !slots.settling[i] && p.dueAtMillis() <= nowMillis) {
+                        slots.held[i] = null;
+                        pendingCount.decrementAndGet();
+                        due.add(p);
+                    }
+                }
+            }
+        }
+        committed.increment(due.size());
+        return due;
+    }
+
+    /** 남은 보류를 모두 버린다 (종료 시: 기간 안의 전이는 확정하지 않는다) */
+    public List<Pending> discardAll() {
+        List<Pending> discarded = new ArrayList<>();
+        for (Slots slots : pending.values()) {
+            synchronized (slots) {
+                for (int i = 0; i < slots.held.length; i++) {
+                    Pending p = slots.held[i];
+                    if (p == null || slots.settling[i]) continue;
+                    slots.held[i] = null;
+                    pendingCount.decrementAndGet();
+                    discarded.add(p);
+                }
+            }
+        }
+        dropped.increment(discarded.size());
+        return discarded;
+    }
+
+    /** 확정이 일시적 오류로 실패하면 다시 보류 (그 사이 새 신호가 왔으면 그쪽을 따른다) */
+    public void requeue(Pending p, long retryAtMillis) {
+        Slots slots = pending.computeIfAbsent(p.plantId(), k -> new Slots());
+        synchronized (slots) {
+            int i = p.trigger().ordinal();
+            if (slots.held[i] != null) return;
+            slots.held[i] = new Pending(p.plantId(), p.trigger(), p.open(), p.sensorLogId(), p.measuredAt(), retryAtMillis);
+        }
+        pendingCount.incrementAndGet();
+    }
+
+    /**
+     * 슬롯의 보류를 호출자 트랜잭션이 커밋되면 뺀다 (slots 락 안에서 호출).
+     * 끝날 때까지 settling 으로 잡아 두어 주기 확정/다른 신호가 건드리지 않고, 롤백되면 그대로 둔다.
+     */
+    private void removeOnCommit(Slots slots, int i, Counter result) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(slots, i, result);
+            return;
+        }
+        slots.settling[i] = true;
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        synchronized (slots) {
+                            slots.settling[i] = false;
+                            if (status == STATUS_COMMITTED) remove(slots, i, result);
+                        }
+                    }
+                }
+        );
+    }
+
+    private void remove(Slots slots, int i, Counter result) {
+        slots.held[i] = null;
+        pendingCount.decrementAndGet();
+        result.increment();
+    }
+
+    /**
+     * 커밋되면 실행 (트랜잭션 밖이면 바로).
+     * afterCommit 은 모든 afterCompletion 보다 먼저 돌므로, 먼저 등록한 removeOnCommit 뒤에 오도록 afterCompletion 에서 한다.
+     */
+    private static void onCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) change.run();
+                    }
+                }
+        );
+    }
+
+    private static Counter counter(MeterRegistry registry, String result, String description) {
+        return Counter.builder("sensor_debounce.transitions")
+                .description(description)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /** 식물 하나의 센서별 보류 (settling: 진행 중인 트랜잭션이 취소/꺼내기를 결정하는 중) */
+    private static final class Slots {
+        final Pending[] held = new Pending[TRIGGERS.length];
+        final boolean[] settling = new boolean[TRIGGERS.length];
+    }
+}
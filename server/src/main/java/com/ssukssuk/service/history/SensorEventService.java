@@ -1,12 +1,12 @@
 package com.ssukssuk.service.history;
 
-import com.ssukssuk.common.exception.CustomException;
-import com.ssukssuk.common.exception.ErrorCode;
 import com.ssukssuk.dto.history.PlantHistoryResponse;
 import com.ssukssuk.infra.mqtt.dto.SensorUplinkMessage;
 import com.ssukssuk.domain.history.SensorEvent;
 import com.ssukssuk.domain.history.SensorLog;
 import com.ssukssuk.domain.plant.UserPlant;
+import com.ssukssuk.repository.history.SensorAlertDailyRepository;
+import com.ssukssuk.repository.history.SensorAlertDailyRow;
 import com.ssukssuk.repository.history.SensorEventRepository;
 import com.ssukssuk.repository.history.SensorLogRepository;
 import com.ssukssuk.repository.plant.UserPlantRepository;
@@ -15,7 +15,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
 
@@ -29,66 +28,72 @@ public class SensorEventService {
     private static final int NUTRIENT_CODE = 2;
 
     private final SensorEventRepository sensorEventRepository;
+    private final SensorAlertDailyRepository sensorAlertDailyRepository;
     private final SensorLogRepository sensorLogRepository;
     private final UserPlantRepository userPlantRepository;
+    private final OpenEventTable openEventTable;
 
     // ANOMALY_DETECTED
+    // 열린 이벤트는 OpenEventTable 에서 찾고, DB 에는 쓰기만 한다
     @Transactional
     public Optional<SensorEvent> openOrUpdateAndReturnCreated(
-            Long plantId,
-            SensorUplinkMessage.TriggerSensorType triggerType,
-            Long sensorLogId,
-            LocalDateTime measuredAt
+            TelemetryContext ctx,
+            SensorUplinkMessage.TriggerSensorType triggerType
     ) {
-        SensorEvent openEvent = sensorEventRepository
-                .findOpenByPlantIdAndSensorCode(plantId, triggerType.getCode())
-                .orElse(null);
+        Long plantId = ctx.getPlantId();
+        Long sensorLogId = ctx.getSensorLogId();
+        int sensorCode = triggerType.getCode();
+        Optional<Long> openEventId = openEventTable.find(plantId, sensorCode);
 
         // 열린 이벤트 없으면 이벤트 생성 / 있으면 갱신만
-        if (openEvent == null) {
-            UserPlant plant = userPlantRepository.findById(plantId)
-                    .orElseThrow(() -> new CustomException(ErrorCode.PLANT_NOT_FOUND));
-            SensorLog sensorLog = sensorLogRepository.findById(sensorLogId)
-                    .orElseThrow(() -> new CustomException(ErrorCode.SENSOR_LOG_NOT_FOUND));
+        if (openEventId.isEmpty()) {
+            // 식물/측정값 모두 같은 트랜잭션에서 검증·저장했으므로 참조만 건다
+            UserPlant plant = userPlantRepository.getReferenceById(plantId);
+            SensorLog sensorLog = sensorLogRepository.getReferenceById(sensorLogId);
 
-            SensorEvent created = SensorEvent.open(plant, triggerType.getCode(), sensorLog, measuredAt);
+            SensorEvent created = SensorEvent.open(plant, sensorCode, sensorLog, ctx.getMeasuredAt());
             sensorEventRepository.save(created);
+            // 알림 그래프 카운터 (같은 트랜잭션: 롤백되면 같이 취소)
+            sensorAlertDailyRepository.increment(plantId, ctx.getMeasuredAt().toLocalDate(), sensorCode);
+            openEventTable.openedAfterCommit(plantId, sensorCode, created.getEventId());
             return Optional.of(created);
         } else {
-            SensorLog sensorLog = sensorLogRepository.findById(sensorLogId)
-                    .orElseThrow(() -> new CustomException(ErrorCode.SENSOR_LOG_NOT_FOUND));
-            openEvent.updateLast(sensorLog);
+            sensorEventRepository.updateLast(openEventId.get(), sensorLogId);
             return Optional.empty();
         }
     }
 
+    // 열린 이벤트 여부 (메모리 표, shared 모드는 DB)
+    @Transactional(readOnly = true)
+    public boolean isOpen(Long plantId, SensorUplinkMessage.TriggerSensorType triggerType) {
+        return openEventTable.find(plantId, triggerType.getCode()).isPresent();
+    }
+
     // RECOVERY_DONE
     @Transactional
     public Optional<SensorEvent> resolveIfOpenAndReturn(
-            Long plantId,
-            SensorUplinkMessage.TriggerSensorType triggerType,
-            Long sensorLogId,
-            LocalDateTime measuredAt
+            TelemetryContext ctx,
+            SensorUplinkMessage.TriggerSensorType triggerType
     ) {
+        Long plantId = ctx.getPlantId();
+        int sensorCode = triggerType.getCode();
         // 이벤트 찾아서
-        Optional<SensorEvent> openEventOpt =
-                sensorEventRepository.findOpenByPlantIdAndSensorCode(
-                        plantId, triggerType.getCode()
-                );
+        Optional<Long> openEventId = openEventTable.find(plantId, sensorCode);
 
         // 없으면 empty 반환
-        if (openEventOpt.isEmpty()) {
+        if (openEventId.isEmpty()) {
             return Optional.empty();
         }
 
-        // 있으면 이벤트 닫고 이벤트 Id 반환
-        SensorEvent event = openEventOpt.get();
-
-        SensorLog sensorLog = sensorLogRepository.findById(sensorLogId)
-                .orElseThrow(() -> new CustomException(ErrorCode.SENSOR_LOG_NOT_FOUND));
-        event.resolve(sensorLog, measuredAt);
-
-        return Optional.of(event);
+        // 있으면 이벤트 닫고 이벤트 반환 (호출자는 id 만 쓰므로 프록시)
+        Long eventId = openEventId.get();
+        if (sensorEventRepository.resolve(eventId, ctx.getSensorLogId(), ctx.getMeasuredAt()) == 0) {
+            // 이미 닫혀 있었음 (표가 어긋났으면 바로잡는다)
+            openEventTable.resolvedAfterCommit(plantId, sensorCode, eventId);
+            return Optional.empty();
+        }
+        openEventTable.resolvedAfterCommit(plantId, sensorCode, eventId);
+        return Optional.of(sensorEventRepository.getReferenceById(eventId));
     }
 
     @Transactional(readOnly = true)
@@ -97,29 +102,20 @@ public class SensorEventService {
         LocalDate end = LocalDate.now(KST);
         LocalDate start = end.minusDays(FIXED_PERIOD_DAYS - 1);
 
-        LocalDateTime startDt = start.atStartOfDay();
-        LocalDateTime endExclusive = end.plusDays(1).atStartOfDay();
-
-        // 이상치 오픈된 시간 기준 집계
-        List<SensorEvent> events =
-                sensorEventRepository.findByPlantIdAndStartedAtBetween(
-                        plantId, startDt, endExclusive
-                );
+        // 이상치 오픈된 날짜 기준 카운터 (최대 14일 × 2센서 행)
+        List<SensorAlertDailyRow> rows = sensorAlertDailyRepository.findDaily(
+                plantId, start, end, List.of(WATER_CODE, NUTRIENT_CODE));
 
         // date, [water, nutrient]
         Map<LocalDate, int[]> map = new HashMap<>();
 
-        for (SensorEvent e : events) {
-            LocalDate d = e.getStartedAt().toLocalDate();
-            map.putIfAbsent(d, new int[2]);
-
-            int[] c = map.get(d);
-            int code = e.getSensorCode();
+        for (SensorAlertDailyRow r : rows) {
+            int[] c = map.computeIfAbsent(r.getAlertDate(), d -> new int[2]);
 
-            if (code == WATER_CODE) {
-                c[0]++;
-            } else if (code == NUTRIENT_CODE) {
-                c[1]++;
+            if (r.getSensorCode() == WATER_CODE) {
+                c[0] += r.getAlertCount();
+            } else if (r.getSensorCode() == NUTRIENT_CODE) {
+                c[1] += r.getAlertCount();
             }
         }
 
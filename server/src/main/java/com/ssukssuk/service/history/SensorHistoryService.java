@@ -0,0 +1,95 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.common.exception.CustomException;
+import com.ssukssuk.common.exception.ErrorCode;
+import com.ssukssuk.dto.history.SensorHistoryResponse;
+import com.ssukssuk.infra.series.SensorSample;
+import com.ssukssuk.infra.series.SensorSeriesStore;
+import com.ssukssuk.repository.plant.UserPlantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 임의 구간 센서 히스토리 (차트용).
+ *
+ * 시계열 저장소를 두 번 훑어 센서별로 최대 points 개를 LTTB 로 고른다 (LttbDownsampler).
+ * 한 시간이든 여섯 달이든 응답 크기와 메모리는 points 에만 비례한다.
+ */
+@Service
+public class SensorHistoryService {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final Duration DEFAULT_SPAN = Duration.ofDays(1);
+    private static final int MIN_POINTS = 3;
+
+    private final SensorSeriesStore sensorSeriesStore;
+    private final UserPlantRepository userPlantRepository;
+    private final Duration maxSpan;
+    private final int maxPoints;
+
+    public SensorHistoryService(
+            SensorSeriesStore sensorSeriesStore,
+            UserPlantRepository userPlantRepository,
+            @Value("${sensor-history.max-span-days:400}") long maxSpanDays,
+            @Value("${sensor-history.max-points:2000}") int maxPoints
+    ) {
+        this.sensorSeriesStore = sensorSeriesStore;
+        this.userPlantRepository = userPlantRepository;
+        this.maxSpan = Duration.ofDays(maxSpanDays);
+        this.maxPoints = maxPoints;
+    }
+
+    public SensorHistoryResponse getHistory(Long userId, Long plantId,
+                                            LocalDateTime from, LocalDateTime to, int points) {
+        if (!userPlantRepository.existsByPlantIdAndUserId(plantId, userId)) {
+            throw new CustomException(ErrorCode.PLANT_ACCESS_DENIED);
+        }
+        if (points < MIN_POINTS || points > maxPoints) {
+            throw new CustomException(ErrorCode.VALIDATION_ERROR);
+        }
+
+        LocalDateTime end = to != null ? to : LocalDateTime.now(KST);
+        LocalDateTime start = from != null ? from : end.minus(DEFAULT_SPAN);
+        if (!start.isBefore(end) || start.plus(maxSpan).isBefore(end)) {
+            throw new CustomException(ErrorCode.INVALID_TIME_RANGE);
+        }
+
+        long fromMillis = SensorSample.toMillis(start);
+        long toMillis = SensorSample.toMillis(end);
+        LttbDownsampler lttb = new LttbDownsampler(fromMillis, toMillis, points);
+        sensorSeriesStore.scan(plantId, fromMillis, toMillis, lttb.firstPass());
+        if (lttb.sampleCount() > 0) {
+            sensorSeriesStore.scan(plantId, fromMillis, toMillis, lttb.secondPass());
+        }
+
+        return SensorHistoryResponse.builder()
+                .plantId(plantId)
+                .from(start)
+                .to(end)
+                .points(points)
+                .sampleCount(lttb.sampleCount())
+                .temperature(series(lttb, SensorSample.TEMPERATURE))
+                .humidity(series(lttb, SensorSample.HUMIDITY))
+                .waterLevel(series(lttb, SensorSample.WATER_LEVEL))
+                .nutrientConc(series(lttb, SensorSample.NUTRIENT_CONC))
+                .build();
+    }
+
+    private List<SensorHistoryResponse.Point> series(LttbDownsampler lttb, int metric) {
+        int size = lttb.finish(metric);
+        List<SensorHistoryResponse.Point> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            out.add(SensorHistoryResponse.Point.builder()
+                    .measuredAt(SensorSample.toLocal(lttb.time(metric, i)))
+                    .value(lttb.value(metric, i))
+                    .build());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,322 @@
+package com.ssukssuk.service.history;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * sensor_log 월 단위 RANGE COLUMNS(measured_at) 파티션 관리.
+ *
+ * - 앞으로 premake-months 달치 파티션을 미리 만든다 (비어 있는 pmax 를 REORGANIZE → 메타데이터 작업)
+ * - retention-months 보다 오래된 파티션은 DROP PARTITION (drop) 또는
+ *   EXCHANGE PARTITION 으로 sensor_log_archive_pYYYYMM 테이블로 떼어낸 뒤 DROP (archive)
+ * - 지우기 전에 그 파티션 행을 가리키는 sensor_event 의 first/last_sensor_log_id 는 NULL 로 바꾼다
+ *
+ * 파티션 테이블은 FK 를 가질 수도, 참조될 수도 없고 PK 에 measured_at 이 들어가야 한다.
+ * 기존 테이블 변환은 테이블 전체를 다시 쓰므로 기본은 하지 않는다
+ * (convert-on-startup=true 이거나 db/sensor_log_partitioning.sql 을 직접 실행).
+ * 여러 노드가 동시에 돌지 않도록 MySQL GET_LOCK 을 잡고 한다.
+ */
+@Slf4j
+@Component
+public class SensorLogPartitionMaintenance {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final String TABLE = "sensor_log";
+    private static final String MAX_PARTITION = "pmax";
+    private static final String LOCK_NAME = "ssukssuk.sensor_log.partition";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int premakeMonths;
+    private final int retentionMonths;
+    private final boolean archive;
+    private final boolean convertOnStartup;
+
+    public SensorLogPartitionMaintenance(
+            JdbcTemplate jdbcTemplate,
+            @Value("${sensor-log.partition.enabled:true}") boolean enabled,
+            @Value("${sensor-log.partition.premake-months:3}") int premakeMonths,
+            @Value("${sensor-log.partition.retention-months:12}") int retentionMonths,
+            @Value("${sensor-log.partition.retention-mode:drop}") String retentionMode,
+            @Value("${sensor-log.partition.convert-on-startup:false}") boolean convertOnStartup
+    ) {
+        if (!retentionMode.equals("drop") && !retentionMode.equals("archive")) {
+            throw new IllegalArgumentException("sensor-log.partition.retention-mode must be drop or archive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.premakeMonths = Math.max(1, premakeMonths);
+        this.retentionMonths = retentionMonths;
+        this.archive = retentionMode.equals("archive");
+        this.convertOnStartup = convertOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        run(convertOnStartup);
+    }
+
+    @Scheduled(cron = "${sensor-log.partition.cron:0 30 3 * * *}", zone = "Asia/Seoul")
+    public void scheduled() {
+        run(false);
+    }
+
+    private void run(boolean allowConvert) {
+        if (!enabled) return;
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                if (!tryLock(con)) {
+                    log.info("[SENSOR_LOG][PARTITION] another node is maintaining partitions, skipped");
+                    return null;
+                }
+                try {
+                    maintain(con, allowConvert);
+                } finally {
+                    unlock(con);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("[SENSOR_LOG][PARTITION] maintenance failed", e);
+        }
+    }
+
+    private void maintain(Connection con, boolean allowConvert) throws SQLException {
+        LocalDate thisMonth = LocalDate.now(KST).withDayOfMonth(1);
+        LocalDate horizon = thisMonth.plusMonths(premakeMonths + 1L);
+        LocalDate cutoff = retentionMonths > 0 ? thisMonth.minusMonths(retentionMonths) : null;
+
+        List<Partition> partitions = partitions(con);
+        if (partitions.isEmpty()) {
+            log.warn("[SENSOR_LOG][PARTITION] table {} not found", TABLE);
+            return;
+        }
+        if (partitions.get(0).name() == null) {
+            if (!allowConvert) {
+                log.warn("[SENSOR_LOG][PARTITION] {} is not partitioned. "
+                        + "run db/sensor_log_partitioning.sql or set sensor-log.partition.convert-on-startup=true", TABLE);
+                return;
+            }
+            convert(con, thisMonth, horizon, cutoff);
+            partitions = partitions(con);
+        }
+
+        premake(con, partitions, horizon);
+        if (cutoff != null) {
+            expire(con, partitions(con), cutoff);
+        }
+    }
+
+    /** 비분할 테이블을 월 파티션으로 변환 (테이블 재작성) */
+    private void convert(Connection con, LocalDate thisMonth, LocalDate horizon, LocalDate cutoff) throws SQLException {
+        for (String[] fk : foreignKeys(con)) {
+            log.info("[SENSOR_LOG][PARTITION] dropping foreign key {}.{}", fk[0], fk[1]);
+            execute(con, "ALTER TABLE " + fk[0] + " DROP FOREIGN KEY " + fk[1]);
+        }
+        if (!primaryKeyHasMeasuredAt(con)) {
+            execute(con, "ALTER TABLE " + TABLE
+                    + " DROP PRIMARY KEY, ADD PRIMARY KEY (sensor_log_id, measured_at)");
+        }
+
+        // 가장 오래된 데이터 달부터 (보관 기간보다 오래된 건 첫 파티션에 모인다)
+        LocalDate start = oldestMonth(con);
+        if (start == null || start.isAfter(thisMonth)) start = thisMonth;
+        if (cutoff != null && start.isBefore(cutoff)) start = cutoff;
+
+        StringJoiner defs = new StringJoiner(", ");
+        for (LocalDate m = start; m.isBefore(horizon); m = m.plusMonths(1)) {
+            defs.add(definition(m));
+        }
+        defs.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+
+        log.info("[SENSOR_LOG][PARTITION] converting {} to monthly partitions from {}", TABLE, start);
+        long startedAt = System.currentTimeMillis();
+        execute(con, "ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(measured_at) (" + defs + ")");
+        log.info("[SENSOR_LOG][PARTITION] converted in {}ms", System.currentTimeMillis() - startedAt);
+    }
+
+    /** horizon 까지 월 파티션을 미리 만든다 */
+    private void premake(Connection con, List<Partition> partitions, LocalDate horizon) throws SQLException {
+        LocalDate last = null;
+        boolean hasMax = false;
+        for (Partition p : partitions) {
+            if (p.upperBound() == null) hasMax = true;
+            else last = p.upperBound();
+        }
+        if (last == null || !last.isBefore(horizon)) return;
+
+        StringJoiner defs = new StringJoiner(", ");
+        List<String> added = new ArrayList<>();
+        for (LocalDate m = last; m.isBefore(horizon); m = m.plusMonths(1)) {
+            defs.add(definition(m));
+            added.add(m.format(PARTITION_NAME));
+        }
+
+        if (hasMax) {
+            execute(con, "ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                    + defs + ", PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+        } else {
+            execute(con, "ALTER TABLE " + TABLE + " ADD PARTITION (" + defs + ")");
+        }
+        log.info("[SENSOR_LOG][PARTITION] created {}", added);
+    }
+
+    /** 상한이 cutoff 이하인(= 전부 cutoff 이전 데이터인) 파티션 제거 */
+    private void expire(Connection con, List<Partition> partitions, LocalDate cutoff) throws SQLException {
+        // 마지막 월 파티션은 남겨 둔다 (RANGE 는 최소 하나 필요)
+        int monthly = (int) partitions.stream().filter(p -> p.upperBound() != null).count();
+        for (Partition p : partitions) {
+            if (p.upperBound() == null || p.upperBound().isAfter(cutoff) || monthly <= 1) continue;
+
+            detachEvents(con, p.name());
+            if (archive) {
+                archive(con, p.name());
+            }
+            execute(con, "ALTER TABLE " + TABLE + " DROP PARTITION " + p.name());
+            monthly--;
+            log.info("[SENSOR_LOG][PARTITION] {} {} (rows~{}, before {})",
+                    archive ? "archived" : "dropped", p.name(), p.rows(), p.upperBound());
+        }
+    }
+
+    /** 지워질 로그를 가리키는 이벤트 참조를 끊는다 (이벤트 테이블은 작다) */
+    private void detachEvents(Connection con, String partition) throws SQLException {
+        for (String column : new String[]{"first_sensor_log_id", "last_sensor_log_id"}) {
+            execute(con, "UPDATE sensor_event SET " + column + " = NULL WHERE " + column
+                    + " IN (SELECT sensor_log_id FROM " + TABLE + " PARTITION (" + partition + "))");
+        }
+    }
+
+    /** 파티션을 같은 구조의 일반 테이블과 맞바꾼다 (데이터 복사 없음) */
+    private void archive(Connection con, String partition) throws SQLException {
+        String target = TABLE + "_archive_" + partition;
+        if (tableExists(con, target)) {
+            throw new SQLException("archive table already exists: " + target);
+        }
+        execute(con, "CREATE TABLE " + target + " LIKE " + TABLE);
+        execute(con, "ALTER TABLE " + target + " REMOVE PARTITIONING");
+        execute(con, "ALTER TABLE " + TABLE + " EXCHANGE PARTITION " + partition + " WITH TABLE " + target);
+    }
+
+    private List<Partition> partitions(Connection con) throws SQLException {
+        List<Partition> result = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement("""
+                SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS
+                FROM information_schema.PARTITIONS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?
+                ORDER BY PARTITION_ORDINAL_POSITION
+                """)) {
+            ps.setString(1, TABLE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(new Partition(rs.getString(1), parseBound(rs.getString(2)), rs.getLong(3)));
+                }
+            }
+        }
+        return result;
+    }
+
+    /** sensor_log 가 가진 FK + sensor_log 를 참조하는 FK ({테이블, 제약 이름}) */
+    private List<String[]> foreignKeys(Connection con) throws SQLException {
+        List<String[]> result = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement("""
+                SELECT TABLE_NAME, CONSTRAINT_NAME
+                FROM information_schema.REFERENTIAL_CONSTRAINTS
+                WHERE CONSTRAINT_SCHEMA = DATABASE() AND (TABLE_NAME = ? OR REFERENCED_TABLE_NAME = ?)
+                """)) {
+            ps.setString(1, TABLE);
+            ps.setString(2, TABLE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) result.add(new String[]{rs.getString(1), rs.getString(2)});
+            }
+        }
+        return result;
+    }
+
+    private boolean primaryKeyHasMeasuredAt(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("""
+                SELECT COUNT(*) FROM information_schema.KEY_COLUMN_USAGE
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?
+                  AND CONSTRAINT_NAME = 'PRIMARY' AND COLUMN_NAME = 'measured_at'
+                """)) {
+            ps.setString(1, TABLE);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    private boolean tableExists(Connection con, String table) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    private LocalDate oldestMonth(Connection con) throws SQLException {
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT MIN(measured_at) FROM " + TABLE)) {
+            if (!rs.next() || rs.getTimestamp(1) == null) return null;
+            return rs.getTimestamp(1).toLocalDateTime().toLocalDate().withDayOfMonth(1);
+        }
+    }
+
+    private boolean tryLock(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, LOCK_NAME);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void unlock(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        }
+    }
+
+    private static void execute(Connection con, String sql) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    /** 월 m 의 데이터를 담는 파티션 정의 (상한은 다음 달 1일) */
+    private static String definition(LocalDate month) {
+        return "PARTITION " + month.format(PARTITION_NAME)
+                + " VALUES LESS THAN ('" + month.plusMonths(1) + " 00:00:00')";
+    }
+
+    /** 'YYYY-MM-DD hh:mm:ss' → LocalDate, MAXVALUE → null */
+    private static LocalDate parseBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) return null;
+        String s = description.replace("'", "").trim();
+        return LocalDate.parse(s.substring(0, 10));
+    }
+
+    private record Partition(String name, LocalDate upperBound, long rows) {}
+}
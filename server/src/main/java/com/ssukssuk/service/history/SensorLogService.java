@@ -6,14 +6,20 @@ import com.ssukssuk.domain.history.SensorLog;
 import com.ssukssuk.domain.plant.UserPlant;
 import com.ssukssuk.dto.history.SensorLogResponse;
 import com.ssukssuk.infra.mqtt.dto.SensorUplinkMessage;
+import com.ssukssuk.infra.series.SensorSample;
+import com.ssukssuk.infra.series.SensorSeriesStore;
 import com.ssukssuk.repository.history.SensorLogRepository;
 import com.ssukssuk.repository.plant.UserPlantRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -21,13 +27,68 @@ public class SensorLogService {
 
     private final SensorLogRepository sensorLogRepository;
     private final UserPlantRepository userPlantRepository;
+    private final SensorSeriesStore sensorSeriesStore;
+    private final LatestReadingCache latestReadingCache;
 
-    // MQTT 수신용 - status 포함 버전
-    public Long saveFromMqttReturnId(SensorUplinkMessage msg, LocalDateTime measuredAt) {
-        UserPlant plant = userPlantRepository.findById(msg.getPlantId())
-                .orElseThrow(() -> new CustomException(ErrorCode.PLANT_NOT_FOUND));
+    // MQTT 수신용 - status 포함 버전 (이벤트가 참조하는 측정값)
+    // 식물은 바인딩 검증에서 이미 확인했으므로 참조만 건다 (SELECT 없음)
+    public Long saveFromMqttReturnId(TelemetryContext ctx) {
+        UserPlant plant = userPlantRepository.getReferenceById(ctx.getPlantId());
 
-        SensorLog log = SensorLog.builder()
+        SensorLog saved = sensorLogRepository.save(toSensorLog(plant, ctx.getMsg(), ctx.getMeasuredAt()));
+        // 시계열이 sensor_log 밖에 있으면 이벤트 측정값도 같이 남겨야 구간 조회에 빠지지 않는다
+        afterCommit(ctx.getPlantId(), toSample(saved), !sensorSeriesStore.includesSensorLog());
+        return saved.getSensorLogId();
+    }
+
+    // MQTT 수신용 - sensor_log_id 가 필요 없는 주기 데이터: 커밋 후 시계열 저장소로
+    // (mysql: write-behind 배치로 sensor_log, segment: 압축 세그먼트 파일)
+    public void saveFromMqttDeferred(SensorUplinkMessage msg, LocalDateTime measuredAt) {
+        afterCommit(msg.getPlantId(), toSample(toSensorLog(null, msg, measuredAt)), true);
+    }
+
+    // 커밋된 측정값만 시계열 저장소와 최신값 캐시에 반영
+    private void afterCommit(Long plantId, SensorSample sample, boolean appendToStore) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(plantId, sample, appendToStore);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        publish(plantId, sample, appendToStore);
+                    }
+                }
+        );
+    }
+
+    // 업링크는 이미 커밋됐으므로 여기서 예외를 내면 안 된다 (남은 afterCommit 이 건너뛰어지고 호출자가 실패로 보고
+    // 메시지 전체를 재처리한다). 단계별로 잡아 로그만 남기고, 행 재시도는 저장소가 맡는다
+    private void publish(Long plantId, SensorSample sample, boolean appendToStore) {
+        if (appendToStore) {
+            try {
+                sensorSeriesStore.append(plantId, sample);
+            } catch (RuntimeException e) {
+                log.error("[SENSOR_LOG] series append failed after commit. plantId={}, cause={}", plantId, e.toString());
+            }
+        }
+        try {
+            latestReadingCache.update(plantId, sample);
+        } catch (RuntimeException e) {
+            log.warn("[SENSOR_LOG] latest cache update failed after commit. plantId={}, cause={}", plantId, e.toString());
+        }
+    }
+
+    private SensorSample toSample(SensorLog s) {
+        return SensorSample.of(s.getMeasuredAt(),
+                s.getTemperature(), s.getHumidity(), s.getWaterLevel(), s.getNutrientConc(),
+                s.getTemperatureStatus(), s.getHumidityStatus(),
+                s.getWaterLevelStatus(), s.getNutrientConcStatus());
+    }
+
+    private SensorLog toSensorLog(UserPlant plant, SensorUplinkMessage msg, LocalDateTime measuredAt) {
+        return SensorLog.builder()
                 .plant(plant)
                 .measuredAt(measuredAt != null ? measuredAt : LocalDateTime.now())
                 .temperature(msg.getTemperature())
@@ -40,8 +101,6 @@ public class SensorLogService {
                 .nutrientConcStatus(convertStatus(msg.getNutrientConcStatus()))
                 .receivedAt(LocalDateTime.now())
                 .build();
-
-        return sensorLogRepository.save(log).getSensorLogId();
     }
 
     private SensorLog.SensorStatus convertStatus(SensorUplinkMessage.SensorStatus status) {
@@ -56,16 +115,15 @@ public class SensorLogService {
     // 최신 센서값 조회
     @Transactional(readOnly = true)
     public SensorLogResponse getLatestSensor(Long plantId) {
-        SensorLog log = sensorLogRepository
-                .findTopByPlant_PlantIdOrderByMeasuredAtDesc(plantId)
+        SensorSample latest = latestReadingCache.get(plantId)
                 .orElseThrow(() -> new CustomException(ErrorCode.SENSOR_LOG_NOT_FOUND));
 
         return SensorLogResponse.builder()
-                .measuredAt(log.getMeasuredAt())
-                .temperature(log.getTemperature())
-                .humidity(log.getHumidity())
-                .waterLevel(log.getWaterLevel())
-                .nutrientConc(log.getNutrientConc())
+                .measuredAt(latest.measuredAtLocal())
+                .temperature(latest.temperatureOrNull())
+                .humidity(latest.humidityOrNull())
+                .waterLevel(latest.waterLevelOrNull())
+                .nutrientConc(latest.nutrientConcOrNull())
                 .build();
     }
 }
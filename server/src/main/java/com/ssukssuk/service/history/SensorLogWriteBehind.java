@@ -0,0 +1,304 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.domain.history.SensorLog;
+import com.ssukssuk.infra.series.SensorSample;
+import com.ssukssuk.infra.mqtt.spool.TransientFailures;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PERIODIC 센서 로그 write-behind.
+ *
+ * 이벤트와 연결되지 않는 주기 데이터는 sensor_log_id 가 필요 없으므로 큐에 모았다가
+ * batch-size 개 또는 linger-ms 가 지나면 JDBC 배치 한 번으로 넣는다.
+ * (IDENTITY 라 Hibernate 는 배치를 못 하지만 JDBC 배치는 가능하고,
+ *  rewriteBatchedStatements=true 면 드라이버가 multi-row INSERT 로 바꾼다)
+ *
+ * - 큐가 가득 찼거나 종료 중이면 offer 가 false → 호출자가 insertNowOrRetry 로 동기 INSERT
+ *   (커밋 후 콜백에서 불리므로 예외를 밖으로 내지 않는다. 실패한 행은 retry-capacity 크기의 재시도 큐로,
+ *    그마저 가득 차면 dropped 로 집계하고 버린다. 업링크 전체를 다시 처리하지 않는다)
+ * - DB 장애(일시적)면 같은 배치를 백오프로 재시도
+ * - 그 외 오류면 한 행씩 넣어 문제 행만 버린다
+ *
+ * 내구성: 큐는 메모리에만 있다. 행은 MQTT ack 와 멱등 마크가 끝난 뒤 큐에 들어가므로
+ * 디바이스 재전송으로도 복구되지 않는다. 프로세스가 죽으면 큐에 남은 행(최대 queue-capacity + retry-capacity 개)과
+ * 재시도 중인 배치를 모두 잃는다. 정상 종료 시에는 SHUTDOWN_AWAIT_MILLIS 동안 마저 쓰고,
+ * 그래도 남은 행은 dropped 로 집계한다. 주기 데이터라 이 손실을 감수하는 대신,
+ * 이벤트와 연결되는 행은 이 경로를 타지 않는다.
+ */
+@Slf4j
+@Component
+public class SensorLogWriteBehind {
+
+    static final String INSERT_SQL = """
+            INSERT INTO sensor_log (plant_id, measured_at, temperature, humidity, water_level, nutrient_conc,
+                                    temperature_status, humidity_status, water_level_status, nutrient_conc_status,
+                                    received_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final long SHUTDOWN_AWAIT_MILLIS = 30_000;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final int SHUTDOWN_RETRIES = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<Row> queue;
+    // 동기 INSERT 까지 실패한 행 (writer 가 다음 배치에 먼저 넣는다)
+    private final BlockingQueue<Row> retryQueue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter retried;
+    private final Timer batchTimer;
+
+    public SensorLogWriteBehind(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${sensor-log.write-behind.enabled:true}") boolean enabled,
+            @Value("${sensor-log.write-behind.batch-size:500}") int batchSize,
+            @Value("${sensor-log.write-behind.linger-ms:100}") long lingerMs,
+            @Value("${sensor-log.write-behind.queue-capacity:20000}") int queueCapacity,
+            @Value("${sensor-log.write-behind.retry-capacity:5000}") int retryCapacity
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.retryQueue = new ArrayBlockingQueue<>(Math.max(1, retryCapacity));
+
+        this.written = Counter.builder("sensor_log.write_behind.rows")
+                .description("write-behind 로 저장한 sensor_log 행 수")
+                .tag("result", "written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("sensor_log.write_behind.rows")
+                .description("write-behind 로 저장하지 못하고 버린 sensor_log 행 수")
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        this.retried = Counter.builder("sensor_log.write_behind.retries")
+                .description("DB 일시 장애로 다시 시도한 배치 수")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("sensor_log.write_behind.batch")
+                .description("배치 INSERT 한 번에 걸린 시간")
+                .register(meterRegistry);
+        Gauge.builder("sensor_log.write_behind.queued", this, w -> w.queue.size() + w.retryQueue.size())
+                .description("아직 쓰지 않은 sensor_log 행 수")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::run, "sensor-log-writer");
+        this.writer.setDaemon(true);
+        if (enabled) writer.start();
+
+        log.info("[SENSOR_LOG] write-behind enabled={}, batchSize={}, lingerMs={}, queueCapacity={}",
+                enabled, batchSize, lingerMs, queueCapacity);
+    }
+
+    /** @return 큐에 넣었으면 true, 꺼져 있거나 가득 찼으면 false (호출자가 직접 저장) */
+    public boolean offer(long plantId, SensorSample sample) {
+        if (!enabled || !running) return false;
+        return queue.offer(Row.of(plantId, sample));
+    }
+
+    /**
+     * 큐를 거치지 않고 한 행 INSERT (큐가 가득 찼을 때).
+     * 실패하면 그 행만 재시도 큐에 넣고, 재시도 큐도 가득 차면 버린다. 예외는 던지지 않는다.
+     */
+    public void insertNowOrRetry(long plantId, SensorSample sample) {
+        Row row = Row.of(plantId, sample);
+        try {
+            jdbcTemplate.update(INSERT_SQL, row::bind);
+            written.increment();
+        } catch (RuntimeException e) {
+            if (enabled && running && retryQueue.offer(row)) {
+                log.warn("[SENSOR_LOG] direct insert failed, queued for retry. plantId={}, measuredAt={}, cause={}",
+                        plantId, row.measuredAt(), e.toString());
+                return;
+            }
+            dropped.increment();
+            log.error("[SENSOR_LOG] direct insert failed, row dropped. plantId={}, measuredAt={}, cause={}",
+                    plantId, row.measuredAt(), e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) return;
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(SHUTDOWN_AWAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int unwritten = queue.size() + retryQueue.size();
+        if (unwritten > 0) {
+            dropped.increment(unwritten);
+            log.warn("[SENSOR_LOG] write-behind shutdown with unwritten rows={}", unwritten);
+        }
+    }
+
+    private void run() {
+        List<Row> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !retryQueue.isEmpty()) {
+            try {
+                // 동기 INSERT 에 실패했던 행을 먼저
+                if (retryQueue.drainTo(batch, batchSize) == 0) collect(batch);
+            } catch (InterruptedException e) {
+                // 종료 신호: 남은 행은 아래 루프에서 마저 쓴다
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                writeWithRetry(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /** 첫 행을 기다린 뒤 batch-size 가 차거나 linger 가 지날 때까지 모은다 */
+    private void collect(List<Row> batch) throws InterruptedException {
+        if (!running) {
+            queue.drainTo(batch, batchSize);
+            return;
+        }
+        Row first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) return;
+        batch.add(first);
+
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.size() >= batchSize) break;
+            long remain = deadline - System.nanoTime();
+            if (remain <= 0) break;
+            Row next = queue.poll(remain, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            batch.add(next);
+        }
+    }
+
+    private void writeWithRetry(List<Row> batch) {
+        long backoff = 500;
+        int attempts = 0;
+        while (true) {
+            try {
+                writeBatch(batch);
+                return;
+            } catch (DataAccessException e) {
+                if (!TransientFailures.isTransient(e)) {
+                    log.warn("[SENSOR_LOG] batch insert failed, retrying row by row. rows={}, cause={}",
+                            batch.size(), e.toString());
+                    writeOneByOne(batch);
+                    return;
+                }
+                attempts++;
+                if (!running && attempts >= SHUTDOWN_RETRIES) {
+                    dropped.increment(batch.size());
+                    log.error("[SENSOR_LOG] giving up on batch during shutdown. rows={}", batch.size(), e);
+                    return;
+                }
+                retried.increment();
+                log.warn("[SENSOR_LOG] batch insert failed (transient), retry in {}ms. rows={}, queued={}, cause={}",
+                        backoff, batch.size(), queue.size(), e.toString());
+                sleepQuietly(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private void writeBatch(List<Row> batch) {
+        batchTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, row) -> row.bind(ps)));
+        written.increment(batch.size());
+    }
+
+    private void writeOneByOne(List<Row> batch) {
+        for (Row row : batch) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, row::bind);
+                written.increment();
+            } catch (DataAccessException e) {
+                dropped.increment();
+                log.warn("[SENSOR_LOG] row dropped. plantId={}, measuredAt={}, cause={}",
+                        row.plantId(), row.measuredAt(), e.toString());
+            }
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // 종료 중이면 running=false 로 재시도 횟수가 제한된다
+        }
+    }
+
+    private record Row(
+            Long plantId,
+            LocalDateTime measuredAt,
+            Float temperature,
+            Float humidity,
+            Float waterLevel,
+            Float nutrientConc,
+            SensorLog.SensorStatus temperatureStatus,
+            SensorLog.SensorStatus humidityStatus,
+            SensorLog.SensorStatus waterLevelStatus,
+            SensorLog.SensorStatus nutrientConcStatus,
+            LocalDateTime receivedAt
+    ) {
+        static Row of(long plantId, SensorSample s) {
+            return new Row(plantId, s.measuredAtLocal(),
+                    s.temperatureOrNull(), s.humidityOrNull(), s.waterLevelOrNull(), s.nutrientConcOrNull(),
+                    s.statusOf(SensorSample.TEMPERATURE), s.statusOf(SensorSample.HUMIDITY),
+                    s.statusOf(SensorSample.WATER_LEVEL), s.statusOf(SensorSample.NUTRIENT_CONC),
+                    LocalDateTime.now());
+        }
+
+        void bind(PreparedStatement ps) throws SQLException {
+            ps.setLong(1, plantId);
+            ps.setTimestamp(2, Timestamp.valueOf(measuredAt));
+            setFloat(ps, 3, temperature);
+            setFloat(ps, 4, humidity);
+            setFloat(ps, 5, waterLevel);
+            setFloat(ps, 6, nutrientConc);
+            setStatus(ps, 7, temperatureStatus);
+            setStatus(ps, 8, humidityStatus);
+            setStatus(ps, 9, waterLevelStatus);
+            setStatus(ps, 10, nutrientConcStatus);
+            if (receivedAt != null) ps.setTimestamp(11, Timestamp.valueOf(receivedAt));
+            else ps.setNull(11, Types.TIMESTAMP);
+        }
+
+        private static void setFloat(PreparedStatement ps, int i, Float v) throws SQLException {
+            if (v != null) ps.setFloat(i, v);
+            else ps.setNull(i, Types.FLOAT);
+        }
+
+        private static void setStatus(PreparedStatement ps, int i, SensorLog.SensorStatus s) throws SQLException {
+            if (s != null) ps.setString(i, s.name());
+            else ps.setNull(i, Types.VARCHAR);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.domain.history.SensorRollupResolution;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * sensor_log 원본으로 집계 테이블을 다시 계산한다 (기존 데이터 이관, 누락 보정).
+ *
+ * 하루씩 GROUP BY 해서 해상도별 행을 덮어쓴다. 지표별 last 는 창 함수(FIRST_VALUE)로 고른다 (MySQL 8). 오늘 구간은 수신 경로가 계속 더하고 있으므로
+ * 덮어쓰면 이미 반영된 증분이 사라진다 → 끝은 오늘 0시로 자른다.
+ */
+@Service
+public class SensorRollupBackfill extends DailyBackfill {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SensorRollupBackfill(JdbcTemplate jdbcTemplate) {
+        super("SENSOR_ROLLUP");
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected LocalDate endLimit() {
+        return LocalDate.now(KST);
+    }
+
+    @Override
+    protected long rebuild(LocalDate day, Long plantId) {
+        long rows = 0;
+        for (SensorRollupResolution r : SensorRollupResolution.values()) {
+            rows += rebuild(r, day.atStartOfDay(), day.plusDays(1).atStartOfDay(), plantId);
+        }
+        return rows;
+    }
+
+    private int rebuild(SensorRollupResolution resolution, LocalDateTime from, LocalDateTime to, Long plantId) {
+        String bucket = "DATE_FORMAT(measured_at, '" + resolution.bucketFormat() + "')";
+
+        // 안쪽: 행마다 버킷과 지표별 "가장 늦은 NULL 아닌 값" (수신 경로의 last 와 같은 기준)
+        StringJoiner rows = new StringJoiner(",\n           ");
+        rows.add("plant_id").add("measured_at").add(bucket + " AS bucket_start");
+        StringJoiner select = new StringJoiner(",\n       ");
+        select.add("plant_id")
+                .add("bucket_start")
+                .add("COUNT(*) AS sample_count")
+                .add("MAX(measured_at) AS last_at");
+        StringJoiner overwrite = new StringJoiner(", ");
+        overwrite.add("sample_count = n.sample_count").add("last_at = n.last_at");
+        for (String m : SensorRollupService.metrics()) {
+            rows.add(m)
+                    .add("FIRST_VALUE(" + m + ") OVER (PARTITION BY plant_id, " + bucket
+                            + " ORDER BY " + m + " IS NULL, measured_at DESC) AS " + m + "_last");
+            select.add("MIN(" + m + ") AS " + m + "_min")
+                    .add("MAX(" + m + ") AS " + m + "_max")
+                    .add("SUM(" + m + ") AS " + m + "_sum")
+                    .add("COUNT(" + m + ") AS " + m + "_cnt")
+                    // 버킷 안 모든 행이 같은 값이라 MAX 는 그 값을 고르기만 한다
+                    .add("MAX(" + m + "_last) AS " + m + "_last");
+            for (String suffix : new String[]{"_min", "_max", "_sum", "_cnt", "_last"}) {
+                overwrite.add(m + suffix + " = n." + m + suffix);
+            }
+        }
+
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(from));
+        args.add(Timestamp.valueOf(to));
+        String plantFilter = "";
+        if (plantId != null) {
+            plantFilter = " AND plant_id = ?";
+            args.add(plantId);
+        }
+
+        String sql = "INSERT INTO " + resolution.table() + " (" + SensorRollupService.columns() + ")\n"
+                + "SELECT * FROM (\n"
+                + "    SELECT " + select + "\n"
+                + "    FROM (\n"
+                + "        SELECT " + rows + "\n"
+                + "        FROM sensor_log\n"
+                + "        WHERE measured_at >= ? AND measured_at < ?" + plantFilter + "\n"
+                + "    ) AS r\n"
+                + "    GROUP BY plant_id, bucket_start\n"
+                + ") AS n\n"
+                + "ON DUPLICATE KEY UPDATE " + overwrite;
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+}
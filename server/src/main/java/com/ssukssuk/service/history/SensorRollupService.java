@@ -0,0 +1,365 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.common.exception.CustomException;
+import com.ssukssuk.common.exception.ErrorCode;
+import com.ssukssuk.domain.history.SensorRollupResolution;
+import com.ssukssuk.dto.history.SensorRollupResponse;
+import com.ssukssuk.infra.mqtt.dto.SensorUplinkMessage;
+import com.ssukssuk.infra.mqtt.spool.TransientFailures;
+import com.ssukssuk.repository.plant.UserPlantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 식물별 센서 집계 (sensor_rollup_minute / hour / day).
+ *
+ * 수신 경로: 커밋된 측정값을 메모리 누적기(해상도 × 식물 × 구간)에 더하고 flush-interval-ms 마다
+ * 해상도별 JDBC 배치 upsert 로 기존 행과 합친다 (min/max 비교, sum/cnt 덧셈, last 는 더 늦은 쪽).
+ * 프로세스가 죽으면 마지막 주기 분량은 빠지므로 필요하면 SensorRollupBackfill 로 다시 계산한다.
+ */
+@Slf4j
+@Service
+public class SensorRollupService {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final String[] METRICS = {"temperature", "humidity", "water_level", "nutrient_conc"};
+    private static final SensorRollupResolution[] RESOLUTIONS = SensorRollupResolution.values();
+    private static final int DELETE_CHUNK = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserPlantRepository userPlantRepository;
+    private final boolean enabled;
+    private final int minuteRetentionDays;
+    private final int hourRetentionDays;
+
+    private final Map<SensorRollupResolution, String> upsertSql = new EnumMap<>(SensorRollupResolution.class);
+
+    // flush 가 버퍼를 바꿔치기하는 동안만 쓰기를 막는다 (누적 자체는 read lock 으로 동시에)
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile ConcurrentHashMap<Key, Accumulator> buffer = new ConcurrentHashMap<>();
+
+    private final Counter flushedRows;
+    private final Counter droppedRows;
+
+    public SensorRollupService(
+            JdbcTemplate jdbcTemplate,
+            UserPlantRepository userPlantRepository,
+            MeterRegistry meterRegistry,
+            @Value("${sensor-rollup.enabled:true}") boolean enabled,
+            @Value("${sensor-rollup.minute-retention-days:14}") int minuteRetentionDays,
+            @Value("${sensor-rollup.hour-retention-days:400}") int hourRetentionDays
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userPlantRepository = userPlantRepository;
+        this.enabled = enabled;
+        this.minuteRetentionDays = minuteRetentionDays;
+        this.hourRetentionDays = hourRetentionDays;
+        for (SensorRollupResolution r : RESOLUTIONS) {
+            upsertSql.put(r, buildIncrementalUpsert(r.table()));
+        }
+
+        this.flushedRows = Counter.builder("sensor_rollup.flushed")
+                .description("upsert 한 집계 행 수 (해상도 합계)")
+                .register(meterRegistry);
+        this.droppedRows = Counter.builder("sensor_rollup.dropped")
+                .description("오류로 반영하지 못하고 버린 집계 행 수")
+                .register(meterRegistry);
+    }
+
+    /** 현재 트랜잭션이 커밋되면 집계에 반영 */
+    public void recordAfterCommit(SensorUplinkMessage msg, LocalDateTime measuredAt) {
+        if (!enabled) return;
+        Long plantId = msg.getPlantId();
+        float[] values = {
+                nan(msg.getTemperature()), nan(msg.getHumidity()),
+                nan(msg.getWaterLevel()), nan(msg.getNutrientConc())
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(plantId, measuredAt, values);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        record(plantId, measuredAt, values);
+                    }
+                }
+        );
+    }
+
+    /** @param values temperature, humidity, water_level, nutrient_conc (없으면 NaN) */
+    void record(Long plantId, LocalDateTime measuredAt, float[] values) {
+        swapLock.readLock().lock();
+        try {
+            for (SensorRollupResolution r : RESOLUTIONS) {
+                Key key = new Key(r, plantId, r.truncate(measuredAt));
+                buffer.computeIfAbsent(key, k -> new Accumulator()).add(measuredAt, values);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sensor-rollup.flush-interval-ms:10000}")
+    public void flush() {
+        if (buffer.isEmpty()) return;
+
+        ConcurrentHashMap<Key, Accumulator> current;
+        swapLock.writeLock().lock();
+        try {
+            current = buffer;
+            buffer = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        Map<SensorRollupResolution, List<Map.Entry<Key, Accumulator>>> byResolution =
+                new EnumMap<>(SensorRollupResolution.class);
+        for (Map.Entry<Key, Accumulator> e : current.entrySet()) {
+            byResolution.computeIfAbsent(e.getKey().resolution(), r -> new ArrayList<>()).add(e);
+        }
+        byResolution.forEach(this::upsert);
+    }
+
+    /** 오래된 분/시 집계 삭제 (일 집계는 유지) */
+    @Scheduled(cron = "${sensor-rollup.retention-cron:0 10 4 * * *}", zone = "Asia/Seoul")
+    public void purgeExpired() {
+        purge(SensorRollupResolution.MINUTE, minuteRetentionDays);
+        purge(SensorRollupResolution.HOUR, hourRetentionDays);
+    }
+
+    public SensorRollupResponse getRollups(Long userId, Long plantId, SensorRollupResolution resolution,
+                                           LocalDateTime from, LocalDateTime to) {
+        if (!userPlantRepository.existsByPlantIdAndUserId(plantId, userId)) {
+            throw new CustomException(ErrorCode.PLANT_ACCESS_DENIED);
+        }
+
+        LocalDateTime end = to != null ? to : LocalDateTime.now(KST);
+        LocalDateTime start = from != null ? from : end.minus(resolution.defaultSpan());
+        if (!start.isBefore(end) || start.plus(resolution.maxSpan()).isBefore(end)) {
+            throw new CustomException(ErrorCode.INVALID_TIME_RANGE);
+        }
+
+        List<SensorRollupResponse.Point> points = jdbcTemplate.query(
+                "SELECT * FROM " + resolution.table()
+                        + " WHERE plant_id = ? AND bucket_start >= ? AND bucket_start < ? ORDER BY bucket_start",
+                (rs, i) -> toPoint(rs),
+                plantId, Timestamp.valueOf(resolution.truncate(start)), Timestamp.valueOf(end));
+
+        return SensorRollupResponse.builder()
+                .plantId(plantId)
+                .resolution(resolution)
+                .from(start)
+                .to(end)
+                .points(points)
+                .build();
+    }
+
+    private void upsert(SensorRollupResolution resolution, List<Map.Entry<Key, Accumulator>> rows) {
+        try {
+            jdbcTemplate.batchUpdate(upsertSql.get(resolution), rows, 500,
+                    (ps, e) -> bind(ps, e.getKey(), e.getValue()));
+            flushedRows.increment(rows.size());
+        } catch (DataAccessException ex) {
+            if (TransientFailures.isTransient(ex)) {
+                // 다음 주기에 다시 (그사이 들어온 값과 합쳐진다)
+                log.warn("[SENSOR_ROLLUP] flush failed (transient), requeued. resolution={}, rows={}, cause={}",
+                        resolution, rows.size(), ex.toString());
+                requeue(rows);
+            } else {
+                droppedRows.increment(rows.size());
+                log.error("[SENSOR_ROLLUP] flush failed, dropped. resolution={}, rows={}", resolution, rows.size(), ex);
+            }
+        }
+    }
+
+    private void requeue(List<Map.Entry<Key, Accumulator>> rows) {
+        swapLock.readLock().lock();
+        try {
+            for (Map.Entry<Key, Accumulator> e : rows) {
+                buffer.merge(e.getKey(), e.getValue(), Accumulator::mergeFrom);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void purge(SensorRollupResolution resolution, int retentionDays) {
+        if (retentionDays <= 0) return;
+        LocalDateTime cutoff = LocalDate.now(KST).minusDays(retentionDays).atStartOfDay();
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(
+                    "DELETE FROM " + resolution.table() + " WHERE bucket_start < ? LIMIT " + DELETE_CHUNK,
+                    Timestamp.valueOf(cutoff));
+            total += deleted;
+        } while (deleted == DELETE_CHUNK);
+        if (total > 0) {
+            log.info("[SENSOR_ROLLUP] purged {} rows before {}. table={}", total, cutoff, resolution.table());
+        }
+    }
+
+    /** 컬럼 순서: plant_id, bucket_start, sample_count, last_at, (metric)_min/max/sum/cnt/last × 4 */
+    static String columns() {
+        StringJoiner cols = new StringJoiner(", ");
+        cols.add("plant_id").add("bucket_start").add("sample_count").add("last_at");
+        for (String m : METRICS) {
+            cols.add(m + "_min").add(m + "_max").add(m + "_sum").add(m + "_cnt").add(m + "_last");
+        }
+        return cols.toString();
+    }
+
+    static String[] metrics() {
+        return METRICS.clone();
+    }
+
+    // 기존 행과 합치는 upsert (ON DUPLICATE KEY UPDATE 는 왼쪽부터 평가되므로 last_at 을 맨 마지막에 바꾼다)
+    private static String buildIncrementalUpsert(String table) {
+        int columnCount = 4 + METRICS.length * 5;
+        StringJoiner placeholders = new StringJoiner(", ");
+        for (int i = 0; i < columnCount; i++) placeholders.add("?");
+
+        StringJoiner updates = new StringJoiner(",\n    ");
+        for (String m : METRICS) {
+            updates.add(m + "_min = IF(" + m + "_min IS NULL OR n." + m + "_min < " + m + "_min, COALESCE(n." + m + "_min, " + m + "_min), " + m + "_min)");
+            updates.add(m + "_max = IF(" + m + "_max IS NULL OR n." + m + "_max > " + m + "_max, COALESCE(n." + m + "_max, " + m + "_max), " + m + "_max)");
+            updates.add(m + "_sum = IF(n." + m + "_sum IS NULL, " + m + "_sum, COALESCE(" + m + "_sum, 0) + n." + m + "_sum)");
+            updates.add(m + "_cnt = COALESCE(" + m + "_cnt, 0) + n." + m + "_cnt");
+            updates.add(m + "_last = IF(n." + m + "_last IS NOT NULL AND (" + m + "_last IS NULL OR n.last_at >= last_at), n."
+                    + m + "_last, " + m + "_last)");
+        }
+        updates.add("sample_count = sample_count + n.sample_count");
+        updates.add("last_at = GREATEST(last_at, n.last_at)");
+
+        return "INSERT INTO " + table + " (" + columns() + ")\nVALUES (" + placeholders + ") AS n\n"
+                + "ON DUPLICATE KEY UPDATE\n    " + updates;
+    }
+
+    private static void bind(PreparedStatement ps, Key key, Accumulator acc) throws SQLException {
+        synchronized (acc) {
+            int i = 1;
+            ps.setLong(i++, key.plantId());
+            ps.setTimestamp(i++, Timestamp.valueOf(key.bucketStart()));
+            ps.setInt(i++, acc.samples);
+            ps.setTimestamp(i++, Timestamp.valueOf(acc.lastAt));
+            for (int m = 0; m < METRICS.length; m++) {
+                boolean has = acc.count[m] > 0;
+                setFloat(ps, i++, has ? acc.min[m] : Float.NaN);
+                setFloat(ps, i++, has ? acc.max[m] : Float.NaN);
+                if (has) ps.setDouble(i++, acc.sum[m]);
+                else ps.setNull(i++, Types.DOUBLE);
+                ps.setInt(i++, acc.count[m]);
+                setFloat(ps, i++, has ? acc.last[m] : Float.NaN);
+            }
+        }
+    }
+
+    private static SensorRollupResponse.Point toPoint(ResultSet rs) throws SQLException {
+        return SensorRollupResponse.Point.builder()
+                .bucketStart(rs.getTimestamp("bucket_start").toLocalDateTime())
+                .sampleCount(rs.getInt("sample_count"))
+                .temperature(toStat(rs, "temperature"))
+                .humidity(toStat(rs, "humidity"))
+                .waterLevel(toStat(rs, "water_level"))
+                .nutrientConc(toStat(rs, "nutrient_conc"))
+                .build();
+    }
+
+    private static SensorRollupResponse.Stat toStat(ResultSet rs, String metric) throws SQLException {
+        int cnt = rs.getInt(metric + "_cnt");
+        if (cnt == 0) return null;
+        return SensorRollupResponse.Stat.builder()
+                .min(rs.getFloat(metric + "_min"))
+                .max(rs.getFloat(metric + "_max"))
+                .avg((float) (rs.getDouble(metric + "_sum") / cnt))
+                .last(rs.getObject(metric + "_last") != null ? rs.getFloat(metric + "_last") : null)
+                .build();
+    }
+
+    private static void setFloat(PreparedStatement ps, int i, float v) throws SQLException {
+        if (Float.isNaN(v)) ps.setNull(i, Types.FLOAT);
+        else ps.setFloat(i, v);
+    }
+
+    private static float nan(Float v) {
+        return v != null ? v : Float.NaN;
+    }
+
+    private record Key(SensorRollupResolution resolution, Long plantId, LocalDateTime bucketStart) {}
+
+    /** 한 구간의 누적값 (모니터 안에서만 접근) */
+    private static final class Accumulator {
+
+        private int samples;
+        private LocalDateTime lastAt;
+        private final float[] min = new float[METRICS.length];
+        private final float[] max = new float[METRICS.length];
+        private final double[] sum = new double[METRICS.length];
+        private final int[] count = new int[METRICS.length];
+        private final float[] last = new float[METRICS.length];
+        private final LocalDateTime[] lastAtOf = new LocalDateTime[METRICS.length];
+
+        synchronized void add(LocalDateTime at, float[] values) {
+            samples++;
+            if (lastAt == null || !at.isBefore(lastAt)) lastAt = at;
+            for (int m = 0; m < values.length; m++) {
+                float v = values[m];
+                if (Float.isNaN(v)) continue;
+                if (count[m] == 0 || v < min[m]) min[m] = v;
+                if (count[m] == 0 || v > max[m]) max[m] = v;
+                sum[m] += v;
+                count[m]++;
+                if (lastAtOf[m] == null || !at.isBefore(lastAtOf[m])) {
+                    last[m] = v;
+                    lastAtOf[m] = at;
+                }
+            }
+        }
+
+        synchronized Accumulator mergeFrom(Accumulator other) {
+            synchronized (other) {
+                samples += other.samples;
+                if (lastAt == null || (other.lastAt != null && other.lastAt.isAfter(lastAt))) lastAt = other.lastAt;
+                for (int m = 0; m < METRICS.length; m++) {
+                    if (other.count[m] == 0) continue;
+                    if (count[m] == 0 || other.min[m] < min[m]) min[m] = other.min[m];
+                    if (count[m] == 0 || other.max[m] > max[m]) max[m] = other.max[m];
+                    sum[m] += other.sum[m];
+                    count[m] += other.count[m];
+                    if (lastAtOf[m] == null || !other.lastAtOf[m].isBefore(lastAtOf[m])) {
+                        last[m] = other.last[m];
+                        lastAtOf[m] = other.lastAtOf[m];
+                    }
+                }
+            }
+            return this;
+        }
+    }
+}
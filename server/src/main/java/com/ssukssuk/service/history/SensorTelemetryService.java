@@ -3,125 +3,270 @@ package com.ssukssuk.service.history;
 import com.ssukssuk.infra.mqtt.dto.SensorUplinkMessage;
 import com.ssukssuk.domain.history.SensorEvent;
 import com.ssukssuk.domain.notification.Notification;
+import com.ssukssuk.domain.plant.Species;
 import com.ssukssuk.service.notification.NotificationService;
+import com.ssukssuk.service.device.DeviceBindingValidator;
 import com.ssukssuk.service.plant.PlantStatusService;
 import com.ssukssuk.service.push.PushService;
+import com.ssukssuk.infra.mqtt.spool.TransientFailures;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class SensorTelemetryService {
 
+    private static final long DEBOUNCE_RETRY_MILLIS = 10_000;
+
+    private final DeviceBindingValidator deviceBindingValidator;
     private final SensorLogService sensorLogService;
+    private final SensorRollupService sensorRollupService;
     private final SensorEventService sensorEventService;
+    private final SensorAnomalyDetector sensorAnomalyDetector;
+    private final SensorEventDebouncer sensorEventDebouncer;
     private final NotificationService notificationService;
     private final PlantStatusService plantStatusService;
     private final PushService pushService;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * 업링크 한 건 처리.
+     * 바인딩 검증 SELECT 한 번으로 TelemetryContext 를 만들고, 이후 단계는 조회 없이 id/참조로 INSERT 만 한다.
+     */
     @Transactional
-    public void handleUplink(SensorUplinkMessage msg, LocalDateTime measuredAt) {
+    public void handleUplink(String serial, SensorUplinkMessage msg, LocalDateTime measuredAt) {
+
+        // 0) 디바이스-식물 검증 + 식물/소유자/PlantStatus/종 조회 (SELECT 1회)
+        TelemetryContext ctx = new TelemetryContext(
+                msg, measuredAt, deviceBindingValidator.resolve(serial, msg.getPlantId()));
 
-        // 1) sensor_log 무조건 INSERT (status 포함)
-        Long sensorLogId = sensorLogService.saveFromMqttReturnId(msg, measuredAt);
+        // 0-1) 이 메시지의 status 로 뒤집힌 보류 전이 취소 (디바운스)
+        sensorEventDebouncer.observe(ctx);
+
+        // 0-2) 서버 측 이상 감지 (온도/습도, 메모리 연산만)
+        //      열린 이벤트도 보류 전이도 없는 RESOLVE(재시작 직후 첫 판정)는 할 일이 없으므로 여기서 걸러낸다
+        int temperatureTransition = detect(ctx, SensorAnomalyDetector.TEMPERATURE,
+                SensorUplinkMessage.TriggerSensorType.TEMPERATURE);
+        int humidityTransition = detect(ctx, SensorAnomalyDetector.HUMIDITY,
+                SensorUplinkMessage.TriggerSensorType.HUMIDITY);
+        boolean serverEvent = temperatureTransition != SensorAnomalyDetector.NONE
+                || humidityTransition != SensorAnomalyDetector.NONE;
+
+        // 1) sensor_log 저장 (status 포함)
+        //    이벤트가 없는 주기 데이터는 id 가 필요 없으므로 커밋 후 배치로, 나머지는 바로 INSERT
+        boolean periodic = msg.getEventKind() == null
+                || msg.getEventKind() == SensorUplinkMessage.EventKind.PERIODIC;
+        if (periodic && !serverEvent) {
+            sensorLogService.saveFromMqttDeferred(msg, measuredAt);
+        } else {
+            ctx.sensorLogSaved(sensorLogService.saveFromMqttReturnId(ctx));
+        }
+        sensorRollupService.recordAfterCommit(msg, measuredAt);
 
         // 2) PlantStatus 업데이트 (센서값 반영)
-        plantStatusService.updateFromSensor(msg.getPlantId(), msg);
+        plantStatusService.updateFromSensor(ctx.getPlantStatus(), msg);
+
+        // 3) 서버 측 감지 결과 반영 (디바이스 이벤트와 같은 흐름, 디바운스 포함)
+        applyTransition(ctx, SensorUplinkMessage.TriggerSensorType.TEMPERATURE, temperatureTransition);
+        applyTransition(ctx, SensorUplinkMessage.TriggerSensorType.HUMIDITY, humidityTransition);
 
-        // 3) event_kind 분기
+        // 4) event_kind 분기
         if (msg.getEventKind() == null) return;
 
         switch (msg.getEventKind()) {
             case PERIODIC -> { /* 정상 주기 데이터 - 추가 처리 없음 */ }
+            case ANOMALY_DETECTED -> signal(ctx, msg.getTriggerSensorType(), true);
+            case RECOVERY_DONE -> signal(ctx, msg.getTriggerSensorType(), false);
+        }
+    }
 
-            case ANOMALY_DETECTED -> {
-                Optional<SensorEvent> createdOpt = sensorEventService.openOrUpdateAndReturnCreated(
-                        msg.getPlantId(),
-                        msg.getTriggerSensorType(),
-                        sensorLogId,
-                        measuredAt
-                );
+    private int detect(TelemetryContext ctx, int sensor, SensorUplinkMessage.TriggerSensorType triggerType) {
+        if (!sensorAnomalyDetector.isEnabled()) return SensorAnomalyDetector.NONE;
 
-                // 처음 이상치(OPEN 생성)일 때만 알림 테이블 insert
-                createdOpt.ifPresent(createdEvent -> {
-
-                    Notification.NotiTitle title =
-                            mapTriggerToNotiTitle(msg.getTriggerSensorType());
-
-                    // notification 테이블에 알림 저장
-                    // DB만 저장되고 푸시 안 감
-                    Long notificationId =
-                        notificationService.notifySensorAnomalyAndReturnId(
-                                msg.getPlantId(),
-                                createdEvent.getEventId(),
-                                title
-                        );
-
-                    // AFTER COMMIT 푸시 등록
-                    // 트랜잭션 정상 커밋된 경우에만 실행됨
-                    TransactionSynchronizationManager.registerSynchronization(
-                            new TransactionSynchronization() {
-                                @Override
-                                public void afterCommit() {
-                                    pushService.sendNotification(notificationId);
-                                }
-                            }
-                    );
-
-                    // 안읽은 알림 표시
-                    plantStatusService.markUnreadNotification(msg.getPlantId());
-                });
-            }
+        SensorUplinkMessage msg = ctx.getMsg();
+        Species species = ctx.getSpecies();
+        Float value;
+        Float min;
+        Float max;
+        if (sensor == SensorAnomalyDetector.TEMPERATURE) {
+            value = msg.getTemperature();
+            min = species != null ? species.getTempMin() : null;
+            max = species != null ? species.getTempMax() : null;
+        } else {
+            value = msg.getHumidity();
+            min = species != null ? species.getHumMin() : null;
+            max = species != null ? species.getHumMax() : null;
+        }
+        if (value == null) return SensorAnomalyDetector.NONE;
 
-            case RECOVERY_DONE -> {
-                Optional<SensorEvent> resolvedOpt =
-                        sensorEventService.resolveIfOpenAndReturn(
-                            msg.getPlantId(),
-                            msg.getTriggerSensorType(),
-                            sensorLogId,
-                            measuredAt
-                        );
-
-                // 열려있는 이벤트 있으면 종료하고 -> 복구 알림 생성
-                // 없으면 아무것도 안함
-                resolvedOpt.ifPresent(resolvedEvent -> {
-                    Notification.NotiTitle title =
-                            mapTriggerToRecoveryTitle(msg.getTriggerSensorType());
-
-                    Long notificationId =
-                        notificationService.notifySensorRecoveryAndReturnId(
-                                msg.getPlantId(),
-                                resolvedEvent.getEventId(),
-                                title
-                        );
-
-                    TransactionSynchronizationManager.registerSynchronization(
-                            new TransactionSynchronization() {
-                                @Override
-                                public void afterCommit() {
-                                    pushService.sendNotification(notificationId);
-                                }
-                            }
-                    );
-                    // 안읽은 알림 표시
-                    plantStatusService.markUnreadNotification(msg.getPlantId());
-                });
+        int transition = sensorAnomalyDetector.observe(ctx.getPlantId(), sensor, value, orNaN(min), orNaN(max));
+        if (transition == SensorAnomalyDetector.RESOLVE
+                && !sensorEventDebouncer.hasPending(ctx.getPlantId(), triggerType)
+                && !sensorEventService.isOpen(ctx.getPlantId(), triggerType)) {
+            return SensorAnomalyDetector.NONE;
+        }
+        return transition;
+    }
+
+    private void applyTransition(TelemetryContext ctx, SensorUplinkMessage.TriggerSensorType triggerType,
+                                 int transition) {
+        if (transition == SensorAnomalyDetector.OPEN) {
+            signal(ctx, triggerType, true);
+        } else if (transition == SensorAnomalyDetector.RESOLVE) {
+            signal(ctx, triggerType, false);
+        }
+    }
+
+    // 디바운서를 거쳐 바로 처리하거나 보류 (보류분은 commitDebounced 가 확정)
+    private void signal(TelemetryContext ctx, SensorUplinkMessage.TriggerSensorType triggerType, boolean open) {
+        if (sensorEventDebouncer.signal(ctx, triggerType, open) != SensorEventDebouncer.Decision.APPLY) return;
+        if (open) {
+            openEvent(ctx, triggerType);
+        } else {
+            resolveEvent(ctx, triggerType);
+        }
+    }
+
+    /**
+     * 디바운스 기간 동안 뒤집히지 않은 전이 확정 (전이마다 별도 트랜잭션).
+     */
+    @Scheduled(fixedDelayString = "${sensor-debounce.sweep-interval-ms:5000}")
+    public void commitDebounced() {
+        for (SensorEventDebouncer.Pending p : sensorEventDebouncer.drainDue(System.currentTimeMillis())) {
+            commitPending(p);
+        }
+    }
+
+    // 종료 시 기간이 지난 보류만 확정하고, 아직 기간 안인 것은 안정됐는지 모르므로 버린다
+    @PreDestroy
+    public void flushDebounced() {
+        commitDebounced();
+        List<SensorEventDebouncer.Pending> discarded = sensorEventDebouncer.discardAll();
+        if (!discarded.isEmpty()) {
+            log.warn("[SENSOR_DEBOUNCE] shutdown dropped in-window transitions={}", discarded);
+        }
+    }
+
+    /**
+     * 보류 중인 OPEN 을 호출자 트랜잭션 안에서 바로 확정하고 만든 이벤트 id 를 돌려준다.
+     * (OpenEventTable 은 커밋 후에 반영되므로 id 를 직접 넘긴다. 보류도 커밋된 뒤에 빠진다)
+     */
+    @Transactional
+    public Optional<Long> openPendingNow(Long plantId, SensorUplinkMessage.TriggerSensorType triggerType) {
+        return sensorEventDebouncer.takeOpen(plantId, triggerType)
+                .flatMap(p -> openEvent(pendingContext(p), triggerType))
+                .map(SensorEvent::getEventId);
+    }
+
+    private TelemetryContext pendingContext(SensorEventDebouncer.Pending p) {
+        return new TelemetryContext(deviceBindingValidator.resolvePlant(p.plantId()), p.measuredAt(), p.sensorLogId());
+    }
+
+    private void commitPending(SensorEventDebouncer.Pending p) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                TelemetryContext ctx = pendingContext(p);
+                if (p.open()) {
+                    openEvent(ctx, p.trigger());
+                } else {
+                    resolveEvent(ctx, p.trigger());
+                }
+            });
+        } catch (RuntimeException e) {
+            if (TransientFailures.isTransient(e)) {
+                sensorEventDebouncer.requeue(p, System.currentTimeMillis() + DEBOUNCE_RETRY_MILLIS);
+                log.warn("[SENSOR_DEBOUNCE] commit failed (transient), retrying. {}, cause={}", p, e.toString());
+            } else {
+                log.warn("[SENSOR_DEBOUNCE] commit dropped. {}, cause={}", p, e.toString());
             }
         }
     }
 
+    private Optional<SensorEvent> openEvent(TelemetryContext ctx, SensorUplinkMessage.TriggerSensorType triggerType) {
+        Optional<SensorEvent> createdOpt = sensorEventService.openOrUpdateAndReturnCreated(ctx, triggerType);
+
+        // 처음 이상치(OPEN 생성)일 때만 알림 테이블 insert
+        createdOpt.ifPresent(createdEvent -> {
+
+            Notification.NotiTitle title = mapTriggerToNotiTitle(triggerType);
+
+            // notification 테이블에 알림 저장
+            // DB만 저장되고 푸시 안 감
+            Long notificationId =
+                notificationService.notifySensorAnomalyAndReturnId(
+                        ctx.getPlantId(),
+                        ctx.requireActiveUserId(),
+                        createdEvent.getEventId(),
+                        title
+                );
+
+            // AFTER COMMIT 푸시 등록
+            // 트랜잭션 정상 커밋된 경우에만 실행됨
+            pushAfterCommit(notificationId);
+
+            // 안읽은 알림 표시
+            plantStatusService.markUnreadNotification(ctx.getPlantStatus());
+        });
+        return createdOpt;
+    }
+
+    private void resolveEvent(TelemetryContext ctx, SensorUplinkMessage.TriggerSensorType triggerType) {
+        Optional<SensorEvent> resolvedOpt = sensorEventService.resolveIfOpenAndReturn(ctx, triggerType);
+
+        // 열려있는 이벤트 있으면 종료하고 -> 복구 알림 생성
+        // 없으면 아무것도 안함
+        resolvedOpt.ifPresent(resolvedEvent -> {
+            Notification.NotiTitle title = mapTriggerToRecoveryTitle(triggerType);
+
+            Long notificationId =
+                notificationService.notifySensorRecoveryAndReturnId(
+                        ctx.getPlantId(),
+                        ctx.requireActiveUserId(),
+                        resolvedEvent.getEventId(),
+                        title
+                );
+
+            pushAfterCommit(notificationId);
+            // 안읽은 알림 표시
+            plantStatusService.markUnreadNotification(ctx.getPlantStatus());
+        });
+    }
+
+    private void pushAfterCommit(Long notificationId) {
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        pushService.sendNotification(notificationId);
+                    }
+                }
+        );
+    }
+
+    private static float orNaN(Float v) {
+        return v != null ? v : Float.NaN;
+    }
+
     private Notification.NotiTitle mapTriggerToNotiTitle(SensorUplinkMessage.TriggerSensorType triggerType) {
         if (triggerType == null) throw new IllegalArgumentException("trigger_sensor_type is null");
 
         return switch (triggerType) {
             case WATER_LEVEL -> Notification.NotiTitle.WATER_LEVEL;
             case NUTRIENT_CONC -> Notification.NotiTitle.NUTRIENT_CONC;
+            case TEMPERATURE -> Notification.NotiTitle.TEMPERATURE;
+            case HUMIDITY -> Notification.NotiTitle.HUMIDITY;
         };
     }
 
@@ -132,6 +277,8 @@ public class SensorTelemetryService {
         return switch (triggerType) {
             case WATER_LEVEL -> Notification.NotiTitle.WATER_LEVEL;
             case NUTRIENT_CONC -> Notification.NotiTitle.NUTRIENT_CONC;
+            case TEMPERATURE -> Notification.NotiTitle.TEMPERATURE;
+            case HUMIDITY -> Notification.NotiTitle.HUMIDITY;
         };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.domain.plant.PlantStatus;
+import com.ssukssuk.domain.plant.Species;
+import com.ssukssuk.infra.mqtt.dto.SensorUplinkMessage;
+import com.ssukssuk.service.device.DeviceBinding;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 업링크 한 건을 처리하는 동안 단계 사이에 넘기는 값.
+ *
+ * 식물/소유자/PlantStatus/종 은 바인딩 검증 SELECT 에서 한 번만 얻고, 이후 단계는 다시 조회하지 않고
+ * id 와 JPA 참조(getReferenceById)로 쓴다. sensorLogId 는 sensor_log 저장 후 채워진다
+ * (PERIODIC 은 커밋 후 배치로 쓰므로 null).
+ */
+@Getter
+public class TelemetryContext {
+
+    private final SensorUplinkMessage msg;
+    private final LocalDateTime measuredAt;
+    private final Long plantId;
+    private final Long activeUserId;
+    private final PlantStatus plantStatus;
+    private final Species species;
+    private Long sensorLogId;
+
+    public TelemetryContext(SensorUplinkMessage msg, LocalDateTime measuredAt, DeviceBinding binding) {
+        this.msg = msg;
+        this.measuredAt = measuredAt;
+        this.plantId = binding.plantId();
+        this.activeUserId = binding.activeUserId();
+        this.plantStatus = binding.plantStatus();
+        this.species = binding.species();
+    }
+
+    /** 디바운스로 보류했다가 확정하는 전이용 (메시지 없이 처음 신호의 시각/측정값으로) */
+    TelemetryContext(DeviceBinding binding, LocalDateTime measuredAt, Long sensorLogId) {
+        this(null, measuredAt, binding);
+        this.sensorLogId = sensorLogId;
+    }
+
+    void sensorLogSaved(Long sensorLogId) {
+        this.sensorLogId = sensorLogId;
+    }
+
+    /** 알림 수신자: 연결이 끊긴 식물이면 알림을 만들 수 없다 */
+    public Long requireActiveUserId() {
+        if (activeUserId == null) {
+            throw new IllegalStateException("No active user_plant binding for plantId=" + plantId);
+        }
+        return activeUserId;
+    }
+}
@@ -35,12 +35,14 @@ public class NotificationService {
     @Transactional
     public Long notifySensorAnomalyAndReturnId(
             Long plantId,
+            Long userId,
             Long eventId,
             Notification.NotiTitle sensorTitle
     ) {
-        UserPlant plant = findPlantById(plantId);
-        User user = findActiveUserByPlantId(plantId);
-        SensorEvent event = sensorEventRepository.findById(eventId).orElse(null);
+        // 업링크 처리 중 이미 검증/저장한 행이므로 조회 없이 참조만 건다
+        UserPlant plant = userPlantRepository.getReferenceById(plantId);
+        User user = userRepository.getReferenceById(userId);
+        SensorEvent event = sensorEventRepository.getReferenceById(eventId);
 
         String message = sensorAnomalyMessage(sensorTitle);
 
@@ -131,13 +133,14 @@ public class NotificationService {
     @Transactional
     public Long notifySensorRecoveryAndReturnId(
             Long plantId,
+            Long userId,
             Long eventId,
             Notification.NotiTitle sensorTitle
     ) {
-        UserPlant plant = findPlantById(plantId);
-        User user = findActiveUserByPlantId(plantId);
-        SensorEvent event = sensorEventRepository.findById(eventId)
-                .orElse(null);
+        // 업링크 처리 중 이미 검증/저장한 행이므로 조회 없이 참조만 건다
+        UserPlant plant = userPlantRepository.getReferenceById(plantId);
+        User user = userRepository.getReferenceById(userId);
+        SensorEvent event = sensorEventRepository.getReferenceById(eventId);
 
         String message = sensorRecoveryMessage(sensorTitle);
 
@@ -243,7 +246,9 @@ public class NotificationService {
         return switch (title) {
             case WATER_LEVEL -> "수위가 정상으로 돌아왔어요.";
             case NUTRIENT_CONC -> "영양분 농도가 정상 범위로 복구됐어요.";
-            case HUMIDITY, TEMPERATURE, ACTION_FAIL, ACTION_DONE, DISCOLORATION ->
+            case TEMPERATURE -> "온도가 적정 범위로 돌아왔어요.";
+            case HUMIDITY -> "습도가 적정 범위로 돌아왔어요.";
+            case ACTION_FAIL, ACTION_DONE, DISCOLORATION ->
                     throw new IllegalArgumentException("Invalid sensor title: " + title);
         };
     }
@@ -2,10 +2,10 @@ package com.ssukssuk.service.plant;
 
 import com.ssukssuk.common.exception.CustomException;
 import com.ssukssuk.common.exception.ErrorCode;
-import com.ssukssuk.domain.history.SensorLog;
 import com.ssukssuk.dto.plant.NutrientCardResponse;
-import com.ssukssuk.repository.history.SensorLogRepository;
+import com.ssukssuk.infra.series.SensorSample;
 import com.ssukssuk.repository.plant.UserPlantRepository;
+import com.ssukssuk.service.history.LatestReadingCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,7 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class NutrientSensorService {
 
     private final UserPlantRepository userPlantRepository;
-    private final SensorLogRepository sensorLogRepository;
+    private final LatestReadingCache latestReadingCache;
 
     public NutrientCardResponse getNutrientCard(Long userId, Long plantId) {
 
@@ -30,14 +30,14 @@ public class NutrientSensorService {
         Float idealMax = userPlantRepository.findNutrientMaxByPlantId(plantId)
                 .orElse(null);
 
-        SensorLog log = sensorLogRepository.findTopByPlant_PlantIdOrderByMeasuredAtDesc(plantId)
+        SensorSample latest = latestReadingCache.get(plantId)
                 .orElseThrow(() -> new CustomException(ErrorCode.SENSOR_LOG_NOT_FOUND));
 
-        Float currentNutrient = log.getNutrientConc();
+        Float currentNutrient = latest.nutrientConcOrNull();
 
         return NutrientCardResponse.of(
                 plantId,
-                log.getMeasuredAt(),
+                latest.measuredAtLocal(),
                 currentNutrient,
                 idealMin,
                 idealMax
@@ -23,12 +23,12 @@ public class PlantStatusService {
 
     /**
      * 센서 데이터로 PlantStatus 업데이트
+     * (업링크 바인딩 조회에서 같이 읽어 온 영속 엔티티를 받는다: 추가 SELECT 없음)
      */
     @Transactional
-    public void updateFromSensor(Long plantId, SensorUplinkMessage msg) {
-        PlantStatus status = plantStatusRepository.findById(plantId).orElse(null);
+    public void updateFromSensor(PlantStatus status, SensorUplinkMessage msg) {
         if (status == null) {
-            log.warn("[PlantStatus] not found for plantId={}", plantId);
+            log.warn("[PlantStatus] not found for plantId={}", msg.getPlantId());
             return;
         }
 
@@ -41,11 +41,10 @@ public class PlantStatusService {
                 convertStatus(msg.getNutrientConcStatus())
         );
 
-        // 캐릭터 코드 업데이트
-        characterCodeRepository.findById(newCharacterCode)
-                .ifPresent(status::applyCharacter);
+        // 캐릭터 코드 업데이트: FK 만 바뀌면 되므로 참조로 (코드 테이블은 고정 0~14, 같은 코드면 UPDATE 대상 아님)
+        status.applyCharacter(characterCodeRepository.getReferenceById(newCharacterCode));
 
-        eventPublisher.publishEvent(new PlantStatusUpdatedEvent(plantId));
+        eventPublisher.publishEvent(new PlantStatusUpdatedEvent(status.getPlantId()));
     }
 
     /**
@@ -78,10 +77,19 @@ public class PlantStatusService {
             log.warn("[PlantStatus] not found for plantId={}", plantId);
             return;
         }
+        markUnreadNotification(status);
+    }
+
+    /**
+     * 안읽은 알림 표시 (이미 영속 상태인 엔티티)
+     */
+    @Transactional
+    public void markUnreadNotification(PlantStatus status) {
+        if (status == null) return;
 
         status.markUnreadNotification();
 
-        eventPublisher.publishEvent(new PlantStatusUpdatedEvent(plantId));
+        eventPublisher.publishEvent(new PlantStatusUpdatedEvent(status.getPlantId()));
     }
 
     /**
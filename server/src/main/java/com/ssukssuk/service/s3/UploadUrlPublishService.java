@@ -4,10 +4,10 @@ import com.ssukssuk.dto.s3.UploadUrlPayload;
 import com.ssukssuk.infra.mqtt.MqttPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -19,8 +19,11 @@ public class UploadUrlPublishService {
     private final S3PresignService s3PresignService;
     private final MqttPublisher mqttPublisher;
 
-    @Async("uploadUrlExecutor")
-    public void publishUploadUrl(String serialNum, Long plantId, LocalDate date, String slot) {
+    /**
+     * presigned URL 생성 후 비동기 발행. 호출 스레드는 브로커 응답을 기다리지 않는다.
+     * @return 발행 성공 시 true, 실패 시 false 로 완료 (예외로 완료되지 않음)
+     */
+    public CompletableFuture<Boolean> publishUploadUrl(String serialNum, Long plantId, LocalDate date, String slot) {
         try {
             UploadUrlPayload payload = s3PresignService.generateUploadUrlPayload(
                     serialNum, plantId, date, slot, null
@@ -36,12 +39,18 @@ public class UploadUrlPublishService {
                 log.debug("[UploadUrl] URL: {}", item.getUploadUrl());
             }
 
-            mqttPublisher.publish(topic, payload);
-
-            log.info("[UploadUrl] Published to topic={}, serial={}, plantId={}, slot={}, expiresIn={}s",
-                    topic, serialNum, plantId, slot, payload.getExpiresInSec());
+            return mqttPublisher.publish(topic, payload).handle((v, e) -> {
+                if (e != null) {
+                    log.error("[UploadUrl] Failed to publish: serial={}, plantId={}, slot={}", serialNum, plantId, slot, e);
+                    return false;
+                }
+                log.info("[UploadUrl] Published to topic={}, serial={}, plantId={}, slot={}, expiresIn={}s",
+                        topic, serialNum, plantId, slot, payload.getExpiresInSec());
+                return true;
+            });
         } catch (Exception e) {
             log.error("[UploadUrl] Failed to publish: serial={}, plantId={}, slot={}", serialNum, plantId, slot, e);
+            return CompletableFuture.completedFuture(false);
         }
     }
 
@@ -59,7 +68,7 @@ public class UploadUrlPublishService {
 
         if (publish) {
             String topic = MqttPublisher.controlTopic(serialNum, TOPIC_CHANNEL);
-            mqttPublisher.publish(topic, payload);
+            mqttPublisher.publish(topic, payload).join();
             log.info("[UploadUrl] Published (test) to serial={}, plantId={}, slot={}", serialNum, plantId, slot);
         }
 
@@ -12,6 +12,8 @@ import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Component
@@ -52,15 +54,25 @@ public class UploadUrlScheduler {
 
         log.info("[UploadUrlScheduler] Found {} active bindings for slot={}", bindings.size(), slot);
 
-        for (BindingProjection binding : bindings) {
-            uploadUrlPublishService.publishUploadUrl(
+        // 발행은 MqttPublisher 큐로 파이프라이닝되고, 완료 집계만 비동기로 기록
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[bindings.size()];
+        AtomicInteger failed = new AtomicInteger();
+
+        for (int i = 0; i < bindings.size(); i++) {
+            BindingProjection binding = bindings.get(i);
+            futures[i] = uploadUrlPublishService.publishUploadUrl(
                     binding.getSerial(),
                     binding.getPlantId(),
                     today,
                     slot
-            );
+            ).thenAccept(ok -> {
+                if (!ok) failed.incrementAndGet();
+            });
         }
 
-        log.info("[UploadUrlScheduler] Dispatched {} async publish tasks for slot={}", bindings.size(), slot);
+        log.info("[UploadUrlScheduler] Dispatched {} publish requests for slot={}", bindings.size(), slot);
+
+        CompletableFuture.allOf(futures).whenComplete((v, e) ->
+                log.info("[UploadUrlScheduler] Completed slot={}, total={}, failed={}", slot, bindings.size(), failed.get()));
     }
 }
@@ -0,0 +1,33 @@
+-- =========================================================
+-- sensor_log 월 단위 RANGE 파티션 1회 변환 (MySQL 8)
+-- 테이블 전체를 다시 쓰므로 점검 시간에 실행한다.
+-- 이후 파티션 생성/보관 기간 정리는 SensorLogPartitionMaintenance 가 한다.
+-- =========================================================
+
+-- 1) FK 제거 (파티션 테이블은 FK 를 갖거나 참조될 수 없다)
+--    이름은 아래로 확인 후 바꿔서 실행
+SELECT TABLE_NAME, CONSTRAINT_NAME
+FROM information_schema.REFERENTIAL_CONSTRAINTS
+WHERE CONSTRAINT_SCHEMA = DATABASE()
+  AND (TABLE_NAME = 'sensor_log' OR REFERENCED_TABLE_NAME = 'sensor_log');
+
+-- ALTER TABLE sensor_log   DROP FOREIGN KEY <sensor_log.plant_id FK>;
+-- ALTER TABLE sensor_event DROP FOREIGN KEY <first_sensor_log_id FK>;
+-- ALTER TABLE sensor_event DROP FOREIGN KEY <last_sensor_log_id FK>;
+
+-- 2) PK 에 파티션 키 포함
+ALTER TABLE sensor_log DROP PRIMARY KEY, ADD PRIMARY KEY (sensor_log_id, measured_at);
+
+-- 3) 최근 조회용 인덱스 (엔티티에도 선언되어 있음)
+-- CREATE INDEX idx_sensor_log_plant_measured ON sensor_log (plant_id, measured_at);
+
+-- 4) 파티션 (가장 오래된 달 ~ 앞으로 3달, 나머지는 pmax)
+--    SELECT MIN(measured_at) FROM sensor_log; 로 시작 달을 정한다
+ALTER TABLE sensor_log PARTITION BY RANGE COLUMNS(measured_at) (
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01 00:00:00'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01 00:00:00'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01 00:00:00'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01 00:00:00'),
+    PARTITION p202701 VALUES LESS THAN ('2027-02-01 00:00:00'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
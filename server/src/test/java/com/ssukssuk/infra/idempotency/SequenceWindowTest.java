@@ -0,0 +1,68 @@
+package com.ssukssuk.infra.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SequenceWindowTest {
+
+    private final SequenceWindow window = new SequenceWindow();
+
+    @Test
+    @DisplayName("직전 부팅 메시지가 섞여 와도 서로의 창을 초기화하지 않는다")
+    void previousBootDoesNotResetCurrent() {
+        assertThat(window.mark("boot-a", 10)).isEqualTo(SequenceWindow.Result.NEW_BOOT);
+        assertThat(window.mark("boot-a", 11)).isEqualTo(SequenceWindow.Result.FIRST);
+        assertThat(window.mark("boot-b", 0)).isEqualTo(SequenceWindow.Result.NEW_BOOT);
+
+        // 직전 부팅의 재전송: 중복으로 걸러지고, 새 시퀀스는 직전 창에서 처음으로 판정
+        assertThat(window.mark("boot-a", 11)).isEqualTo(SequenceWindow.Result.DUPLICATE);
+        assertThat(window.mark("boot-a", 12)).isEqualTo(SequenceWindow.Result.FIRST);
+
+        // 현재 부팅 창은 그대로
+        assertThat(window.mark("boot-b", 0)).isEqualTo(SequenceWindow.Result.DUPLICATE);
+        assertThat(window.mark("boot-b", 1)).isEqualTo(SequenceWindow.Result.FIRST);
+        assertThat(window.bootId()).isEqualTo("boot-b");
+    }
+
+    @Test
+    @DisplayName("부팅 카운터가 현재보다 작으면 TOO_OLD")
+    void olderBootCounterIsTooOld() {
+        window.mark("7", 0);
+        window.mark("8", 0);
+
+        assertThat(window.mark("6", 3)).isEqualTo(SequenceWindow.Result.TOO_OLD);
+        assertThat(window.mark("7", 0)).isEqualTo(SequenceWindow.Result.DUPLICATE);
+        assertThat(window.mark("8", 0)).isEqualTo(SequenceWindow.Result.DUPLICATE);
+        assertThat(window.mark("9", 0)).isEqualTo(SequenceWindow.Result.NEW_BOOT);
+    }
+
+    @Test
+    @DisplayName("세 번째 부팅이 오면 가장 오래된 세대가 빠진다")
+    void thirdBootRetiresOldest() {
+        window.mark("boot-a", 0);
+        window.mark("boot-b", 0);
+        window.mark("boot-c", 0);
+
+        assertThat(window.previousBootId()).isEqualTo("boot-b");
+        assertThat(window.unmark("boot-a", 0)).isFalse();
+        assertThat(window.unmark("boot-b", 0)).isTrue();
+        assertThat(window.mark("boot-b", 0)).isEqualTo(SequenceWindow.Result.FIRST);
+    }
+
+    @Test
+    @DisplayName("미러로 두 세대를 복원한다")
+    void restoresBothGenerations() {
+        window.mark("boot-a", 5);
+        window.mark("boot-b", 2);
+
+        SequenceWindow restored = new SequenceWindow();
+        restored.restore(window.bootId(), window.highWatermark(), window.toBytes(),
+                window.previousBootId(), window.previousHighWatermark(), window.previousToBytes());
+
+        assertThat(restored.mark("boot-a", 5)).isEqualTo(SequenceWindow.Result.DUPLICATE);
+        assertThat(restored.mark("boot-b", 2)).isEqualTo(SequenceWindow.Result.DUPLICATE);
+        assertThat(restored.mark("boot-b", 3)).isEqualTo(SequenceWindow.Result.FIRST);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ssukssuk.infra.mqtt.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.ssukssuk.infra.mqtt.dto.MqttEnvelope;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TelemetryDecoderTest {
+
+    private static final int LIMIT = 64 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TelemetryDecoder decoder = new TelemetryDecoder(objectMapper, LIMIT);
+
+    @Test
+    @DisplayName("한도 안의 cbor-deflate 는 그대로 디코딩한다")
+    void decodesWithinLimit() throws IOException {
+        MqttEnvelope envelope = deflated(Map.of("msg_id", "m-1", "value", "x".repeat(LIMIT / 2)));
+
+        Map<?, ?> decoded = decoder.decode(envelope, Map.class);
+
+        assertThat(decoded.get("msg_id")).isEqualTo("m-1");
+    }
+
+    @Test
+    @DisplayName("풀린 크기가 한도를 넘으면 IOException (압축 폭탄)")
+    void rejectsInflatedOverLimit() throws IOException {
+        MqttEnvelope envelope = deflated(Map.of("value", "x".repeat(LIMIT * 16)));
+
+        assertThat(envelope.getPayload().length).isLessThan(LIMIT);
+        assertThatThrownBy(() -> decoder.decode(envelope, Map.class))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("exceeds");
+    }
+
+    private MqttEnvelope deflated(Object value) throws IOException {
+        byte[] cbor = objectMapper.copyWith(new CBORFactory()).writeValueAsBytes(value);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+            deflater.write(cbor);
+        }
+        return MqttEnvelope.builder()
+                .topicRaw("devices/SN1/telemetry/sensors/cbor-deflate")
+                .format(PayloadFormat.CBOR_DEFLATE)
+                .payload(out.toByteArray())
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ssukssuk.infra.mqtt.ingest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MqttIngestLanesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> ran = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private MqttIngestLanes lanes;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        if (lanes != null) lanes.shutdown();
+    }
+
+    @Test
+    @DisplayName("LOW 버퍼가 가득 차면 LOW 가 가장 많이 쌓인 디바이스의 가장 오래된 것을 버린다")
+    void dropsOldestLowOfLongestDevice() throws InterruptedException {
+        lanes = new MqttIngestLanes(meterRegistry, 1, 10, 4, 100);
+        blockLane();
+
+        low("a", "a1");
+        low("b", "b1");
+        low("a", "a2");
+        low("a", "a3");
+        low("c", "c1");     // 가득 참 → a1 폐기
+        low("d", "d1");     // 여전히 a 가 가장 많음 → a2 폐기
+        low("e", "e1");     // 모두 1 개로 같음 → 먼저 1 개가 된 b 의 b1 폐기
+
+        release.countDown();
+        awaitRan(4);
+
+        assertThat(ran).containsExactlyInAnyOrder("a3", "c1", "d1", "e1");
+        assertThat(meterRegistry.get("mqtt.ingest.dropped").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("버려진 뒤에도 디바이스 안의 순서는 그대로")
+    void keepsPerDeviceOrderAfterDrop() throws InterruptedException {
+        lanes = new MqttIngestLanes(meterRegistry, 1, 10, 3, 100);
+        blockLane();
+
+        low("a", "a1");
+        lanes.submit("a", () -> ran.add("a-high"));
+        low("a", "a2");
+        low("a", "a3");
+        low("b", "b1");     // a1 폐기, HIGH 는 남는다
+
+        release.countDown();
+        awaitRan(4);
+
+        assertThat(ran.stream().filter(s -> s.startsWith("a")).toList())
+                .containsExactly("a-high", "a2", "a3");
+        assertThat(ran).contains("b1");
+    }
+
+    private void blockLane() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        lanes.submit("blocker", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void low(String key, String name) {
+        lanes.submit(key, IngestPriority.LOW, () -> ran.add(name));
+    }
+
+    private void awaitRan(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (ran.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
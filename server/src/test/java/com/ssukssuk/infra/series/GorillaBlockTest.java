@@ -0,0 +1,168 @@
+package com.ssukssuk.infra.series;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GorillaBlockTest {
+
+    @Test
+    @DisplayName("같은 값과 같은 간격은 건당 몇 비트로 줄고 그대로 풀린다")
+    void identicalValues() {
+        List<SensorSample> samples = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            samples.add(sample(1_700_000_000_000L + i * 60_000L, 21.5f, 40f, 80f, 1.2f, 0x55));
+        }
+
+        GorillaBlock.Encoder encoder = encode(samples);
+
+        assertThat(decode(encoder)).containsExactlyElementsOf(samples);
+        // 첫 건 25 바이트 + 이후 건당 6 비트 (dod 1 + 값 4 + status 1)
+        assertThat(encoder.byteLength()).isLessThan(25 + 100);
+    }
+
+    @Test
+    @DisplayName("delta-of-delta 구간 경계와 음수/거대 값, 순서가 뒤바뀐 시각도 그대로 풀린다")
+    void timestampEdges() {
+        long[] dods = {0, -63, 64, -64, 65, -255, 256, -256, 257, -2047, 2048, -2048, 2049,
+                1_000_000_000_000L, -2_000_000_000_000L, Long.MAX_VALUE / 4, Long.MIN_VALUE / 4};
+        List<SensorSample> samples = new ArrayList<>();
+        long ts = 1_700_000_000_000L;
+        long delta = 1_000;
+        samples.add(sample(ts, 1f, 2f, 3f, 4f, 0));
+        for (long dod : dods) {
+            delta += dod;
+            ts += delta;
+            samples.add(sample(ts, 1f, 2f, 3f, 4f, 0));
+        }
+        // 순서 뒤바뀜: 앞으로 갔다가 뒤로
+        samples.add(sample(ts + 10, 1f, 2f, 3f, 4f, 0));
+        samples.add(sample(ts - 5, 1f, 2f, 3f, 4f, 0));
+        samples.add(sample(ts - 5, 1f, 2f, 3f, 4f, 0));
+
+        GorillaBlock.Encoder encoder = encode(samples);
+
+        assertThat(decode(encoder)).containsExactlyElementsOf(samples);
+        assertThat(encoder.minTs()).isEqualTo(samples.stream().mapToLong(SensorSample::measuredAt).min().orElseThrow());
+        assertThat(encoder.maxTs()).isEqualTo(samples.stream().mapToLong(SensorSample::measuredAt).max().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("NaN(값 없음)이 섞였다 빠졌다 해도 그대로 풀린다")
+    void nanValues() {
+        List<SensorSample> samples = List.of(
+                sample(1_000, Float.NaN, 40f, Float.NaN, 1.2f, 0),
+                sample(2_000, 21.5f, Float.NaN, Float.NaN, 1.2f, 0),
+                sample(3_000, Float.NaN, 41f, 80f, Float.NaN, 0),
+                sample(4_000, Float.NaN, Float.NaN, Float.NaN, Float.NaN, 0),
+                sample(5_000, 22f, 42f, 81f, 1.3f, 0));
+
+        assertThat(decode(encode(samples))).containsExactlyElementsOf(samples);
+    }
+
+    @Test
+    @DisplayName("유효 비트가 32 개 전부인 XOR 와 그 구간을 다시 쓰는 경우")
+    void meaningfulBitsFullWidth() {
+        float a = Float.intBitsToFloat(0x00000000);
+        float b = Float.intBitsToFloat(0x80000001);     // XOR 최상위/최하위 비트 모두 1 → leading 0, trailing 0
+        float c = Float.intBitsToFloat(0x7fff_fffe);    // 직전 구간(32 비트) 안으로 '10' 경로
+        List<SensorSample> samples = List.of(
+                sample(1_000, a, a, b, -0f, 0),
+                sample(2_000, b, b, a, 0f, 0),
+                sample(3_000, c, a, c, -0f, 0),
+                sample(4_000, a, c, b, Float.MIN_VALUE, 0),
+                sample(5_000, Float.MAX_VALUE, -Float.MAX_VALUE, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, 0));
+
+        assertThat(decode(encode(samples))).containsExactlyElementsOf(samples);
+    }
+
+    @Test
+    @DisplayName("status 가 바뀌는 건(음수 바이트 포함)만 8 비트를 쓰고 그대로 풀린다")
+    void statusChanges() {
+        List<SensorSample> samples = List.of(
+                sample(1_000, 1f, 1f, 1f, 1f, 0x55),
+                sample(2_000, 1f, 1f, 1f, 1f, 0x55),
+                sample(3_000, 1f, 1f, 1f, 1f, 0xE4),
+                sample(4_000, 1f, 1f, 1f, 1f, 0xFF),
+                sample(5_000, 1f, 1f, 1f, 1f, 0x00),
+                sample(6_000, 1f, 1f, 1f, 1f, 0x00));
+
+        List<SensorSample> decoded = decode(encode(samples));
+
+        assertThat(decoded).containsExactlyElementsOf(samples);
+        assertThat(decoded.get(2).status()).isEqualTo((byte) 0xE4);
+    }
+
+    @Test
+    @DisplayName("무작위 시계열도 그대로 풀리고, [from, to) 밖은 넘기지 않는다")
+    void randomRoundTripAndRange() {
+        Random random = new Random(42);
+        List<SensorSample> samples = new ArrayList<>();
+        long ts = 1_700_000_000_000L;
+        float t = 20f;
+        for (int i = 0; i < 2_000; i++) {
+            ts += random.nextInt(10) == 0 ? random.nextInt(200_000) - 50_000 : 60_000 + random.nextInt(50);
+            t += (random.nextFloat() - 0.5f) * 0.3f;
+            float h = random.nextInt(20) == 0 ? Float.NaN : 30f + random.nextFloat() * 40f;
+            samples.add(sample(ts, t, h, Float.intBitsToFloat(random.nextInt()), Math.round(t * 10) / 10f,
+                    random.nextInt(8) == 0 ? random.nextInt(256) : 0x55));
+        }
+
+        GorillaBlock.Encoder encoder = encode(samples);
+        assertThat(decode(encoder)).containsExactlyElementsOf(samples);
+
+        long from = samples.get(500).measuredAt();
+        long to = samples.get(1_500).measuredAt();
+        List<SensorSample> inRange = new ArrayList<>();
+        int visited = GorillaBlock.decode(ByteBuffer.wrap(encoder.toByteArray()), 0, encoder.count(), from, to,
+                (ts2, a, b, c, d, st) -> inRange.add(new SensorSample(ts2, a, b, c, d, st)));
+
+        assertThat(visited).isEqualTo(inRange.size());
+        assertThat(inRange).containsExactlyElementsOf(samples.stream()
+                .filter(s -> s.measuredAt() >= from && s.measuredAt() < to)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("버퍼 중간 offset 에 있는 블록도 읽는다")
+    void decodesAtOffset() {
+        List<SensorSample> samples = List.of(
+                sample(1_000, 1f, 2f, 3f, 4f, 1),
+                sample(1_100, 1.5f, 2f, 3f, 4f, 1));
+        GorillaBlock.Encoder encoder = encode(samples);
+        ByteBuffer buf = ByteBuffer.allocate(7 + encoder.byteLength());
+        buf.position(7);
+        encoder.writeTo(buf);
+
+        List<SensorSample> decoded = new ArrayList<>();
+        GorillaBlock.decode(buf, 7, encoder.count(), Long.MIN_VALUE, Long.MAX_VALUE,
+                (ts, a, b, c, d, st) -> decoded.add(new SensorSample(ts, a, b, c, d, st)));
+
+        assertThat(decoded).containsExactlyElementsOf(samples);
+    }
+
+    private static SensorSample sample(long ts, float t, float h, float w, float n, int status) {
+        return new SensorSample(ts, t, h, w, n, (byte) status);
+    }
+
+    private static GorillaBlock.Encoder encode(List<SensorSample> samples) {
+        GorillaBlock.Encoder encoder = new GorillaBlock.Encoder(16);
+        samples.forEach(encoder::append);
+        return encoder;
+    }
+
+    private static List<SensorSample> decode(GorillaBlock.Encoder encoder) {
+        List<SensorSample> result = new ArrayList<>();
+        int visited = GorillaBlock.decode(ByteBuffer.wrap(encoder.toByteArray()), 0, encoder.count(),
+                Long.MIN_VALUE, Long.MAX_VALUE,
+                (ts, t, h, w, n, st) -> result.add(new SensorSample(ts, t, h, w, n, st)));
+        assertThat(visited).isEqualTo(encoder.count());
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ssukssuk.infra.series;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeriesSegmentFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("헤더 중간에서 끊긴 꼬리는 잘라내고 새 블록을 이어 붙인다")
+    void appendAfterTornHeader() throws IOException {
+        Path file = dir.resolve("1").resolve("20250101.seg");
+        SeriesSegmentFile.append(file, block(1_000, 3));
+        long validSize = Files.size(file);
+
+        Files.write(file, new byte[]{0, 0, 1, 7, 0, 0}, StandardOpenOption.APPEND);
+        SeriesSegmentFile.append(file, block(2_000, 2));
+
+        assertThat(timestamps(file)).containsExactly(1_000L, 1_001L, 1_002L, 2_000L, 2_001L);
+        assertThat(Files.size(file)).isGreaterThan(validSize);
+    }
+
+    @Test
+    @DisplayName("길이는 기록됐지만 내용이 비어 crc 가 맞지 않는 마지막 블록은 버리고 이어 붙인다")
+    void appendAfterTornPayload() throws IOException {
+        Path file = dir.resolve("1").resolve("20250102.seg");
+        SeriesSegmentFile.append(file, block(1_000, 2));
+        long validSize = Files.size(file);
+
+        SeriesSegmentFile.append(file, block(1_500, 2));
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // 두 번째 블록 payload 를 0 으로 덮어 쓰다 끊긴 상태를 만든다
+            long payloadStart = validSize + SeriesSegmentFile.HEADER_BYTES;
+            ch.write(ByteBuffer.allocate((int) (ch.size() - payloadStart)), payloadStart);
+        }
+
+        SeriesSegmentFile.append(file, block(2_000, 1));
+
+        assertThat(timestamps(file)).containsExactly(1_000L, 1_001L, 2_000L);
+    }
+
+    @Test
+    @DisplayName("온전한 파일에는 그대로 이어 붙인다")
+    void appendToIntactFile() throws IOException {
+        Path file = dir.resolve("1").resolve("20250103.seg");
+        int first = SeriesSegmentFile.append(file, block(1_000, 2));
+        int second = SeriesSegmentFile.append(file, block(2_000, 2));
+
+        assertThat(Files.size(file)).isEqualTo(first + second);
+        assertThat(timestamps(file)).containsExactly(1_000L, 1_001L, 2_000L, 2_001L);
+    }
+
+    private static GorillaBlock.Encoder block(long startTs, int count) {
+        GorillaBlock.Encoder encoder = new GorillaBlock.Encoder(64);
+        for (int i = 0; i < count; i++) {
+            encoder.append(new SensorSample(startTs + i, 21.5f + i, 40f, 80f, 1.2f, (byte) 0));
+        }
+        return encoder;
+    }
+
+    private static List<Long> timestamps(Path file) throws IOException {
+        List<Long> result = new ArrayList<>();
+        SeriesSegmentFile.scan(file, Long.MIN_VALUE, Long.MAX_VALUE, (ts, t, h, w, n, st) -> result.add(ts));
+        return result;
+    }
+}
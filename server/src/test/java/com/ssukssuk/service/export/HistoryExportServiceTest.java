@@ -0,0 +1,110 @@
+package com.ssukssuk.service.export;
+
+import com.ssukssuk.common.exception.CustomException;
+import com.ssukssuk.infra.series.SensorSeriesStore;
+import com.ssukssuk.repository.plant.UserPlantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HistoryExportServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final HistoryExportService service = new HistoryExportService(jdbcTemplate,
+            mock(UserPlantRepository.class), mock(SensorSeriesStore.class), new SimpleMeterRegistry(), 100, 1);
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("비동기 시작 전에 요청이 끝나면 본문이 실행되지 않아도 자리를 반납한다")
+    void releasedWhenRequestEndsBeforeAsync() {
+        noPlants();
+        ServletRequestAttributes attributes = bindRequest();
+
+        service.exportUser(1L, ExportDataset.SENSOR_LOG, ExportFormat.NDJSON, false);
+        assertThatThrownBy(() -> service.exportUser(1L, ExportDataset.SENSOR_LOG, ExportFormat.NDJSON, false))
+                .isInstanceOf(CustomException.class);
+
+        attributes.requestCompleted();
+        bindRequest();
+        service.exportUser(1L, ExportDataset.SENSOR_LOG, ExportFormat.NDJSON, false);
+    }
+
+    @Test
+    @DisplayName("비동기 요청이 끝나면 본문 없이도 자리를 반납하고, 첫 디스패치 종료로는 반납하지 않는다")
+    void releasedOnAsyncCompletion() throws Exception {
+        noPlants();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletRequestAttributes attributes = new ServletRequestAttributes(request, response);
+        RequestContextHolder.setRequestAttributes(attributes);
+
+        service.exportUser(1L, ExportDataset.SENSOR_LOG, ExportFormat.NDJSON, false);
+
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        asyncManager.setTaskExecutor(new TaskExecutorAdapter(Runnable::run));
+        // 본문 대신 빈 작업: 스트리밍 본문이 끝내 실행되지 않은 경우
+        asyncManager.startCallableProcessing(() -> null);
+        attributes.requestCompleted();
+
+        RequestContextHolder.resetRequestAttributes();
+        assertThatThrownBy(() -> service.exportUser(1L, ExportDataset.SENSOR_LOG, ExportFormat.NDJSON, false))
+                .isInstanceOf(CustomException.class);
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        service.exportUser(1L, ExportDataset.SENSOR_LOG, ExportFormat.NDJSON, false);
+    }
+
+    @Test
+    @DisplayName("본문이 끝나면 한 번만 반납한다")
+    void releasedOnceAfterBody() throws Exception {
+        noPlants();
+        ServletRequestAttributes attributes = bindRequest();
+
+        service.exportUser(1L, ExportDataset.SENSOR_LOG, ExportFormat.NDJSON, false)
+                .writeTo(new ByteArrayOutputStream());
+        attributes.requestCompleted();
+
+        RequestContextHolder.resetRequestAttributes();
+        service.exportUser(1L, ExportDataset.SENSOR_LOG, ExportFormat.NDJSON, false);
+        assertThatThrownBy(() -> service.exportUser(1L, ExportDataset.SENSOR_LOG, ExportFormat.NDJSON, false))
+                .isInstanceOf(CustomException.class);
+    }
+
+    private void noPlants() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class))).thenReturn(List.of());
+    }
+
+    private static ServletRequestAttributes bindRequest() {
+        ServletRequestAttributes attributes =
+                new ServletRequestAttributes(new MockHttpServletRequest(), new MockHttpServletResponse());
+        RequestContextHolder.setRequestAttributes(attributes);
+        return attributes;
+    }
+}
@@ -0,0 +1,221 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.infra.series.SensorSample;
+import com.ssukssuk.infra.series.SensorSeriesStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LttbDownsamplerTest {
+
+    private static final int T = SensorSample.TEMPERATURE;
+    private static final int H = SensorSample.HUMIDITY;
+    private static final long FROM = 1_700_000_000_000L;
+
+    private record Point(long t, float v) {
+    }
+
+    @Test
+    @DisplayName("값이 points 개 이하면 그대로 돌려주고, 값이 없는(NaN) 센서는 비운다")
+    void rawPath() {
+        List<SensorSample> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) rows.add(sample(FROM + i * 1_000L, 20f + i, Float.NaN));
+
+        LttbDownsampler lttb = run(FROM, FROM + 10_000, 10, rows, rows);
+
+        assertThat(points(lttb, T)).containsExactlyElementsOf(metric(rows, T));
+        assertThat(lttb.finish(H)).isZero();
+    }
+
+    @Test
+    @DisplayName("메모리에 올려 고르는 LTTB 와 같은 점을 고른다")
+    void matchesInMemoryReference() {
+        Random random = new Random(7);
+        List<SensorSample> rows = new ArrayList<>();
+        long ts = FROM;
+        float v = 20f;
+        for (int i = 0; i < 500; i++) {
+            ts += 500 + random.nextInt(1_500);
+            v += (random.nextFloat() - 0.5f) * 2f;
+            rows.add(sample(ts, v, random.nextInt(10) == 0 ? Float.NaN : v * 2));
+        }
+        long to = ts + 1;
+
+        LttbDownsampler lttb = run(FROM, to, 20, rows, rows);
+
+        for (int m : new int[]{T, H}) {
+            List<Point> expected = reference(metric(rows, m), FROM, to, 20);
+            List<Point> actual = points(lttb, m);
+            assertThat(actual).containsExactlyElementsOf(expected);
+            assertThat(actual).hasSizeLessThanOrEqualTo(20);
+            assertThat(actual.get(0)).isEqualTo(metric(rows, m).get(0));
+            assertThat(actual.get(actual.size() - 1)).isEqualTo(metric(rows, m).get(metric(rows, m).size() - 1));
+        }
+    }
+
+    @Test
+    @DisplayName("빈 버킷은 건너뛰고 첫/마지막 점은 남긴다")
+    void emptyBuckets() {
+        List<SensorSample> rows = new ArrayList<>();
+        for (int i = 0; i < 40; i++) rows.add(sample(FROM + i * 100L, (float) Math.sin(i), 0f));
+        for (int i = 0; i < 40; i++) rows.add(sample(FROM + 90_000 + i * 100L, (float) Math.cos(i), 0f));
+        long to = FROM + 100_000;
+
+        LttbDownsampler lttb = run(FROM, to, 12, rows, rows);
+        List<Point> actual = points(lttb, T);
+
+        assertThat(actual).containsExactlyElementsOf(reference(metric(rows, T), FROM, to, 12));
+        assertThat(actual.size()).isLessThan(12);
+        assertThat(actual.get(0).t()).isEqualTo(FROM);
+        assertThat(actual.get(actual.size() - 1).t()).isEqualTo(FROM + 90_000 + 39 * 100L);
+    }
+
+    @Test
+    @DisplayName("순서가 뒤섞인 입력도 points 를 넘지 않고 시간 순이며 첫/마지막 점을 남긴다")
+    void outOfOrderInput() {
+        List<SensorSample> rows = new ArrayList<>();
+        for (int i = 0; i < 300; i++) rows.add(sample(FROM + i * 1_000L, (float) Math.sin(i / 10.0), 0f));
+        Collections.shuffle(rows, new Random(3));
+
+        LttbDownsampler lttb = run(FROM, FROM + 300_000, 15, rows, rows);
+        List<Point> actual = points(lttb, T);
+
+        assertThat(actual).hasSizeLessThanOrEqualTo(15);
+        assertThat(actual).isSortedAccordingTo(Comparator.comparingLong(Point::t));
+        assertThat(actual.get(0).t()).isEqualTo(FROM);
+        assertThat(actual.get(actual.size() - 1).t()).isEqualTo(FROM + 299_000L);
+    }
+
+    @Test
+    @DisplayName("두 회차 사이에 행이 더 들어와도 (값이 적을 때) points 를 넘지 않고 마지막 점을 남긴다")
+    void rowsAddedBetweenPassesRaw() {
+        List<SensorSample> first = new ArrayList<>();
+        for (int i = 0; i < 8; i++) first.add(sample(FROM + i * 1_000L, i, 0f));
+        List<SensorSample> second = new ArrayList<>(first);
+        second.add(3, sample(FROM + 2_500, 100f, 0f));
+        second.add(5, sample(FROM + 3_500, 100f, 0f));
+        second.add(7, sample(FROM + 4_500, 100f, 0f));
+        for (int i = 8; i < 13; i++) second.add(sample(FROM + i * 1_000L, i, 0f));
+
+        LttbDownsampler lttb = run(FROM, FROM + 20_000, 10, first, second);
+        List<Point> actual = points(lttb, T);
+
+        assertThat(actual).hasSize(10);
+        assertThat(actual.get(actual.size() - 1)).isEqualTo(new Point(FROM + 7_000, 7f));
+    }
+
+    @Test
+    @DisplayName("두 회차 사이에 뒤쪽으로 들어온 행은 (값이 많을 때) 무시해 1회차 기준 결과와 같다")
+    void rowsAddedBetweenPassesDownsampled() {
+        List<SensorSample> first = new ArrayList<>();
+        for (int i = 0; i < 100; i++) first.add(sample(FROM + i * 1_000L, (float) Math.sin(i / 5.0), 0f));
+        List<SensorSample> second = new ArrayList<>(first);
+        for (int i = 100; i < 150; i++) second.add(sample(FROM + i * 1_000L, 50f, 0f));
+        long to = FROM + 150_000;
+
+        LttbDownsampler lttb = run(FROM, to, 10, first, second);
+        List<Point> actual = points(lttb, T);
+
+        assertThat(actual).hasSizeLessThanOrEqualTo(10);
+        assertThat(actual).containsExactlyElementsOf(reference(metric(first, T), FROM, to, 10));
+        assertThat(actual.get(actual.size() - 1).t()).isEqualTo(FROM + 99_000L);
+    }
+
+    /** 같은 시간 버킷 정의로 메모리에 올려 고르는 LTTB */
+    private static List<Point> reference(List<Point> series, long from, long to, int points) {
+        List<Point> sorted = new ArrayList<>(series);
+        sorted.sort(Comparator.comparingLong(Point::t));
+        if (sorted.size() <= points) return sorted;
+
+        int buckets = Math.max(1, points - 2);
+        double width = Math.max(1.0, (double) (to - from) / buckets);
+        List<List<Point>> byBucket = new ArrayList<>();
+        for (int b = 0; b < buckets; b++) byBucket.add(new ArrayList<>());
+        for (Point p : sorted) {
+            int b = Math.min(buckets - 1, Math.max(0, (int) ((p.t() - from) / width)));
+            byBucket.get(b).add(p);
+        }
+
+        Point first = sorted.get(0);
+        Point last = sorted.get(sorted.size() - 1);
+        List<Point> out = new ArrayList<>();
+        out.add(first);
+        Point a = first;
+        for (int b = 0; b < buckets; b++) {
+            double nextT = last.t() - from;
+            double nextV = last.v();
+            for (int c = b + 1; c < buckets; c++) {
+                List<Point> next = byBucket.get(c);
+                if (next.isEmpty()) continue;
+                double sumT = 0;
+                double sumV = 0;
+                for (Point p : next) {
+                    sumT += p.t() - from;
+                    sumV += p.v();
+                }
+                nextT = sumT / next.size();
+                nextV = sumV / next.size();
+                break;
+            }
+
+            Point best = null;
+            double bestArea = -1;
+            double aT = a.t() - from;
+            for (Point p : byBucket.get(b)) {
+                if (p.t() == first.t() || p.t() == last.t()) continue;
+                double area = Math.abs((aT - nextT) * (p.v() - a.v()) - (aT - (p.t() - from)) * (nextV - a.v()));
+                if (area > bestArea) {
+                    bestArea = area;
+                    best = p;
+                }
+            }
+            if (best != null) {
+                out.add(best);
+                a = best;
+            }
+        }
+        out.add(last);
+        return out;
+    }
+
+    private static LttbDownsampler run(long from, long to, int points,
+                                       List<SensorSample> firstPass, List<SensorSample> secondPass) {
+        LttbDownsampler lttb = new LttbDownsampler(from, to, points);
+        feed(firstPass, lttb.firstPass());
+        feed(secondPass, lttb.secondPass());
+        return lttb;
+    }
+
+    private static void feed(List<SensorSample> rows, SensorSeriesStore.Visitor visitor) {
+        for (SensorSample s : rows) {
+            visitor.visit(s.measuredAt(), s.temperature(), s.humidity(), s.waterLevel(), s.nutrientConc(), s.status());
+        }
+    }
+
+    private static List<Point> points(LttbDownsampler lttb, int m) {
+        int size = lttb.finish(m);
+        List<Point> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(new Point(lttb.time(m, i), lttb.value(m, i)));
+        return out;
+    }
+
+    private static List<Point> metric(List<SensorSample> rows, int m) {
+        List<Point> out = new ArrayList<>();
+        for (SensorSample s : rows) {
+            float v = m == T ? s.temperature() : s.humidity();
+            if (!Float.isNaN(v)) out.add(new Point(s.measuredAt(), v));
+        }
+        return out;
+    }
+
+    private static SensorSample sample(long ts, float temperature, float humidity) {
+        return new SensorSample(ts, temperature, humidity, Float.NaN, Float.NaN, (byte) 0);
+    }
+}
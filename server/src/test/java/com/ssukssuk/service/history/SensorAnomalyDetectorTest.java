@@ -0,0 +1,97 @@
+package com.ssukssuk.service.history;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SensorAnomalyDetectorTest {
+
+    private static final long PLANT = 1L;
+    private static final int T = SensorAnomalyDetector.TEMPERATURE;
+
+    private static final int REBASELINE = 60;
+
+    private final SensorAnomalyDetector detector = detector("");
+
+    @Test
+    @DisplayName("이상 값이 이어지는 동안 기준선이 따라가지 않아 이벤트가 저절로 닫히지 않는다")
+    void sustainedSpikeStaysOpen() {
+        warmUp(20f);
+
+        assertThat(observe(25f)).isEqualTo(SensorAnomalyDetector.OPEN);
+        for (int i = 0; i < REBASELINE - 10; i++) {
+            assertThat(observe(25f)).isEqualTo(SensorAnomalyDetector.NONE);
+        }
+
+        assertThat(observe(20.2f)).isEqualTo(SensorAnomalyDetector.RESOLVE);
+    }
+
+    @Test
+    @DisplayName("범위 안 수준 이동이 rebaseline-samples 번 이어지면 닫고 새 수준을 기준선으로 삼는다")
+    void inRangeLevelShiftRebaselines() {
+        warmUp(20f);
+
+        assertThat(observe(25f)).isEqualTo(SensorAnomalyDetector.OPEN);
+        for (int i = 1; i < REBASELINE; i++) {
+            assertThat(observe(25f)).isEqualTo(SensorAnomalyDetector.NONE);
+        }
+        assertThat(observe(25f)).isEqualTo(SensorAnomalyDetector.RESOLVE);
+
+        // 새 기준선(25)에서 다시 워밍업한 뒤에는 25 근처가 정상, 이전 수준(20)이 이상
+        for (int i = 1; i < 30; i++) {
+            assertThat(observe(25f)).isEqualTo(SensorAnomalyDetector.NONE);
+        }
+        assertThat(observe(20f)).isEqualTo(SensorAnomalyDetector.OPEN);
+    }
+
+    @Test
+    @DisplayName("범위 밖 값은 수준 이동으로 보지 않고 계속 열어 둔다")
+    void outOfRangeNeverRebaselines() {
+        for (int i = 0; i < 30; i++) detector.observe(PLANT, T, 20f, 18f, 28f);
+
+        assertThat(detector.observe(PLANT, T, 30f, 18f, 28f)).isEqualTo(SensorAnomalyDetector.OPEN);
+        for (int i = 0; i < REBASELINE * 3; i++) {
+            assertThat(detector.observe(PLANT, T, 30f, 18f, 28f)).isEqualTo(SensorAnomalyDetector.NONE);
+        }
+    }
+
+    @Test
+    @DisplayName("공유 구독이면 꺼진다")
+    void disabledInSharedMode() {
+        SensorAnomalyDetector shared = detector("ingest");
+
+        assertThat(shared.isEnabled()).isFalse();
+        assertThat(shared.observe(PLANT, T, 40f, 18f, 28f)).isEqualTo(SensorAnomalyDetector.NONE);
+    }
+
+    @Test
+    @DisplayName("워밍업 중 범위 밖 값은 기준선에 섞이지 않는다")
+    void outOfRangeDuringWarmupDoesNotSeedBaseline() {
+        assertThat(detector.observe(PLANT, T, 40f, 18f, 28f)).isEqualTo(SensorAnomalyDetector.OPEN);
+        assertThat(detector.observe(PLANT, T, 20f, 18f, 28f)).isEqualTo(SensorAnomalyDetector.RESOLVE);
+        for (int i = 1; i < 30; i++) {
+            assertThat(detector.observe(PLANT, T, 20f, 18f, 28f)).isEqualTo(SensorAnomalyDetector.NONE);
+        }
+
+        // 기준선이 20 에 머물러 있으므로 범위 안의 급변도 잡힌다
+        assertThat(detector.observe(PLANT, T, 25f, 18f, 28f)).isEqualTo(SensorAnomalyDetector.OPEN);
+    }
+
+    private static SensorAnomalyDetector detector(String sharedGroup) {
+        return new SensorAnomalyDetector(new SimpleMeterRegistry(), true, 0.05, 30, 4.0, 2.0, REBASELINE,
+                0.5, 2.0, sharedGroup);
+    }
+
+    private void warmUp(float value) {
+        assertThat(observe(value)).isEqualTo(SensorAnomalyDetector.RESOLVE);
+        for (int i = 1; i < 30; i++) {
+            assertThat(observe(value)).isEqualTo(SensorAnomalyDetector.NONE);
+        }
+    }
+
+    private int observe(float value) {
+        return detector.observe(PLANT, T, value, Float.NaN, Float.NaN);
+    }
+}
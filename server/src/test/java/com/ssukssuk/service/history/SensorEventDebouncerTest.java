@@ -0,0 +1,134 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.infra.mqtt.dto.SensorUplinkMessage;
+import com.ssukssuk.service.device.DeviceBinding;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SensorEventDebouncerTest {
+
+    private static final long PLANT = 7L;
+    private static final SensorUplinkMessage.TriggerSensorType WATER = SensorUplinkMessage.TriggerSensorType.WATER_LEVEL;
+
+    private final SensorEventService sensorEventService = mock(SensorEventService.class);
+    private final SensorEventDebouncer debouncer = debouncer("");
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("보류는 커밋된 뒤에만 생기고 롤백되면 남지 않는다")
+    void holdAppliedOnlyOnCommit() {
+        closed();
+
+        begin();
+        assertThat(debouncer.signal(context(), WATER, true)).isEqualTo(SensorEventDebouncer.Decision.HOLD);
+        assertThat(debouncer.hasPending(PLANT, WATER)).isFalse();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(debouncer.hasPending(PLANT, WATER)).isFalse();
+
+        begin();
+        debouncer.signal(context(), WATER, true);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(debouncer.hasPending(PLANT, WATER)).isTrue();
+    }
+
+    @Test
+    @DisplayName("취소가 롤백되면 보류가 그대로 남고, 그동안은 주기 확정에서 빠진다")
+    void cancelRolledBackKeepsPending() {
+        closed();
+        debouncer.signal(context(), WATER, true);
+
+        begin();
+        assertThat(debouncer.signal(context(), WATER, false)).isEqualTo(SensorEventDebouncer.Decision.CANCEL);
+        assertThat(debouncer.drainDue(Long.MAX_VALUE)).isEmpty();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(debouncer.hasPending(PLANT, WATER)).isTrue();
+        assertThat(debouncer.drainDue(Long.MAX_VALUE)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("꺼낸 OPEN 은 커밋돼야 빠진다")
+    void takeOpenRemovedOnCommit() {
+        closed();
+        debouncer.signal(context(), WATER, true);
+
+        begin();
+        assertThat(debouncer.takeOpen(PLANT, WATER)).isPresent();
+        assertThat(debouncer.takeOpen(PLANT, WATER)).isEmpty();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(debouncer.hasPending(PLANT, WATER)).isTrue();
+
+        begin();
+        assertThat(debouncer.takeOpen(PLANT, WATER)).isPresent();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(debouncer.hasPending(PLANT, WATER)).isFalse();
+    }
+
+    @Test
+    @DisplayName("종료 시 기간 안의 보류는 확정하지 않고 버린다")
+    void discardAllDropsInWindowPending() {
+        closed();
+        debouncer.signal(context(), WATER, true);
+
+        assertThat(debouncer.drainDue(System.currentTimeMillis())).isEmpty();
+        List<SensorEventDebouncer.Pending> discarded = debouncer.discardAll();
+
+        assertThat(discarded).hasSize(1);
+        assertThat(debouncer.hasPending(PLANT, WATER)).isFalse();
+    }
+
+    @Test
+    @DisplayName("공유 구독이면 보류 없이 바로 처리한다")
+    void disabledInSharedMode() {
+        closed();
+        SensorEventDebouncer shared = debouncer("ingest");
+
+        assertThat(shared.signal(context(), WATER, true)).isEqualTo(SensorEventDebouncer.Decision.APPLY);
+        assertThat(shared.hasPending(PLANT, WATER)).isFalse();
+    }
+
+    private SensorEventDebouncer debouncer(String sharedGroup) {
+        return new SensorEventDebouncer(sensorEventService, new SimpleMeterRegistry(),
+                true, 60_000, 180_000, true, sharedGroup);
+    }
+
+    private void closed() {
+        when(sensorEventService.isOpen(anyLong(), any())).thenReturn(false);
+    }
+
+    private static TelemetryContext context() {
+        return new TelemetryContext(new DeviceBinding(PLANT, 1L, null, null), LocalDateTime.now(), 100L);
+    }
+
+    private static void begin() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(s -> s.afterCompletion(status));
+    }
+}
@@ -0,0 +1,68 @@
+package com.ssukssuk.service.history;
+
+import com.ssukssuk.infra.series.SensorSample;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SensorLogWriteBehindTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SensorLogWriteBehind writeBehind;
+
+    @AfterEach
+    void shutdown() {
+        if (writeBehind != null) writeBehind.shutdown();
+    }
+
+    @Test
+    @DisplayName("동기 INSERT 가 실패해도 예외를 내지 않고 그 행만 writer 가 다시 넣는다")
+    void failedDirectInsertIsRetriedByWriter() {
+        writeBehind = new SensorLogWriteBehind(jdbcTemplate, meterRegistry, true, 10, 10, 1, 10);
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("boom"));
+
+        assertThatCode(() -> writeBehind.insertNowOrRetry(1L, sample()))
+                .doesNotThrowAnyException();
+
+        // 배치 리스트는 호출 뒤 비워지므로 batchSize 인자로 한 행인지 본다
+        verify(jdbcTemplate, timeout(5_000)).batchUpdate(anyString(), anyCollection(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("write-behind 가 꺼져 있으면 실패한 행은 버리고 예외는 내지 않는다")
+    void failedDirectInsertDroppedWhenDisabled() {
+        writeBehind = new SensorLogWriteBehind(jdbcTemplate, meterRegistry, false, 10, 10, 1, 10);
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("boom"));
+
+        assertThatCode(() -> writeBehind.insertNowOrRetry(1L, sample()))
+                .doesNotThrowAnyException();
+        assertThat(meterRegistry.get("sensor_log.write_behind.rows")
+                .tag("result", "dropped").counter().count()).isEqualTo(1.0);
+    }
+
+    private static SensorSample sample() {
+        return SensorSample.of(LocalDateTime.now(), 21.5f, 40f, 80f, 1.2f, null, null, null, null);
+    }
+}
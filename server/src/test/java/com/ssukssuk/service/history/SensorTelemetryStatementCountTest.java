@@ -0,0 +1,210 @@
+package com.ssukssuk.service.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssukssuk.domain.auth.User;
+import com.ssukssuk.domain.device.Device;
+import com.ssukssuk.domain.plant.CharacterCode;
+import com.ssukssuk.domain.plant.PlantStatus;
+import com.ssukssuk.domain.plant.Species;
+import com.ssukssuk.domain.plant.UserPlant;
+import com.ssukssuk.infra.mqtt.dto.SensorUplinkMessage;
+import com.ssukssuk.infra.series.SensorSeriesStore;
+import com.ssukssuk.service.device.DeviceBindingValidator;
+import com.ssukssuk.service.notification.NotificationService;
+import com.ssukssuk.service.plant.PlantStatusService;
+import com.ssukssuk.service.push.PushService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 업링크 한 건이 내는 SQL 수 (Hibernate statistics).
+ * 바인딩 조회 SELECT 한 번 뒤에는 식물/사용자/이벤트/PlantStatus 를 다시 읽지 않고 쓰기만 해야 한다.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        // user 는 H2 예약어라 식별자로 쓸 수 있게 풀어 둔다
+        "spring.datasource.url=jdbc:h2:mem:uplink;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "sensor-anomaly.enabled=false",
+        "sensor-debounce.enabled=false"
+})
+@Import({
+        SensorTelemetryService.class,
+        DeviceBindingValidator.class,
+        SensorLogService.class,
+        SensorEventService.class,
+        SensorEventDebouncer.class,
+        SensorAnomalyDetector.class,
+        OpenEventTable.class,
+        NotificationService.class,
+        PlantStatusService.class,
+        SensorTelemetryStatementCountTest.Metrics.class
+})
+// handleUplink 가 자기 트랜잭션을 커밋해야 flush 되는 UPDATE/INSERT 까지 센다
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SensorTelemetryStatementCountTest {
+
+    private static final String SERIAL = "SN-STMT-0001";
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    SensorRollupService sensorRollupService;
+    @MockitoBean
+    SensorSeriesStore sensorSeriesStore;
+    @MockitoBean
+    LatestReadingCache latestReadingCache;
+    @MockitoBean
+    PushService pushService;
+
+    @Autowired
+    SensorTelemetryService sensorTelemetryService;
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Statistics statistics;
+    private Long plantId;
+
+    @BeforeEach
+    void setUp() {
+        plantId = transactionTemplate.execute(tx -> {
+            entityManager.createNativeQuery("DELETE FROM notification").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM sensor_alert_daily").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM sensor_event").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM sensor_log").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM plant_status").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM user_plant").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM device").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM species").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM user").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM character_code").executeUpdate();
+            for (int code = 0; code <= 14; code++) {
+                entityManager.createNativeQuery("INSERT INTO character_code (character_code, image_url) VALUES (?, ?)")
+                        .setParameter(1, code)
+                        .setParameter(2, "https://example.com/" + code + ".png")
+                        .executeUpdate();
+            }
+
+            User user = User.builder()
+                    .email("stmt@example.com")
+                    .password("pw")
+                    .nickname("stmt")
+                    .build();
+            entityManager.persist(user);
+
+            Species species = Species.builder()
+                    .name("basil")
+                    .tempMin(18f).tempMax(28f)
+                    .humMin(40f).humMax(70f)
+                    .waterMin(20f).waterMax(100f)
+                    .ecMin(0.8f).ecMax(2.0f)
+                    .ledStart(LocalTime.of(6, 0)).ledEnd(LocalTime.of(20, 0))
+                    .build();
+            entityManager.persist(species);
+
+            Device device = Device.builder().serial(SERIAL).build();
+            device.claim(user);
+            device.bindPlant();
+            entityManager.persist(device);
+
+            UserPlant plant = UserPlant.builder()
+                    .user(user)
+                    .species(species)
+                    .device(device)
+                    .plantName("basil-1")
+                    .isMain(true)
+                    .build();
+            entityManager.persist(plant);
+
+            entityManager.persist(PlantStatus.builder()
+                    .userPlant(plant)
+                    .character(entityManager.getReference(CharacterCode.class, 0))
+                    .build());
+            return plant.getPlantId();
+        });
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("주기 업링크: 바인딩 SELECT 1 + PlantStatus UPDATE 1")
+    void periodicUplink() throws Exception {
+        sensorTelemetryService.handleUplink(SERIAL, uplink("PERIODIC", null, "OK"), LocalDateTime.now());
+
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("이상 업링크: 바인딩 SELECT 1 뒤로는 다시 읽지 않고 로그/이벤트/일별 카운트/알림 INSERT + PlantStatus UPDATE")
+    void anomalyUplink() throws Exception {
+        sensorTelemetryService.handleUplink(SERIAL, uplink("ANOMALY_DETECTED", "WATER_LEVEL", "DOWN"),
+                LocalDateTime.now());
+
+        // SELECT 는 바인딩 조회 하나뿐 (식물/사용자/이벤트/캐릭터 코드는 참조로)
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        // sensor_log, sensor_event, notification INSERT
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(3);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        // SELECT 1 + INSERT 3 + sensor_alert_daily upsert 1 + PlantStatus UPDATE 1
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+    }
+
+    private SensorUplinkMessage uplink(String eventKind, String trigger, String waterStatus) throws Exception {
+        String json = """
+                {
+                  "msg_id": "m-%s",
+                  "plant_id": %d,
+                  "event_kind": "%s",
+                  "trigger_sensor_type": %s,
+                  "values": {"temperature": 22.5, "humidity": 55.0, "water_level": 15.0, "nutrient_conc": 1.2},
+                  "status": {"temperature": "OK", "humidity": "OK", "water_level": "%s", "nutrient_conc": "OK"}
+                }
+                """.formatted(eventKind, plantId, eventKind, trigger != null ? "\"" + trigger + "\"" : "null",
+                waterStatus);
+        return objectMapper.readValue(json, SensorUplinkMessage.class);
+    }
+}